@@ -27,6 +27,8 @@ plugins {
     //jacoco
     id("jacoco-report-aggregation")
     id("org.sonarqube") version "4.4.1.3373"
+    // https://github.com/melix/jmh-gradle-plugin
+    id("me.champeau.jmh") version "0.7.2" apply false
 }
 
 group = "com.here.naksha"
@@ -109,6 +111,8 @@ val resillience4j_retry = "io.github.resilience4j:resilience4j-retry:2.0.0"
 
 val otel = "io.opentelemetry:opentelemetry-api:1.40.0"
 
+val jmh_version = "1.37"
+
 val cytodynamics = "com.linkedin.cytodynamics:cytodynamics-nucleus:0.2.0"
 
 val projectRepoURI = getRequiredPropertyFromRootProject("projectRepoURI")
@@ -323,6 +327,7 @@ project(":here-naksha-lib-heapcache") {
         api(project(":here-naksha-lib-core"))
         testImplementation(mockito)
         implementation(jts_core)
+        implementation(otel)
     }
     setOverallCoverage(0.5) // only increasing allowed!
 }
@@ -364,6 +369,7 @@ project(":here-naksha-storage-http") {
         implementation(project(":here-naksha-common-http"))
 
         implementation(commons_lang3)
+        implementation(otel)
 
         testImplementation(mockito)
     }
@@ -384,6 +390,7 @@ project(":here-naksha-lib-view") {
         api(project(":here-naksha-lib-core"))
 
         implementation(commons_lang3)
+        implementation(otel)
         testImplementation(mockito)
         testImplementation(project(":here-naksha-lib-psql"))
         testImplementation(jts_core)
@@ -484,12 +491,14 @@ project(":here-naksha-lib-hub") {
         implementation(project(":here-naksha-lib-psql"))
         implementation(project(":here-naksha-lib-handlers"))
         implementation(project(":here-naksha-lib-ext-manager"))
+        implementation(otel)
 
         implementation(commons_lang3)
         implementation(jts_core)
         implementation(postgres)
         implementation(aws_s3)
 
+        testImplementation(project(":here-naksha-lib-view"))
         testImplementation(json_assert)
         testImplementation(mockito)
     }
@@ -535,6 +544,33 @@ project(":here-naksha-app-service") {
 //} catch (ignore: UnknownProjectException) {
 //}
 
+project(":here-naksha-benchmarks") {
+    description = "Naksha Micro-Benchmarks"
+    apply(plugin = "me.champeau.jmh")
+    dependencies {
+        implementation(project(":here-naksha-lib-core"))
+        // For the PsqlFeatureGenerator, which creates the fixtures.
+        implementation(project(":here-naksha-lib-psql"))
+
+        implementation(jts_core)
+    }
+    // Run with "gradle :here-naksha-benchmarks:jmh", optionally select benchmarks with "-PjmhIncludes=<regexp>".
+    // The results are written as JSON per version, so that they can be compared between releases.
+    configure<me.champeau.jmh.JmhParameters> {
+        jmhVersion = jmh_version
+        resultFormat = "JSON"
+        resultsFile = layout.buildDirectory.file("results/jmh/results-${project.version}.json")
+        val jmhIncludes = findProperty("jmhIncludes") as String?
+        if (jmhIncludes != null) {
+            includes = listOf(jmhIncludes)
+        }
+    }
+    // The benchmarks are not released.
+    tasks.withType<PublishToMavenRepository>().configureEach {
+        enabled = false
+    }
+}
+
 subprojects {
     apply(plugin = "maven-publish")
     publishing {
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a response body in chunks to a {@link HttpServerResponse}, from a worker thread. The content is collected until the chunk size is
+ * reached, then the chunk is written. When the write queue of the response is full, the writer blocks the calling thread until the
+ * response is drained, so that a slow client does not cause the whole response to be buffered in heap.
+ */
+public class ChunkedResponseWriter {
+
+  private static final Logger log = LoggerFactory.getLogger(ChunkedResponseWriter.class);
+
+  /**
+   * The default size of the chunks in byte.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * The default maximum time to wait for the client to consume data.
+   */
+  public static final long DEFAULT_DRAIN_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  /**
+   * Creates a new writer for the given response, which must already have its status and headers set.
+   *
+   * @param response           The response to write to.
+   * @param chunkSize          The size of the chunks in byte.
+   * @param drainTimeoutMillis The maximum time to wait for the client to consume data, before aborting the response.
+   */
+  public ChunkedResponseWriter(@NotNull HttpServerResponse response, int chunkSize, long drainTimeoutMillis) {
+    this.response = response;
+    this.chunkSize = chunkSize;
+    this.drainTimeoutMillis = drainTimeoutMillis;
+    this.buffer = Buffer.buffer(chunkSize);
+    response.setChunked(true);
+  }
+
+  private final @NotNull HttpServerResponse response;
+  private final int chunkSize;
+  private final long drainTimeoutMillis;
+  private @NotNull Buffer buffer;
+  private long bytesWritten;
+
+  /**
+   * Returns {@code true}, if the response is closed, for example because the client disconnected, so that writing is pointless.
+   *
+   * @return {@code true}, if the response is closed.
+   */
+  public boolean isClosed() {
+    return response.closed() || response.ended();
+  }
+
+  /**
+   * Returns the amount of bytes handed over to the response so far.
+   *
+   * @return the amount of bytes handed over to the response so far.
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * Adds the given string to the response, writes a chunk, when the chunk size is reached.
+   *
+   * @param content The content to add.
+   * @return this.
+   * @throws IllegalStateException If the response is closed or the client did not consume the data in time.
+   */
+  public @NotNull ChunkedResponseWriter write(@NotNull String content) {
+    buffer.appendString(content, UTF_8.name());
+    if (buffer.length() >= chunkSize) {
+      flush();
+    }
+    return this;
+  }
+
+  /**
+   * Writes the pending content, waits, if the write queue of the response is full.
+   *
+   * @return this.
+   * @throws IllegalStateException If the response is closed or the client did not consume the data in time.
+   */
+  public @NotNull ChunkedResponseWriter flush() {
+    if (buffer.length() == 0) {
+      return this;
+    }
+    if (isClosed()) {
+      throw new IllegalStateException("Response closed");
+    }
+    awaitDrain();
+    final Buffer chunk = buffer;
+    buffer = Buffer.buffer(chunkSize);
+    bytesWritten += chunk.length();
+    response.write(chunk);
+    return this;
+  }
+
+  /**
+   * Writes the pending content and ends the response.
+   */
+  public void end() {
+    if (isClosed()) {
+      throw new IllegalStateException("Response closed");
+    }
+    bytesWritten += buffer.length();
+    response.end(buffer);
+  }
+
+  /**
+   * Aborts the response, because it can't be completed anymore. As the status code was already sent, the connection is reset, so that
+   * the client does not consider the partial content as complete.
+   */
+  public void abort() {
+    if (!response.ended()) {
+      response.reset();
+    }
+  }
+
+  private void awaitDrain() {
+    if (!response.writeQueueFull()) {
+      return;
+    }
+    final CompletableFuture<Void> drained = new CompletableFuture<>();
+    response.drainHandler(v -> drained.complete(null));
+    response.closeHandler(v -> drained.complete(null));
+    // The queue may have been drained, before we set the handler.
+    if (!response.writeQueueFull()) {
+      return;
+    }
+    try {
+      drained.get(drainTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      log.info("Client did not consume response data within {}ms", drainTimeoutMillis);
+      throw new IllegalStateException("Timeout while waiting for the client to consume data", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the client to consume data", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
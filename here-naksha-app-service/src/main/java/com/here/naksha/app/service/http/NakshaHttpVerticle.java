@@ -46,6 +46,7 @@ import com.here.naksha.app.service.NakshaApp;
 import com.here.naksha.app.service.http.apis.*;
 import com.here.naksha.app.service.http.auth.JWTPayload;
 import com.here.naksha.app.service.http.auth.NakshaJwtAuthHandler;
+import com.here.naksha.app.service.metrics.OTelMetrics;
 import com.here.naksha.app.service.util.logging.AccessLog;
 import com.here.naksha.app.service.util.logging.AccessLogUtil;
 import com.here.naksha.lib.core.AbstractTask;
@@ -62,7 +63,9 @@ import com.here.naksha.lib.core.models.payload.responses.NotModifiedResponse;
 import com.here.naksha.lib.core.storage.ModifyFeaturesResp;
 import com.here.naksha.lib.core.util.IoHelp;
 import com.here.naksha.lib.core.util.MIMEType;
+import com.here.naksha.lib.core.util.PhaseTimer;
 import com.here.naksha.lib.core.util.StreamInfo;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import com.here.naksha.lib.hub.NakshaHubConfig;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Handler;
@@ -100,6 +103,15 @@ public final class NakshaHttpVerticle extends AbstractNakshaHubVerticle {
 
   private final NakshaHubConfig hubConfig;
 
+  /**
+   * Returns the configuration of the Naksha-Hub.
+   *
+   * @return the configuration of the Naksha-Hub.
+   */
+  public @NotNull NakshaHubConfig hubConfig() {
+    return hubConfig;
+  }
+
   private static final HttpServerOptions SERVER_OPTIONS = new HttpServerOptions()
       .setCompressionSupported(true)
       .setDecompressionSupported(true)
@@ -360,6 +372,7 @@ public final class NakshaHttpVerticle extends AbstractNakshaHubVerticle {
     final AccessLog accessLog = AccessLogUtil.addResponseInfo(routingContext);
     if (accessLog == null) return;
     accessLog.end();
+    OTelMetrics.recordPhaseTimes(accessLog.streamInfo);
     AccessLogUtil.writeAccessLog(routingContext);
   }
 
@@ -591,7 +604,8 @@ public final class NakshaHttpVerticle extends AbstractNakshaHubVerticle {
       @NotNull RoutingContext routingContext,
       @Nullable HttpResponseType responseType,
       @NotNull XyzResponse response) {
-    try {
+    try (final PhaseTimer serializationTimer =
+        StreamInfo.startPhase(AccessLogUtil.getStreamInfo(routingContext), Phase.SERIALIZATION)) {
       final String etag = response.getEtag();
       if (etag != null) {
         routingContext.response().putHeader(ETAG, etag);
@@ -696,6 +710,28 @@ public final class NakshaHttpVerticle extends AbstractNakshaHubVerticle {
     log.info("Returned Http status {}", status.code());
   }
 
+  /**
+   * Starts a chunked response with status {@code 200}, which allows to stream the content. The caller must either
+   * {@link ChunkedResponseWriter#end() end} or {@link ChunkedResponseWriter#abort() abort} the returned writer.
+   *
+   * @param routingContext The routing context to send the response to.
+   * @param contentType    The content-type.
+   * @return the writer to stream the content.
+   */
+  public @NotNull ChunkedResponseWriter startChunkedResponse(
+      @NotNull RoutingContext routingContext, @NotNull CharSequence contentType) {
+    final HttpServerResponse httpResponse = routingContext.response();
+    httpResponse.setStatusCode(OK.code()).setStatusMessage(OK.reasonPhrase());
+    httpResponse.putHeader(STREAM_ID, AccessLogUtil.getStreamId(routingContext));
+    httpResponse.putHeader(CONTENT_TYPE, contentType);
+    httpResponse.putHeader("X-Content-Type-Options", "nosniff");
+    log.info("Returning chunked Http status {}", OK.code());
+    return new ChunkedResponseWriter(
+        httpResponse,
+        ChunkedResponseWriter.DEFAULT_CHUNK_SIZE,
+        ChunkedResponseWriter.DEFAULT_DRAIN_TIMEOUT_MILLIS);
+  }
+
   public @NotNull NakshaContext createNakshaContext(final @NotNull RoutingContext routingContext) {
     final NakshaContext ctx = new NakshaContext(AccessLogUtil.getStreamId(routingContext));
     // add streamInfo object to NakshaContext, which will be populated later during pipeline execution
@@ -32,13 +32,15 @@ public class SpatialUtil {
 
   public static @NotNull Geometry buildGeometryForTile(
       final @NotNull String tileType, final @NotNull String tileId, final int margin) {
+    return buildTile(tileType, tileId).getExtendedBBoxAsPolygon(margin).getGeometry();
+  }
+
+  public static @NotNull WebMercatorTile buildTile(final @NotNull String tileType, final @NotNull String tileId) {
     try {
       if (!TILE_TYPE_QUADKEY.equals(tileType)) {
         throw new XyzErrorException(XyzError.ILLEGAL_ARGUMENT, "Tile type " + tileType + " not supported");
       }
-      return WebMercatorTile.forQuadkey(tileId)
-          .getExtendedBBoxAsPolygon(margin)
-          .getGeometry();
+      return WebMercatorTile.forQuadkey(tileId);
     } catch (Exception ex) {
       throw new XyzErrorException(XyzError.ILLEGAL_ARGUMENT, "Error interpreting tile input: " + ex.getMessage());
     }
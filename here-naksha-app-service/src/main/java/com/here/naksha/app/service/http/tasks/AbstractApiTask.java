@@ -24,9 +24,13 @@ import static com.here.naksha.common.http.apis.ApiParamsConst.DEF_ADMIN_FEATURE_
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeatureFromResult;
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeaturesFromResult;
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeaturesGroupedByOp;
+import static io.vertx.core.http.HttpHeaders.ACCEPT;
+import static io.vertx.core.http.HttpHeaders.ETAG;
+import static io.vertx.core.http.HttpHeaders.IF_NONE_MATCH;
 import static java.util.Collections.emptyList;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.naksha.app.service.http.ChunkedResponseWriter;
 import com.here.naksha.app.service.http.HttpResponseType;
 import com.here.naksha.app.service.http.NakshaHttpVerticle;
 import com.here.naksha.app.service.models.IterateHandle;
@@ -40,13 +44,20 @@ import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
+import com.here.naksha.lib.core.models.payload.responses.NotModifiedResponse;
+import com.here.naksha.lib.core.models.payload.responses.StreamedResponse;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.core.storage.IReadSession;
 import com.here.naksha.lib.core.storage.IWriteSession;
+import com.here.naksha.lib.core.util.Hasher;
+import com.here.naksha.lib.core.util.PhaseTimer;
 import com.here.naksha.lib.core.util.PropertyPathUtil;
+import com.here.naksha.lib.core.util.StreamInfo;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import com.here.naksha.lib.core.util.json.Json;
 import com.here.naksha.lib.core.util.json.JsonSerializable;
 import com.here.naksha.lib.core.view.ViewDeserialize;
+import com.here.naksha.lib.hub.NakshaHubConfig;
 import io.vertx.ext.web.RoutingContext;
 import java.util.*;
 import org.jetbrains.annotations.NotNull;
@@ -82,6 +93,18 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     this.routingContext = routingContext;
   }
 
+  /**
+   * Adds the type of the request to the stream-info, so that the timings of the request can be told apart by operation.
+   *
+   * @param reqType The type of the request.
+   */
+  protected void addOperationToStreamInfo(final @NotNull Enum<?> reqType) {
+    final StreamInfo streamInfo = context().getStreamInfo();
+    if (streamInfo != null) {
+      streamInfo.setOperation(reqType.name());
+    }
+  }
+
   protected @NotNull XyzResponse errorResponse(@NotNull Throwable throwable) {
     logger.warn("The task failed with an exception. ", throwable);
     return verticle.sendErrorResponse(
@@ -163,7 +186,7 @@ public abstract class AbstractApiTask<T extends XyzResponse>
       final @NotNull Class<R> type,
       final @Nullable F1<R, R> preResponseProcessing) {
     return transformReadResultToXyzCollectionResponse(
-        rdResult, type, 0, DEF_ADMIN_FEATURE_LIMIT, null, preResponseProcessing);
+        rdResult, type, DEF_ADMIN_FEATURE_LIMIT, null, preResponseProcessing);
   }
 
   protected <R extends XyzFeature> @NotNull XyzResponse transformReadResultToXyzCollectionResponse(
@@ -173,13 +196,12 @@ public abstract class AbstractApiTask<T extends XyzResponse>
 
   protected <R extends XyzFeature> @NotNull XyzResponse transformReadResultToXyzCollectionResponse(
       final @Nullable Result rdResult, final @NotNull Class<R> type, final long maxLimit) {
-    return transformReadResultToXyzCollectionResponse(rdResult, type, 0, maxLimit, null, null);
+    return transformReadResultToXyzCollectionResponse(rdResult, type, maxLimit, null, null);
   }
 
   protected <R extends XyzFeature> @NotNull XyzResponse transformReadResultToXyzCollectionResponse(
       final @Nullable Result rdResult,
       final @NotNull Class<R> type,
-      final long offset,
       final long maxLimit,
       final @Nullable IterateHandle handle,
       final @Nullable F1<R, R> preResponseProcessing) {
@@ -188,7 +210,7 @@ public abstract class AbstractApiTask<T extends XyzResponse>
       return validatedErrorResponse;
     } else {
       try {
-        final List<R> features = readFeaturesFromResult(rdResult, type, offset, maxLimit);
+        final List<R> features = readFeaturesFromResult(rdResult, type, iterateOffset(handle), maxLimit);
         List<R> processedFeatures = features;
         if (preResponseProcessing != null) {
           processedFeatures = new ArrayList<>();
@@ -200,7 +222,7 @@ public abstract class AbstractApiTask<T extends XyzResponse>
           }
         }
         // Populate handle (if provided), with the values ready for next iteration
-        final String handleStr = getIterateHandleAsString(processedFeatures.size(), offset, maxLimit, handle);
+        final String handleStr = getIterateHandleAsString(features, maxLimit, handle);
         return verticle.sendXyzResponse(
             routingContext,
             HttpResponseType.FEATURE_COLLECTION,
@@ -215,15 +237,133 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     }
   }
 
+  /**
+   * Streams the features of the read result as feature collection to the client, without holding all features in memory. The features
+   * are pulled from the cursor and written in chunks, waiting for the client, when it does not consume the data fast enough. If no
+   * response processing is needed, the features are read using the {@link RawJsonFeatureCodecFactory}, so that they are not parsed and
+   * serialized again, unless disabled via {@link NakshaHubConfig#rawJsonResponses}.
+   *
+   * <p>The result is the same as with {@link #transformReadResultToXyzCollectionResponse(Result, Class, long, IterateHandle, F1)}.
+   *
+   * @param rdResult              The read result.
+   * @param type                  The type of the features.
+   * @param maxLimit              The maximum amount of features to return.
+   * @param handle                The iterate handle to populate for the next page; if any.
+   * @param preResponseProcessing The processing to apply to every feature before sending it; if any.
+   * @return the response that was sent; a {@link StreamedResponse} if the features were streamed.
+   */
+  protected <R extends XyzFeature> @NotNull XyzResponse streamReadResultToXyzCollectionResponse(
+      final @Nullable Result rdResult,
+      final @NotNull Class<R> type,
+      final long maxLimit,
+      final @Nullable IterateHandle handle,
+      final @Nullable F1<R, R> preResponseProcessing) {
+    final XyzResponse validatedErrorResponse = validateErrorResultEmptyCollection(rdResult);
+    if (validatedErrorResponse != null) {
+      return validatedErrorResponse;
+    }
+    assert rdResult != null;
+    final boolean rawJson = preResponseProcessing == null && verticle.hubConfig().rawJsonResponses;
+    try (final ForwardCursor<?, ?> cursor =
+        rawJson ? rdResult.cursor(RawJsonFeatureCodecFactory.get()) : rdResult.getXyzFeatureCursor()) {
+      if (!cursor.hasNext()) {
+        logger.info("No data found in ResultCursor, returning empty collection");
+        return verticle.sendXyzResponse(
+            routingContext, HttpResponseType.FEATURE_COLLECTION, emptyFeatureCollection());
+      }
+      final ChunkedResponseWriter writer = verticle.startChunkedResponse(
+          routingContext, Objects.requireNonNull(HttpResponseType.FEATURE_COLLECTION.contentType));
+      final StreamedResponse status = new StreamedResponse();
+      try (final PhaseTimer serializationTimer = context().startPhase(Phase.SERIALIZATION)) {
+        writer.write("{\"type\":\"FeatureCollection\",\"features\":[");
+        final long offset = iterateOffset(handle);
+        long pos = 0;
+        long count = 0;
+        long written = 0;
+        String lastId = null;
+        while (count < maxLimit && cursor.hasNext() && !writer.isClosed()) {
+          if (!cursor.next()) {
+            throw new RuntimeException("Unexpected invalid result");
+          }
+          if (pos++ < offset) {
+            continue; // skip initial records till we reach to desired offset
+          }
+          count++;
+          lastId = cursor.getId();
+          final String json;
+          if (rawJson) {
+            json = (String) cursor.getFeature();
+            if (json == null) {
+              continue;
+            }
+          } else {
+            R feature = type.cast(cursor.getFeature());
+            if (feature != null && preResponseProcessing != null) {
+              feature = preResponseProcessing.call(feature);
+            }
+            if (feature == null) {
+              continue;
+            }
+            json = feature.serialize();
+          }
+          if (written++ > 0) {
+            writer.write(",");
+          }
+          writer.write(json);
+        }
+        writer.write("]");
+        // Populate handle (if provided), with the values ready for next iteration
+        final String handleStr = getIterateHandleAsString(count, lastId, maxLimit, handle);
+        if (handleStr != null) {
+          writer.write(",\"nextPageToken\":").write(JsonSerializable.serialize(handleStr));
+        }
+        writer.write("}");
+        writer.end();
+        status.withFeatures(written).withNextPageToken(handleStr).withCompleted(true);
+      } catch (Throwable t) {
+        logger.warn(
+            "Failed to stream feature collection after {} bytes, aborting response",
+            writer.getBytesWritten(),
+            t);
+        writer.abort();
+      }
+      return status.withBytes(writer.getBytesWritten());
+    } catch (NoCursor emptyException) {
+      logger.info("No data found in ResultCursor, returning empty collection");
+      return verticle.sendXyzResponse(
+          routingContext, HttpResponseType.FEATURE_COLLECTION, emptyFeatureCollection());
+    }
+  }
+
+  private static <R extends XyzFeature> String getIterateHandleAsString(
+      final @NotNull List<R> features, long maxLimit, final @Nullable IterateHandle handle) {
+    final String lastId =
+        features.isEmpty() ? null : features.get(features.size() - 1).getId();
+    return getIterateHandleAsString(features.size(), lastId, maxLimit, handle);
+  }
+
   private static String getIterateHandleAsString(
-      long featuresFound, long crtOffset, long maxLimit, final @Nullable IterateHandle handle) {
+      long count, final @Nullable String lastId, long maxLimit, final @Nullable IterateHandle handle) {
     // nothing to populate if handle is not provided OR if we don't have more features to iterate
-    if (handle == null || featuresFound < maxLimit) return null;
-    handle.setOffset(crtOffset + featuresFound); // set offset for next iteration
+    if (handle == null || count == 0 || count < maxLimit) return null;
+    if (handle.isOrderedById()) {
+      // set id of the last feature returned, so that the next iteration continues after it
+      handle.setAfterId(lastId);
+    } else {
+      handle.setOffset(handle.getOffset() + count); // set offset for next iteration
+    }
     handle.setLimit(maxLimit);
     return handle.base64EncodedSerializedJson();
   }
 
+  /**
+   * Returns the amount of features to skip for the given iterate handle, which is only done when the space can't continue after the
+   * {@code id} of the last feature returned.
+   */
+  private static long iterateOffset(final @Nullable IterateHandle handle) {
+    return handle == null || handle.isOrderedById() ? 0 : handle.getOffset();
+  }
+
   protected <R extends XyzFeature> @NotNull XyzResponse transformWriteResultToXyzCollectionResponse(
       final @Nullable Result wrResult, final @NotNull Class<R> type, final boolean isDeleteOperation) {
     final XyzResponse validatedErrorResponse = validateErrorResult(wrResult);
@@ -266,6 +406,86 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     }
   }
 
+  /**
+   * Returns the e-tag of a read from the given space, which is derived from the version of the collection, the configuration of the
+   * space pipeline, the authorization scope of the caller and the normalized request (path, sorted query parameters and accepted
+   * content-type). Other than an e-tag calculated above the response, it is known before any feature is read, so that a conditional
+   * request can be answered right away, see {@link #sendNotModifiedIfMatches(String)}.
+   *
+   * <p>Reading the version costs an extra query, therefore it is only done for conditional requests, which carry an
+   * {@code If-None-Match} header. Clients opt in by sending the last known e-tag, any value for the first request.
+   *
+   * <p>The version must be read before the features, so that the e-tag never claims a newer state than the one returned.
+   *
+   * @param spaceId The space to read from.
+   * @return the e-tag; {@code null}, if the request is not conditional or the storage of the space does not provide a version.
+   */
+  protected @Nullable String collectionVersionEtag(final @NotNull String spaceId) {
+    if (routingContext.request().getHeader(IF_NONE_MATCH) == null) {
+      return null;
+    }
+    final Result result;
+    try (final IReadSession reader = naksha().getSpaceStorage().newReadSession(context(), false)) {
+      result = reader.execute(new ReadCollectionVersion(spaceId));
+    } catch (Exception e) {
+      logger.info("Failed to read version of space {}, e-tag not available", spaceId, e);
+      return null;
+    }
+    if (!(result instanceof CollectionVersionResult versionResult)) {
+      return null;
+    }
+    final StringBuilder sb = new StringBuilder();
+    sb.append(versionResult.version)
+        .append('\n')
+        .append(routingContext.request().path());
+    final List<Map.Entry<String, String>> params =
+        new ArrayList<>(routingContext.request().params().entries());
+    params.sort(Map.Entry.<String, String>comparingByKey().thenComparing(Map.Entry.comparingByValue()));
+    for (final Map.Entry<String, String> param : params) {
+      sb.append('\n').append(param.getKey()).append('=').append(param.getValue());
+    }
+    final String accept = routingContext.request().getHeader(ACCEPT);
+    if (accept != null) {
+      sb.append('\n').append(accept);
+    }
+    // The features returned depend on the rights of the caller.
+    final NakshaContext context = context();
+    sb.append('\n').append(context.isSuperUser());
+    if (context.getUrm() != null) {
+      sb.append('\n').append(JsonSerializable.serialize(context.getUrm()));
+    }
+    return "\"" + Hasher.getHash(sb.toString()) + "\"";
+  }
+
+  /**
+   * Sends a {@code 304 Not Modified} response, if the e-tag matches the {@code If-None-Match} header of the request.
+   *
+   * @param etag The e-tag of the response, if known.
+   * @return the response, if it was sent; {@code null}, if the request must be executed.
+   */
+  protected @Nullable XyzResponse sendNotModifiedIfMatches(final @Nullable String etag) {
+    if (etag == null || !XyzResponse.etagMatches(routingContext.request().getHeader(IF_NONE_MATCH), etag)) {
+      return null;
+    }
+    final NotModifiedResponse response = new NotModifiedResponse();
+    response.setEtag(etag);
+    return verticle.sendXyzResponse(routingContext, null, response);
+  }
+
+  /**
+   * Adds the e-tag to the response, unless the read failed.
+   *
+   * @param result The read result.
+   * @param etag   The e-tag of the response, if known.
+   * @return the given read result.
+   */
+  protected @Nullable Result withEtag(final @Nullable Result result, final @Nullable String etag) {
+    if (etag != null && result != null && !(result instanceof ErrorResult)) {
+      routingContext.response().putHeader(ETAG, etag);
+    }
+    return result;
+  }
+
   protected Result executeWriteRequestFromSpaceStorage(WriteFeatures writeRequest) {
     try (final IWriteSession writer = naksha().getSpaceStorage().newWriteSession(context(), true)) {
       return writer.execute(writeRequest);
@@ -334,12 +554,21 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     // clip Feature geometry (if present) to a given clipGeo geometry
     final XyzGeometry xyzGeo = f.getGeometry();
     if (xyzGeo != null) {
+      final Geometry geometry = xyzGeo.getJTSGeometry();
+      // the storage usually clipped the geometry already, only clip what is left, but clipping by box may leave
+      // the
+      // geometry invalid (e.g. self-touching rings), so it still needs to be fixed
+      if (clipGeo.getEnvelopeInternal().contains(geometry.getEnvelopeInternal())) {
+        if (!geometry.isValid()) {
+          f.setGeometry(XyzGeometry.convertJTSGeometry(GeometryFixer.fix(geometry)));
+        }
+        return;
+      }
       // NOTE - in JTS when we say:
       //    GeometryFixer.fix(geom).intersection(bbox)
       // it is the best available way of clipping geometry, equivalent to PostGIS approach of:
       //    ST_Intersection(ST_MakeValid(geo, 'method=structure'), bbox)
-      final Geometry clippedGeo =
-          GeometryFixer.fix(xyzGeo.getJTSGeometry()).intersection(clipGeo);
+      final Geometry clippedGeo = GeometryFixer.fix(geometry).intersection(clipGeo);
       f.setGeometry(XyzGeometry.convertJTSGeometry(clippedGeo));
     }
   }
@@ -57,6 +57,7 @@ public class EventHandlerApiTask<T extends XyzResponse> extends AbstractApiTask<
       final @NotNull NakshaContext nakshaContext) {
     super(verticle, nakshaHub, routingContext, nakshaContext);
     this.reqType = reqType;
+    addOperationToStreamInfo(reqType);
   }
 
   public enum EventHandlerApiReqType {
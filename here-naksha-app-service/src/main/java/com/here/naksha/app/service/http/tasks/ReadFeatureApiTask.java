@@ -22,6 +22,7 @@ import static com.here.naksha.app.service.http.apis.ApiParams.extractMandatoryPa
 import static com.here.naksha.app.service.http.apis.ApiParams.extractParamAsStringList;
 import static com.here.naksha.app.service.http.apis.ApiParams.queryParamsFromRequest;
 import static com.here.naksha.common.http.apis.ApiParamsConst.CLIP_GEO;
+import static com.here.naksha.common.http.apis.ApiParamsConst.DEF_ADMIN_FEATURE_LIMIT;
 import static com.here.naksha.common.http.apis.ApiParamsConst.DEF_FEATURE_LIMIT;
 import static com.here.naksha.common.http.apis.ApiParamsConst.EAST;
 import static com.here.naksha.common.http.apis.ApiParamsConst.FEATURE_ID;
@@ -43,7 +44,11 @@ import static com.here.naksha.common.http.apis.ApiParamsConst.TILE_ID;
 import static com.here.naksha.common.http.apis.ApiParamsConst.TILE_TYPE;
 import static com.here.naksha.common.http.apis.ApiParamsConst.WEST;
 import static com.here.naksha.lib.core.models.storage.transformation.BufferTransformation.bufferInMeters;
+import static com.here.naksha.lib.core.models.storage.transformation.ClipTransformation.clipToEnvelope;
+import static com.here.naksha.lib.core.models.storage.transformation.SimplifyTransformation.simplifyForTile;
+import static io.vertx.core.http.HttpHeaders.ACCEPT;
 
+import com.here.naksha.app.service.http.HttpResponseType;
 import com.here.naksha.app.service.http.NakshaHttpVerticle;
 import com.here.naksha.app.service.http.apis.ApiParams;
 import com.here.naksha.app.service.http.ops.PropertySearchUtil;
@@ -56,12 +61,16 @@ import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.XyzErrorException;
 import com.here.naksha.lib.core.lambdas.F1;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzPoint;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
 import com.here.naksha.lib.core.models.payload.events.QueryParameterList;
+import com.here.naksha.lib.core.models.payload.responses.BinaryResponse;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.MvtResult;
+import com.here.naksha.lib.core.models.storage.MvtTile;
 import com.here.naksha.lib.core.models.storage.OpType;
 import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
@@ -70,6 +79,7 @@ import com.here.naksha.lib.core.models.storage.ReadFeaturesProxyWrapper.ReadRequ
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SOp;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
+import com.here.naksha.lib.core.util.MIMEType;
 import com.here.naksha.lib.core.util.storage.RequestHelper;
 import com.here.naksha.lib.core.util.storage.ResultHelper;
 import io.vertx.ext.web.RoutingContext;
@@ -79,6 +89,7 @@ import java.util.Map;
 import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,6 +118,7 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
       final @NotNull NakshaContext nakshaContext) {
     super(verticle, nakshaHub, routingContext, nakshaContext);
     this.reqType = reqType;
+    addOperationToStreamInfo(reqType);
   }
 
   /**
@@ -166,7 +178,8 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
       final F1<XyzFeature, XyzFeature> preResponseProcessing =
           standardReadFeaturesPreResponseProcessing(propPaths, false, null);
       // transform Result to Http FeatureCollection response
-      return transformReadResultToXyzCollectionResponse(result, XyzFeature.class, preResponseProcessing);
+      return streamReadResultToXyzCollectionResponse(
+          result, XyzFeature.class, DEF_ADMIN_FEATURE_LIMIT, null, preResponseProcessing);
     }
   }
 
@@ -235,17 +248,27 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         .withLimit(limit)
         .addCollection(spaceId)
         .withSpatialOp(SOp.intersects(bbox));
+    if (clip) {
+      // clip in the storage, so that less data is transferred and decoded
+      rdRequest.withGeometryTransformation(clipToEnvelope(bbox.getEnvelopeInternal()));
+    }
     RequestHelper.combineOperationsForRequestAs(rdRequest, OpType.AND, tagsOp, propSearchOp);
 
+    // Answer conditional requests from the collection version, before reading any feature
+    final String etag = collectionVersionEtag(spaceId);
+    final XyzResponse notModified = sendNotModifiedIfMatches(etag);
+    if (notModified != null) {
+      return notModified;
+    }
+
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
+    final Result result = withEtag(executeReadRequestFromSpaceStorage(rdRequest), etag);
     // transform Result to Http FeatureCollection response, restricted by given feature limit
     // we will also apply response preprocessing (like property selection and geometry clipping)
     // if any of the options is enabled
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, clip, bbox);
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    return streamReadResultToXyzCollectionResponse(result, XyzFeature.class, limit, null, preResponseProcessing);
   }
 
   private @NotNull XyzResponse executeFeaturesByTile() {
@@ -266,7 +289,8 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     limit = (limit < 0 || limit > DEF_FEATURE_LIMIT) ? DEF_FEATURE_LIMIT : limit;
 
     // Prepare read request based on parameters supplied
-    final Geometry geo = SpatialUtil.buildGeometryForTile(tileType, tileId, (int) margin);
+    final WebMercatorTile tile = SpatialUtil.buildTile(tileType, tileId);
+    final Geometry geo = tile.getExtendedBBoxAsPolygon((int) margin).getGeometry();
     final POp tagsOp = TagsUtil.buildOperationForTagsQueryParam(queryParams);
     final POp propSearchOp = PropertySearchUtil.buildOperationForPropertySearchParams(queryParams);
 
@@ -285,17 +309,53 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         .withLimit(limit)
         .addCollection(spaceId)
         .withSpatialOp(SOp.intersects(geo));
+    if (clip) {
+      // clip and simplify in the storage, so that less data is transferred and decoded, the simplification only
+      // removes details that
+      // are below the resolution of the tile
+      final Envelope tileBounds = geo.getEnvelopeInternal();
+      rdRequest.withGeometryTransformation(simplifyForTile(tileBounds.getWidth(), clipToEnvelope(tileBounds)));
+    }
+    final boolean mvt = acceptsMvt();
+    if (mvt) {
+      // let the storage render the vector tile, the features are then never returned
+      rdRequest.withMvtTile(new MvtTile(tile, spaceId, (int) margin));
+    }
     RequestHelper.combineOperationsForRequestAs(rdRequest, OpType.AND, tagsOp, propSearchOp);
 
+    // Answer conditional requests from the collection version, before reading any feature
+    final String etag = collectionVersionEtag(spaceId);
+    final XyzResponse notModified = sendNotModifiedIfMatches(etag);
+    if (notModified != null) {
+      return notModified;
+    }
+
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
+    final Result result = withEtag(executeReadRequestFromSpaceStorage(rdRequest), etag);
+    if (result instanceof MvtResult mvtResult) {
+      final BinaryResponse response =
+          new BinaryResponse(mvtResult.tile, MIMEType.APPLICATION_VND_MAPBOX_VECTOR_TILE);
+      response.setEtag(etag);
+      return verticle.sendXyzResponse(routingContext, HttpResponseType.MVT, response);
+    }
+    if (mvt) {
+      logger.info("Storage of space {} does not render vector tiles, returning feature collection", spaceId);
+    }
     // transform Result to Http FeatureCollection response, restricted by given feature limit
     // we will also apply response preprocessing (like property selection and geometry clipping)
     // if any of the options is enabled
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, clip, geo);
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    return streamReadResultToXyzCollectionResponse(result, XyzFeature.class, limit, null, preResponseProcessing);
+  }
+
+  /**
+   * Returns {@code true}, if the client accepts a Mapbox Vector Tile as response. If the storage of the space does not render vector
+   * tiles, a feature collection is returned instead, which the content-type of the response reflects.
+   */
+  private boolean acceptsMvt() {
+    final String accept = routingContext.request().getHeader(ACCEPT);
+    return accept != null && accept.contains(MIMEType.APPLICATION_VND_MAPBOX_VECTOR_TILE);
   }
 
   private @NotNull XyzResponse executeSearch() {
@@ -328,8 +388,7 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, false, null);
     // transform Result to Http FeatureCollection response, restricted by given feature limit
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    return streamReadResultToXyzCollectionResponse(result, XyzFeature.class, limit, null, preResponseProcessing);
   }
 
   private @NotNull XyzResponse executeIterate() {
@@ -345,7 +404,6 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     // Note : subsequent steps need to support queryParams being null
 
     // extract limit parameter
-    long offset = 0;
     long clientLimit = ApiParams.extractQueryParamAsLong(queryParams, LIMIT, false, DEF_FEATURE_LIMIT);
     // extract handle parameter
     IterateHandle handle = ApiParams.extractQueryParamAsIterateHandle(queryParams, HANDLE);
@@ -353,17 +411,36 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     if (handle == null) {
       handle = new IterateHandle().withLimit(clientLimit);
     }
-    offset = handle.getOffset();
     clientLimit = handle.getLimit();
     clientLimit = (clientLimit < 0 || clientLimit > DEF_FEATURE_LIMIT) ? DEF_FEATURE_LIMIT : clientLimit;
     final Map<String, Object> queryParamsMap = Map.of(LIMIT, clientLimit);
 
+    // we use keyset paging (continue after the last returned id), so that every page costs the same,
+    // but only if the space returns its features ordered by id, otherwise we fall back to skip the features of
+    // previous pages
+    final boolean orderedById = naksha().getSpaceStorage().supportsOrderById(spaceId);
+    if (orderedById && handle.getAfterId() == null && handle.getOffset() > 0) {
+      return verticle.sendErrorResponse(
+          routingContext, XyzError.ILLEGAL_ARGUMENT, "Outdated handle, please restart the iteration");
+    }
+    if (!orderedById && handle.getAfterId() != null) {
+      return verticle.sendErrorResponse(
+          routingContext,
+          XyzError.ILLEGAL_ARGUMENT,
+          "Handle not supported by space, please restart the iteration");
+    }
+    handle.setOrderedById(orderedById);
+
     // Prepare read request based on parameters supplied
     final ReadFeatures rdRequest = new ReadFeaturesProxyWrapper()
         .withReadRequestType(ReadRequestType.ITERATE)
         .withQueryParameters(queryParamsMap)
-        .withLimit(clientLimit + offset)
         .addCollection(spaceId);
+    if (orderedById) {
+      rdRequest.withLimit(clientLimit).withOrderById(true).withAfterId(handle.getAfterId());
+    } else {
+      rdRequest.withLimit(clientLimit + handle.getOffset());
+    }
 
     // Forward request to NH Space Storage reader instance
     final Result result = executeReadRequestFromSpaceStorage(rdRequest);
@@ -371,8 +448,8 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         standardReadFeaturesPreResponseProcessing(propPaths, false, null);
     // transform Result to Http FeatureCollection response,
     // restricted by given feature limit and by adding "handle" attribute to support subsequent iteration
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, offset, clientLimit, handle, preResponseProcessing);
+    return streamReadResultToXyzCollectionResponse(
+        result, XyzFeature.class, clientLimit, handle, preResponseProcessing);
   }
 
   private @NotNull XyzResponse executeFeaturesByRadius() {
@@ -415,8 +492,7 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, false, radiusOp.getGeometry());
     // transform Result to Http FeatureCollection response, restricted by given feature limit
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    return streamReadResultToXyzCollectionResponse(result, XyzFeature.class, limit, null, preResponseProcessing);
   }
 
   private @NotNull XyzGeometry obtainReferenceGeometry(
@@ -494,7 +570,6 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, false, radiusOp.getGeometry());
     // transform Result to Http FeatureCollection response, restricted by given feature limit
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    return streamReadResultToXyzCollectionResponse(result, XyzFeature.class, limit, null, preResponseProcessing);
   }
 }
@@ -68,6 +68,7 @@ public class SpaceApiTask<T extends XyzResponse> extends AbstractApiTask<XyzResp
       final @NotNull NakshaContext nakshaContext) {
     super(verticle, nakshaHub, routingContext, nakshaContext);
     this.reqType = reqType;
+    addOperationToStreamInfo(reqType);
   }
 
   /**
@@ -70,6 +70,7 @@ public class StorageApiTask extends AbstractApiTask<XyzResponse> {
       final @NotNull NakshaContext nakshaContext) {
     super(verticle, nakshaHub, routingContext, nakshaContext);
     this.reqType = reqType;
+    addOperationToStreamInfo(reqType);
   }
 
   /**
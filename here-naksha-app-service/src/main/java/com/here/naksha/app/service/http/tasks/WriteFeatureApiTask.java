@@ -70,6 +70,7 @@ public class WriteFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<
       final @NotNull NakshaContext nakshaContext) {
     super(verticle, nakshaHub, routingContext, nakshaContext);
     this.reqType = reqType;
+    addOperationToStreamInfo(reqType);
   }
 
   /**
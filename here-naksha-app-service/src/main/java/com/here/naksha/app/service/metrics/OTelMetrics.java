@@ -18,10 +18,16 @@
  */
 package com.here.naksha.app.service.metrics;
 
+import com.here.naksha.lib.core.util.StreamInfo;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.Meter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +38,44 @@ public class OTelMetrics {
       .setInstrumentationVersion("1.40.0") // as per otel.version in pom.xml
       .build();
 
+  private static final AttributeKey<String> SPACE = AttributeKey.stringKey("space");
+  private static final AttributeKey<String> STORAGE = AttributeKey.stringKey("storage");
+  private static final AttributeKey<String> OPERATION = AttributeKey.stringKey("operation");
+  private static final AttributeKey<String> PHASE = AttributeKey.stringKey("phase");
+
+  private static final DoubleHistogram phaseTime = GlobalOpenTelemetry.meterBuilder("naksha.request")
+      .build()
+      .histogramBuilder("naksha_request_phase_time")
+      .setDescription("Time taken by a phase of a request, like the SQL execution or the serialization")
+      .setUnit("ms")
+      .build();
+
+  /**
+   * Records the time of every phase of a finished request, tagged by space, storage and operation. Phases that did not occur are skipped.
+   *
+   * @param streamInfo The stream-info of the request; if any.
+   */
+  public static void recordPhaseTimes(final @Nullable StreamInfo streamInfo) {
+    if (streamInfo == null) {
+      return;
+    }
+    final String space = orDash(streamInfo.getSpaceId());
+    final String storage = orDash(streamInfo.getStorageId());
+    final String operation = orDash(streamInfo.getOperation());
+    for (final Phase phase : Phase.values()) {
+      final long nanos = streamInfo.getPhaseTimeNanos(phase);
+      if (nanos > 0) {
+        phaseTime.record(
+            nanos / 1_000_000d,
+            Attributes.of(SPACE, space, STORAGE, storage, OPERATION, operation, PHASE, phase.label));
+      }
+    }
+  }
+
+  private static String orDash(final @Nullable String value) {
+    return (value == null || value.isEmpty()) ? "-" : value;
+  }
+
   public static void init() {
     // This will keep collecting memory utilization in background
     meter.gaugeBuilder("mem_used_pct")
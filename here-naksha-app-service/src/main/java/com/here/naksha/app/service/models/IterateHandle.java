@@ -18,6 +18,7 @@
  */
 package com.here.naksha.app.service.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -25,18 +26,48 @@ import com.here.naksha.lib.core.util.json.JsonSerializable;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class IterateHandle implements JsonSerializable {
+  /**
+   * The {@code id} of the last feature returned, the next iteration continues after this {@code id}.
+   */
   @JsonProperty
   @JsonInclude(JsonInclude.Include.NON_NULL)
+  private @Nullable String afterId;
+
+  /**
+   * The amount of features returned so far, only used for spaces that don't return their features ordered by {@code id}.
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
   private long offset;
 
   @JsonProperty
   @JsonInclude(JsonInclude.Include.NON_NULL)
   private long limit;
 
+  /**
+   * If the iteration continues after the {@code id} of the last feature returned, otherwise it continues at the {@code offset}.
+   */
+  @JsonIgnore
+  private boolean orderedById;
+
+  public @Nullable String getAfterId() {
+    return afterId;
+  }
+
+  public void setAfterId(@Nullable String afterId) {
+    this.afterId = afterId;
+  }
+
+  public IterateHandle withAfterId(@Nullable String afterId) {
+    setAfterId(afterId);
+    return this;
+  }
+
   public long getOffset() {
     return offset;
   }
@@ -50,6 +81,19 @@ public class IterateHandle implements JsonSerializable {
     return this;
   }
 
+  public boolean isOrderedById() {
+    return orderedById;
+  }
+
+  public void setOrderedById(boolean orderedById) {
+    this.orderedById = orderedById;
+  }
+
+  public IterateHandle withOrderedById(boolean orderedById) {
+    setOrderedById(orderedById);
+    return this;
+  }
+
   public long getLimit() {
     return limit;
   }
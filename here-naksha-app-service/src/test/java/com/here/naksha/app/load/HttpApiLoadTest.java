@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.load;
+
+import static com.here.naksha.app.common.CommonApiTestSetup.setupSpaceAndRelatedResources;
+import static com.here.naksha.app.common.TestUtil.urlEncoded;
+import static java.net.http.HttpClient.Version.HTTP_1_1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.app.common.ApiTest;
+import com.here.naksha.app.common.NakshaTestWebClient;
+import com.here.naksha.app.load.LoadDriver.Operation;
+import com.here.naksha.app.service.models.FeatureCollectionRequest;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.psql.PsqlFeatureGenerator;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the latency and throughput of the HTTP API under a fixed amount of concurrent clients. The space is seeded with random
+ * features of the {@link PsqlFeatureGenerator}, then read, write and mixed workloads are driven against it and the p50/p99 latency and
+ * the requests per second are reported per endpoint, logged and appended to {@code build/reports/load-test/<workload>.csv}.
+ * <p>
+ * The test is only enabled, when the environment variable {@code NAKSHA_LOAD_TEST} is {@code true}. To boot Naksha against a Postgres
+ * container, run it with:
+ * <pre>{@code
+ * NAKSHA_LOAD_TEST=true NAKSHA_LOCAL_TEST_CONTEXT=TEST_CONTAINERS \
+ *   gradle :here-naksha-app-service:test --tests 'com.here.naksha.app.load.*'
+ * }</pre>
+ * The environment variables {@code NAKSHA_LOAD_TEST_FEATURES}, {@code NAKSHA_LOAD_TEST_CONCURRENCY},
+ * {@code NAKSHA_LOAD_TEST_WARMUP_SEC} and {@code NAKSHA_LOAD_TEST_DURATION_SEC} override the defaults.
+ */
+@EnabledIf("loadTestEnabled")
+class HttpApiLoadTest extends ApiTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(HttpApiLoadTest.class);
+
+  private static final String NAKSHA_URL = "http://localhost:8080/";
+
+  private static final String SPACE_ID = "load_test_space";
+
+  private static final String SPACE_PATH = NAKSHA_URL + "hub/spaces/" + SPACE_ID;
+
+  private static final Path REPORT_DIR = Path.of("build", "reports", "load-test");
+
+  private static final int SEED_BATCH_SIZE = 1000;
+
+  private static final int CREATE_BATCH_SIZE = 10;
+
+  private static final int IDS_PER_READ = 10;
+
+  private static final int TILE_LEVEL = 4;
+
+  private static final int BBOX_SIZE_DEGREES = 10;
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+  private static final int FEATURES = intFromEnv("NAKSHA_LOAD_TEST_FEATURES", 100_000);
+
+  private static final int CONCURRENCY = intFromEnv("NAKSHA_LOAD_TEST_CONCURRENCY", 16);
+
+  private static final Duration WARMUP = Duration.ofSeconds(intFromEnv("NAKSHA_LOAD_TEST_WARMUP_SEC", 10));
+
+  private static final Duration DURATION = Duration.ofSeconds(intFromEnv("NAKSHA_LOAD_TEST_DURATION_SEC", 60));
+
+  private static final NakshaTestWebClient nakshaClient = new NakshaTestWebClient(NAKSHA_URL, 10, REQUEST_TIMEOUT.toSeconds());
+
+  private static final PsqlFeatureGenerator featureGenerator = new PsqlFeatureGenerator();
+
+  private static final List<String> featureIds = new ArrayList<>(FEATURES);
+
+  private static final AtomicLong patchCounter = new AtomicLong();
+
+  private final LoadDriver driver = new LoadDriver(
+      HttpClient.newBuilder().version(HTTP_1_1).build(), CONCURRENCY, WARMUP, DURATION);
+
+  @BeforeAll
+  static void seed() throws Exception {
+    setupSpaceAndRelatedResources(nakshaClient, "LoadTest/setup");
+    logger.info("Seeding space {} with {} random features", SPACE_ID, FEATURES);
+    final String streamId = UUID.randomUUID().toString();
+    while (featureIds.size() < FEATURES) {
+      final List<XyzFeature> features = randomFeatures(Math.min(SEED_BATCH_SIZE, FEATURES - featureIds.size()));
+      final HttpResponse<String> response = nakshaClient.post(
+          "hub/spaces/" + SPACE_ID + "/features",
+          new FeatureCollectionRequest().withFeatures(features).serialize(),
+          streamId,
+          REQUEST_TIMEOUT);
+      assertEquals(200, response.statusCode(), "ResCode mismatch while seeding, streamId was " + streamId);
+      for (final XyzFeature feature : features) {
+        featureIds.add(feature.getId());
+      }
+    }
+  }
+
+  @Test
+  void readWorkload() throws Exception {
+    runAndReport("read", readOperations());
+  }
+
+  @Test
+  void writeWorkload() throws Exception {
+    runAndReport("write", writeOperations());
+  }
+
+  @Test
+  void mixedWorkload() throws Exception {
+    final List<Operation> operations = new ArrayList<>(readOperations());
+    for (final Operation write : writeOperations()) {
+      // Reads dominate in production, keep writes at about 10% of the requests.
+      operations.add(new Operation(write.endpoint(), write.weight() / 10, write.request()));
+    }
+    runAndReport("mixed", operations);
+  }
+
+  private void runAndReport(String workload, List<Operation> operations) throws Exception {
+    final LoadReport report = driver.run(workload, operations);
+    logger.info("\n{}", report.toTable());
+    logger.info("Appended report to {}", report.appendCsv(REPORT_DIR).toAbsolutePath());
+    assertTrue(report.totalRequests() > 0, "No request completed within " + DURATION);
+    assertEquals(0, report.totalErrors(), "Requests failed:\n" + report.toTable());
+  }
+
+  private static List<Operation> readOperations() {
+    return List.of(
+        new Operation("bbox", 30, () -> get("/bbox?" + randomBBox())),
+        new Operation("tile", 30, () -> get("/tile/quadkey/" + randomQuadkey())),
+        new Operation("search", 15, () -> get("/search?tags=" + urlEncoded(randomTag()))),
+        new Operation("iterate", 10, () -> get("/iterate?limit=100")),
+        new Operation("byIds", 15, () -> get("/features?" + randomIdsQuery())));
+  }
+
+  private static List<Operation> writeOperations() {
+    return List.of(
+        new Operation("create", 50, () -> send(
+            "POST", "/features", new FeatureCollectionRequest().withFeatures(randomFeatures(CREATE_BATCH_SIZE)).serialize())),
+        new Operation("patch", 50, () -> {
+          final String id = randomFeatureId();
+          return send(
+              "PATCH",
+              "/features/" + urlEncoded(id),
+              "{\"id\":\"%s\",\"type\":\"Feature\",\"properties\":{\"loadTestCounter\":%d}}"
+                  .formatted(id, patchCounter.incrementAndGet()));
+        }));
+  }
+
+  private static HttpRequest get(String subPath) {
+    return HttpRequest.newBuilder(URI.create(SPACE_PATH + subPath))
+        .timeout(REQUEST_TIMEOUT)
+        .GET()
+        .build();
+  }
+
+  private static HttpRequest send(String method, String subPath, String jsonBody) {
+    return HttpRequest.newBuilder(URI.create(SPACE_PATH + subPath))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .method(method, BodyPublishers.ofString(jsonBody))
+        .build();
+  }
+
+  private static List<XyzFeature> randomFeatures(int count) {
+    final List<XyzFeature> features = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      features.add(featureGenerator.newRandomFeature());
+    }
+    return features;
+  }
+
+  private static String randomFeatureId() {
+    return featureIds.get(ThreadLocalRandom.current().nextInt(featureIds.size()));
+  }
+
+  private static String randomIdsQuery() {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < IDS_PER_READ; i++) {
+      if (i > 0) {
+        sb.append('&');
+      }
+      sb.append("id=").append(urlEncoded(randomFeatureId()));
+    }
+    return sb.toString();
+  }
+
+  private static String randomBBox() {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final int west = random.nextInt(-180, 180 - BBOX_SIZE_DEGREES);
+    final int south = random.nextInt(-90, 90 - BBOX_SIZE_DEGREES);
+    return "west=%d&south=%d&east=%d&north=%d".formatted(west, south, west + BBOX_SIZE_DEGREES, south + BBOX_SIZE_DEGREES);
+  }
+
+  private static String randomQuadkey() {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final StringBuilder sb = new StringBuilder(TILE_LEVEL);
+    for (int i = 0; i < TILE_LEVEL; i++) {
+      sb.append(random.nextInt(4));
+    }
+    return sb.toString();
+  }
+
+  private static String randomTag() {
+    final String[] adverbs = featureGenerator.adverbs;
+    return adverbs[ThreadLocalRandom.current().nextInt(adverbs.length)];
+  }
+
+  private static int intFromEnv(String name, int defaultValue) {
+    final String value = System.getenv(name);
+    return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+  }
+
+  private static boolean loadTestEnabled() {
+    return Boolean.parseBoolean(System.getenv("NAKSHA_LOAD_TEST"));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.load;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Collects the latencies and errors of the requests send to one endpoint. All methods are thread safe, the contention is negligible
+ * compared to the cost of an HTTP round trip.
+ */
+class LatencyRecorder {
+
+  private final @NotNull String endpoint;
+  private long[] latencies = new long[1024];
+  private int size;
+  private long errors;
+
+  LatencyRecorder(@NotNull String endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  @NotNull
+  String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * Records a completed request.
+   *
+   * @param latencyNanos The time from sending the request until the body was fully read.
+   * @param success      {@code false}, if the request failed or the response status was not expected.
+   */
+  synchronized void record(long latencyNanos, boolean success) {
+    if (size == latencies.length) {
+      latencies = Arrays.copyOf(latencies, size * 2);
+    }
+    latencies[size++] = latencyNanos;
+    if (!success) {
+      errors++;
+    }
+  }
+
+  /**
+   * Returns the result of all recorded requests.
+   *
+   * @param elapsedNanos The duration of the measurement, used to calculate the throughput.
+   * @return the result of all recorded requests.
+   */
+  synchronized @NotNull EndpointResult result(long elapsedNanos) {
+    final long[] sorted = Arrays.copyOf(latencies, size);
+    Arrays.sort(sorted);
+    final double seconds = elapsedNanos / 1_000_000_000d;
+    return new EndpointResult(
+        endpoint, size, errors, percentileMillis(sorted, 50), percentileMillis(sorted, 99), seconds > 0 ? size / seconds : 0);
+  }
+
+  /**
+   * Returns the percentile of the given sorted latencies in milliseconds, using the nearest-rank method.
+   *
+   * @param sorted     The latencies in nanoseconds, sorted ascending.
+   * @param percentile The percentile between 0 (exclusive) and 100 (inclusive).
+   * @return the latency in milliseconds or 0, if there are no latencies.
+   */
+  static double percentileMillis(long @NotNull [] sorted, int percentile) {
+    if (sorted.length == 0) {
+      return 0d;
+    }
+    final int rank = (int) Math.ceil(percentile / 100d * sorted.length);
+    return sorted[Math.max(rank, 1) - 1] / 1_000_000d;
+  }
+
+  /**
+   * The result of one endpoint.
+   *
+   * @param endpoint          The name of the endpoint.
+   * @param requests          The amount of requests send.
+   * @param errors            The amount of requests that failed.
+   * @param p50Millis         The median latency in milliseconds.
+   * @param p99Millis         The 99th percentile of the latency in milliseconds.
+   * @param requestsPerSecond The throughput.
+   */
+  record EndpointResult(
+      @NotNull String endpoint,
+      long requests,
+      long errors,
+      double p50Millis,
+      double p99Millis,
+      double requestsPerSecond) {}
+}
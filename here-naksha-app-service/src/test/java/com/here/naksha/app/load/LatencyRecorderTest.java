@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.here.naksha.app.load.LatencyRecorder.EndpointResult;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LatencyRecorderTest {
+
+  private static final long MILLI = 1_000_000L;
+
+  @Test
+  void shouldCalculatePercentilesWithNearestRank() {
+    // Given: 100 requests taking 1..100ms, recorded in reverse order
+    LatencyRecorder recorder = new LatencyRecorder("bbox");
+    for (int i = 100; i > 0; i--) {
+      recorder.record(i * MILLI, i % 10 != 0);
+    }
+
+    // When:
+    EndpointResult result = recorder.result(Duration.ofSeconds(4).toNanos());
+
+    // Then:
+    assertEquals("bbox", result.endpoint());
+    assertEquals(100, result.requests());
+    assertEquals(10, result.errors());
+    assertEquals(50d, result.p50Millis());
+    assertEquals(99d, result.p99Millis());
+    assertEquals(25d, result.requestsPerSecond());
+  }
+
+  @Test
+  void shouldReportZeroWithoutRequests() {
+    EndpointResult result = new LatencyRecorder("tile").result(Duration.ofSeconds(1).toNanos());
+
+    assertEquals(0, result.requests());
+    assertEquals(0d, result.p50Millis());
+    assertEquals(0d, result.p99Millis());
+    assertEquals(0d, result.requestsPerSecond());
+  }
+
+  @Test
+  void shouldSumEndpointsInReport() {
+    LoadReport report = new LoadReport(
+        "mixed",
+        4,
+        Duration.ofSeconds(10),
+        List.of(new EndpointResult("bbox", 300, 1, 2d, 8d, 30d), new EndpointResult("patch", 100, 0, 5d, 20d, 10d)));
+
+    assertEquals(400, report.totalRequests());
+    assertEquals(1, report.totalErrors());
+  }
+}
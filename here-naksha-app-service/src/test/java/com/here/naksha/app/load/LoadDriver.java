@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives a weighted mix of requests with a fixed amount of concurrent clients (closed model): every client sends the next request as soon
+ * as the previous response was fully read. The requests send during the warmup are not recorded.
+ */
+class LoadDriver {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+
+  private final @NotNull HttpClient httpClient;
+  private final int concurrency;
+  private final @NotNull Duration warmup;
+  private final @NotNull Duration duration;
+
+  LoadDriver(@NotNull HttpClient httpClient, int concurrency, @NotNull Duration warmup, @NotNull Duration duration) {
+    this.httpClient = httpClient;
+    this.concurrency = concurrency;
+    this.warmup = warmup;
+    this.duration = duration;
+  }
+
+  /**
+   * Runs the given operations until the warmup and the measurement duration are over.
+   *
+   * @param workload   The name of the workload, used in the report.
+   * @param operations The operations to pick from, according to their weight.
+   * @return the report of the measurement.
+   */
+  @NotNull
+  LoadReport run(@NotNull String workload, @NotNull List<@NotNull Operation> operations) {
+    final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    int totalWeight = 0;
+    for (final Operation operation : operations) {
+      recorders.computeIfAbsent(operation.endpoint(), LatencyRecorder::new);
+      totalWeight += operation.weight();
+    }
+    final int[] cumulativeWeights = new int[operations.size()];
+    int sum = 0;
+    for (int i = 0; i < operations.size(); i++) {
+      sum += operations.get(i).weight();
+      cumulativeWeights[i] = sum;
+    }
+    logger.info("Running workload {} with {} clients, warmup {}, duration {}", workload, concurrency, warmup, duration);
+    final long measureStart = System.nanoTime() + warmup.toNanos();
+    final long measureEnd = measureStart + duration.toNanos();
+    final int weights = totalWeight;
+    final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    try {
+      final List<Future<?>> clients = new ArrayList<>(concurrency);
+      for (int i = 0; i < concurrency; i++) {
+        clients.add(executor.submit(() -> {
+          final ThreadLocalRandom random = ThreadLocalRandom.current();
+          long now;
+          while ((now = System.nanoTime()) < measureEnd) {
+            final int pick = random.nextInt(weights);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+              index++;
+            }
+            final Operation operation = operations.get(index);
+            final boolean success = send(operation.request().get());
+            final long end = System.nanoTime();
+            if (now >= measureStart && end <= measureEnd) {
+              recorders.get(operation.endpoint()).record(end - now, success);
+            }
+          }
+          return null;
+        }));
+      }
+      for (final Future<?> client : clients) {
+        client.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while running workload " + workload, e);
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to run workload " + workload, e);
+    } finally {
+      executor.shutdownNow();
+    }
+    final List<LatencyRecorder.EndpointResult> results = new ArrayList<>(recorders.size());
+    for (final LatencyRecorder recorder : recorders.values()) {
+      results.add(recorder.result(duration.toNanos()));
+    }
+    return new LoadReport(workload, concurrency, duration, results);
+  }
+
+  private boolean send(@NotNull HttpRequest request) {
+    try {
+      final int status = httpClient.send(request, BodyHandlers.discarding()).statusCode();
+      return status >= 200 && status < 400;
+    } catch (IOException e) {
+      logger.debug("Request {} {} failed", request.method(), request.uri(), e);
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * An operation of a workload.
+   *
+   * @param endpoint The name of the endpoint, operations with the same name are reported together.
+   * @param weight   The relative frequency of the operation within the workload.
+   * @param request  Creates the next request, called once per request, so that parameters can vary.
+   */
+  record Operation(@NotNull String endpoint, int weight, @NotNull Supplier<@NotNull HttpRequest> request) {}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.load;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.here.naksha.app.load.LatencyRecorder.EndpointResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The result of a workload, with the latencies and the throughput per endpoint.
+ *
+ * @param workload    The name of the workload.
+ * @param concurrency The amount of concurrent clients.
+ * @param duration    The duration of the measurement.
+ * @param endpoints   The results per endpoint.
+ */
+record LoadReport(
+    @NotNull String workload,
+    int concurrency,
+    @NotNull Duration duration,
+    @NotNull List<@NotNull EndpointResult> endpoints) {
+
+  private static final String CSV_HEADER = "timestamp,workload,concurrency,endpoint,requests,errors,p50_ms,p99_ms,req_per_sec";
+
+  /**
+   * Returns the sum of the requests of all endpoints.
+   *
+   * @return the sum of the requests of all endpoints.
+   */
+  long totalRequests() {
+    return endpoints.stream().mapToLong(EndpointResult::requests).sum();
+  }
+
+  /**
+   * Returns the sum of the errors of all endpoints.
+   *
+   * @return the sum of the errors of all endpoints.
+   */
+  long totalErrors() {
+    return endpoints.stream().mapToLong(EndpointResult::errors).sum();
+  }
+
+  /**
+   * Returns the report as human-readable table, one line per endpoint and a line with the total throughput.
+   *
+   * @return the report as human-readable table.
+   */
+  @NotNull
+  String toTable() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(String.format(
+        Locale.ROOT, "Workload %s, %d clients, %ds%n", workload, concurrency, duration.toSeconds()));
+    sb.append(String.format(
+        Locale.ROOT, "%-12s %10s %8s %10s %10s %10s%n", "endpoint", "requests", "errors", "p50 (ms)", "p99 (ms)", "req/s"));
+    for (final EndpointResult r : endpoints) {
+      sb.append(String.format(
+          Locale.ROOT,
+          "%-12s %10d %8d %10.2f %10.2f %10.1f%n",
+          r.endpoint(),
+          r.requests(),
+          r.errors(),
+          r.p50Millis(),
+          r.p99Millis(),
+          r.requestsPerSecond()));
+    }
+    final double seconds = duration.toNanos() / 1_000_000_000d;
+    sb.append(String.format(
+        Locale.ROOT,
+        "%-12s %10d %8d %10s %10s %10.1f%n",
+        "total",
+        totalRequests(),
+        totalErrors(),
+        "",
+        "",
+        seconds > 0 ? totalRequests() / seconds : 0));
+    return sb.toString();
+  }
+
+  /**
+   * Appends the report to a CSV file in the given directory, one file per workload, so that the runs of different builds can be compared.
+   *
+   * @param directory The directory to write to, created if missing.
+   * @return the path of the file written.
+   * @throws IOException If writing the file failed.
+   */
+  @NotNull
+  Path appendCsv(@NotNull Path directory) throws IOException {
+    Files.createDirectories(directory);
+    final Path file = directory.resolve(workload + ".csv");
+    final String timestamp = Instant.now().toString();
+    final StringBuilder sb = new StringBuilder();
+    if (!Files.exists(file)) {
+      sb.append(CSV_HEADER).append('\n');
+    }
+    for (final EndpointResult r : endpoints) {
+      sb.append(String.format(
+          Locale.ROOT,
+          "%s,%s,%d,%s,%d,%d,%.3f,%.3f,%.1f%n",
+          timestamp,
+          workload,
+          concurrency,
+          r.endpoint(),
+          r.requests(),
+          r.errors(),
+          r.p50Millis(),
+          r.p99Millis(),
+          r.requestsPerSecond()));
+    }
+    Files.writeString(file, sb.toString(), UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    return file;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.benchmarks;
+
+import com.here.naksha.lib.core.util.fib.FibMapEntry;
+import com.here.naksha.lib.core.util.fib.FibSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the {@link FibSet}, which is used as concurrent cache, for example for users and features.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(FibSetBenchmark.KEYS)
+public class FibSetBenchmark {
+
+  static final int KEYS = 1000;
+
+  /**
+   * The amount of entries in the set.
+   */
+  @Param({"1000", "100000"})
+  public int size;
+
+  private String[] keys;
+  private String[] missingKeys;
+  private FibSet<String, FibMapEntry<String, String>> set;
+
+  @Setup
+  public void setup() {
+    set = new FibSet<>(FibMapEntry::new);
+    for (int i = 0; i < size; i++) {
+      set.put("key-" + i);
+    }
+    keys = new String[KEYS];
+    missingKeys = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = "key-" + (i * (size / KEYS));
+      missingKeys[i] = "missing-" + i;
+    }
+  }
+
+  @Benchmark
+  public void getExisting(Blackhole bh) {
+    for (final String key : keys) {
+      bh.consume(set.get(key));
+    }
+  }
+
+  @Benchmark
+  public void getMissing(Blackhole bh) {
+    for (final String key : missingKeys) {
+      bh.consume(set.get(key));
+    }
+  }
+
+  /**
+   * Puts existing keys, which is the common case of a cache, that returns the existing entry.
+   */
+  @Benchmark
+  public void putExisting(Blackhole bh) {
+    for (final String key : keys) {
+      bh.consume(set.put(key));
+    }
+  }
+
+  @Benchmark
+  public void putAndRemove(Blackhole bh) {
+    for (final String key : missingKeys) {
+      bh.consume(set.put(key));
+    }
+    for (final String key : missingKeys) {
+      bh.consume(set.remove(key));
+    }
+  }
+}
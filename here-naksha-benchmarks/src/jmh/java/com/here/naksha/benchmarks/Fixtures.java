@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.benchmarks;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.psql.PsqlFeatureGenerator;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Realistic fixtures for the benchmarks, generated by the {@link PsqlFeatureGenerator}, which is used to fill the storage in the tests.
+ */
+final class Fixtures {
+
+  private Fixtures() {}
+
+  /**
+   * Returns the given amount of random features.
+   *
+   * @param size The amount of features.
+   * @return the features.
+   */
+  static @NotNull XyzFeature @NotNull [] features(int size) {
+    final PsqlFeatureGenerator generator = new PsqlFeatureGenerator();
+    final XyzFeature[] features = new XyzFeature[size];
+    for (int i = 0; i < size; i++) {
+      features[i] = generator.newRandomFeature();
+    }
+    return features;
+  }
+
+  /**
+   * Returns the given features split into the parts, as the storage returns them, so the JSON without geometry and the EWKB.
+   *
+   * @param features The features to split.
+   * @return the codecs with the parts.
+   */
+  static @NotNull XyzFeatureCodec @NotNull [] rows(@NotNull XyzFeature @NotNull [] features) {
+    final XyzFeatureCodec[] rows = new XyzFeatureCodec[features.length];
+    for (int i = 0; i < features.length; i++) {
+      final XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance();
+      codec.setFeature(features[i]);
+      codec.decodeParts(true);
+      // Keep only the serialized geometry, as returned by the storage.
+      codec.setWkb(codec.getWkb());
+      rows[i] = codec;
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.benchmarks;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the thread local pooling of {@link Json} and the serialization of features.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+  private XyzFeature feature;
+  private String featureJson;
+
+  @Setup
+  public void setup() {
+    feature = Fixtures.features(1)[0];
+    featureJson = JsonSerializable.serialize(feature);
+  }
+
+  /**
+   * Acquires and releases a pooled instance, which is done for nearly every JSON operation.
+   */
+  @Benchmark
+  public Json getAndClose() {
+    try (final Json jp = Json.get()) {
+      return jp;
+    }
+  }
+
+  /**
+   * Acquires a pooled instance, while another one is in use, as done by nested JSON operations.
+   */
+  @Benchmark
+  public Json getNested() {
+    try (final Json outer = Json.get();
+        final Json inner = Json.get()) {
+      return inner;
+    }
+  }
+
+  @Benchmark
+  public String serializeFeature() {
+    return JsonSerializable.serialize(feature);
+  }
+
+  @Benchmark
+  public XyzFeature deserializeFeature() {
+    return JsonSerializable.deserialize(featureJson, XyzFeature.class);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.benchmarks;
+
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the quadkey math of {@link WebMercatorTile}, done for every tile request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebMercatorTileBenchmark {
+
+  public String quadkey = "1202033020303222";
+  public double longitude = 8.5402;
+  public double latitude = 50.1234;
+  public int level = 16;
+
+  @Benchmark
+  public WebMercatorTile forQuadkey() {
+    return WebMercatorTile.forQuadkey(quadkey);
+  }
+
+  @Benchmark
+  public long quadKeyToTile() {
+    return WebMercatorTile.quadKeyToTile(quadkey);
+  }
+
+  @Benchmark
+  public String tileToQuadKey() {
+    return WebMercatorTile.tileToQuadKey(34567, 22345, level);
+  }
+
+  @Benchmark
+  public WebMercatorTile fromLatLon() {
+    return WebMercatorTile.getTileFromLatLonLev(latitude, longitude, level);
+  }
+
+  /**
+   * Creates the tile and its bounding box with margin, as done by tile requests.
+   */
+  @Benchmark
+  public Object extendedBBox() {
+    return WebMercatorTile.forQuadkey(quadkey).getExtendedBBox(16);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.benchmarks;
+
+import com.here.naksha.lib.core.models.geojson.coordinates.JTSHelper;
+import com.here.naksha.lib.core.models.geojson.coordinates.WkbGeoJsonWriter;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import java.util.concurrent.TimeUnit;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing the GeoJSON of a geometry read from the storage via JTS and {@link JTSHelper} against writing it directly from the
+ * WKB with {@link WkbGeoJsonWriter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WkbGeoJsonBenchmark {
+
+  /**
+   * The amount of vertices of the polygon.
+   */
+  @Param({"100", "10000", "100000"})
+  public int vertices;
+
+  private byte[] wkb;
+
+  @Setup
+  public void setup() {
+    final GeometryFactory factory = new GeometryFactory();
+    final Coordinate[] coordinates = new Coordinate[vertices + 1];
+    for (int i = 0; i < vertices; i++) {
+      final double angle = 2 * Math.PI * i / vertices;
+      // Some noise in the radius, so that the coordinates have realistic precision.
+      final double radius = 0.5 + 0.01 * Math.sin(angle * 97);
+      coordinates[i] = new Coordinate(8.5 + radius * Math.cos(angle), 50.1 + radius * Math.sin(angle), 0d);
+    }
+    coordinates[vertices] = coordinates[0];
+    final Polygon polygon = factory.createPolygon(coordinates);
+    polygon.setSRID(4326);
+    try (final Json jp = Json.get()) {
+      wkb = jp.wkbWriter.write(polygon);
+    }
+  }
+
+  @Benchmark
+  public String viaJts() throws ParseException {
+    try (final Json jp = Json.get()) {
+      return JsonSerializable.serialize(JTSHelper.fromGeometry(jp.wkbReader.read(wkb)));
+    }
+  }
+
+  @Benchmark
+  public String direct() {
+    return WkbGeoJsonWriter.toGeoJson(wkb);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.benchmarks;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.RawJsonFeatureCodec;
+import com.here.naksha.lib.core.models.storage.RawJsonFeatureCodecFactory;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the codecs per feature. Reading a row of a {@link com.here.naksha.lib.psql.PsqlCursor} sets the parts returned by the database
+ * at the codec ({@code loadNextRow}), which is then encoded into the feature, when the feature is requested. As the cursor needs a live
+ * database session, the rows are taken from memory, so the JDBC fetch itself is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(XyzCodecBenchmark.SIZE)
+public class XyzCodecBenchmark {
+
+  static final int SIZE = 1000;
+
+  private XyzFeature[] features;
+  private XyzFeatureCodec[] rows;
+
+  @Setup
+  public void setup() {
+    features = Fixtures.features(SIZE);
+    rows = Fixtures.rows(features);
+  }
+
+  /**
+   * Splits the feature into the parts to be written to the storage.
+   */
+  @Benchmark
+  public void decodeParts(Blackhole bh) {
+    for (final XyzFeature feature : features) {
+      final XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance();
+      codec.setFeature(feature);
+      bh.consume(codec.decodeParts(true).getWkb());
+    }
+  }
+
+  /**
+   * Loads the rows as returned by the storage and encodes the features.
+   */
+  @Benchmark
+  public void loadRowAndEncodeFeature(Blackhole bh) {
+    final XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance();
+    for (final XyzFeatureCodec row : rows) {
+      codec.clear();
+      codec.setId(row.getId());
+      codec.setJson(row.getJson());
+      codec.setWkb(row.getWkb());
+      bh.consume(codec.encodeFeature(true).getFeature());
+    }
+  }
+
+  /**
+   * Loads the rows as returned by the storage and encodes them as GeoJSON strings, as done for read responses.
+   */
+  @Benchmark
+  public void loadRowAndEncodeRawJson(Blackhole bh) {
+    final RawJsonFeatureCodec codec = RawJsonFeatureCodecFactory.get().newInstance();
+    for (final XyzFeatureCodec row : rows) {
+      codec.clear();
+      codec.setId(row.getId());
+      codec.setJson(row.getJson());
+      codec.setWkb(row.getWkb());
+      bh.consume(codec.encodeFeature(true).getFeature());
+    }
+  }
+}
@@ -99,6 +99,8 @@ public class ActivityLogHandler extends AbstractEventHandler {
   private @NotNull ReadFeatures transformRequest(Request<?> request) {
     final ReadFeatures readFeatures = (ReadFeatures) request;
     readFeatures.withReturnAllVersions(true);
+    // The activity is calculated from the features, a vector tile rendered by the storage does not contain them
+    readFeatures.withMvtTile(null);
     ActivityLogRequestTranslationUtil.translatePropertyOperation(readFeatures);
     readFeatures.setCollections(List.of(properties.getSpaceId()));
     return readFeatures;
@@ -6,6 +6,7 @@ import static com.here.naksha.test.common.assertions.POpAssertion.assertThatOper
 import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,6 +27,7 @@ import com.here.naksha.handler.activitylog.util.DatahubSamplesUtil.DatahubSample
 import com.here.naksha.lib.core.IEvent;
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
 import com.here.naksha.lib.core.models.geojson.implementation.EXyzAction;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzProperties;
@@ -36,6 +38,7 @@ import com.here.naksha.lib.core.models.naksha.XyzCollection;
 import com.here.naksha.lib.core.models.storage.EExecutedOp;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.ListBasedForwardCursor;
+import com.here.naksha.lib.core.models.storage.MvtTile;
 import com.here.naksha.lib.core.models.storage.OpType;
 import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.POpType;
@@ -183,6 +186,26 @@ class ActivityLogHandlerTest {
         );
   }
 
+  @Test
+  void shouldReadFeaturesInsteadOfVectorTile() {
+    // Given: Original read request for a vector tile
+    ReadFeatures originalReadFeatures = new ReadFeatures("not_the_space_id")
+        .withMvtTile(new MvtTile(WebMercatorTile.forQuadkey("120203302"), "layer", 16));
+
+    // And: Configured session that will receive read request from handler
+    IReadSession readSession = mock(IReadSession.class);
+    when(spaceStorage.newReadSession(any(), anyBoolean())).thenReturn(readSession);
+    when(readSession.execute(any())).thenReturn(new SuccessResult());
+
+    // When: Processing event with original request
+    handler.processEvent(eventWith(originalReadFeatures));
+
+    // Then: The request executed by the session reads the features, which the activity is calculated from
+    ArgumentCaptor<ReadFeatures> requestCaptor = ArgumentCaptor.forClass(ReadFeatures.class);
+    verify(readSession).execute(requestCaptor.capture());
+    assertNull(requestCaptor.getValue().getMvtTile(), "Transformed request must not render a vector tile");
+  }
+
   @Test
   void shouldComposeActivityFeatures() throws Exception {
     // Given: old version of feature
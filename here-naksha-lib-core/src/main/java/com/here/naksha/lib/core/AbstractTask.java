@@ -59,6 +59,10 @@ public abstract class AbstractTask<RESULT, SELF extends AbstractTask<RESULT, SEL
     requestLimitManager = newRequestLimitManager;
   }
 
+  public static @NotNull IRequestLimitManager getConcurrencyLimitManager() {
+    return requestLimitManager;
+  }
+
   private static final ConcurrentHashMap<@NotNull String, @NotNull Long> actorUsageMap = new ConcurrentHashMap<>();
   private static final AtomicLong taskId = new AtomicLong(1L);
   private static final ThreadGroup allTasksGroup = new ThreadGroup("Naksha-Tasks");
@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core;
+
+import com.here.naksha.lib.core.exceptions.TooManyTasks;
+import com.here.naksha.lib.core.models.storage.Result;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A concurrency limiter that adapts its limit to the latency observed for the guarded resource, for example a storage. The limit is
+ * increased additively, while the latency stays close to the long-term average, and decreased multiplicative, when the latency rises
+ * above it (AIMD). The averages are kept per operation, so that a mix of cheap and expensive operations does not look like a latency
+ * change. When the limit is reached, callers wait in a short FIFO queue; a caller is rejected immediately with
+ * {@link TooManyTasks}, if the queue is full or if the expected wait exceeds its deadline, so that a slow resource sheds load instead of
+ * binding all worker threads.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class AdaptiveConcurrencyLimiter {
+
+  /**
+   * A permit to execute, must be closed when the execution is done. The time between acquiring and closing is the latency sample,
+   * unless the latency has been recorded before, for example when a result is returned, but still held until it is consumed.
+   */
+  public final class Permit implements AutoCloseable {
+
+    private Permit(@NotNull String operation, long startNanos) {
+      this.operation = operation;
+      this.startNanos = startNanos;
+    }
+
+    private final @NotNull String operation;
+    private final long startNanos;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile long latencyNanos = -1;
+
+    /**
+     * Records the latency sample now, if not already recorded; the permit stays acquired until closed.
+     *
+     * @return this.
+     */
+    public @NotNull Permit recordLatency() {
+      if (latencyNanos < 0) {
+        latencyNanos = System.nanoTime() - startNanos;
+      }
+      return this;
+    }
+
+    /**
+     * Records the latency now and closes the permit, when the cursor of the given result is closed, so that the permit is held while the
+     * result is consumed, but the time the client needs to consume it is not part of the latency. Like the cursor, the result must be
+     * closed.
+     *
+     * @param result The result of the execution.
+     */
+    public void closeWhenConsumed(@NotNull Result result) {
+      recordLatency();
+      result.onCursorClosed(this::close);
+    }
+
+    /**
+     * Releases the permit and feeds the latency into the limit, only the first invocation has an effect.
+     */
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        recordLatency();
+        release(operation, latencyNanos);
+      }
+    }
+  }
+
+  private static final class Baseline {
+
+    double longLatencyNanos;
+    double shortLatencyNanos;
+  }
+
+  private static final class Waiter {
+
+    private Waiter(@NotNull Condition condition) {
+      this.condition = condition;
+    }
+
+    final @NotNull Condition condition;
+    boolean granted;
+  }
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param name          The name of the guarded resource, used in error messages.
+   * @param initialLimit  The initial concurrency limit.
+   * @param minLimit      The minimal concurrency limit.
+   * @param maxLimit      The maximal concurrency limit.
+   * @param maxQueueSize  The maximal amount of callers waiting for a permit.
+   * @param maxWaitMillis The maximal time a caller waits for a permit, when no explicit deadline is given.
+   */
+  public AdaptiveConcurrencyLimiter(
+      @NotNull String name, int initialLimit, int minLimit, int maxLimit, int maxQueueSize, long maxWaitMillis) {
+    if (minLimit < 1 || maxLimit < minLimit || maxQueueSize < 0 || maxWaitMillis < 0) {
+      throw new IllegalArgumentException("Invalid limits");
+    }
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.maxQueueSize = maxQueueSize;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  /**
+   * The operation used, when the caller does not name one.
+   */
+  public static final String DEFAULT_OPERATION = "default";
+
+  /**
+   * The factor by which the latency may exceed the long-term average, before the limit is decreased.
+   */
+  static final double TOLERANCE = 2.0;
+
+  /**
+   * The factor by which the limit is decreased, when the latency is too high.
+   */
+  static final double BACKOFF = 0.9;
+
+  /**
+   * The weight of a new sample in the long-term average latency.
+   */
+  static final double LONG_ALPHA = 0.01;
+
+  /**
+   * The weight of a new sample in the short-term average latency, used to estimate the wait time.
+   */
+  static final double SHORT_ALPHA = 0.2;
+
+  private final @NotNull String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueueSize;
+  private final long maxWaitNanos;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+  private final HashMap<@NotNull String, @NotNull Baseline> baselines = new HashMap<>();
+  private double limit;
+  private int inFlight;
+  private double shortLatencyNanos;
+  private long rejected;
+
+  /**
+   * Acquires a permit, waiting at most the configured maximal wait time.
+   *
+   * @return the permit, must be closed after the execution.
+   * @throws TooManyTasks If no permit can be acquired in time.
+   */
+  public @NotNull Permit acquire() {
+    return acquire(DEFAULT_OPERATION, System.nanoTime() + maxWaitNanos);
+  }
+
+  /**
+   * Acquires a permit, waiting at most until the given deadline.
+   *
+   * @param deadlineNanos The deadline as {@link System#nanoTime()} value.
+   * @return the permit, must be closed after the execution.
+   * @throws TooManyTasks If no permit can be acquired before the deadline.
+   */
+  public @NotNull Permit acquire(long deadlineNanos) {
+    return acquire(DEFAULT_OPERATION, deadlineNanos);
+  }
+
+  /**
+   * Returns the deadline to use for a caller with the given request deadline, which is the request deadline, if there is one, otherwise
+   * the configured maximal wait time from now.
+   *
+   * @param requestDeadlineNanos The deadline of the request as {@link System#nanoTime()} value or {@code 0}, if there is none.
+   * @return the deadline to wait for a permit.
+   */
+  public long deadlineOf(long requestDeadlineNanos) {
+    return requestDeadlineNanos != 0 ? requestDeadlineNanos : System.nanoTime() + maxWaitNanos;
+  }
+
+  /**
+   * Acquires a permit for the given operation, waiting at most until the given deadline. The latency of each operation is compared only
+   * with the latency of the same operation.
+   *
+   * @param operation     The operation, for example the type of the request.
+   * @param deadlineNanos The deadline as {@link System#nanoTime()} value.
+   * @return the permit, must be closed after the execution.
+   * @throws TooManyTasks If no permit can be acquired before the deadline.
+   */
+  public @NotNull Permit acquire(@NotNull String operation, long deadlineNanos) {
+    lock.lock();
+    try {
+      if (queue.isEmpty() && inFlight < (int) limit) {
+        inFlight++;
+        return new Permit(operation, System.nanoTime());
+      }
+      if (queue.size() >= maxQueueSize) {
+        throw reject("queue is full");
+      }
+      // We expect, that every full round of permits takes about the recent latency.
+      final long expectedWaitNanos = (long) (shortLatencyNanos * (queue.size() / (int) limit + 1));
+      long remainingNanos = deadlineNanos - System.nanoTime();
+      if (remainingNanos <= 0 || expectedWaitNanos > remainingNanos) {
+        throw reject("deadline would be exceeded");
+      }
+      final Waiter waiter = new Waiter(lock.newCondition());
+      queue.add(waiter);
+      try {
+        while (!waiter.granted) {
+          if (remainingNanos <= 0) {
+            queue.remove(waiter);
+            throw reject("deadline exceeded");
+          }
+          remainingNanos = waiter.condition.awaitNanos(remainingNanos);
+        }
+      } catch (InterruptedException e) {
+        if (waiter.granted) {
+          inFlight--;
+          grant();
+        } else {
+          queue.remove(waiter);
+        }
+        Thread.currentThread().interrupt();
+        throw reject("interrupted");
+      }
+      return new Permit(operation, System.nanoTime());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private @NotNull TooManyTasks reject(@NotNull String reason) {
+    rejected++;
+    return new TooManyTasks("Too many concurrent requests for " + name + ", " + reason + " (limit: " + (int) limit
+        + ", queued: " + queue.size() + ")");
+  }
+
+  void release(@NotNull String operation, long latencyNanos) {
+    lock.lock();
+    try {
+      inFlight--;
+      final Baseline baseline = baselines.computeIfAbsent(operation, op -> new Baseline());
+      if (baseline.longLatencyNanos == 0) {
+        baseline.longLatencyNanos = latencyNanos;
+        baseline.shortLatencyNanos = latencyNanos;
+      } else {
+        baseline.longLatencyNanos += (latencyNanos - baseline.longLatencyNanos) * LONG_ALPHA;
+        baseline.shortLatencyNanos += (latencyNanos - baseline.shortLatencyNanos) * SHORT_ALPHA;
+      }
+      // The wait estimate is about any operation, so it uses the latency of all operations.
+      if (shortLatencyNanos == 0) {
+        shortLatencyNanos = latencyNanos;
+      } else {
+        shortLatencyNanos += (latencyNanos - shortLatencyNanos) * SHORT_ALPHA;
+      }
+      if (latencyNanos > baseline.longLatencyNanos * TOLERANCE) {
+        limit = Math.max(minLimit, limit * BACKOFF);
+      } else if ((inFlight + 1) * 2 >= limit || !queue.isEmpty()) {
+        // Only grow the limit, when it is used, otherwise it would grow unbounded while idle.
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+      }
+      grant();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void grant() {
+    while (inFlight < (int) limit && !queue.isEmpty()) {
+      final Waiter waiter = queue.poll();
+      waiter.granted = true;
+      inFlight++;
+      waiter.condition.signal();
+    }
+  }
+
+  /**
+   * Returns the current concurrency limit.
+   *
+   * @return the current concurrency limit.
+   */
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of permits currently acquired.
+   *
+   * @return the amount of permits currently acquired.
+   */
+  public int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of callers waiting for a permit.
+   *
+   * @return the amount of callers waiting for a permit.
+   */
+  public int getQueued() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of callers rejected so far.
+   *
+   * @return the amount of callers rejected so far.
+   */
+  public long getRejected() {
+    lock.lock();
+    try {
+      return rejected;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -17,6 +17,10 @@
  * License-Filename: LICENSE
  */
 package com.here.naksha.lib.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
 /**
  * The DefaultRequestLimitManager class is an implementation of the IRequestLimitManager interface
  * providing default behavior for retrieving request limits.
@@ -24,6 +28,19 @@ package com.here.naksha.lib.core;
 public class DefaultRequestLimitManager implements IRequestLimitManager {
   private final long instanceLevelLimit;
   private final double actorLimitPct;
+  private final ConcurrentHashMap<@NotNull String, @NotNull AdaptiveConcurrencyLimiter> storageLimiters =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The percentage of the instance-level limit, that a single storage may use at most.
+   */
+  private static final int STORAGE_LIMIT_PCT = 50;
+
+  /**
+   * The maximal time a request without deadline waits for a storage, when the storage limit is reached; a request with deadline waits
+   * at most until its deadline, see {@link NakshaContext#getDeadlineNanos()}.
+   */
+  private static final long STORAGE_MAX_WAIT_MILLIS = 1000;
 
   /**
    * Retrieves the number of available processors.
@@ -76,4 +93,20 @@ public class DefaultRequestLimitManager implements IRequestLimitManager {
   public long getActorLevelLimit(NakshaContext context) {
     return (long) ((instanceLevelLimit * actorLimitPct) / 100);
   }
+
+  /**
+   * Retrieves the concurrency limiter for a storage. The limit of each storage adapts to the latency of the storage, starting at a
+   * quarter of its maximum, which is half of the instance-level limit, so that a slow storage can't occupy all tasks.
+   *
+   * @param storageId The identifier of the storage.
+   * @return The concurrency limiter of the storage.
+   */
+  @Override
+  public @NotNull AdaptiveConcurrencyLimiter getStorageLimiter(@NotNull String storageId) {
+    return storageLimiters.computeIfAbsent(storageId, id -> {
+      final int maxLimit = (int) Math.max(2L, instanceLevelLimit * STORAGE_LIMIT_PCT / 100);
+      return new AdaptiveConcurrencyLimiter(
+          "storage " + id, maxLimit / 4, 2, maxLimit, Math.max(1, maxLimit / 4), STORAGE_MAX_WAIT_MILLIS);
+    });
+  }
 }
@@ -23,10 +23,16 @@ import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.Request;
 import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.storage.ISession;
+import com.here.naksha.lib.core.util.PhaseTimer;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -72,6 +78,13 @@ public class EventPipeline extends NakshaBound {
       return oldRequest;
     }
 
+    @Override
+    public void addSession(@NotNull ISession session) {
+      synchronized (sessions) {
+        sessions.add(session);
+      }
+    }
+
     @Override
     public @NotNull Result sendUpstream() {
       // This must only be called from within the pipeline, prevent calling from outside!
@@ -155,6 +168,11 @@ public class EventPipeline extends NakshaBound {
   private int next;
   private int end;
 
+  /**
+   * The storage sessions opened while processing the current event, guarded by itself.
+   */
+  private final List<@NotNull ISession> sessions = new ArrayList<>();
+
   /**
    * Tests whether this event pipeline is currently processing an event.
    *
@@ -164,6 +182,21 @@ public class EventPipeline extends NakshaBound {
     return event != null;
   }
 
+  /**
+   * Cancels the statements currently executed by the storage sessions, which the handlers opened while processing the current event. Unlike
+   * all other methods, this method may be invoked from any thread, the thread processing the event will receive an exception.
+   */
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public void cancel() {
+    final ISession[] running;
+    synchronized (sessions) {
+      running = sessions.toArray(new ISession[0]);
+    }
+    for (final ISession session : running) {
+      session.cancel();
+    }
+  }
+
   /**
    * Sets the callback, should not be called while the pipeline is executing, otherwise the behavior is undefined.
    *
@@ -239,7 +272,9 @@ public class EventPipeline extends NakshaBound {
       // addEventHandler(this::pipelineEnd);
       addEventHandler(new EndPipelineHandler());
       this.next = 0;
-      response = event.sendUpstream(request);
+      try (final PhaseTimer handlerTimer = NakshaContext.currentContext().startPhase(Phase.HANDLER)) {
+        response = event.sendUpstream(request);
+      }
       try {
         if (callback != null) {
           callback.accept(response);
@@ -252,6 +287,9 @@ public class EventPipeline extends NakshaBound {
       } finally {
         callback = null;
         this.event = null;
+        synchronized (sessions) {
+          sessions.clear();
+        }
         pipeline = EMPTY;
         next = 0;
         end = 0;
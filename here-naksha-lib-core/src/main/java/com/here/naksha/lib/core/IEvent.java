@@ -20,6 +20,8 @@ package com.here.naksha.lib.core;
 
 import com.here.naksha.lib.core.models.storage.Request;
 import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.storage.ISession;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -55,6 +57,15 @@ public interface IEvent {
   @NotNull
   Result sendUpstream();
 
+  /**
+   * Registers a storage session, opened while processing this event, so that the statement it executes is cancelled, when the pipeline
+   * is {@link EventPipeline#cancel() cancelled}. The default implementation does nothing.
+   *
+   * @param session the session to register.
+   */
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  default void addSession(@NotNull ISession session) {}
+
   /**
    * Create a new event and send it upstream to the next event handler. If no further handler is available, the default implementation at
    * the end of each pipeline will return a not implemented error response. When the method returns, the current request is the same it was
@@ -18,9 +18,11 @@
  */
 package com.here.naksha.lib.core;
 
+import org.jetbrains.annotations.NotNull;
+
 /**
  * The IRequestLimitManager interface defines methods for retrieving request limits
- * at different levels - instance level and actor level.
+ * at different levels - instance level, actor level and storage level.
  */
 public interface IRequestLimitManager {
   /**
@@ -36,4 +38,13 @@ public interface IRequestLimitManager {
    * @return The request limit for the actor within the given context.
    */
   long getActorLevelLimit(NakshaContext context);
+
+  /**
+   * Retrieves the concurrency limiter for requests executed against the storage with the given identifier.
+   *
+   * @param storageId The identifier of the storage.
+   * @return The concurrency limiter of the storage.
+   */
+  @NotNull
+  AdaptiveConcurrencyLimiter getStorageLimiter(@NotNull String storageId);
 }
@@ -23,7 +23,9 @@ import static java.lang.ThreadLocal.withInitial;
 import com.here.naksha.lib.core.exceptions.Unauthorized;
 import com.here.naksha.lib.core.models.auth.ServiceMatrix;
 import com.here.naksha.lib.core.util.NanoTime;
+import com.here.naksha.lib.core.util.PhaseTimer;
 import com.here.naksha.lib.core.util.StreamInfo;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.jetbrains.annotations.ApiStatus.AvailableSince;
@@ -305,6 +307,18 @@ public final class NakshaContext {
     return (o == null) ? null : (StreamInfo) o;
   }
 
+  /**
+   * Starts measuring a phase of the request, the time is added to the {@link #getStreamInfo() streamInfo}, if any, when the returned
+   * timer is closed.
+   *
+   * @param phase the phase to measure.
+   * @return the timer to close, when the phase is done.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull PhaseTimer startPhase(final @NotNull Phase phase) {
+    return StreamInfo.startPhase(getStreamInfo(), phase);
+  }
+
   /**
    * The attachments of this context.
    */
@@ -419,4 +433,33 @@ public final class NakshaContext {
     setSuperUser(superUser);
     return this;
   }
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  private long deadlineNanos;
+
+  /**
+   * Returns the deadline of the request as {@link NanoTime#now()} value, after which waiting for resources is pointless.
+   *
+   * @return the deadline of the request or {@code 0}, if the request has no deadline.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public long getDeadlineNanos() {
+    return deadlineNanos;
+  }
+
+  /**
+   * Sets the deadline of the request as {@link NanoTime#now()} value.
+   *
+   * @param deadlineNanos the deadline of the request or {@code 0}, if the request has no deadline.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void setDeadlineNanos(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull NakshaContext withDeadlineNanos(long deadlineNanos) {
+    setDeadlineNanos(deadlineNanos);
+    return this;
+  }
 }
@@ -23,8 +23,10 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.here.naksha.lib.core.NakshaVersion;
 import com.here.naksha.lib.core.models.geojson.implementation.namespaces.XyzNamespace;
+import java.util.List;
 import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A transaction signal, that the features of a collection have been modified. The individual change  done to a features is not part of the
@@ -52,4 +54,14 @@ public class TxModifyFeatures extends TxSignal {
     super(id, storageId, collection, txn);
     assert id.equals(collection);
   }
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static final String FEATURE_IDS = "featureIds";
+
+  /**
+   * The identifiers of the modified features, if known; {@code null}, if all features of the collection have to be considered modified.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  @JsonProperty(FEATURE_IDS)
+  public @Nullable List<@NotNull String> featureIds;
 }
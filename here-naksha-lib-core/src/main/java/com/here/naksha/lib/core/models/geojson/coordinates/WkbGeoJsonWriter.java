@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.geojson.coordinates;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.util.json.Json;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Writes a geometry, encoded as <a href="https://libgeos.org/specifications/wkb/">(Extended) WKB</a>, as GeoJSON geometry into a
+ * {@link JsonGenerator}, without creating a JTS geometry or an {@link com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry
+ * XyzGeometry} first. The result is the same as serializing the geometry created by {@link JTSHelper#fromGeometry(
+ * org.locationtech.jts.geom.Geometry)} from the geometry read by {@link Json#wkbReader}, so the Z-coordinate is written, when present and
+ * not {@code NaN}, and the M-coordinate is dropped.
+ *
+ * <p>This is meant for features that are sent to the client as read from the storage, when nobody needs the geometry as object.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public final class WkbGeoJsonWriter {
+
+  private WkbGeoJsonWriter() {}
+
+  private static final int POINT = 1;
+  private static final int LINE_STRING = 2;
+  private static final int POLYGON = 3;
+  private static final int MULTI_POINT = 4;
+  private static final int MULTI_LINE_STRING = 5;
+  private static final int MULTI_POLYGON = 6;
+  private static final int GEOMETRY_COLLECTION = 7;
+
+  private static final int EWKB_Z = 0x80000000;
+  private static final int EWKB_M = 0x40000000;
+  private static final int EWKB_SRID = 0x20000000;
+
+  /**
+   * Writes the given WKB as GeoJSON geometry.
+   *
+   * @param wkb The (Extended) WKB encoded geometry.
+   * @param g   The generator to write to.
+   * @throws IOException              If writing to the generator failed.
+   * @throws IllegalArgumentException If the WKB is invalid or holds an empty point, which has no GeoJSON representation.
+   */
+  public static void write(byte @NotNull [] wkb, @NotNull JsonGenerator g) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(wkb);
+    try {
+      writeGeometry(buffer, g);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Unexpected end of WKB", e);
+    }
+    if (buffer.hasRemaining()) {
+      throw new IllegalArgumentException("Unexpected data after the end of the WKB geometry");
+    }
+  }
+
+  /**
+   * Returns the given WKB as GeoJSON geometry.
+   *
+   * @param wkb The (Extended) WKB encoded geometry.
+   * @return the GeoJSON geometry.
+   * @throws IllegalArgumentException If the WKB is invalid or holds an empty point, which has no GeoJSON representation.
+   */
+  public static @NotNull String toGeoJson(byte @NotNull [] wkb) {
+    // The coordinates take about twice the size as text
+    final StringWriter writer = new StringWriter(wkb.length * 2);
+    try (final Json jp = Json.get();
+        final JsonGenerator g = jp.writer().createGenerator(writer)) {
+      write(wkb, g);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
+  private static void writeGeometry(@NotNull ByteBuffer b, @NotNull JsonGenerator g) throws IOException {
+    b.order(b.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    final int typeInt = b.getInt();
+    if ((typeInt & EWKB_SRID) != 0) {
+      b.getInt();
+    }
+    // EWKB encodes the dimensions as flags, ISO WKB as thousands of the type.
+    final int isoType = typeInt & 0xffff;
+    final int isoDimension = isoType / 1000;
+    final boolean hasZ = (typeInt & EWKB_Z) != 0 || isoDimension == 1 || isoDimension == 3;
+    final boolean hasM = (typeInt & EWKB_M) != 0 || isoDimension == 2 || isoDimension == 3;
+    final int type = isoType % 1000;
+    g.writeStartObject();
+    switch (type) {
+      case POINT:
+        g.writeStringField("type", "Point");
+        g.writeFieldName("coordinates");
+        writePoint(b, g, hasZ, hasM);
+        break;
+      case LINE_STRING:
+        g.writeStringField("type", "LineString");
+        g.writeFieldName("coordinates");
+        writePoints(b, g, hasZ, hasM);
+        break;
+      case POLYGON:
+        g.writeStringField("type", "Polygon");
+        g.writeFieldName("coordinates");
+        writeRings(b, g, hasZ, hasM);
+        break;
+      case MULTI_POINT:
+        g.writeStringField("type", "MultiPoint");
+        g.writeFieldName("coordinates");
+        writeMulti(b, g, POINT);
+        break;
+      case MULTI_LINE_STRING:
+        g.writeStringField("type", "MultiLineString");
+        g.writeFieldName("coordinates");
+        writeMulti(b, g, LINE_STRING);
+        break;
+      case MULTI_POLYGON:
+        g.writeStringField("type", "MultiPolygon");
+        g.writeFieldName("coordinates");
+        writeMulti(b, g, POLYGON);
+        break;
+      case GEOMETRY_COLLECTION:
+        g.writeStringField("type", "GeometryCollection");
+        g.writeFieldName("geometries");
+        final int n = b.getInt();
+        g.writeStartArray();
+        for (int i = 0; i < n; i++) {
+          writeGeometry(b, g);
+        }
+        g.writeEndArray();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown WKB geometry type " + typeInt);
+    }
+    g.writeEndObject();
+  }
+
+  /**
+   * Writes the coordinates of the parts of a multi-geometry, each part is a complete WKB geometry with its own header.
+   */
+  private static void writeMulti(@NotNull ByteBuffer b, @NotNull JsonGenerator g, int partType) throws IOException {
+    final int n = b.getInt();
+    g.writeStartArray();
+    for (int i = 0; i < n; i++) {
+      b.order(b.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+      final int typeInt = b.getInt();
+      if ((typeInt & EWKB_SRID) != 0) {
+        b.getInt();
+      }
+      final int isoType = typeInt & 0xffff;
+      final int isoDimension = isoType / 1000;
+      if (isoType % 1000 != partType) {
+        throw new IllegalArgumentException("Unexpected WKB geometry type " + typeInt + " in multi-geometry");
+      }
+      final boolean hasZ = (typeInt & EWKB_Z) != 0 || isoDimension == 1 || isoDimension == 3;
+      final boolean hasM = (typeInt & EWKB_M) != 0 || isoDimension == 2 || isoDimension == 3;
+      if (partType == POINT) {
+        writePoint(b, g, hasZ, hasM);
+      } else if (partType == LINE_STRING) {
+        writePoints(b, g, hasZ, hasM);
+      } else {
+        writeRings(b, g, hasZ, hasM);
+      }
+    }
+    g.writeEndArray();
+  }
+
+  private static void writeRings(@NotNull ByteBuffer b, @NotNull JsonGenerator g, boolean hasZ, boolean hasM)
+      throws IOException {
+    final int n = b.getInt();
+    g.writeStartArray();
+    for (int i = 0; i < n; i++) {
+      writePoints(b, g, hasZ, hasM);
+    }
+    g.writeEndArray();
+  }
+
+  private static void writePoints(@NotNull ByteBuffer b, @NotNull JsonGenerator g, boolean hasZ, boolean hasM)
+      throws IOException {
+    final int n = b.getInt();
+    g.writeStartArray();
+    for (int i = 0; i < n; i++) {
+      writePosition(b, g, hasZ, hasM);
+    }
+    g.writeEndArray();
+  }
+
+  private static void writePoint(@NotNull ByteBuffer b, @NotNull JsonGenerator g, boolean hasZ, boolean hasM)
+      throws IOException {
+    // An empty point is encoded with NaN coordinates
+    if (Double.isNaN(b.getDouble(b.position())) && Double.isNaN(b.getDouble(b.position() + 8))) {
+      throw new IllegalArgumentException("Empty point has no GeoJSON representation");
+    }
+    writePosition(b, g, hasZ, hasM);
+  }
+
+  private static void writePosition(@NotNull ByteBuffer b, @NotNull JsonGenerator g, boolean hasZ, boolean hasM)
+      throws IOException {
+    final double x = b.getDouble();
+    final double y = b.getDouble();
+    final double z = hasZ ? b.getDouble() : Double.NaN;
+    if (hasM) {
+      b.getDouble();
+    }
+    g.writeStartArray();
+    g.writeNumber(x);
+    g.writeNumber(y);
+    if (!Double.isNaN(z)) {
+      g.writeNumber(z);
+    }
+    g.writeEndArray();
+  }
+}
@@ -41,8 +41,30 @@ public class IndexProperty {
   @JsonInclude(Include.NON_NULL)
   public Nulls nulls;
 
+  /**
+   * Optionally the type of the property, which decides how the values are compared. If not explicitly defined, {@link Type#JSON} is used
+   * for {@code gin} indices and {@link Type#STRING} for all others.
+   */
+  @JsonProperty
+  @JsonInclude(Include.NON_NULL)
+  public Type type;
+
   public enum Nulls {
     FIRST,
     LAST
   }
+
+  public enum Type {
+    /** The value is compared as text, using the binary ("C") collation. */
+    STRING,
+
+    /** The value is compared as number. */
+    NUMBER,
+
+    /** The value is compared as boolean. */
+    BOOLEAN,
+
+    /** The value is compared as JSON, for example using containment. */
+    JSON
+  }
 }
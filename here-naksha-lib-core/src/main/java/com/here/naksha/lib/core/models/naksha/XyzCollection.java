@@ -25,9 +25,12 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.indexing.Index;
+import java.util.Map;
 import java.util.Objects;
 import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A collection is a virtual container for features, managed by a {@link Storage}. All collections optionally have a history and transaction
@@ -55,6 +58,9 @@ public class XyzCollection extends NakshaFeature {
   @AvailableSince(NakshaVersion.v2_0_11)
   public static final String AUTO_PURGE = "autoPurge";
 
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static final String NOTIFY_CHANGES = "notifyChanges";
+
   @AvailableSince(NakshaVersion.v2_0_7)
   public static final String MIN_AGE = "minAge";
 
@@ -67,6 +73,9 @@ public class XyzCollection extends NakshaFeature {
   @AvailableSince(NakshaVersion.v2_0_7)
   public static final String PARTITION_COUNT = "partitionCount";
 
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static final String INDICES = "indices";
+
   /**
    * Create a new empty default collection with default properties.
    *
@@ -125,6 +134,14 @@ public class XyzCollection extends NakshaFeature {
   @JsonInclude(Include.NON_EMPTY)
   private boolean autoPurge;
 
+  /**
+   * Toggle if committed changes are notified to the listeners of the storage.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  @JsonProperty(NOTIFY_CHANGES)
+  @JsonInclude(Include.NON_EMPTY)
+  private boolean notifyChanges;
+
   /**
    * Returns {@code true} if this collection is partitioned.
    *
@@ -293,6 +310,29 @@ public class XyzCollection extends NakshaFeature {
     autoPurge = false;
   }
 
+  /**
+   * Returns true if the committed changes of this collection are notified to the listeners of the storage, for example caches of other
+   * nodes; false otherwise. Notifications cost some write throughput, therefore they are disabled by default.
+   *
+   * @return true if changes are notified; false otherwise.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  @JsonIgnore
+  public boolean isNotifyChanges() {
+    return notifyChanges;
+  }
+
+  /**
+   * Enable or disable the notification of committed changes.
+   *
+   * @param notifyChanges true to notify changes; false to not notify them.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  @JsonIgnore
+  public void setNotifyChanges(boolean notifyChanges) {
+    this.notifyChanges = notifyChanges;
+  }
+
   /**
    * Returns the amount of partitions, which is a necessary information for the bulk loader. This returns zero, if the collection is not
    * partitioned. This information can only be obtained from the storage itself when reading a collection or as result of creating a
@@ -341,6 +381,33 @@ public class XyzCollection extends NakshaFeature {
   @JsonInclude(Include.NON_EMPTY)
   private long estimatedDeletedFeatures;
 
+  /**
+   * Returns the indices to be maintained on the properties of the features, as declared by the space.
+   *
+   * @return the indices by name; {@code null} if no indices declared.
+   */
+  public @Nullable Map<@NotNull String, @NotNull Index> getIndices() {
+    return indices;
+  }
+
+  /**
+   * Sets the indices to be maintained on the properties of the features. The storage creates and drops the indices asynchronously, when
+   * the collection is created or updated.
+   *
+   * @param indices the indices by name; {@code null} if no indices should exist.
+   */
+  public void setIndices(@Nullable Map<@NotNull String, @NotNull Index> indices) {
+    this.indices = indices;
+  }
+
+  /**
+   * The indices declared for the properties of the features, the key is the name of the index.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  @JsonProperty(INDICES)
+  @JsonInclude(Include.NON_EMPTY)
+  private @Nullable Map<@NotNull String, @NotNull Index> indices;
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -353,6 +420,7 @@ public class XyzCollection extends NakshaFeature {
     return minAge == that.minAge
         && disableHistory == that.disableHistory
         && autoPurge == that.autoPurge
+        && notifyChanges == that.notifyChanges
         && partition == that.partition
         && pointsOnly == that.pointsOnly
         && unlogged == that.unlogged
@@ -367,6 +435,7 @@ public class XyzCollection extends NakshaFeature {
         minAge,
         disableHistory,
         autoPurge,
+        notifyChanges,
         partition,
         pointsOnly,
         unlogged,
@@ -36,6 +36,7 @@ import com.here.naksha.lib.core.models.payload.responses.ModifiedResponseRespons
 import com.here.naksha.lib.core.models.payload.responses.NotModifiedResponse;
 import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse;
 import com.here.naksha.lib.core.models.payload.responses.StorageStatistics;
+import com.here.naksha.lib.core.models.payload.responses.StreamedResponse;
 import com.here.naksha.lib.core.models.payload.responses.SuccessResponse;
 import com.here.naksha.lib.core.models.payload.responses.changesets.Changeset;
 import com.here.naksha.lib.core.models.payload.responses.changesets.ChangesetCollection;
@@ -62,6 +63,7 @@ import org.jetbrains.annotations.Nullable;
   @JsonSubTypes.Type(value = HistoryStatisticsResponse.class, name = "HistoryStatisticsResponse"),
   @JsonSubTypes.Type(value = SuccessResponse.class, name = "SuccessResponse"),
   @JsonSubTypes.Type(value = NotModifiedResponse.class, name = "NotModifiedResponse"),
+  @JsonSubTypes.Type(value = StreamedResponse.class, name = "StreamedResponse"),
   @JsonSubTypes.Type(value = XyzFeatureCollection.class, name = "FeatureCollection"),
   @JsonSubTypes.Type(value = Changeset.class, name = "Changeset"),
   @JsonSubTypes.Type(value = CompactChangeset.class, name = "CompactChangeset"),
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.payload.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.payload.XyzResponse;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+
+/**
+ * The status of a response whose content was already streamed to the client, so that the caller can see what was sent without the
+ * features being held in memory.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonTypeName(value = "StreamedResponse")
+public class StreamedResponse extends XyzResponse {
+
+  private long features;
+  private long bytes;
+  private boolean completed;
+  private String nextPageToken;
+
+  /**
+   * Returns the amount of features that were written to the client.
+   *
+   * @return the amount of features that were written.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public long getFeatures() {
+    return features;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public StreamedResponse withFeatures(long features) {
+    this.features = features;
+    return this;
+  }
+
+  /**
+   * Returns the amount of bytes that were written to the client.
+   *
+   * @return the amount of bytes that were written.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public long getBytes() {
+    return bytes;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public StreamedResponse withBytes(long bytes) {
+    this.bytes = bytes;
+    return this;
+  }
+
+  /**
+   * Returns if the response was completed; {@code false} if it was aborted, because the client went away or the streaming failed.
+   *
+   * @return {@code true} if the response was completed.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public StreamedResponse withCompleted(boolean completed) {
+    this.completed = completed;
+    return this;
+  }
+
+  /**
+   * Returns the token for the next page, that was sent to the client; if any.
+   *
+   * @return the token for the next page or {@code null}.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public String getNextPageToken() {
+    return nextPageToken;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public StreamedResponse withNextPageToken(String nextPageToken) {
+    this.nextPageToken = nextPageToken;
+    return this;
+  }
+}
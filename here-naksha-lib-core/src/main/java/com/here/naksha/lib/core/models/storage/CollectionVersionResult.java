@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The result of a {@link ReadCollectionVersion} request.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class CollectionVersionResult extends SuccessResult {
+
+  /**
+   * The opaque version token of the collection, only equal, if the features of the collection are unchanged.
+   */
+  public final @NotNull String version;
+
+  public CollectionVersionResult(@NotNull String version) {
+    this.version = version;
+  }
+}
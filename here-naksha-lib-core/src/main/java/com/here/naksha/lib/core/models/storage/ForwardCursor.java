@@ -421,6 +421,20 @@ public abstract class ForwardCursor<FEATURE, CODEC extends FeatureCodec<FEATURE,
     return feature;
   }
 
+  /**
+   * Returns a copy of the codec of the current row, which stays valid, when the cursor is moved. This can be used to keep some rows,
+   * while iterating the cursor.
+   *
+   * @return a copy of the codec of the current row.
+   * @throws NoSuchElementException If the cursor currently is not at a valid result.
+   */
+  public @NotNull CODEC getCodecCopy() throws NoSuchElementException {
+    if (!currentRow.valid) {
+      throw new NoSuchElementException();
+    }
+    return codecFactory.newInstance().copy(currentRow.codec);
+  }
+
   /**
    * Returns true if current row has error, otherwise false.
    * @return
@@ -438,7 +452,42 @@ public abstract class ForwardCursor<FEATURE, CODEC extends FeatureCodec<FEATURE,
   }
 
   /**
-   * Close the cursor and drop all resources allocated for it.
+   * The action to invoke once, when the cursor is closed.
+   */
+  private @Nullable Runnable onClose;
+
+  /**
+   * Adds an action to invoke once, when this cursor is closed, for example to release a resource that must be held while the cursor is
+   * read.
+   *
+   * @param action The action to invoke.
+   */
+  public void addOnClose(@NotNull Runnable action) {
+    final Runnable previous = this.onClose;
+    this.onClose = previous == null
+        ? action
+        : () -> {
+          try {
+            previous.run();
+          } finally {
+            action.run();
+          }
+        };
+  }
+
+  /**
+   * Invokes the actions added via {@link #addOnClose(Runnable)}, must be invoked by the implementations, when the cursor is closed.
+   */
+  protected void runOnClose() {
+    final Runnable onClose = this.onClose;
+    this.onClose = null;
+    if (onClose != null) {
+      onClose.run();
+    }
+  }
+
+  /**
+   * Close the cursor and drop all resources allocated for it. Implementations must invoke {@link #runOnClose()}.
    */
   @Override
   public abstract void close();
@@ -117,9 +117,13 @@ public class HeapCacheCursor<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>
 
   @Override
   public void close() {
-    if (originalCursor != null) {
-      originalCursor.close();
-      originalCursor = null;
+    try {
+      if (originalCursor != null) {
+        originalCursor.close();
+        originalCursor = null;
+      }
+    } finally {
+      runOnClose();
     }
   }
 
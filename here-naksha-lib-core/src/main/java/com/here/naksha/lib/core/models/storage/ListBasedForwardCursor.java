@@ -79,6 +79,7 @@ public class ListBasedForwardCursor<FEATURE, CODEC extends FeatureCodec<FEATURE,
           uoe);
     }
     featureIdx = totalFeatures;
+    runOnClose();
   }
 
   public int size() {
@@ -16,23 +16,24 @@
  * SPDX-License-Identifier: Apache-2.0
  * License-Filename: LICENSE
  */
-package com.here.naksha.lib.view.concurrent;
+package com.here.naksha.lib.core.models.storage;
 
-import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
-
-import com.here.naksha.lib.core.INaksha;
-import com.here.naksha.lib.core.NakshaContext;
-import com.here.naksha.lib.core.SimpleTask;
+import com.here.naksha.lib.core.NakshaVersion;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
 
-class QueryTask<RESULT> extends SimpleTask<RESULT> {
-  public QueryTask(INaksha naksha, NakshaContext context) {
-    super(naksha, context);
-  }
+/**
+ * The result of a {@link ReadFeatures} request with a {@link MvtTile}, when the storage rendered the tile itself.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class MvtResult extends SuccessResult {
+
+  /**
+   * The encoded vector tile, empty, if no feature is in the tile.
+   */
+  public final byte @NotNull [] tile;
 
-  @Override
-  protected @NotNull RESULT errorResponse(@NotNull Throwable throwable) {
-    super.errorResponse(throwable);
-    throw unchecked(throwable);
+  public MvtResult(byte @NotNull [] tile) {
+    this.tile = tile;
   }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The Mapbox Vector Tile to render from the features of a {@link ReadFeatures} request. When set at the request, storages that support it
+ * return a {@link MvtResult}, all others return the features, which then need to be encoded by the caller.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class MvtTile {
+
+  /**
+   * The extent of the tile, so the amount of units in which the tile is rendered in either direction.
+   */
+  public static final int EXTENT = 4096;
+
+  /**
+   * Creates a new vector tile.
+   *
+   * @param tile   The tile to render.
+   * @param layer  The name of the layer to render the features into.
+   * @param margin The margin in pixel of a 256 pixel tile, to which geometries are kept beyond the tile border.
+   */
+  public MvtTile(@NotNull WebMercatorTile tile, @NotNull String layer, int margin) {
+    this.tile = tile;
+    this.layer = layer;
+    this.margin = margin;
+  }
+
+  private final @NotNull WebMercatorTile tile;
+  private final @NotNull String layer;
+  private final int margin;
+
+  public @NotNull WebMercatorTile getTile() {
+    return tile;
+  }
+
+  public @NotNull String getLayer() {
+    return layer;
+  }
+
+  public int getMargin() {
+    return margin;
+  }
+
+  /**
+   * Returns the margin in the units of the tile extent.
+   *
+   * @return the margin in the units of the tile extent.
+   */
+  public int getBuffer() {
+    return margin * EXTENT / WebMercatorTile.TileSizeInPixel;
+  }
+}
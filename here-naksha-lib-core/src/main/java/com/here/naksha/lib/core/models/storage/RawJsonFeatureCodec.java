@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.geojson.coordinates.JTSHelper;
+import com.here.naksha.lib.core.models.geojson.coordinates.WkbGeoJsonWriter;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+
+/**
+ * A codec that keeps the feature as GeoJSON string, as read from the storage. The feature is not parsed, only the geometry is added to
+ * the JSON, when the feature is encoded. This is meant for read requests, where the features are sent to the client unmodified, and a
+ * parse and serialize cycle is pure overhead.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class RawJsonFeatureCodec extends FeatureCodec<String, RawJsonFeatureCodec> {
+
+  RawJsonFeatureCodec() {}
+
+  @Override
+  public @NotNull RawJsonFeatureCodec decodeParts(boolean force) {
+    if (!force && isDecoded) {
+      return this;
+    }
+    if (feature == null) {
+      throw new NullPointerException();
+    }
+    final XyzFeature xyzFeature = JsonSerializable.deserialize(feature, XyzFeature.class);
+    if (xyzFeature == null) {
+      throw new IllegalArgumentException("The feature JSON is null");
+    }
+    final XyzFeatureCodec xyzCodec = new XyzFeatureCodec();
+    xyzCodec.setFeature(xyzFeature);
+    withParts(xyzCodec.decodeParts(true));
+    isDecoded = true;
+    return this;
+  }
+
+  @Override
+  public @NotNull RawJsonFeatureCodec encodeFeature(boolean force) {
+    if (!force && isEncoded) {
+      return this;
+    }
+    if (json == null) {
+      return this;
+    }
+    // Unless someone needed the geometry as object, write the GeoJSON directly from the WKB
+    final byte[] wkb = this.wkb;
+    feature = geometry == null && wkb != null && wkb.length > 0
+        ? withWkbGeometry(json, wkb)
+        : withGeometry(json, getGeometry());
+    isEncoded = true;
+    return this;
+  }
+
+  /**
+   * Copies the values from the other codec. If the other codec is of a different type, and holds an encoded feature, which may have been
+   * modified, the parts are decoded from this feature, so that the modification is not lost.
+   *
+   * @param otherCodec The other codec to copy.
+   * @return this.
+   */
+  @Override
+  public @NotNull RawJsonFeatureCodec copy(@NotNull FeatureCodec<String, ?> otherCodec) {
+    if (otherCodec instanceof RawJsonFeatureCodec) {
+      return super.copy(otherCodec);
+    }
+    if (otherCodec.isEncoded && otherCodec.feature != null) {
+      otherCodec.decodeParts(true);
+    }
+    withParts(otherCodec);
+    isDecoded = true;
+    isEncoded = false;
+    feature = null;
+    err = otherCodec.err;
+    errorJson = otherCodec.errorJson;
+    return this;
+  }
+
+  /**
+   * Adds the geometry to the JSON of a feature, as stored by the storage without the geometry. If the JSON has a geometry already, it is
+   * not replaced, therefore only JSON without geometry must be given.
+   *
+   * @param json     The JSON of the feature without the geometry.
+   * @param geometry The geometry of the feature, if any.
+   * @return the JSON of the feature including the geometry.
+   * @throws IllegalArgumentException If the given JSON is no JSON object.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static @NotNull String withGeometry(@NotNull String json, @Nullable Geometry geometry) {
+    if (geometry == null) {
+      return json;
+    }
+    return withGeometryJson(json, JsonSerializable.serialize(JTSHelper.fromGeometry(geometry)));
+  }
+
+  /**
+   * Adds the geometry to the JSON of a feature, as stored by the storage without the geometry. Other than
+   * {@link #withGeometry(String, Geometry)}, the GeoJSON is written directly from the WKB, without creating any geometry object. If the
+   * WKB can't be represented as GeoJSON this way, it falls back to {@link #withGeometry(String, Geometry)}.
+   *
+   * @param json The JSON of the feature without the geometry.
+   * @param wkb  The <link href="https://libgeos.org/specifications/wkb/">Extended WKB</b> encoded geometry.
+   * @return the JSON of the feature including the geometry.
+   * @throws IllegalArgumentException If the given JSON is no JSON object.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static @NotNull String withWkbGeometry(@NotNull String json, byte @NotNull [] wkb) {
+    final String geometryJson;
+    try {
+      geometryJson = WkbGeoJsonWriter.toGeoJson(wkb);
+    } catch (IllegalArgumentException e) {
+      try (final Json jp = Json.get()) {
+        return withGeometry(json, jp.wkbReader.read(wkb));
+      } catch (ParseException pe) {
+        throw unchecked(pe);
+      }
+    }
+    return withGeometryJson(json, geometryJson);
+  }
+
+  private static @NotNull String withGeometryJson(@NotNull String json, @NotNull String geometryJson) {
+    final int end = json.lastIndexOf('}');
+    final int start = json.indexOf('{');
+    if (start < 0 || end < start) {
+      throw new IllegalArgumentException("The feature JSON is no object");
+    }
+    final StringBuilder sb = new StringBuilder(json.length() + geometryJson.length() + 16);
+    sb.append(json, 0, end);
+    if (hasMembers(json, start + 1, end)) {
+      sb.append(',');
+    }
+    sb.append("\"geometry\":").append(geometryJson).append(json, end, json.length());
+    return sb.toString();
+  }
+
+  private static boolean hasMembers(@NotNull String json, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!Character.isWhitespace(json.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
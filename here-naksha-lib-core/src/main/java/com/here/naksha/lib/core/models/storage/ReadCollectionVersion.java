@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.here.naksha.lib.core.NakshaVersion;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Requests a version token of a collection, which changes whenever any feature of the collection is created, updated or deleted. The
+ * token is cheap to read, compared to reading the features, and allows to decide if a previously read result is still valid, for example
+ * to answer conditional requests. Storages that are not able to provide such token, must return an {@link ErrorResult} with
+ * {@link com.here.naksha.lib.core.models.XyzError#NOT_IMPLEMENTED}, on success a {@link CollectionVersionResult} is returned.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class ReadCollectionVersion extends ReadRequest<ReadCollectionVersion> {
+
+  public ReadCollectionVersion() {}
+
+  public ReadCollectionVersion(@NotNull String collectionId) {
+    this.collectionId = collectionId;
+  }
+
+  /**
+   * The identifier of the collection.
+   */
+  @JsonProperty
+  protected @Nullable String collectionId;
+
+  public @Nullable String getCollectionId() {
+    return collectionId;
+  }
+
+  public void setCollectionId(@Nullable String collectionId) {
+    this.collectionId = collectionId;
+  }
+
+  public @NotNull ReadCollectionVersion withCollectionId(@Nullable String collectionId) {
+    this.collectionId = collectionId;
+    return self();
+  }
+}
@@ -18,8 +18,10 @@
  */
 package com.here.naksha.lib.core.models.storage;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.storage.transformation.GeometryTransformation;
 import java.util.ArrayList;
 import java.util.List;
 import org.jetbrains.annotations.ApiStatus.AvailableSince;
@@ -189,6 +191,138 @@ public class ReadFeatures extends ReadRequest<ReadFeatures> {
     return this;
   }
 
+  /**
+   * If the features should be returned ordered by their {@code id}. This is implicitly {@code true}, when {@link #afterId} is set.
+   */
+  @JsonProperty
+  @AvailableSince(NakshaVersion.v2_1_6)
+  private boolean orderById;
+
+  /**
+   * Returns {@code true} if the features should be returned ordered by their {@code id}.
+   *
+   * @return {@code true} if the features should be returned ordered by their {@code id}.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public boolean isOrderById() {
+    return orderById || afterId != null;
+  }
+
+  /**
+   * Sets if the features should be returned ordered by their {@code id}, this is required to start a keyset iteration.
+   *
+   * @param orderById {@code true} to return the features ordered by their {@code id}.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull ReadFeatures withOrderById(boolean orderById) {
+    this.orderById = orderById;
+    return this;
+  }
+
+  /**
+   * The keyset cursor, if not {@code null}, only features with an {@code id} greater than this one are returned, ordered by their
+   * {@code id}. This allows iterating over a collection page by page, where every page costs the same, independent of its position.
+   */
+  @JsonProperty
+  @AvailableSince(NakshaVersion.v2_1_6)
+  private @Nullable String afterId;
+
+  /**
+   * Returns the keyset cursor, so the {@code id} after which to continue reading.
+   *
+   * @return the keyset cursor, so the {@code id} after which to continue reading; {@code null} if none.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @Nullable String getAfterId() {
+    return afterId;
+  }
+
+  /**
+   * Sets the keyset cursor, so the {@code id} after which to continue reading.
+   *
+   * @param afterId the {@code id} of the last feature of the previous page; {@code null} to start from the beginning.
+   * @return the previously assigned keyset cursor.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @Nullable String setAfterId(@Nullable String afterId) {
+    final String old = this.afterId;
+    this.afterId = afterId;
+    return old;
+  }
+
+  /**
+   * Sets the keyset cursor, so the {@code id} after which to continue reading.
+   *
+   * @param afterId the {@code id} of the last feature of the previous page; {@code null} to start from the beginning.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull ReadFeatures withAfterId(@Nullable String afterId) {
+    this.afterId = afterId;
+    return this;
+  }
+
+  /**
+   * The transformation to apply to the geometry of the returned features, for example to clip and simplify them for a tile. Storages that
+   * do not support the transformation return the geometries unmodified.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  private @Nullable GeometryTransformation geometryTransformation;
+
+  /**
+   * Returns the transformation to apply to the geometry of the returned features.
+   *
+   * @return the transformation to apply to the geometry of the returned features; {@code null} if none.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @Nullable GeometryTransformation getGeometryTransformation() {
+    return geometryTransformation;
+  }
+
+  /**
+   * Sets the transformation to apply to the geometry of the returned features.
+   *
+   * @param geometryTransformation the transformation to apply; {@code null} to return the geometries unmodified.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull ReadFeatures withGeometryTransformation(@Nullable GeometryTransformation geometryTransformation) {
+    this.geometryTransformation = geometryTransformation;
+    return this;
+  }
+
+  /**
+   * The vector tile to render from the features, instead of returning them.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  private @Nullable MvtTile mvtTile;
+
+  /**
+   * Returns the vector tile to render from the features.
+   *
+   * @return the vector tile to render from the features; {@code null} if the features should be returned.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @Nullable MvtTile getMvtTile() {
+    return mvtTile;
+  }
+
+  /**
+   * Requests to render the features into the given vector tile, instead of returning them. Storages that support this return a
+   * {@link MvtResult}, all others ignore it and return the features.
+   *
+   * @param mvtTile the vector tile to render; {@code null} to return the features.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull ReadFeatures withMvtTile(@Nullable MvtTile mvtTile) {
+    this.mvtTile = mvtTile;
+    return this;
+  }
+
   @Override
   public ReadFeatures shallowClone() {
     // If you are updating this method, remember to update its overrides
@@ -200,6 +334,10 @@ public class ReadFeatures extends ReadRequest<ReadFeatures> {
     clone.returnDeleted = this.returnDeleted;
     clone.returnAllVersions = this.returnAllVersions;
     clone.fetchSize = this.fetchSize;
+    clone.orderById = this.orderById;
+    clone.afterId = this.afterId;
+    clone.geometryTransformation = this.geometryTransformation;
+    clone.mvtTile = this.mvtTile;
     return clone;
   }
 }
@@ -73,6 +73,10 @@ public class ReadFeaturesProxyWrapper extends ReadFeatures {
     clone.returnDeleted = this.returnDeleted;
     clone.withReturnAllVersions(isReturnAllVersions());
     clone.fetchSize = this.fetchSize;
+    clone.withOrderById(isOrderById());
+    clone.setAfterId(getAfterId());
+    clone.withGeometryTransformation(getGeometryTransformation());
+    clone.withMvtTile(getMvtTile());
 
     // ReadFeaturesProxyWrapper fields
     clone.withReadRequestType(this.getReadRequestType());
@@ -37,7 +37,8 @@ import org.jetbrains.annotations.ApiStatus.AvailableSince;
   @JsonSubTypes.Type(value = ReadCollections.class),
   @JsonSubTypes.Type(value = ReadTransactionsByComment.class),
   @JsonSubTypes.Type(value = ReadTransactionsForSequence.class),
-  @JsonSubTypes.Type(value = ReadTransactionsByTxn.class)
+  @JsonSubTypes.Type(value = ReadTransactionsByTxn.class),
+  @JsonSubTypes.Type(value = ReadCollectionVersion.class)
 })
 public class ReadRequest<SELF extends ReadRequest<SELF>> extends Request<SELF> {
 
@@ -19,11 +19,13 @@
 package com.here.naksha.lib.core.models.storage;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.here.naksha.lib.core.NakshaVersion;
 import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.models.Typed;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.naksha.XyzCollection;
 import java.util.Map;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -67,7 +69,10 @@ public abstract class Result implements Typed, AutoCloseable {
       @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory) throws NoCursor {
     if (cursor != null) {
       if (cursor instanceof HeapCacheCursor) {
-        cursor = ((HeapCacheCursor<?, ?>) cursor).getOriginalCursor();
+        ForwardCursor<?, ?> originalForwardCursor = ((HeapCacheCursor<?, ?>) cursor).getOriginalCursor();
+        if (originalForwardCursor != null) {
+          cursor = originalForwardCursor;
+        }
       }
       return cursor.withCodecFactory(codecFactory, true);
     }
@@ -249,6 +254,29 @@ public abstract class Result implements Typed, AutoCloseable {
     throw new NoCursor(this);
   }
 
+  /**
+   * Invokes the given action, when the cursor of this result is closed, or immediately, if this result has no cursor. This allows to hold
+   * a resource, for example a concurrency permit, until the result is consumed.
+   *
+   * @param action The action to invoke.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void onCursorClosed(@NotNull Runnable action) {
+    ForwardCursor<?, ?> cursor = this.cursor;
+    if (cursor instanceof HeapCacheCursor) {
+      // The original cursor may replace the cache later, closing the cache closes the original cursor as well.
+      final ForwardCursor<?, ?> originalCursor = ((HeapCacheCursor<?, ?>) cursor).getOriginalCursor();
+      if (originalCursor != null) {
+        cursor = originalCursor;
+      }
+    }
+    if (cursor != null) {
+      cursor.addOnClose(action);
+    } else {
+      action.run();
+    }
+  }
+
   /**
    * Closes the result, this includes closing the cursor. After having called this method, calling {@link #cursor(FeatureCodecFactory)}
    * should always throw a {@link NoCursor} exception.
@@ -110,4 +110,44 @@ public class WriteFeatures<
     this.collectionId = collectionId;
     return self();
   }
+
+  /**
+   * If the features should be written in bulk mode. In bulk mode the storage may use a faster ingestion path, for example streaming
+   * the features in a binary format into a staging area and merging them in one step. The result is the same as in normal mode.
+   */
+  @JsonProperty
+  @AvailableSince(NakshaVersion.v2_1_6)
+  private boolean bulk;
+
+  /**
+   * Returns {@code true}, if the features should be written in bulk mode.
+   *
+   * @return {@code true}, if the features should be written in bulk mode.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public boolean isBulk() {
+    return bulk;
+  }
+
+  /**
+   * Sets if the features should be written in bulk mode, recommended for imports of many features.
+   *
+   * @param bulk {@code true}, if the features should be written in bulk mode.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void setBulk(boolean bulk) {
+    this.bulk = bulk;
+  }
+
+  /**
+   * Sets if the features should be written in bulk mode, recommended for imports of many features.
+   *
+   * @param bulk {@code true}, if the features should be written in bulk mode.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull SELF withBulk(boolean bulk) {
+    this.bulk = bulk;
+    return self();
+  }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage.transformation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Clips the geometry to a rectangle, for example the bounds of a tile. The clipping is fast, but tolerant, so the resulting geometry
+ * might be invalid, which is acceptable for rendering.
+ */
+public class ClipTransformation extends GeometryTransformation {
+
+  private final double minLon;
+  private final double minLat;
+  private final double maxLon;
+  private final double maxLat;
+
+  public ClipTransformation(double minLon, double minLat, double maxLon, double maxLat) {
+    this(minLon, minLat, maxLon, maxLat, null);
+  }
+
+  public ClipTransformation(
+      double minLon,
+      double minLat,
+      double maxLon,
+      double maxLat,
+      @Nullable GeometryTransformation childTransformation) {
+    super(childTransformation);
+    this.minLon = minLon;
+    this.minLat = minLat;
+    this.maxLon = maxLon;
+    this.maxLat = maxLat;
+  }
+
+  public double getMinLon() {
+    return minLon;
+  }
+
+  public double getMinLat() {
+    return minLat;
+  }
+
+  public double getMaxLon() {
+    return maxLon;
+  }
+
+  public double getMaxLat() {
+    return maxLat;
+  }
+
+  public static GeometryTransformation clipToEnvelope(@NotNull Envelope envelope) {
+    return new ClipTransformation(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY());
+  }
+}
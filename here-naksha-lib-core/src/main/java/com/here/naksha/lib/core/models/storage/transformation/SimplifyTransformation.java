@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage.transformation;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Simplifies the geometry, while preserving its topology, so that no vertices are kept that are closer together than the tolerance.
+ */
+public class SimplifyTransformation extends GeometryTransformation {
+
+  /**
+   * The extent of a vector tile, so the amount of units in which a tile is rendered in either direction.
+   */
+  public static final int TILE_EXTENT = 4096;
+
+  private final double tolerance;
+
+  public SimplifyTransformation(double tolerance) {
+    this(tolerance, null);
+  }
+
+  public SimplifyTransformation(double tolerance, @Nullable GeometryTransformation childTransformation) {
+    super(childTransformation);
+    this.tolerance = tolerance;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Creates a simplification for a tile of the given width, which only removes details that are smaller than a unit of the rendered tile,
+   * so the tolerance grows with lower zoom levels.
+   *
+   * @param tileWidth           The width of the tile, in the units of the geometry.
+   * @param childTransformation The transformation to apply before, if any.
+   * @return the simplification.
+   */
+  public static GeometryTransformation simplifyForTile(
+      double tileWidth, @Nullable GeometryTransformation childTransformation) {
+    return new SimplifyTransformation(tileWidth / TILE_EXTENT, childTransformation);
+  }
+}
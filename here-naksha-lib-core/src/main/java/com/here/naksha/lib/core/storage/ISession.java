@@ -29,6 +29,14 @@ import org.jetbrains.annotations.ApiStatus.AvailableSince;
 @AvailableSince(NakshaVersion.v2_0_7)
 public interface ISession extends AutoCloseable {
 
+  /**
+   * Cancels the statement currently executed by this session, if there is any. Unlike all other methods, this method may be invoked from
+   * any thread, the thread executing the statement will receive an exception. The session stays usable, but should normally be closed.
+   * The default implementation does nothing, which is valid for sessions that do not support cancellation.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  default void cancel() {}
+
   /**
    * Closes the session, returns the underlying connection back to the connection pool. Any method of the session will from now on throw an
    * {@link IllegalStateException}.
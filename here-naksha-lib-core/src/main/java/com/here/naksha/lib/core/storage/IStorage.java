@@ -112,6 +112,32 @@ public interface IStorage extends AutoCloseable {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Tests whether the read sessions of this storage return the features ordered by their {@code id}, when requested via
+   * {@link com.here.naksha.lib.core.models.storage.ReadFeatures#withOrderById(boolean)}. Storages that ignore the flag must return
+   * {@code false}, which is the default.
+   *
+   * @return {@code true} if the storage honors the order by id; {@code false} otherwise.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  default boolean supportsOrderById() {
+    return false;
+  }
+
+  /**
+   * Tests whether the read sessions of this storage return the features of the given collection ordered by their {@code id}, when
+   * requested via {@link com.here.naksha.lib.core.models.storage.ReadFeatures#withOrderById(boolean)}. Storages that forward the
+   * requests of a collection to another storage, decided per collection, must override this method; by default, the answer of
+   * {@link #supportsOrderById()} is returned.
+   *
+   * @param collectionId the identifier of the collection.
+   * @return {@code true} if the storage honors the order by id for this collection; {@code false} otherwise.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  default boolean supportsOrderById(@NotNull String collectionId) {
+    return supportsOrderById();
+  }
+
   /**
    * Perform storage initialization, especially useful when invoked for the first time storage is to be accessed.
    */
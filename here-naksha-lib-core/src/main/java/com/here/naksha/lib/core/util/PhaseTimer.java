@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.util;
+
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Measures the time of one {@link Phase phase} of a request. Timers started by the same thread, while another timer is open, are nested:
+ * the time of the nested timer is not counted for the outer one, so that no time is counted twice. Only within an
+ * {@link Phase#ADMIN_LOOKUP} the nested timers do nothing, so that the admin lookup keeps all the time, including the SQL executed.
+ *
+ * <p>A timer must be closed by the thread that started it, ideally using try-with-resources.
+ */
+public final class PhaseTimer implements AutoCloseable {
+
+  private static final ThreadLocal<PhaseTimer> current = new ThreadLocal<>();
+
+  private static final PhaseTimer NONE = new PhaseTimer(null, Phase.HANDLER, null);
+
+  static @NotNull PhaseTimer start(final @Nullable StreamInfo streamInfo, final @NotNull Phase phase) {
+    if (streamInfo == null) {
+      return NONE;
+    }
+    final PhaseTimer parent = current.get();
+    if (parent != null && parent.phase.absorbsNested) {
+      return NONE;
+    }
+    final PhaseTimer timer = new PhaseTimer(streamInfo, phase, parent);
+    current.set(timer);
+    return timer;
+  }
+
+  private PhaseTimer(
+      final @Nullable StreamInfo streamInfo, final @NotNull Phase phase, final @Nullable PhaseTimer parent) {
+    this.streamInfo = streamInfo;
+    this.phase = phase;
+    this.parent = parent;
+    this.startNanos = System.nanoTime();
+  }
+
+  private final @Nullable StreamInfo streamInfo;
+  private final @NotNull Phase phase;
+  private final @Nullable PhaseTimer parent;
+  private final long startNanos;
+  private long nestedNanos;
+  private boolean closed;
+
+  /**
+   * Stops the timer and adds the time, without the time of nested timers, to the phase.
+   */
+  @Override
+  public void close() {
+    if (streamInfo == null || closed) {
+      return;
+    }
+    closed = true;
+    final long elapsed = System.nanoTime() - startNanos;
+    streamInfo.addPhaseTime(phase, Math.max(0L, elapsed - nestedNanos));
+    if (parent != null) {
+      parent.nestedNanos += elapsed;
+    }
+    current.set(parent);
+  }
+}
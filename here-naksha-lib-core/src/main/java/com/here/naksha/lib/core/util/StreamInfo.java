@@ -18,16 +18,73 @@
  */
 package com.here.naksha.lib.core.util;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class StreamInfo {
 
+  /**
+   * The phases of a request, for which the time is recorded, see {@link #startPhase(StreamInfo, Phase)}.
+   */
+  public enum Phase {
+    /**
+     * Resolving the space and creating the event pipeline, without the admin lookups.
+     */
+    PIPELINE_SETUP("pipelineSetup", false),
+    /**
+     * Reading spaces, event handlers or storages from the admin storage, including the SQL executed for it.
+     */
+    ADMIN_LOOKUP("adminLookup", true),
+    /**
+     * Acquiring a connection from the pool and preparing the session.
+     */
+    CONNECTION_ACQUIRE("connectionAcquire", false),
+    /**
+     * Executing the SQL until the first result-set is available.
+     */
+    SQL_EXECUTE("sqlExecute", false),
+    /**
+     * Fetching further batches of rows from the database, while the result-set is read.
+     */
+    ROW_FETCH("rowFetch", false),
+    /**
+     * Processing the event in the event handlers, without the time spent in the storage.
+     */
+    HANDLER("handler", false),
+    /**
+     * Serializing and writing the response.
+     */
+    SERIALIZATION("serialization", false);
+
+    Phase(@NotNull String label, boolean absorbsNested) {
+      this.label = label;
+      this.absorbsNested = absorbsNested;
+    }
+
+    /**
+     * The name of the phase in logs and metrics.
+     */
+    public final @NotNull String label;
+
+    /**
+     * If the phase keeps the time of nested phases, instead of attributing it to them.
+     */
+    final boolean absorbsNested;
+  }
+
   private String spaceId;
   private String storageId;
+  private String operation;
 
   private Long timeInStorageMs = 0L;
 
+  private final @NotNull AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+
   public void setSpaceId(final String spaceId) {
     this.spaceId = spaceId;
   }
@@ -56,6 +113,14 @@ public class StreamInfo {
     return this.storageId;
   }
 
+  public void setOperation(final String operation) {
+    this.operation = operation;
+  }
+
+  public String getOperation() {
+    return this.operation;
+  }
+
   public long getTimeInStorageMs() {
     return timeInStorageMs;
   }
@@ -64,6 +129,51 @@ public class StreamInfo {
     timeInStorageMs += diffMs;
   }
 
+  /**
+   * Adds the given time to the phase.
+   *
+   * @param phase The phase.
+   * @param nanos The time in nanoseconds.
+   */
+  public void addPhaseTime(final @NotNull Phase phase, final long nanos) {
+    phaseNanos.addAndGet(phase.ordinal(), nanos);
+  }
+
+  /**
+   * Returns the time recorded for the phase. Phases measured by concurrent threads, for example the layers of a view, are summed up, so
+   * that the total can be bigger than the time of the request.
+   *
+   * @param phase The phase.
+   * @return the time in nanoseconds.
+   */
+  public long getPhaseTimeNanos(final @NotNull Phase phase) {
+    return phaseNanos.get(phase.ordinal());
+  }
+
+  /**
+   * Returns the time recorded per phase in milliseconds, by the {@link Phase#label} of the phase.
+   *
+   * @return the time recorded per phase in milliseconds.
+   */
+  public @NotNull Map<@NotNull String, @NotNull Long> getPhaseTimesMs() {
+    final Map<String, Long> times = new LinkedHashMap<>();
+    for (final Phase phase : Phase.values()) {
+      times.put(phase.label, TimeUnit.NANOSECONDS.toMillis(getPhaseTimeNanos(phase)));
+    }
+    return times;
+  }
+
+  /**
+   * Starts measuring a phase of the request, the time is added to the given stream-info, when the returned timer is closed.
+   *
+   * @param streamInfo The stream-info of the request, if {@code null}, nothing is measured.
+   * @param phase      The phase to measure.
+   * @return the timer to close, when the phase is done.
+   */
+  public static @NotNull PhaseTimer startPhase(final @Nullable StreamInfo streamInfo, final @NotNull Phase phase) {
+    return PhaseTimer.start(streamInfo, phase);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
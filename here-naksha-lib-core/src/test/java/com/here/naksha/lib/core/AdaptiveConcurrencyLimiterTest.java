@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core;
+
+import static com.here.naksha.lib.core.AdaptiveConcurrencyLimiter.DEFAULT_OPERATION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.exceptions.TooManyTasks;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.ContextXyzFeatureResult;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.ListBasedForwardCursor;
+import com.here.naksha.lib.core.models.storage.SuccessResult;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  void waitsInQueueAndShedsWhenFull() throws Exception {
+    final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 1, 10_000);
+    final AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+    final CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting =
+        CompletableFuture.supplyAsync(limiter::acquire);
+    while (limiter.getQueued() == 0) {
+      Thread.sleep(1);
+    }
+    // The queue is full, the next caller is rejected immediately.
+    assertThrows(TooManyTasks.class, limiter::acquire);
+    permit.close();
+    waiting.get(10, TimeUnit.SECONDS).close();
+    assertEquals(0, limiter.getInFlight());
+    assertEquals(1, limiter.getRejected());
+  }
+
+  @Test
+  void shedsWhenTheDeadlineCanNotBeMet() {
+    final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 10, 10_000);
+    limiter.acquire().close();
+    limiter.acquire();
+    // The deadline passes, while waiting.
+    final long start = System.nanoTime();
+    assertThrows(TooManyTasks.class, () -> limiter.acquire(start + MILLISECONDS.toNanos(20)));
+    assertTrue(System.nanoTime() - start >= MILLISECONDS.toNanos(20));
+    assertEquals(0, limiter.getQueued());
+    // The recent latency is one second, so a deadline in 100ms can't be met and the caller is rejected without waiting.
+    limiter.release(DEFAULT_OPERATION, TimeUnit.SECONDS.toNanos(1));
+    limiter.acquire();
+    assertThrows(TooManyTasks.class, () -> limiter.acquire(System.nanoTime() + MILLISECONDS.toNanos(100)));
+    assertEquals(0, limiter.getQueued());
+  }
+
+  @Test
+  void limitFollowsTheLatency() {
+    final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 2, 10, 0, 0);
+    final long fast = MILLISECONDS.toNanos(10);
+    // While the permits are used and the latency is stable, the limit grows.
+    for (int i = 0; i < 20; i++) {
+      final int limit = limiter.getLimit();
+      for (int j = 0; j < limit; j++) {
+        limiter.acquire();
+      }
+      for (int j = 0; j < limit; j++) {
+        limiter.release(DEFAULT_OPERATION, fast);
+      }
+    }
+    final int grown = limiter.getLimit();
+    assertTrue(grown > 4, "limit should grow, but is " + grown);
+
+    // When the latency rises, the limit drops, but not below the minimum.
+    limiter.acquire();
+    limiter.release(DEFAULT_OPERATION, fast * 10);
+    assertTrue(limiter.getLimit() < grown);
+    for (int i = 0; i < 30; i++) {
+      limiter.acquire();
+      limiter.release(DEFAULT_OPERATION, fast * 10);
+    }
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  void keepsTheLatencyPerOperation() {
+    final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 2, 10, 0, 0);
+    final long fast = MILLISECONDS.toNanos(1);
+    final long slow = MILLISECONDS.toNanos(100);
+    limiter.acquire("read", 0);
+    limiter.release("read", fast);
+    limiter.acquire("write", 0);
+    limiter.release("write", slow);
+    final int limit = limiter.getLimit();
+    // A slow operation is only compared with itself, so mixing it with fast ones does not shrink the limit.
+    for (int i = 0; i < 10; i++) {
+      limiter.acquire("read", 0);
+      limiter.release("read", fast);
+      limiter.acquire("write", 0);
+      limiter.release("write", slow);
+    }
+    assertTrue(limiter.getLimit() >= limit, "limit should not drop, but is " + limiter.getLimit());
+  }
+
+  @Test
+  void holdsThePermitUntilTheCursorIsClosed() {
+    final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 0, 0);
+    final AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+    final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+        new ListBasedForwardCursor<>(XyzFeatureCodecFactory.get(), List.of());
+    final ContextXyzFeatureResult result = new ContextXyzFeatureResult(cursor);
+    permit.closeWhenConsumed(result);
+    assertEquals(1, limiter.getInFlight());
+    assertThrows(TooManyTasks.class, limiter::acquire);
+    result.close();
+    assertEquals(0, limiter.getInFlight());
+    // A result without cursor releases the permit immediately, closing twice has no effect.
+    final AdaptiveConcurrencyLimiter.Permit other = limiter.acquire();
+    other.closeWhenConsumed(new SuccessResult());
+    other.close();
+    assertEquals(0, limiter.getInFlight());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.geojson.coordinates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+
+class WkbGeoJsonWriterTest {
+
+  private static Stream<Arguments> geometries() {
+    return Stream.of(
+        Arguments.of("POINT (1.5 2.5)", 2),
+        Arguments.of("POINT Z (1.5 2.5 3.5)", 3),
+        Arguments.of("LINESTRING (0 0, 1 1, 2 0.125)", 2),
+        Arguments.of("LINESTRING Z (0 0 0, 1 1 1, 2 0.125 -3)", 3),
+        Arguments.of("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))", 2),
+        Arguments.of("MULTIPOINT ((1 2), (3 4))", 2),
+        Arguments.of("MULTILINESTRING ((0 0, 1 1), (2 2, 3 3, 4 5))", 2),
+        Arguments.of("MULTIPOLYGON Z (((0 0 1, 1 0 1, 1 1 1, 0 0 1)), ((5 5 2, 6 5 2, 6 6 2, 5 5 2)))", 3),
+        Arguments.of("GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1))", 2),
+        Arguments.of("LINESTRING EMPTY", 2));
+  }
+
+  @ParameterizedTest
+  @MethodSource("geometries")
+  void shouldWriteSameGeoJsonAsJts(String wkt, int dimension) throws Exception {
+    // given
+    Geometry geometry = new WKTReader().read(wkt);
+    geometry.setSRID(4326);
+
+    for (int byteOrder : new int[] {ByteOrderValues.LITTLE_ENDIAN, ByteOrderValues.BIG_ENDIAN}) {
+      for (boolean includeSrid : new boolean[] {true, false}) {
+        byte[] wkb = new WKBWriter(dimension, byteOrder, includeSrid).write(geometry);
+
+        // when
+        String geoJson = WkbGeoJsonWriter.toGeoJson(wkb);
+
+        // then
+        assertEquals(expectedGeoJson(wkb), geoJson, wkt);
+      }
+    }
+  }
+
+  @Test
+  void shouldRejectInvalidWkb() throws Exception {
+    // given
+    byte[] wkb = new WKBWriter().write(new WKTReader().read("LINESTRING (0 0, 1 1)"));
+    byte[] truncated = new byte[wkb.length - 4];
+    System.arraycopy(wkb, 0, truncated, 0, truncated.length);
+
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> WkbGeoJsonWriter.toGeoJson(truncated));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> WkbGeoJsonWriter.toGeoJson(new WKBWriter().write(new WKTReader().read("POINT EMPTY"))));
+  }
+
+  private static String expectedGeoJson(byte[] wkb) throws Exception {
+    try (Json jp = Json.get()) {
+      return JsonSerializable.serialize(JTSHelper.fromGeometry(jp.wkbReader.read(wkb)));
+    }
+  }
+}
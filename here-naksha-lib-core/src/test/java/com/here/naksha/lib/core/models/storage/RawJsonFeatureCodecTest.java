@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+class RawJsonFeatureCodecTest {
+
+  private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+  @Test
+  void shouldReturnJsonAsIsWithoutGeometry() {
+    // given
+    String json = "{\"id\":\"foo\",\"type\":\"Feature\"}";
+
+    // expect
+    assertSame(json, RawJsonFeatureCodec.withGeometry(json, null));
+  }
+
+  @Test
+  void shouldAddGeometry() {
+    // given
+    String json = "{\"id\":\"foo\",\"type\":\"Feature\"}";
+    Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(1.5, 2.5));
+
+    // when
+    String result = RawJsonFeatureCodec.withGeometry(json, point);
+
+    // then
+    assertTrue(result.startsWith("{\"id\":\"foo\",\"type\":\"Feature\",\"geometry\":{"), result);
+    assertTrue(result.contains("\"type\":\"Point\""), result);
+    assertTrue(result.contains("[1.5,2.5"), result);
+    assertTrue(result.endsWith("}}"), result);
+  }
+
+  @Test
+  void shouldAddGeometryToEmptyObject() {
+    // given
+    Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(1.5, 2.5));
+
+    // expect
+    assertTrue(RawJsonFeatureCodec.withGeometry("{ }", point).startsWith("{ \"geometry\":{"));
+    assertThrows(IllegalArgumentException.class, () -> RawJsonFeatureCodec.withGeometry("[1,2]", point));
+  }
+
+  @Test
+  void shouldEncodeFeatureWithoutParsing() {
+    // given
+    RawJsonFeatureCodec codec = RawJsonFeatureCodecFactory.get().newInstance();
+    codec.setJson("{\"id\":\"foo\",\"type\":\"Feature\",\"unknown\":{\"kept\":true}}");
+    codec.setGeometry(GEOMETRY_FACTORY.createPoint(new Coordinate(1.5, 2.5)));
+
+    // when
+    String feature = codec.encodeFeature(false).getFeature();
+
+    // then
+    assertNotNull(feature);
+    XyzFeature xyzFeature = JsonSerializable.deserialize(feature, XyzFeature.class);
+    assertNotNull(xyzFeature);
+    assertEquals("foo", xyzFeature.getId());
+    assertNotNull(xyzFeature.getGeometry());
+    assertTrue(feature.contains("\"unknown\":{\"kept\":true}"), feature);
+  }
+
+  @Test
+  void shouldCopyModifiedFeatureFromXyzCodec() {
+    // given
+    XyzFeature xyzFeature = new XyzFeature("foo");
+    xyzFeature.getProperties().put("modified", true);
+    XyzFeatureCodec xyzCodec = XyzFeatureCodecFactory.get().newInstance();
+    xyzCodec.setFeature(xyzFeature);
+    ListBasedForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+        new ListBasedForwardCursor<>(XyzFeatureCodecFactory.get(), List.of(xyzCodec));
+
+    // when
+    ForwardCursor<String, RawJsonFeatureCodec> rawCursor =
+        cursor.withCodecFactory(RawJsonFeatureCodecFactory.get(), true);
+
+    // then
+    assertTrue(rawCursor.next());
+    String feature = rawCursor.getFeature();
+    assertNotNull(feature);
+    assertTrue(feature.contains("\"modified\":true"), feature);
+    assertEquals("foo", rawCursor.getId());
+  }
+}
@@ -1,10 +1,12 @@
 package com.here.naksha.lib.core.models.storage;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
 import com.here.naksha.lib.core.util.json.Json;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class ReadFeaturesTest {
 
@@ -18,7 +20,22 @@ public class ReadFeaturesTest {
     String json = jsonGenerator.writer().writeValueAsString(readFeatures);
 
     // then
-    String expectedJson = "{\"type\":\"ReadFeatures\",\"collections\":[],\"fetchSize\":1000,\"limit\":1000000,\"returnDeleted\":false}";
+    String expectedJson = "{\"type\":\"ReadFeatures\",\"collections\":[],\"fetchSize\":1000,\"limit\":1000000,\"orderById\":false,\"returnDeleted\":false}";
     assertEquals(expectedJson, json, "there is a property change in ReadFeatures, add it to shallowCopy and update json");
   }
+
+  @Test
+  void testShallowCopyKeepsMvtTile() {
+    // given
+    MvtTile mvtTile = new MvtTile(WebMercatorTile.forQuadkey("120203302"), "layer", 16);
+    ReadFeatures readFeatures = new ReadFeaturesProxyWrapper().withMvtTile(mvtTile);
+
+    // when
+    ReadFeatures clone = readFeatures.shallowClone();
+
+    // then
+    assertSame(mvtTile, clone.getMvtTile());
+    assertSame(mvtTile, new ReadFeatures().withMvtTile(mvtTile).shallowClone().getMvtTile());
+    assertEquals(256, mvtTile.getBuffer());
+  }
 }
@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class ResultTest {
@@ -48,4 +49,18 @@ public class ResultTest {
     assertEquals(9, forwardCursorAgain.position);
     assertSame(forwardCursor, forwardCursorAgain);
   }
+
+  @Test
+  void shouldReturnHeapCacheCursorWithoutOriginalCursor() throws NoCursor {
+    // given
+    XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance();
+    codec.setFeature(new XyzFeature("foo"));
+    codec.decodeParts(true);
+    SuccessResult result = new MockResult<>(new HeapCacheCursor<>(XyzFeatureCodecFactory.get(), List.of(codec), null));
+
+    // expect
+    ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.cursor(XyzFeatureCodecFactory.get());
+    assertTrue(cursor.next());
+    assertEquals("foo", cursor.getId());
+  }
 }
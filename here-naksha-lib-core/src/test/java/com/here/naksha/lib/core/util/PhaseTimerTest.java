@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.util;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PhaseTimerTest {
+
+  @Test
+  void shouldNotCountNestedPhaseForOuterPhase() throws InterruptedException {
+    // Given:
+    final StreamInfo streamInfo = new StreamInfo();
+
+    // When: a SQL execution of 50ms is nested in a handler, that takes 10ms on its own
+    try (final PhaseTimer handler = StreamInfo.startPhase(streamInfo, Phase.HANDLER)) {
+      Thread.sleep(10);
+      try (final PhaseTimer sql = StreamInfo.startPhase(streamInfo, Phase.SQL_EXECUTE)) {
+        Thread.sleep(50);
+      }
+    }
+
+    // Then:
+    final long handlerMs = NANOSECONDS.toMillis(streamInfo.getPhaseTimeNanos(Phase.HANDLER));
+    final long sqlMs = NANOSECONDS.toMillis(streamInfo.getPhaseTimeNanos(Phase.SQL_EXECUTE));
+    assertTrue(sqlMs >= 50, "sqlExecute was " + sqlMs + "ms");
+    assertTrue(handlerMs >= 10 && handlerMs < 50, "handler was " + handlerMs + "ms");
+  }
+
+  @Test
+  void shouldKeepNestedPhasesInAdminLookup() throws InterruptedException {
+    // Given:
+    final StreamInfo streamInfo = new StreamInfo();
+
+    // When: the admin storage is read within an admin lookup
+    try (final PhaseTimer lookup = StreamInfo.startPhase(streamInfo, Phase.ADMIN_LOOKUP)) {
+      try (final PhaseTimer acquire = StreamInfo.startPhase(streamInfo, Phase.CONNECTION_ACQUIRE);
+          final PhaseTimer sql = StreamInfo.startPhase(streamInfo, Phase.SQL_EXECUTE)) {
+        Thread.sleep(20);
+      }
+    }
+
+    // Then: all time is counted for the admin lookup
+    assertTrue(streamInfo.getPhaseTimeNanos(Phase.ADMIN_LOOKUP) >= MILLISECONDS.toNanos(20));
+    assertEquals(0, streamInfo.getPhaseTimeNanos(Phase.CONNECTION_ACQUIRE));
+    assertEquals(0, streamInfo.getPhaseTimeNanos(Phase.SQL_EXECUTE));
+  }
+
+  @Test
+  void shouldMeasureAgainAfterNestedTimersAreClosed() {
+    // Given:
+    final StreamInfo streamInfo = new StreamInfo();
+
+    // When: a phase is started after the admin lookup was closed
+    try (final PhaseTimer lookup = StreamInfo.startPhase(streamInfo, Phase.ADMIN_LOOKUP)) {
+      try (final PhaseTimer sql = StreamInfo.startPhase(streamInfo, Phase.SQL_EXECUTE)) {
+        // ignored
+      }
+    }
+    try (final PhaseTimer fetch = StreamInfo.startPhase(streamInfo, Phase.ROW_FETCH)) {
+      // measured
+    }
+
+    // Then:
+    assertTrue(streamInfo.getPhaseTimeNanos(Phase.ROW_FETCH) > 0);
+  }
+
+  @Test
+  void shouldIgnoreMissingStreamInfo() {
+    // When: no stream-info is available, the timer does nothing and does not break nesting
+    final StreamInfo streamInfo = new StreamInfo();
+    try (final PhaseTimer none = StreamInfo.startPhase(null, Phase.ADMIN_LOOKUP)) {
+      try (final PhaseTimer sql = StreamInfo.startPhase(streamInfo, Phase.SQL_EXECUTE)) {
+        // measured
+      }
+    }
+
+    // Then:
+    assertTrue(streamInfo.getPhaseTimeNanos(Phase.SQL_EXECUTE) > 0);
+  }
+
+  @Test
+  void shouldReportAllPhasesInMilliseconds() {
+    // Given:
+    final StreamInfo streamInfo = new StreamInfo();
+    streamInfo.addPhaseTime(Phase.SERIALIZATION, MILLISECONDS.toNanos(7));
+
+    // Then:
+    assertEquals(
+        Arrays.stream(Phase.values()).map(phase -> phase.label).collect(Collectors.toList()),
+        streamInfo.getPhaseTimesMs().keySet().stream().collect(Collectors.toList()));
+    assertEquals(7L, streamInfo.getPhaseTimesMs().get("serialization"));
+    assertEquals(0L, streamInfo.getPhaseTimesMs().get("sqlExecute"));
+  }
+}
@@ -29,10 +29,14 @@ import static com.here.naksha.lib.psql.EPsqlState.COLLECTION_DOES_NOT_EXIST;
 import static com.here.naksha.lib.psql.EPsqlState.UNDEFINED_TABLE;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+import com.here.naksha.lib.core.AbstractTask;
+import com.here.naksha.lib.core.AdaptiveConcurrencyLimiter;
 import com.here.naksha.lib.core.IEvent;
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.NakshaVersion;
 import com.here.naksha.lib.core.exceptions.StorageNotInitialized;
+import com.here.naksha.lib.core.exceptions.TooManyTasks;
 import com.here.naksha.lib.core.lambdas.F1;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
@@ -42,7 +46,9 @@ import com.here.naksha.lib.core.models.naksha.SpaceProperties;
 import com.here.naksha.lib.core.models.naksha.XyzCollection;
 import com.here.naksha.lib.core.models.storage.EWriteOp;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ReadCollectionVersion;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.ReadRequest;
 import com.here.naksha.lib.core.models.storage.Request;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
@@ -63,7 +69,9 @@ import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.time.StopWatch;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -87,12 +95,23 @@ public class DefaultStorageHandler extends AbstractEventHandler {
     this.properties = JsonSerializable.convert(eventHandler.getProperties(), DefaultStorageHandlerProperties.class);
   }
 
+  /**
+   * Returns the identifier of the storage, to which this handler forwards the requests.
+   *
+   * @return the identifier of the storage, {@code null} if none is configured.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @Nullable String getStorageId() {
+    return properties.getStorageId();
+  }
+
   @Override
   protected EventProcessingStrategy processingStrategyFor(IEvent event) {
     final Request<?> request = event.getRequest();
     if (request instanceof ReadFeatures
         || request instanceof WriteFeatures
-        || request instanceof WriteCollections) {
+        || request instanceof WriteCollections
+        || request instanceof ReadCollectionVersion) {
       return PROCESS;
     }
     return NOT_IMPLEMENTED;
@@ -121,10 +140,28 @@ public class DefaultStorageHandler extends AbstractEventHandler {
     applyCollectionId(request, collection.getId());
 
     StopWatch storageTimer = new StopWatch();
+    // Requests to a slow storage are queued or rejected here, so that they can't occupy all workers.
+    final AdaptiveConcurrencyLimiter limiter =
+        AbstractTask.getConcurrencyLimitManager().getStorageLimiter(storageId);
+    final AdaptiveConcurrencyLimiter.Permit permit;
+    try {
+      permit = limiter.acquire(request.getClass().getSimpleName(), limiter.deadlineOf(ctx.getDeadlineNanos()));
+    } catch (TooManyTasks e) {
+      logger.info("Request rejected by storage limiter: {}", e.getMessage());
+      return new ErrorResult(XyzError.TOO_MANY_REQUESTS, e.getMessage());
+    }
+    Result result = null;
     try {
-      return forwardRequestToStorage(ctx, request, storageImpl, collection, FIRST_ATTEMPT, storageTimer);
+      result = forwardRequestToStorage(ctx, event, request, storageImpl, collection, FIRST_ATTEMPT, storageTimer);
+      return result;
     } finally {
       addStorageTimeToStreamInfo(storageTimer, ctx);
+      // The cursor of a read result still reads from the storage, so the permit is held, until it is closed.
+      if (result != null && request instanceof ReadRequest<?>) {
+        permit.closeWhenConsumed(result);
+      } else {
+        permit.close();
+      }
     }
   }
 
@@ -163,17 +200,22 @@ public class DefaultStorageHandler extends AbstractEventHandler {
 
   private @NotNull Result forwardRequestToStorage(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull Request<?> request,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull OperationAttempt currentAttempt,
       final @NotNull StopWatch storageTimer) {
     if (request instanceof ReadFeatures rf) {
-      return forwardReadFeatures(ctx, storageImpl, collection, rf, currentAttempt, storageTimer);
+      return forwardReadFeatures(ctx, event, storageImpl, collection, rf, currentAttempt, storageTimer);
     } else if (request instanceof WriteFeatures<?, ?, ?> wf) {
-      return forwardWriteFeatures(ctx, storageImpl, collection, wf, currentAttempt, storageTimer);
+      return forwardWriteFeatures(ctx, event, storageImpl, collection, wf, currentAttempt, storageTimer);
     } else if (request instanceof WriteCollections<?, ?, ?> wc) {
-      return forwardWriteCollections(ctx, storageImpl, collection, wc, currentAttempt, storageTimer);
+      return forwardWriteCollections(ctx, event, storageImpl, collection, wc, currentAttempt, storageTimer);
+    } else if (request instanceof ReadCollectionVersion rcv) {
+      // No reattempt, the caller falls back to reading the features, if the version is unknown.
+      logger.info("Processing ReadCollectionVersion against {}", collection.getId());
+      return measuredStorageSupplier(() -> singleRead(ctx, event, storageImpl, rcv), storageTimer);
     } else {
       return notImplemented(request);
     }
@@ -181,6 +223,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
 
   private @NotNull Result forwardReadFeatures(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull ReadFeatures rf,
@@ -188,21 +231,27 @@ public class DefaultStorageHandler extends AbstractEventHandler {
       final @NotNull StopWatch storageTimer) {
     logger.info("Processing ReadFeatures against {}", collection.getId());
     try {
-      return measuredStorageSupplier(() -> singleRead(ctx, storageImpl, rf), storageTimer);
+      return measuredStorageSupplier(() -> singleRead(ctx, event, storageImpl, rf), storageTimer);
     } catch (RuntimeException re) {
-      return reattemptFeatureRequest(ctx, storageImpl, collection, rf, currentAttempt, re, storageTimer);
+      return reattemptFeatureRequest(ctx, event, storageImpl, collection, rf, currentAttempt, re, storageTimer);
     }
   }
 
   private @NotNull Result singleRead(
-      final @NotNull NakshaContext ctx, final @NotNull IStorage storageImpl, final @NotNull ReadFeatures rf) {
+      final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
+      final @NotNull IStorage storageImpl,
+      final @NotNull ReadRequest<?> readRequest) {
     try (final IReadSession reader = storageImpl.newReadSession(ctx, false)) {
-      return reader.execute(rf);
+      // A view may cancel the read of a layer, that takes too long.
+      event.addSession(reader);
+      return reader.execute(readRequest);
     }
   }
 
   private @NotNull Result forwardWriteFeatures(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull WriteFeatures<?, ?, ?> wf,
@@ -213,12 +262,14 @@ public class DefaultStorageHandler extends AbstractEventHandler {
         ctx,
         storageImpl,
         wf,
-        re -> reattemptFeatureRequest(ctx, storageImpl, collection, wf, operationAttempt, re, storageTimer),
+        re -> reattemptFeatureRequest(
+            ctx, event, storageImpl, collection, wf, operationAttempt, re, storageTimer),
         storageTimer);
   }
 
   private @NotNull Result forwardWriteCollections(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull WriteCollections<?, ?, ?> wc,
@@ -232,7 +283,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
             storageImpl,
             wc,
             re -> reattemptCollectionRequest(
-                ctx, storageImpl, collection, wc, operationAttempt, re, storageTimer),
+                ctx, event, storageImpl, collection, wc, operationAttempt, re, storageTimer),
             storageTimer);
       } else {
         logger.info(
@@ -246,7 +297,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
             storageImpl,
             wc,
             re -> reattemptCollectionRequest(
-                ctx, storageImpl, collection, wc, operationAttempt, re, storageTimer),
+                ctx, event, storageImpl, collection, wc, operationAttempt, re, storageTimer),
             storageTimer);
       } else {
         logger.info(
@@ -301,6 +352,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
 
   private @NotNull Result reattemptFeatureRequest(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull Request<?> request,
@@ -309,15 +361,16 @@ public class DefaultStorageHandler extends AbstractEventHandler {
       final @NotNull StopWatch storageTimer) {
     return switch (previousAttempt) {
       case FIRST_ATTEMPT -> reattemptFeatureRequestForTheFirstTime(
-          ctx, storageImpl, collection, request, re, storageTimer);
+          ctx, event, storageImpl, collection, request, re, storageTimer);
       case ATTEMPT_AFTER_STORAGE_INITIALIZATION -> reattemptAfterStorageInitialization(
-          ctx, storageImpl, collection, request, re, storageTimer);
+          ctx, event, storageImpl, collection, request, re, storageTimer);
       case ATTEMPT_AFTER_COLLECTION_CREATION -> throw re;
     };
   }
 
   private @NotNull Result reattemptCollectionRequest(
       NakshaContext ctx,
+      final @NotNull IEvent event,
       IStorage storageImpl,
       XyzCollection collection,
       WriteCollections<?, ?, ?> wc,
@@ -325,7 +378,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
       RuntimeException re,
       StopWatch storageTimer) {
     if (previousAttempt == FIRST_ATTEMPT && re instanceof StorageNotInitialized) {
-      return retryDueToUninitializedStorage(ctx, storageImpl, collection, wc, storageTimer);
+      return retryDueToUninitializedStorage(ctx, event, storageImpl, collection, wc, storageTimer);
     }
     logger.warn(
         "No further reattempt strategy available for WriteCollections request (collectionId: {}, previous attempt: {}. Rethrowing original exception",
@@ -336,16 +389,17 @@ public class DefaultStorageHandler extends AbstractEventHandler {
 
   private @NotNull Result reattemptFeatureRequestForTheFirstTime(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull Request<?> request,
       final @NotNull RuntimeException re,
       final @NotNull StopWatch storageTimer) {
     if (re instanceof StorageNotInitialized) {
-      return retryDueToUninitializedStorage(ctx, storageImpl, collection, request, storageTimer);
+      return retryDueToUninitializedStorage(ctx, event, storageImpl, collection, request, storageTimer);
     } else if (indicatesMissingCollection(re)) {
       try {
-        return retryDueToMissingCollection(ctx, storageImpl, collection, request, storageTimer);
+        return retryDueToMissingCollection(ctx, event, storageImpl, collection, request, storageTimer);
       } catch (MissingCollectionsException mce) {
         logger.info("Retrying due to missing collection failed", mce);
         return mce.toErrorResult();
@@ -357,6 +411,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
 
   private @NotNull Result reattemptAfterStorageInitialization(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull Request<?> request,
@@ -364,7 +419,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
       final @NotNull StopWatch storageTimer) {
     if (indicatesMissingCollection(re)) {
       try {
-        return retryDueToMissingCollection(ctx, storageImpl, collection, request, storageTimer);
+        return retryDueToMissingCollection(ctx, event, storageImpl, collection, request, storageTimer);
       } catch (MissingCollectionsException mce) {
         logger.info("Retrying due to missing collection failed", mce);
         return mce.toErrorResult();
@@ -384,6 +439,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
   @NotNull
   private Result retryDueToUninitializedStorage(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull Request<?> request,
@@ -392,11 +448,12 @@ public class DefaultStorageHandler extends AbstractEventHandler {
     measuredStorageRunnable(storageImpl::initStorage, storageTimer);
     logger.info("Storage initialized");
     return forwardRequestToStorage(
-        ctx, request, storageImpl, collection, ATTEMPT_AFTER_STORAGE_INITIALIZATION, storageTimer);
+        ctx, event, request, storageImpl, collection, ATTEMPT_AFTER_STORAGE_INITIALIZATION, storageTimer);
   }
 
   private Result retryDueToMissingCollection(
       final @NotNull NakshaContext ctx,
+      final @NotNull IEvent event,
       final @NotNull IStorage storageImpl,
       final @NotNull XyzCollection collection,
       final @NotNull Request<?> request,
@@ -409,7 +466,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
       measuredStorageRunnable(() -> createXyzCollection(ctx, storageImpl, collection), storageTimer);
       logger.info("Created collection {}, forwarding the request once again", collection.getId());
       return forwardRequestToStorage(
-          ctx, request, storageImpl, collection, ATTEMPT_AFTER_COLLECTION_CREATION, storageTimer);
+          ctx, event, request, storageImpl, collection, ATTEMPT_AFTER_COLLECTION_CREATION, storageTimer);
     } else {
       logger.warn(
           "Collection auto creation is disabled, failing due to missing collection specified in request: {}",
@@ -425,6 +482,8 @@ public class DefaultStorageHandler extends AbstractEventHandler {
       wf.setCollectionId(customCollectionId);
     } else if (request instanceof WriteCollections<?, ?, ?> wc) {
       collectionsFrom(wc).forEach(collection -> collection.setId(customCollectionId));
+    } else if (request instanceof ReadCollectionVersion rcv) {
+      rcv.setCollectionId(customCollectionId);
     }
   }
 
@@ -455,13 +514,24 @@ public class DefaultStorageHandler extends AbstractEventHandler {
             "Using collection with id {} that is associated with Space(id={})",
             collectionDefinedInSpace.getId(),
             s.getId());
-        return collectionDefinedInSpace;
+        return withSpaceIndices(collectionDefinedInSpace, s);
       }
     }
     logger.info(
         "No collection definition found in Handler & Space properties, using default one with event target id: {}",
         eventTarget.getId());
-    return new XyzCollection(eventTarget.getId());
+    final XyzCollection collection = new XyzCollection(eventTarget.getId());
+    return eventTarget instanceof Space s ? withSpaceIndices(collection, s) : collection;
+  }
+
+  /**
+   * Declares the indices of the space at the collection, unless the collection declares own ones, so that the storage maintains them.
+   */
+  private static @NotNull XyzCollection withSpaceIndices(@NotNull XyzCollection collection, @NotNull Space space) {
+    if (collection.getIndices() == null && space.getIndices() != null) {
+      collection.setIndices(space.getIndices());
+    }
+    return collection;
   }
 
   private @NotNull Stream<@NotNull XyzCollection> collectionsFrom(@NotNull WriteCollections<?, ?, ?> wc) {
@@ -20,9 +20,12 @@ package com.here.naksha.lib.handlers;
 
 import static com.here.naksha.lib.handlers.AbstractEventHandler.EventProcessingStrategy.*;
 
+import com.here.naksha.lib.core.AbstractTask;
+import com.here.naksha.lib.core.AdaptiveConcurrencyLimiter;
 import com.here.naksha.lib.core.IEvent;
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.exceptions.TooManyTasks;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
@@ -30,6 +33,7 @@ import com.here.naksha.lib.core.models.naksha.EventTarget;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.core.storage.IStorage;
 import com.here.naksha.lib.core.storage.IWriteSession;
+import com.here.naksha.lib.core.util.NanoTime;
 import com.here.naksha.lib.core.util.json.JsonSerializable;
 import com.here.naksha.lib.handlers.DefaultViewHandlerProperties.ViewType;
 import com.here.naksha.lib.view.*;
@@ -40,6 +44,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -103,7 +108,7 @@ public class DefaultViewHandler extends AbstractEventHandler {
             prepareViewLayerCollection(nakshaHub().getSpaceStorage(), properties.getSpaceIds()));
         // TODO MCPODS-7046 Replace the way how view is created. Should be immutable without need to use set
         // method.
-        return processRequest(ctx, view, request);
+        return processRequest(ctx, storageId, view, request);
       }
     } else {
       logger.error("Associated storage doesn't implement View, so can't process this request");
@@ -111,9 +116,9 @@ public class DefaultViewHandler extends AbstractEventHandler {
     }
   }
 
-  private Result processRequest(NakshaContext ctx, IView view, Request<?> request) {
+  private Result processRequest(NakshaContext ctx, String storageId, IView view, Request<?> request) {
     if (request instanceof ReadFeatures rf) {
-      return forwardReadFeatures(ctx, view, rf);
+      return forwardReadFeatures(ctx, storageId, view, rf);
     } else if (request instanceof WriteFeatures<?, ?, ?> wf) {
       return forwardWriteFeatures(ctx, view, wf);
     } else if (request instanceof WriteCollections<?, ?, ?> wc) {
@@ -129,9 +134,48 @@ public class DefaultViewHandler extends AbstractEventHandler {
     }
   }
 
-  private Result forwardReadFeatures(NakshaContext ctx, IView view, ReadFeatures rf) {
+  private Result forwardReadFeatures(NakshaContext ctx, String storageId, IView view, ReadFeatures rf) {
+    final Long timeoutMillis = properties.getTimeoutMillis();
+    if (timeoutMillis != null && timeoutMillis > 0) {
+      // The layers wait for their storages at most until the deadline of the view.
+      final long deadlineNanos = ctx.startNanos() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      if (ctx.getDeadlineNanos() == 0 || deadlineNanos - ctx.getDeadlineNanos() < 0) {
+        ctx.setDeadlineNanos(deadlineNanos);
+      }
+    }
+    // Reads of a slow view are queued or rejected here, the permit is held until the merged cursor is closed.
+    final AdaptiveConcurrencyLimiter limiter =
+        AbstractTask.getConcurrencyLimitManager().getStorageLimiter(storageId);
+    final AdaptiveConcurrencyLimiter.Permit permit;
+    try {
+      permit = limiter.acquire(rf.getClass().getSimpleName(), limiter.deadlineOf(ctx.getDeadlineNanos()));
+    } catch (TooManyTasks e) {
+      logger.info("Request rejected by view limiter: {}", e.getMessage());
+      return new ErrorResult(XyzError.TOO_MANY_REQUESTS, e.getMessage());
+    }
+    Result result = null;
+    try {
+      result = readFeatures(ctx, view, rf, timeoutMillis);
+      return result;
+    } finally {
+      if (result != null) {
+        permit.closeWhenConsumed(result);
+      } else {
+        permit.close();
+      }
+    }
+  }
 
+  private Result readFeatures(NakshaContext ctx, IView view, ReadFeatures rf, Long timeoutMillis) {
     try (final ViewReadSession reader = (ViewReadSession) view.newReadSession(ctx, false)) {
+      final Integer maxParallelism = properties.getMaxParallelism();
+      if (maxParallelism != null) {
+        reader.withMaxParallelism(maxParallelism);
+      }
+      if (timeoutMillis != null && timeoutMillis > 0) {
+        final long elapsedMillis = NanoTime.timeSince(ctx.startNanos(), TimeUnit.MILLISECONDS);
+        reader.withDeadline(System.currentTimeMillis() + timeoutMillis - elapsedMillis);
+      }
       final MissingIdResolver<XyzFeature, XyzFeatureCodec> resolver;
       if (properties.getViewType() == ViewType.UNION) {
         resolver = new IgnoreMissingResolver<>();
@@ -139,7 +183,10 @@ public class DefaultViewHandler extends AbstractEventHandler {
         final Set<ViewLayer> obligatoryLayers = getObligatoryLayers(view.getViewCollection());
         resolver = new ObligatoryLayersResolver<>(obligatoryLayers);
       }
-      return reader.execute(rf, XyzFeatureCodecFactory.get(), new MergeByStoragePriority<>(), resolver);
+      // The features of the layers must be merged, so the storages can't render a vector tile
+      final ReadFeatures request =
+          rf.getMvtTile() != null ? rf.shallowClone().withMvtTile(null) : rf;
+      return reader.execute(request, XyzFeatureCodecFactory.get(), new MergeByStoragePriority<>(), resolver);
     }
   }
 
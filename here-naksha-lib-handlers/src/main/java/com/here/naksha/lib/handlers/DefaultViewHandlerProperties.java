@@ -39,6 +39,12 @@ public class DefaultViewHandlerProperties extends XyzProperties {
   @AvailableSince(NakshaVersion.v2_0_15)
   public static final String VIEW_TYPE = "viewType";
 
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static final String MAX_PARALLELISM = "maxParallelism";
+
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static final String TIMEOUT_MILLIS = "timeoutMillis";
+
   @AvailableSince(NakshaVersion.v2_0_12)
   @JsonProperty(STORAGE_ID)
   private @Nullable String storageId;
@@ -51,6 +57,21 @@ public class DefaultViewHandlerProperties extends XyzProperties {
   @JsonProperty(VIEW_TYPE)
   private @NotNull ViewType viewType;
 
+  /**
+   * The maximum amount of spaces queried concurrently; {@code null} to use the default of the view.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  @JsonProperty(MAX_PARALLELISM)
+  private @Nullable Integer maxParallelism;
+
+  /**
+   * The time in milliseconds, measured from the start of the request, within which all spaces must have responded; {@code null} to use
+   * the statement timeout of the storage.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  @JsonProperty(TIMEOUT_MILLIS)
+  private @Nullable Long timeoutMillis;
+
   @AvailableSince(NakshaVersion.v2_0_12)
   @JsonCreator
   public DefaultViewHandlerProperties(
@@ -85,6 +106,22 @@ public class DefaultViewHandlerProperties extends XyzProperties {
     this.viewType = viewType;
   }
 
+  public @Nullable Integer getMaxParallelism() {
+    return maxParallelism;
+  }
+
+  public void setMaxParallelism(@Nullable Integer maxParallelism) {
+    this.maxParallelism = maxParallelism;
+  }
+
+  public @Nullable Long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  public void setTimeoutMillis(@Nullable Long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
   public enum ViewType {
     LAYERED,
     UNION
@@ -25,6 +25,7 @@ import static com.here.naksha.lib.handlers.internal.NakshaFeaturePropertiesValid
 import com.here.naksha.lib.core.IEvent;
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.lambdas.P1;
 import com.here.naksha.lib.core.models.naksha.NakshaFeature;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.core.storage.IReadSession;
@@ -32,6 +33,7 @@ import com.here.naksha.lib.core.storage.IWriteSession;
 import com.here.naksha.lib.handlers.AbstractEventHandler;
 import com.here.naksha.lib.psql.PsqlStorage;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,9 +48,20 @@ abstract class AdminFeatureEventHandler<FEATURE extends NakshaFeature> extends A
 
   private final Class<FEATURE> featureClass;
 
+  /**
+   * Optional listener, invoked with the id of every feature, after a write to the admin storage has been committed.
+   */
+  private final @Nullable P1<@NotNull String> changeListener;
+
   AdminFeatureEventHandler(@NotNull INaksha hub, @NotNull Class<FEATURE> featureClass) {
+    this(hub, featureClass, null);
+  }
+
+  AdminFeatureEventHandler(
+      @NotNull INaksha hub, @NotNull Class<FEATURE> featureClass, @Nullable P1<@NotNull String> changeListener) {
     super(hub);
     this.featureClass = featureClass;
+    this.changeListener = changeListener;
   }
 
   @Override
@@ -81,6 +94,7 @@ abstract class AdminFeatureEventHandler<FEATURE extends NakshaFeature> extends A
           final Result result = writer.execute(wr);
           if (result instanceof SuccessResult) {
             writer.commit(true);
+            notifyChangeListener(wr);
           } else {
             logger.warn(
                 "Failed writing feature request to admin storage, expected success but got: {}",
@@ -95,6 +109,18 @@ abstract class AdminFeatureEventHandler<FEATURE extends NakshaFeature> extends A
     }
   }
 
+  private void notifyChangeListener(final @NotNull WriteXyzFeatures wr) {
+    if (changeListener == null) {
+      return;
+    }
+    for (final XyzFeatureCodec featureCodec : wr.features) {
+      final String id = featureCodec.getId();
+      if (id != null) {
+        changeListener.call(id);
+      }
+    }
+  }
+
   /**
    * Direct validation of XyzFeature to be written.
    *
@@ -31,6 +31,7 @@ import static com.here.naksha.lib.handlers.TagFilterHandlerProperties.REMOVE_W_P
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.NoCursor;
+import com.here.naksha.lib.core.lambdas.P1;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
@@ -66,6 +67,16 @@ public class IntHandlerForEventHandlers extends AdminFeatureEventHandler<EventHa
     super(hub, EventHandler.class);
   }
 
+  /**
+   * Creates the handler with a listener, that is notified about every event handler that was changed.
+   *
+   * @param hub            the reference to the Naksha-Hub.
+   * @param changeListener the listener to invoke with the id of every created, updated or deleted event handler.
+   */
+  public IntHandlerForEventHandlers(final @NotNull INaksha hub, final @Nullable P1<@NotNull String> changeListener) {
+    super(hub, EventHandler.class, changeListener);
+  }
+
   @Override
   protected @NotNull Result validateFeature(XyzFeatureCodec codec) {
     final EWriteOp operation = EWriteOp.get(codec.getOp());
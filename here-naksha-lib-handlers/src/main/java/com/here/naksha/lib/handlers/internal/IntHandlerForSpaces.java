@@ -24,6 +24,7 @@ import static com.here.naksha.lib.core.util.storage.RequestHelper.readFeaturesBy
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readIdsFromResult;
 
 import com.here.naksha.lib.core.INaksha;
+import com.here.naksha.lib.core.lambdas.P1;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.naksha.Space;
 import com.here.naksha.lib.core.models.storage.EWriteOp;
@@ -35,6 +36,7 @@ import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
 import com.here.naksha.lib.core.storage.IReadSession;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class IntHandlerForSpaces extends AdminFeatureEventHandler<Space> {
 
@@ -42,6 +44,16 @@ public class IntHandlerForSpaces extends AdminFeatureEventHandler<Space> {
     super(hub, Space.class);
   }
 
+  /**
+   * Creates the handler with a listener, that is notified about every space that was changed.
+   *
+   * @param hub            the reference to the Naksha-Hub.
+   * @param changeListener the listener to invoke with the id of every created, updated or deleted space.
+   */
+  public IntHandlerForSpaces(final @NotNull INaksha hub, final @Nullable P1<@NotNull String> changeListener) {
+    super(hub, Space.class, changeListener);
+  }
+
   @Override
   protected @NotNull Result validateFeature(@NotNull XyzFeatureCodec featureCodec) {
     if (EWriteOp.DELETE.toString().equals(featureCodec.getOp())) {
@@ -25,6 +25,7 @@ import static com.here.naksha.lib.handlers.internal.PluginPropertiesValidator.pl
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.NoCursor;
+import com.here.naksha.lib.core.lambdas.P1;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
@@ -50,6 +51,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class IntHandlerForStorages extends AdminFeatureEventHandler<Storage> {
 
@@ -65,6 +67,16 @@ public class IntHandlerForStorages extends AdminFeatureEventHandler<Storage> {
     super(hub, Storage.class);
   }
 
+  /**
+   * Creates the handler with a listener, that is notified about every storage that was changed.
+   *
+   * @param hub            the reference to the Naksha-Hub.
+   * @param changeListener the listener to invoke with the id of every created, updated or deleted storage.
+   */
+  public IntHandlerForStorages(final @NotNull INaksha hub, final @Nullable P1<@NotNull String> changeListener) {
+    super(hub, Storage.class, changeListener);
+  }
+
   @Override
   protected @NotNull Result validateFeature(XyzFeatureCodec codec) {
     final EWriteOp operation = EWriteOp.get(codec.getOp());
@@ -20,8 +20,10 @@ import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.naksha.Space;
 import com.here.naksha.lib.core.models.naksha.SpaceProperties;
 import com.here.naksha.lib.core.models.naksha.XyzCollection;
+import com.here.naksha.lib.core.models.storage.CollectionVersionResult;
 import com.here.naksha.lib.core.models.storage.EWriteOp;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ReadCollectionVersion;
 import com.here.naksha.lib.core.models.storage.Request;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
@@ -122,6 +124,28 @@ class DefaultStorageHandlerTest {
     assertInstanceOf(SuccessResult.class, result);
   }
 
+  @ParameterizedTest
+  @MethodSource("collectionPriorityTestCases")
+  void shouldReadVersionOfCorrectCollection(CollectionPriorityTestCase testCase) {
+    // Given: storage reader returning a collection version
+    when(storageReadSession.execute(any(ReadCollectionVersion.class))).thenReturn(new CollectionVersionResult("1.2"));
+
+    // And: Handler to test
+    DefaultStorageHandler handler = storageHandler(testCase.handlerProperties, testCase.space);
+
+    // When: Processing read collection version
+    Result result = handler.processEvent(event(new ReadCollectionVersion("different_collection")));
+
+    // Then: Request executed by storage has CollectionId chosen by priority
+    ArgumentCaptor<ReadCollectionVersion> captor = ArgumentCaptor.forClass(ReadCollectionVersion.class);
+    verify(storageReadSession).execute(captor.capture());
+    assertEquals(testCase.correctCollection().getId(), captor.getValue().getCollectionId());
+
+    // And: The version is returned
+    assertInstanceOf(CollectionVersionResult.class, result);
+    assertEquals("1.2", ((CollectionVersionResult) result).version);
+  }
+
   @ParameterizedTest
   @MethodSource("collectionPriorityTestCases")
   void shouldCreateMissingCollectionRespectingPriority(CollectionPriorityTestCase testCase) {
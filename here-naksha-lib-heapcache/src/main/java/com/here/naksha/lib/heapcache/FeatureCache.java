@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.heapcache;
+
+import com.here.naksha.lib.core.models.storage.FeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded cache of the raw parts (JSON and WKB) of features, separated by collection. When either the maximum amount of entries or the
+ * maximum amount of bytes is exceeded, the least recently used features are evicted. The parts are kept instead of the decoded
+ * features, because they are immutable and their size is known, so a cached feature can be handed out to multiple readers.
+ *
+ * <p>Entries older than the maximum age are not returned anymore, which bounds how long a feature changed by another node may be served,
+ * when the change was not notified.
+ *
+ * <p>Fills are guarded by a stamp: a reader takes a {@link #stamp()} before reading from the storage and the features are only added,
+ * when no invalidation happened in between, so that a concurrent write can't be overridden by the state read before it.
+ */
+public class FeatureCache {
+
+  /**
+   * The estimated amount of bytes each entry needs beside the id, JSON and WKB.
+   */
+  static final long ENTRY_OVERHEAD = 128;
+
+  public FeatureCache(long maxEntries, long maxBytes) {
+    this(maxEntries, maxBytes, 0);
+  }
+
+  /**
+   * Creates a feature cache.
+   *
+   * @param maxEntries   The maximum amount of features to keep.
+   * @param maxBytes     The maximum amount of bytes to keep.
+   * @param maxAgeMillis The maximum time a feature is kept after it was read from the storage, zero to keep it until it is evicted.
+   */
+  public FeatureCache(long maxEntries, long maxBytes, long maxAgeMillis) {
+    this(maxEntries, maxBytes, maxAgeMillis, System::nanoTime);
+  }
+
+  FeatureCache(long maxEntries, long maxBytes, long maxAgeMillis, @NotNull LongSupplier nanoClock) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    this.nanoClock = nanoClock;
+  }
+
+  private final long maxEntries;
+  private final long maxBytes;
+  private final long maxAgeNanos;
+  private final @NotNull LongSupplier nanoClock;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+  private long bytes;
+  private long invalidations;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Returns the cached parts of the feature with the given id, the returned codec must not be modified, use
+   * {@link FeatureCodec#withParts(FeatureCodec)} to create an own copy.
+   *
+   * @param collectionId The collection identifier.
+   * @param id           The feature identifier.
+   * @return the cached parts or {@code null}, if the feature is not cached.
+   */
+  public synchronized @Nullable XyzFeatureCodec get(@NotNull String collectionId, @NotNull String id) {
+    final Key key = new Key(collectionId, id);
+    final Entry entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    if (maxAgeNanos > 0 && nanoClock.getAsLong() - entry.createdNanos > maxAgeNanos) {
+      entries.remove(key);
+      bytes -= entry.bytes;
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.parts;
+  }
+
+  /**
+   * Returns the current stamp, which must be acquired before reading the features from the storage, that are to be added.
+   *
+   * @return the current stamp.
+   */
+  public synchronized long stamp() {
+    return invalidations;
+  }
+
+  /**
+   * Adds the parts of the given feature, unless an invalidation happened since the given stamp was acquired.
+   *
+   * @param collectionId The collection identifier.
+   * @param codec        The codec holding the feature, as read from the storage.
+   * @param stamp        The stamp acquired before reading the feature from the storage.
+   * @return {@code true}, if the feature was added; {@code false} otherwise.
+   */
+  public synchronized boolean put(@NotNull String collectionId, @NotNull FeatureCodec<?, ?> codec, long stamp) {
+    if (stamp != invalidations || codec.hasError() || codec.getId() == null || codec.getJson() == null) {
+      return false;
+    }
+    final XyzFeatureCodec parts = XyzFeatureCodecFactory.get()
+        .newInstance()
+        .withOp(codec.getOp())
+        .withId(codec.getId())
+        .withUuid(codec.getUuid())
+        .withFeatureType(codec.getFeatureType())
+        .withPropertiesType(codec.getPropertiesType())
+        .withJson(codec.getJson())
+        .withWkb(codec.getWkb());
+    final Entry entry = new Entry(parts, nanoClock.getAsLong());
+    if (entry.bytes > maxBytes) {
+      return false;
+    }
+    final Entry old = entries.put(new Key(collectionId, parts.getId()), entry);
+    if (old != null) {
+      bytes -= old.bytes;
+    }
+    bytes += entry.bytes;
+    evict();
+    return true;
+  }
+
+  /**
+   * Removes the feature with the given id.
+   *
+   * @param collectionId The collection identifier.
+   * @param id           The feature identifier.
+   */
+  public synchronized void invalidate(@NotNull String collectionId, @NotNull String id) {
+    invalidations++;
+    final Entry entry = entries.remove(new Key(collectionId, id));
+    if (entry != null) {
+      bytes -= entry.bytes;
+    }
+  }
+
+  /**
+   * Removes all features of the given collection.
+   *
+   * @param collectionId The collection identifier.
+   */
+  public synchronized void invalidateCollection(@NotNull String collectionId) {
+    invalidations++;
+    final Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+    while (it.hasNext()) {
+      final Map.Entry<Key, Entry> mapEntry = it.next();
+      if (mapEntry.getKey().collectionId.equals(collectionId)) {
+        bytes -= mapEntry.getValue().bytes;
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Removes all features.
+   */
+  public synchronized void clear() {
+    invalidations++;
+    entries.clear();
+    bytes = 0;
+  }
+
+  public synchronized long size() {
+    return entries.size();
+  }
+
+  public synchronized long byteSize() {
+    return bytes;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  private void evict() {
+    final Iterator<Entry> it = entries.values().iterator();
+    while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+      bytes -= it.next().bytes;
+      it.remove();
+      evictions++;
+    }
+  }
+
+  private static final class Key {
+
+    private Key(@NotNull String collectionId, @NotNull String id) {
+      this.collectionId = collectionId;
+      this.id = id;
+    }
+
+    private final @NotNull String collectionId;
+    private final @NotNull String id;
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      return id.equals(other.id) && collectionId.equals(other.collectionId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(collectionId, id);
+    }
+  }
+
+  private static final class Entry {
+
+    private Entry(@NotNull XyzFeatureCodec parts, long createdNanos) {
+      final String id = parts.getId();
+      this.createdNanos = createdNanos;
+      final String json = parts.getJson();
+      final byte[] wkb = parts.getWkb();
+      this.parts = parts;
+      this.bytes = ENTRY_OVERHEAD
+          + 2L * (id != null ? id.length() : 0)
+          + 2L * (json != null ? json.length() : 0)
+          + (wkb != null ? wkb.length : 0);
+    }
+
+    private final @NotNull XyzFeatureCodec parts;
+    private final long bytes;
+    private final long createdNanos;
+  }
+}
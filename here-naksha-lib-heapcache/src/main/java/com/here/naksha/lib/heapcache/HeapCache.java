@@ -22,6 +22,9 @@ import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.lambdas.Fe1;
 import com.here.naksha.lib.core.lambdas.Pe1;
 import com.here.naksha.lib.core.models.TxSignalSet;
+import com.here.naksha.lib.core.models.features.TxModifyCollection;
+import com.here.naksha.lib.core.models.features.TxModifyFeatures;
+import com.here.naksha.lib.core.models.features.TxSignal;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.storage.CollectionInfo;
 import com.here.naksha.lib.core.storage.IMasterTransaction;
@@ -38,13 +41,63 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class HeapCache implements IStorage {
 
+  private static final Logger log = LoggerFactory.getLogger(HeapCache.class);
+
   private final List<WeakReference<CacheChangeListener>> listeners = new ArrayList<>();
 
+  /**
+   * Receives the changes of the cached storage, including the ones done by other nodes to collections that enable
+   * {@link com.here.naksha.lib.core.models.naksha.XyzCollection#isNotifyChanges() notifications}. Changes to other collections are not received,
+   * the features of them are dropped after the {@link HeapCacheConfig#getMaxAgeMillis() maximum age}.
+   */
+  private final @NotNull Pe1<@NotNull TxSignalSet> txListener = this::invalidate;
+
   public HeapCache(@NotNull HeapCacheConfig config) {
     this.config = config;
+    this.featureCache = new FeatureCache(config.maxEntries, config.maxBytes, config.maxAgeMillis);
+    if (config.storage != null) {
+      try {
+        config.storage.addListener(txListener);
+      } catch (UnsupportedOperationException e) {
+        log.atInfo()
+            .setMessage(
+                "The storage does not publish changes, the cache is only invalidated by writes of this node")
+            .log();
+      }
+    }
+  }
+
+  /**
+   * Removes the features changed by a transaction of the cached storage. An empty signal set means that changes may have been missed,
+   * and all features are removed.
+   *
+   * @param signals The signals of the transaction.
+   */
+  void invalidate(@NotNull TxSignalSet signals) {
+    if (signals.size() == 0) {
+      featureCache.clear();
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    for (final TxSignal signal : signals) {
+      if (signal instanceof TxModifyFeatures && ((TxModifyFeatures) signal).featureIds != null) {
+        for (final String id : ((TxModifyFeatures) signal).featureIds) {
+          featureCache.invalidate(signal.collection, id);
+        }
+      } else if (signal instanceof TxModifyFeatures || signal instanceof TxModifyCollection) {
+        featureCache.invalidateCollection(signal.collection);
+      } else {
+        continue;
+      }
+      if (signal.ts > 0) {
+        HeapCacheMetrics.recordInvalidationLag(signal.storageId, now - signal.ts);
+      }
+    }
   }
 
   public void addListener(@NotNull CacheChangeListener listener) {
@@ -108,6 +161,23 @@ public class HeapCache implements IStorage {
 
   protected final @NotNull HeapCacheConfig config;
   protected final @NotNull FibSet<String, CacheEntry> cache = new FibSet<>(CacheEntry::new);
+  protected final @NotNull FeatureCache featureCache;
+
+  /**
+   * Returns the cache used by the read- and write-sessions.
+   *
+   * @return the cache used by the read- and write-sessions.
+   */
+  public @NotNull FeatureCache getFeatureCache() {
+    return featureCache;
+  }
+
+  private @NotNull IStorage storage() {
+    if (config.storage == null) {
+      throw new IllegalStateException("The heap-cache is not configured with a storage to cache");
+    }
+    return config.storage;
+  }
 
   @Override
   public void init() {}
@@ -145,7 +215,14 @@ public class HeapCache implements IStorage {
   }
 
   @Override
-  public void close() {}
+  public void close() {
+    if (config.storage != null) {
+      try {
+        config.storage.removeListener(txListener);
+      } catch (UnsupportedOperationException ignore) {
+      }
+    }
+  }
 
   /**
    * Initializes the storage, create the transaction table, install needed scripts and extensions.
@@ -172,7 +249,8 @@ public class HeapCache implements IStorage {
   public void stopMaintainer() {}
 
   /**
-   * Open a new write-session, optionally to a master-node (when being in a multi-writer cluster).
+   * Open a new write-session, optionally to a master-node (when being in a multi-writer cluster). The writes are forwarded to the cached
+   * storage and the written features are removed from the cache.
    *
    * @param context   the {@link NakshaContext} to which to link the session.
    * @param useMaster {@code true} if the master-node should be connected to; false if any writer is okay.
@@ -180,11 +258,12 @@ public class HeapCache implements IStorage {
    */
   @Override
   public @NotNull IWriteSession newWriteSession(@Nullable NakshaContext context, boolean useMaster) {
-    return IStorage.super.newWriteSession(context, useMaster);
+    return new HeapCacheWriteSession(this, storage().newWriteSession(context, useMaster));
   }
 
   /**
-   * Open a new read-session, optionally to a master-node to prevent replication lags.
+   * Open a new read-session, optionally to a master-node to prevent replication lags. Reads of features by id are served from the cache,
+   * all other reads are forwarded to the cached storage.
    *
    * @param context   the {@link NakshaContext} to which to link the session.
    * @param useMaster {@code true} if the master-node should be connected to, to avoid replication lag; false if any reader is okay.
@@ -192,7 +271,7 @@ public class HeapCache implements IStorage {
    */
   @Override
   public @NotNull IReadSession newReadSession(@Nullable NakshaContext context, boolean useMaster) {
-    return IStorage.super.newReadSession(context, useMaster);
+    return new HeapCacheReadSession(this, storage().newReadSession(context, useMaster));
   }
 
   /**
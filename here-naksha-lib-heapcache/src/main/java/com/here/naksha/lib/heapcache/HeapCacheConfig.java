@@ -23,13 +23,75 @@ import org.jetbrains.annotations.Nullable;
 
 public class HeapCacheConfig {
 
+  /**
+   * The default maximum amount of features kept in the cache.
+   */
+  public static final long DEFAULT_MAX_ENTRIES = 100_000;
+
+  /**
+   * The default maximum amount of bytes, estimated from the raw JSON and WKB of the features, kept in the cache.
+   */
+  public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+  /**
+   * The default maximum time a feature is kept in the cache after it was read from the storage. Changes of other nodes are only notified
+   * for collections that enable {@link com.here.naksha.lib.core.models.naksha.XyzCollection#isNotifyChanges() notifications}, for all
+   * others this bounds how long an outdated feature is returned.
+   */
+  public static final long DEFAULT_MAX_AGE_MILLIS = 60_000;
+
   public HeapCacheConfig(@Nullable IStorage storage) {
+    this(storage, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Creates a configuration for a cache in front of the given storage, that keeps features at most for the
+   * {@link #DEFAULT_MAX_AGE_MILLIS default maximum age}.
+   *
+   * @param storage    The storage to which reads are forwarded on cache misses, and to which writes are forwarded.
+   * @param maxEntries The maximum amount of features to keep in the cache.
+   * @param maxBytes   The maximum amount of bytes to keep in the cache.
+   */
+  public HeapCacheConfig(@Nullable IStorage storage, long maxEntries, long maxBytes) {
+    this(storage, maxEntries, maxBytes, DEFAULT_MAX_AGE_MILLIS);
+  }
+
+  /**
+   * Creates a configuration for a cache in front of the given storage.
+   *
+   * @param storage    The storage to which reads are forwarded on cache misses, and to which writes are forwarded.
+   * @param maxEntries The maximum amount of features to keep in the cache.
+   * @param maxBytes   The maximum amount of bytes to keep in the cache.
+   * @param maxAgeMillis The maximum time a feature is kept in the cache, zero to keep it until it is evicted.
+   */
+  public HeapCacheConfig(@Nullable IStorage storage, long maxEntries, long maxBytes, long maxAgeMillis) {
     this.storage = storage;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.maxAgeMillis = maxAgeMillis;
   }
 
   public final @Nullable IStorage storage;
 
+  public final long maxEntries;
+
+  public final long maxBytes;
+
+  public final long maxAgeMillis;
+
   public IStorage getStorage() {
     return storage;
   }
+
+  public long getMaxEntries() {
+    return maxEntries;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public long getMaxAgeMillis() {
+    return maxAgeMillis;
+  }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.heapcache;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Records the lag between a change in the cached storage and the invalidation of the changed features in the cache, in an
+ * OpenTelemetry histogram. The lag is measured from the start of the statement that caused the change, so it includes the time until
+ * the transaction was committed, and it is subject to the clock skew between the database and this node. Without a configured
+ * OpenTelemetry SDK the histogram is a no-op.
+ */
+public final class HeapCacheMetrics {
+
+  private static final AttributeKey<String> STORAGE = AttributeKey.stringKey("storage");
+
+  private static final DoubleHistogram invalidationLag = GlobalOpenTelemetry.meterBuilder("naksha.cache")
+      .build()
+      .histogramBuilder("naksha_cache_invalidation_lag")
+      .setDescription(
+          "Time from a change in the cached storage until the changed features are evicted from the cache")
+      .setUnit("ms")
+      .build();
+
+  private HeapCacheMetrics() {}
+
+  /**
+   * Records the lag of an invalidation.
+   *
+   * @param storageId The identifier of the storage in which the change happened.
+   * @param lagMillis The lag in milliseconds.
+   */
+  public static void recordInvalidationLag(@NotNull String storageId, long lagMillis) {
+    invalidationLag.record(Math.max(0L, lagMillis), Attributes.of(STORAGE, storageId));
+  }
+}
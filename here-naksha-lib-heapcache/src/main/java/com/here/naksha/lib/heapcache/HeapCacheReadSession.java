@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.heapcache;
+
+import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.exceptions.NoCursor;
+import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.HeapCacheCursor;
+import com.here.naksha.lib.core.models.storage.Notification;
+import com.here.naksha.lib.core.models.storage.OpType;
+import com.here.naksha.lib.core.models.storage.POp;
+import com.here.naksha.lib.core.models.storage.POpType;
+import com.here.naksha.lib.core.models.storage.PRef;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.ReadRequest;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.storage.IReadSession;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A read-session of the {@link HeapCache}, reads of features by id are served from the {@link FeatureCache}, the missing features are
+ * read from the wrapped session of the cached storage and then added to the cache. All other requests are forwarded to the wrapped
+ * session unchanged.
+ */
+public class HeapCacheReadSession implements IReadSession {
+
+  HeapCacheReadSession(@NotNull HeapCache heapCache, @NotNull IReadSession session) {
+    this.heapCache = heapCache;
+    this.session = session;
+  }
+
+  protected final @NotNull HeapCache heapCache;
+  protected final @NotNull IReadSession session;
+
+  /**
+   * Returns {@code true}, if the cache can be used to serve reads of this session.
+   *
+   * @return {@code true}, if the cache can be used to serve reads of this session.
+   */
+  protected boolean useCache() {
+    return true;
+  }
+
+  @Override
+  public @NotNull Result execute(@NotNull ReadRequest<?> readRequest) {
+    if (useCache() && readRequest instanceof ReadFeatures) {
+      final ReadFeatures readFeatures = (ReadFeatures) readRequest;
+      final List<String> ids = cacheableIds(readFeatures);
+      if (ids != null) {
+        return readThrough(readFeatures, readFeatures.getCollections().get(0), ids);
+      }
+    }
+    return session.execute(readRequest);
+  }
+
+  private @NotNull Result readThrough(
+      @NotNull ReadFeatures request, @NotNull String collectionId, @NotNull List<String> ids) {
+    final FeatureCache cache = heapCache.featureCache;
+    final Map<String, XyzFeatureCodec> found = new HashMap<>();
+    final List<String> missingIds = new ArrayList<>();
+    for (final String id : ids) {
+      final XyzFeatureCodec parts = cache.get(collectionId, id);
+      if (parts != null) {
+        found.put(id, XyzFeatureCodecFactory.get().newInstance().withParts(parts));
+      } else {
+        missingIds.add(id);
+      }
+    }
+    if (!missingIds.isEmpty()) {
+      final long stamp = cache.stamp();
+      final Result result = session.execute(missingFeaturesRequest(request, ids, missingIds));
+      if (result instanceof ErrorResult) {
+        return result;
+      }
+      try (final ForwardCursor<?, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+        while (cursor.next()) {
+          final XyzFeatureCodec codec = cursor.getCodecCopy();
+          if (codec.getJson() == null && codec.getFeature() != null) {
+            codec.decodeParts(true);
+          }
+          if (codec.getId() != null) {
+            cache.put(collectionId, codec, stamp);
+            found.put(codec.getId(), codec);
+          }
+        }
+      } catch (NoCursor e) {
+        return result;
+      }
+    }
+    final List<XyzFeatureCodec> codecs = new ArrayList<>(found.size());
+    for (final String id : ids) {
+      final XyzFeatureCodec codec = found.get(id);
+      if (codec != null) {
+        codecs.add(codec);
+      }
+    }
+    return new HeapCacheSuccessResult(new HeapCacheCursor<>(XyzFeatureCodecFactory.get(), codecs, null));
+  }
+
+  /**
+   * Creates the request to read the missing features. Only for plain {@link ReadFeatures} the request is restricted to the missing
+   * features, special requests (for example for proxied storages) are forwarded unchanged.
+   */
+  private static @NotNull ReadFeatures missingFeaturesRequest(
+      @NotNull ReadFeatures request, @NotNull List<String> ids, @NotNull List<String> missingIds) {
+    if (missingIds.size() == ids.size() || request.getClass() != ReadFeatures.class) {
+      return request;
+    }
+    final POp[] ops = new POp[missingIds.size()];
+    for (int i = 0; i < ops.length; i++) {
+      ops[i] = POp.eq(PRef.id(), missingIds.get(i));
+    }
+    return request.shallowClone().withPropertyOp(ops.length == 1 ? ops[0] : POp.or(ops));
+  }
+
+  /**
+   * Returns the requested feature ids, if the request reads the latest state of features of a single collection only by id, and
+   * therefore can be served from the cache.
+   *
+   * @param request The read request.
+   * @return the distinct requested ids, in the requested order, or {@code null}, if the request can't be served from the cache.
+   */
+  static @Nullable List<String> cacheableIds(@NotNull ReadFeatures request) {
+    if (request.getCollections().size() != 1
+        || request.getSpatialOp() != null
+        || request.isReturnDeleted()
+        || request.isReturnAllVersions()
+        || request.getAfterId() != null
+        || request.getGeometryTransformation() != null
+        || request.getMvtTile() != null) {
+      return null;
+    }
+    final LinkedHashSet<String> ids = new LinkedHashSet<>();
+    if (!addIds(request.getPropertyOp(), ids, true)) {
+      return null;
+    }
+    final Long limit = request.getLimit();
+    if (limit != null && limit < ids.size()) {
+      return null;
+    }
+    return new ArrayList<>(ids);
+  }
+
+  private static boolean addIds(@Nullable POp pOp, @NotNull LinkedHashSet<String> ids, boolean allowOr) {
+    if (pOp == null) {
+      return false;
+    }
+    final List<POp> children = pOp.children();
+    if (children == null) {
+      if (pOp.op() == POpType.EQ && PRef.id().equals(pOp.getPropertyRef()) && pOp.getValue() instanceof String) {
+        ids.add((String) pOp.getValue());
+        return true;
+      }
+      return false;
+    }
+    if (!allowOr || pOp.op() != OpType.OR || children.isEmpty()) {
+      return false;
+    }
+    for (final POp child : children) {
+      if (!addIds(child, ids, false)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isMasterConnect() {
+    return session.isMasterConnect();
+  }
+
+  @Override
+  public @NotNull NakshaContext getNakshaContext() {
+    return session.getNakshaContext();
+  }
+
+  @Override
+  public int getFetchSize() {
+    return session.getFetchSize();
+  }
+
+  @Override
+  public void setFetchSize(int size) {
+    session.setFetchSize(size);
+  }
+
+  @Override
+  public long getStatementTimeout(@NotNull TimeUnit timeUnit) {
+    return session.getStatementTimeout(timeUnit);
+  }
+
+  @Override
+  public void setStatementTimeout(long timeout, @NotNull TimeUnit timeUnit) {
+    session.setStatementTimeout(timeout, timeUnit);
+  }
+
+  @Override
+  public long getLockTimeout(@NotNull TimeUnit timeUnit) {
+    return session.getLockTimeout(timeUnit);
+  }
+
+  @Override
+  public void setLockTimeout(long timeout, @NotNull TimeUnit timeUnit) {
+    session.setLockTimeout(timeout, timeUnit);
+  }
+
+  @Override
+  public @NotNull Result process(@NotNull Notification<?> notification) {
+    return session.process(notification);
+  }
+
+  @Override
+  public void cancel() {
+    session.cancel();
+  }
+
+  @Override
+  public void close() {
+    session.close();
+  }
+}
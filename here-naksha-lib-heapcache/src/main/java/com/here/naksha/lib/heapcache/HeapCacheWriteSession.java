@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.heapcache;
+
+import com.here.naksha.lib.core.exceptions.StorageLockException;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.FeatureCodec;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.WriteCollections;
+import com.here.naksha.lib.core.models.storage.WriteFeatures;
+import com.here.naksha.lib.core.models.storage.WriteRequest;
+import com.here.naksha.lib.core.storage.IStorageLock;
+import com.here.naksha.lib.core.storage.IWriteSession;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A write-session of the {@link HeapCache}, writes are forwarded to the wrapped session of the cached storage and the written features
+ * are removed from the cache, when the write is executed and again, when the transaction ends, so that features read by concurrent
+ * sessions in between are not kept. After the first write and until the transaction ends, all reads of this session are forwarded to
+ * the wrapped session, so that the session sees its own changes, but they don't leak into the cache before being committed.
+ */
+public class HeapCacheWriteSession extends HeapCacheReadSession implements IWriteSession {
+
+  HeapCacheWriteSession(@NotNull HeapCache heapCache, @NotNull IWriteSession session) {
+    super(heapCache, session);
+    this.writeSession = session;
+  }
+
+  protected final @NotNull IWriteSession writeSession;
+
+  /**
+   * The identifiers of the features written in the current transaction, by collection identifier.
+   */
+  private final Map<String, Set<String>> writtenIds = new HashMap<>();
+
+  /**
+   * The identifiers of the collections of which all features need to be invalidated, when the current transaction ends.
+   */
+  private final Set<String> writtenCollections = new HashSet<>();
+
+  /**
+   * If all features need to be invalidated, when the current transaction ends.
+   */
+  private boolean writtenUnknown;
+
+  @Override
+  protected boolean useCache() {
+    return !writtenUnknown && writtenIds.isEmpty() && writtenCollections.isEmpty();
+  }
+
+  @Override
+  public @NotNull Result execute(@NotNull WriteRequest<?, ?, ?> writeRequest) {
+    if (writeRequest instanceof WriteFeatures) {
+      final String collectionId = ((WriteFeatures<?, ?, ?>) writeRequest).getCollectionId();
+      final Set<String> ids = writtenIds.computeIfAbsent(collectionId, k -> new HashSet<>());
+      for (final FeatureCodec<?, ?> codec : writeRequest.features) {
+        final String id = idOf(codec);
+        if (id != null) {
+          ids.add(id);
+          heapCache.featureCache.invalidate(collectionId, id);
+        } else {
+          writtenCollections.add(collectionId);
+          heapCache.featureCache.invalidateCollection(collectionId);
+        }
+      }
+    } else if (writeRequest instanceof WriteCollections) {
+      for (final FeatureCodec<?, ?> codec : writeRequest.features) {
+        final String collectionId = idOf(codec);
+        if (collectionId != null) {
+          writtenCollections.add(collectionId);
+          heapCache.featureCache.invalidateCollection(collectionId);
+        } else {
+          writtenUnknown = true;
+          heapCache.featureCache.clear();
+        }
+      }
+    } else {
+      writtenUnknown = true;
+      heapCache.featureCache.clear();
+    }
+    return writeSession.execute(writeRequest);
+  }
+
+  private static @Nullable String idOf(@NotNull FeatureCodec<?, ?> codec) {
+    if (codec.getId() != null) {
+      return codec.getId();
+    }
+    final Object feature = codec.getFeature();
+    if (feature instanceof XyzFeature) {
+      return ((XyzFeature) feature).getId();
+    }
+    return null;
+  }
+
+  /**
+   * Removes all features written in the current transaction from the cache, and enables the cache again.
+   */
+  private void endTransaction() {
+    final FeatureCache cache = heapCache.featureCache;
+    if (writtenUnknown) {
+      cache.clear();
+    } else {
+      for (final String collectionId : writtenCollections) {
+        cache.invalidateCollection(collectionId);
+      }
+      for (final Map.Entry<String, Set<String>> entry : writtenIds.entrySet()) {
+        if (!writtenCollections.contains(entry.getKey())) {
+          for (final String id : entry.getValue()) {
+            cache.invalidate(entry.getKey(), id);
+          }
+        }
+      }
+    }
+    writtenUnknown = false;
+    writtenIds.clear();
+    writtenCollections.clear();
+  }
+
+  @Override
+  public @NotNull IStorageLock lockFeature(
+      @NotNull String collectionId, @NotNull String featureId, long timeout, @NotNull TimeUnit timeUnit)
+      throws StorageLockException {
+    return writeSession.lockFeature(collectionId, featureId, timeout, timeUnit);
+  }
+
+  @Override
+  public @NotNull IStorageLock lockStorage(@NotNull String lockId, long timeout, @NotNull TimeUnit timeUnit)
+      throws StorageLockException {
+    return writeSession.lockStorage(lockId, timeout, timeUnit);
+  }
+
+  @Override
+  public void commit(boolean autoCloseCursors) {
+    try {
+      writeSession.commit(autoCloseCursors);
+    } finally {
+      endTransaction();
+    }
+  }
+
+  @Override
+  public void rollback(boolean autoCloseCursors) {
+    try {
+      writeSession.rollback(autoCloseCursors);
+    } finally {
+      endTransaction();
+    }
+  }
+
+  @Override
+  public void close(boolean autoCloseCursors) {
+    try {
+      writeSession.close(autoCloseCursors);
+    } finally {
+      endTransaction();
+    }
+  }
+
+  @Override
+  public void close() {
+    close(true);
+  }
+}
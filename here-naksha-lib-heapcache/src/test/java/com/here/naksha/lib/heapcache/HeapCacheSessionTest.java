@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.heapcache;
+
+import static com.here.naksha.lib.core.util.storage.RequestHelper.readFeaturesByIdRequest;
+import static com.here.naksha.lib.core.util.storage.RequestHelper.readFeaturesByIdsRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.naksha.lib.core.models.TxSignalSet;
+import com.here.naksha.lib.core.models.geojson.implementation.EXyzAction;
+import com.here.naksha.lib.core.models.features.TxModifyCollection;
+import com.here.naksha.lib.core.models.features.TxModifyFeatures;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.lambdas.Pe1;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.HeapCacheCursor;
+import com.here.naksha.lib.core.models.storage.POp;
+import com.here.naksha.lib.core.models.storage.PRef;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.ReadRequest;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.WriteRequest;
+import com.here.naksha.lib.core.models.storage.WriteXyzFeatures;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.storage.IReadSession;
+import com.here.naksha.lib.core.storage.IStorage;
+import com.here.naksha.lib.core.storage.IWriteSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class HeapCacheSessionTest {
+
+  private IStorage storage;
+  private IWriteSession storageSession;
+  private HeapCache heapCache;
+
+  @BeforeEach
+  void setUp() {
+    storage = mock(IStorage.class);
+    storageSession = mock(IWriteSession.class);
+    when(storage.newReadSession(any(), anyBoolean())).thenReturn(storageSession);
+    when(storage.newWriteSession(any(), anyBoolean())).thenReturn(storageSession);
+    // The storage returns a feature for every requested id.
+    when(storageSession.execute(any(ReadRequest.class))).thenAnswer(invocation -> {
+      final List<String> ids = HeapCacheReadSession.cacheableIds(invocation.getArgument(0));
+      final List<XyzFeatureCodec> codecs = new ArrayList<>();
+      if (ids != null) {
+        for (final String id : ids) {
+          codecs.add(XyzFeatureCodecFactory.get().newInstance().withFeature(new XyzFeature(id)));
+        }
+      }
+      return new HeapCacheSuccessResult(new HeapCacheCursor<>(XyzFeatureCodecFactory.get(), codecs, null));
+    });
+    when(storageSession.execute(any(WriteRequest.class))).thenReturn(new HeapCacheSuccessResult(
+        new HeapCacheCursor<>(XyzFeatureCodecFactory.get(), new ArrayList<>(), null)));
+    heapCache = new HeapCache(new HeapCacheConfig(storage, 3, HeapCacheConfig.DEFAULT_MAX_BYTES));
+  }
+
+  private static @NotNull List<String> ids(@NotNull Result result) throws Exception {
+    final List<String> ids = new ArrayList<>();
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+      while (cursor.next()) {
+        final XyzFeature feature = cursor.getFeature();
+        assertNotNull(feature);
+        ids.add(feature.getId());
+      }
+    }
+    return ids;
+  }
+
+  @Test
+  void readByIdsIsServedFromCache() throws Exception {
+    try (final IReadSession session = heapCache.newReadSession(null, false)) {
+      assertEquals(List.of("a", "b"), ids(session.execute(readFeaturesByIdsRequest("foo", List.of("a", "b")))));
+      assertEquals(List.of("b", "a"), ids(session.execute(readFeaturesByIdsRequest("foo", List.of("b", "a")))));
+      assertEquals(List.of("a"), ids(session.execute(readFeaturesByIdRequest("foo", "a"))));
+    }
+    verify(storageSession, times(1)).execute(any(ReadRequest.class));
+    assertEquals(2, heapCache.getFeatureCache().size());
+  }
+
+  @Test
+  void onlyMissingFeaturesAreRead() throws Exception {
+    try (final IReadSession session = heapCache.newReadSession(null, false)) {
+      session.execute(new ReadFeatures("foo").withPropertyOp(POp.eq(PRef.id(), "a")));
+      assertEquals(
+          List.of("a", "b"),
+          ids(session.execute(new ReadFeatures("foo")
+              .withPropertyOp(POp.or(POp.eq(PRef.id(), "a"), POp.eq(PRef.id(), "b"))))));
+    }
+    final ArgumentCaptor<ReadRequest<?>> captor = ArgumentCaptor.forClass(ReadRequest.class);
+    verify(storageSession, times(2)).execute(captor.capture());
+    assertEquals(List.of("b"), HeapCacheReadSession.cacheableIds((ReadFeatures) captor.getValue()));
+  }
+
+  @Test
+  void collectionsAreSeparated() throws Exception {
+    try (final IReadSession session = heapCache.newReadSession(null, false)) {
+      session.execute(readFeaturesByIdRequest("foo", "a"));
+      session.execute(readFeaturesByIdRequest("bar", "a"));
+    }
+    verify(storageSession, times(2)).execute(any(ReadRequest.class));
+    heapCache.getFeatureCache().invalidateCollection("foo");
+    assertNull(heapCache.getFeatureCache().get("foo", "a"));
+    assertNotNull(heapCache.getFeatureCache().get("bar", "a"));
+  }
+
+  @Test
+  void otherReadsAreForwarded() {
+    final ReadFeatures request = new ReadFeatures("foo").withPropertyOp(POp.eq(PRef.uuid(), "x"));
+    try (final IReadSession session = heapCache.newReadSession(null, false)) {
+      session.execute(request);
+      session.execute(request);
+      session.execute(readFeaturesByIdRequest("foo", "a").withReturnDeleted(true));
+    }
+    verify(storageSession, times(3)).execute(any(ReadRequest.class));
+    assertEquals(0, heapCache.getFeatureCache().size());
+  }
+
+  @Test
+  void leastRecentlyUsedFeaturesAreEvicted() {
+    final FeatureCache cache = heapCache.getFeatureCache();
+    try (final IReadSession session = heapCache.newReadSession(null, false)) {
+      session.execute(readFeaturesByIdsRequest("foo", List.of("a", "b", "c")));
+      session.execute(readFeaturesByIdRequest("foo", "a"));
+      session.execute(readFeaturesByIdRequest("foo", "d"));
+    }
+    assertEquals(3, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertNull(cache.get("foo", "b"));
+    assertNotNull(cache.get("foo", "a"));
+    assertNotNull(cache.get("foo", "d"));
+  }
+
+  @Test
+  void byteBoundIsEnforced() {
+    final FeatureCache cache = new FeatureCache(100, 2 * FeatureCache.ENTRY_OVERHEAD + 200);
+    for (final String id : List.of("a", "b", "c")) {
+      final XyzFeatureCodec codec =
+          XyzFeatureCodecFactory.get().newInstance().withFeature(new XyzFeature(id));
+      codec.decodeParts(true);
+      assertTrue(cache.put("foo", codec, cache.stamp()));
+    }
+    assertTrue(cache.byteSize() <= 2 * FeatureCache.ENTRY_OVERHEAD + 200);
+    assertTrue(cache.getEvictions() > 0);
+    assertNull(cache.get("foo", "a"));
+  }
+
+  @Test
+  void featuresExpireAfterTheMaxAge() {
+    final AtomicLong nanos = new AtomicLong();
+    final FeatureCache cache = new FeatureCache(100, HeapCacheConfig.DEFAULT_MAX_BYTES, 1_000, nanos::get);
+    final XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance().withFeature(new XyzFeature("a"));
+    codec.decodeParts(true);
+    assertTrue(cache.put("foo", codec, cache.stamp()));
+    nanos.set(TimeUnit.MILLISECONDS.toNanos(1_000));
+    assertNotNull(cache.get("foo", "a"));
+    nanos.set(TimeUnit.MILLISECONDS.toNanos(1_001));
+    assertNull(cache.get("foo", "a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void fillAfterInvalidationIsDropped() {
+    final FeatureCache cache = heapCache.getFeatureCache();
+    final XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance().withFeature(new XyzFeature("a"));
+    codec.decodeParts(true);
+    final long stamp = cache.stamp();
+    cache.invalidate("foo", "a");
+    assertFalse(cache.put("foo", codec, stamp));
+    assertNull(cache.get("foo", "a"));
+  }
+
+  @Test
+  void writesInvalidateAndBypassTheCacheUntilCommit() {
+    final FeatureCache cache = heapCache.getFeatureCache();
+    try (final IWriteSession session = heapCache.newWriteSession(null, true)) {
+      session.execute(readFeaturesByIdsRequest("foo", List.of("a", "b")));
+      assertNotNull(cache.get("foo", "a"));
+
+      final WriteXyzFeatures write = new WriteXyzFeatures("foo");
+      write.update(new XyzFeature("a"));
+      final Result result = session.execute(write);
+      assertSame(HeapCacheSuccessResult.class, result.getClass());
+      assertNull(cache.get("foo", "a"));
+      assertNotNull(cache.get("foo", "b"));
+
+      // Uncommitted changes must neither be read from, nor be added to the cache.
+      session.execute(readFeaturesByIdsRequest("foo", List.of("a", "b")));
+      assertNull(cache.get("foo", "a"));
+      verify(storageSession, times(2)).execute(any(ReadRequest.class));
+
+      session.commit(true);
+      session.execute(readFeaturesByIdRequest("foo", "a"));
+      assertNotNull(cache.get("foo", "a"));
+    }
+    verify(storageSession, times(3)).execute(any(ReadRequest.class));
+    verify(storageSession, times(1)).commit(true);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void signalsOfTheStorageInvalidateTheCache() throws Exception {
+    final ArgumentCaptor<Pe1<TxSignalSet>> captor = ArgumentCaptor.forClass(Pe1.class);
+    verify(storage).addListener(captor.capture());
+    final Pe1<TxSignalSet> listener = captor.getValue();
+    final FeatureCache cache = heapCache.getFeatureCache();
+    try (final IReadSession session = heapCache.newReadSession(null, false)) {
+      session.execute(readFeaturesByIdsRequest("foo", List.of("a", "b")));
+      session.execute(readFeaturesByIdRequest("bar", "c"));
+    }
+
+    final TxModifyFeatures features = new TxModifyFeatures("foo", "psql", "foo", "txn1");
+    features.featureIds = List.of("a");
+    features.ts = System.currentTimeMillis();
+    final TxSignalSet featureSignals = new TxSignalSet();
+    featureSignals.put(features);
+    listener.call(featureSignals);
+    assertNull(cache.get("foo", "a"));
+    assertNotNull(cache.get("foo", "b"));
+    assertNotNull(cache.get("bar", "c"));
+
+    final TxSignalSet collectionSignals = new TxSignalSet();
+    collectionSignals.put(new TxModifyCollection("col:foo", "psql", "foo", "txn2", EXyzAction.DELETE));
+    listener.call(collectionSignals);
+    assertNull(cache.get("foo", "b"));
+    assertNotNull(cache.get("bar", "c"));
+
+    // An empty set is sent, when changes may have been missed.
+    listener.call(new TxSignalSet());
+    assertEquals(0, cache.size());
+
+    heapCache.close();
+    verify(storage).removeListener(listener);
+  }
+}
@@ -29,7 +29,6 @@ import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeatureFrom
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.here.naksha.lib.core.*;
 import com.here.naksha.lib.core.exceptions.NoCursor;
-import com.here.naksha.lib.core.exceptions.StorageNotFoundException;
 import com.here.naksha.lib.core.lambdas.Fe1;
 import com.here.naksha.lib.core.models.ExtensionConfig;
 import com.here.naksha.lib.core.models.XyzError;
@@ -47,6 +46,8 @@ import com.here.naksha.lib.core.storage.IReadSession;
 import com.here.naksha.lib.core.storage.IStorage;
 import com.here.naksha.lib.core.storage.IWriteSession;
 import com.here.naksha.lib.core.util.IoHelp;
+import com.here.naksha.lib.core.util.PhaseTimer;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import com.here.naksha.lib.core.util.json.Json;
 import com.here.naksha.lib.core.util.storage.ResultHelper;
 import com.here.naksha.lib.core.view.ViewDeserialize;
@@ -55,10 +56,12 @@ import com.here.naksha.lib.extmanager.IExtensionManager;
 import com.here.naksha.lib.extmanager.helpers.AmazonS3Helper;
 import com.here.naksha.lib.hub.storages.NHAdminStorage;
 import com.here.naksha.lib.hub.storages.NHSpaceStorage;
+import com.here.naksha.lib.hub.storages.StorageRegistry;
 import com.here.naksha.lib.psql.PsqlStorage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -93,6 +96,11 @@ public class NakshaHub implements INaksha {
    */
   protected final @NotNull IStorage spaceStorageInstance;
 
+  /**
+   * Registry of the long-lived storage instances, resolved via {@link #getStorageById(String)}
+   */
+  protected final @NotNull StorageRegistry storageRegistry;
+
   /**
    * Singleton instance of Extension Manager, which is responsible to manage Naksha extensions cache
    */
@@ -108,13 +116,19 @@ public class NakshaHub implements INaksha {
     logger.info("NakshaHub initialization started.");
     this.psqlStorage = new PsqlStorage(PsqlStorage.ADMIN_STORAGE_ID, appName, storageUrl);
     this.adminStorageInstance = new NHAdminStorage(this.psqlStorage);
-    this.spaceStorageInstance = new NHSpaceStorage(this, new NakshaEventPipelineFactory(this));
     // setup backend storage DB and Hub config
     final NakshaHubConfig finalCfg = this.storageSetup(customCfg, configId);
     if (finalCfg == null) {
       throw new RuntimeException("Server configuration not found! Neither in Admin storage nor a default file.");
     }
     this.nakshaHubConfig = finalCfg;
+    this.storageRegistry = new StorageRegistry(
+        this::readStorage, this::storageInstance, nakshaHubConfig.storageRegistryTtlInSecs, TimeUnit.SECONDS);
+    this.spaceStorageInstance = new NHSpaceStorage(
+        this,
+        new NakshaEventPipelineFactory(this),
+        nakshaHubConfig.pipelineCacheTtlInSecs,
+        storageRegistry::invalidate);
     if (this.nakshaHubConfig.extensionConfigParams != null) {
       this.extensionManager = ExtensionManager.getInstance(this);
     } else {
@@ -366,7 +380,13 @@ public class NakshaHub implements INaksha {
   @Override
   @ApiStatus.AvailableSince(NakshaVersion.v2_0_7)
   public @NotNull IStorage getStorageById(final @NotNull String storageId) {
-    try (final IReadSession reader = getAdminStorage().newReadSession(NakshaContext.currentContext(), false)) {
+    return storageRegistry.get(storageId);
+  }
+
+  private @Nullable Storage readStorage(final @NotNull String storageId) {
+    final NakshaContext context = NakshaContext.currentContext();
+    try (final PhaseTimer lookupTimer = context.startPhase(Phase.ADMIN_LOOKUP);
+        final IReadSession reader = getAdminStorage().newReadSession(context, false)) {
       try (final Result result =
           reader.execute(readFeaturesByIdRequest(NakshaAdminCollection.STORAGES, storageId))) {
         if (result instanceof ErrorResult er) {
@@ -374,11 +394,7 @@ public class NakshaHub implements INaksha {
               "Exception fetching storage details for id " + storageId + ". " + er.message,
               er.exception));
         }
-        Storage storage = readFeatureFromResult(result, Storage.class);
-        if (storage == null) {
-          throw unchecked(new StorageNotFoundException(storageId));
-        }
-        return storageInstance(storage);
+        return readFeatureFromResult(result, Storage.class);
       }
     }
   }
@@ -104,7 +104,10 @@ public final class NakshaHubConfig extends XyzFeature implements JsonSerializabl
       @JsonProperty("extensionConfigParams") @Nullable ExtensionConfigParams extensionConfigParams,
       @JsonProperty("requestBodyLimit") @Nullable Integer requestBodyLimit,
       @JsonProperty("maxParallelRequestsPerCPU") @Nullable Integer maxParallelRequestsPerCPU,
-      @JsonProperty("maxPctParallelRequestsPerActor") @Nullable Integer maxPctParallelRequestsPerActor) {
+      @JsonProperty("maxPctParallelRequestsPerActor") @Nullable Integer maxPctParallelRequestsPerActor,
+      @JsonProperty("pipelineCacheTtlInSecs") @Nullable Integer pipelineCacheTtlInSecs,
+      @JsonProperty("storageRegistryTtlInSecs") @Nullable Integer storageRegistryTtlInSecs,
+      @JsonProperty("rawJsonResponses") @Nullable Boolean rawJsonResponses) {
     super(id);
     if (httpPort != null && (httpPort < 0 || httpPort > 65535)) {
       logger.atError()
@@ -197,6 +200,12 @@ public final class NakshaHubConfig extends XyzFeature implements JsonSerializabl
     this.maxPctParallelRequestsPerActor = maxPctParallelRequestsPerActor != null
         ? maxPctParallelRequestsPerActor
         : defaultMaxPctParallelRequestsPerActor();
+    this.pipelineCacheTtlInSecs =
+        pipelineCacheTtlInSecs != null ? Math.max(0, pipelineCacheTtlInSecs) : defaultPipelineCacheTtlInSecs();
+    this.storageRegistryTtlInSecs = storageRegistryTtlInSecs != null
+        ? Math.max(0, storageRegistryTtlInSecs)
+        : defaultStorageRegistryTtlInSecs();
+    this.rawJsonResponses = rawJsonResponses == null || rawJsonResponses;
   }
 
   private String getEnv(String env) {
@@ -369,6 +378,45 @@ public final class NakshaHubConfig extends XyzFeature implements JsonSerializabl
   public static int defaultMaxPctParallelRequestsPerActor() {
     return 25;
   }
+
+  /**
+   * Returns a default time-to-live in seconds, for the cached event pipelines of spaces
+   *
+   * @return the default time-to-live of cached space pipelines
+   */
+  public static int defaultPipelineCacheTtlInSecs() {
+    return 60;
+  }
+
+  /**
+   * The time-to-live in seconds, for which the resolved event handlers of a space are cached. Changes done via the admin spaces of this
+   * instance invalidate the cache immediately, changes done by other instances become visible after this time. A value of zero disables
+   * the cache.
+   */
+  public final int pipelineCacheTtlInSecs;
+
+  /**
+   * Returns a default time-to-live in seconds, after which registered storage instances verify their configuration
+   *
+   * @return the default time-to-live of registered storage instances
+   */
+  public static int defaultStorageRegistryTtlInSecs() {
+    return 60;
+  }
+
+  /**
+   * The time-to-live in seconds, after which a registered storage instance verifies, if its configuration was changed. Changes done via
+   * the admin spaces of this instance replace the storage instance immediately, changes done by other instances become visible after
+   * this time. A value of zero disables the registry, so that a new storage instance is created for every request.
+   */
+  public final int storageRegistryTtlInSecs;
+
+  /**
+   * If features read from the storage, which are not modified by the service, should be sent to the client as read from the storage,
+   * without parsing and serializing them again. Handlers still see decoded features, when they ask for them; the switch exists for
+   * deployments, where the exact output of the feature model is required. The default is {@code true}.
+   */
+  public final boolean rawJsonResponses;
   /**
    * Optional storage-specific parameters
    */
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.storage.HeapCacheCursor;
+import com.here.naksha.lib.core.models.storage.SuccessResult;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import java.util.List;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The result of a read, that was executed once for multiple concurrent callers by the {@link ReadCoalescer}. Each caller gets an own
+ * result, with own codecs, that share the immutable JSON and WKB of the features.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class CoalescedReadResult extends SuccessResult {
+
+  CoalescedReadResult(@NotNull List<@NotNull XyzFeatureCodec> codecs) {
+    this.cursor = new HeapCacheCursor<>(XyzFeatureCodecFactory.get(), codecs, null);
+  }
+}
@@ -55,6 +55,11 @@ public class NHAdminStorage implements IStorage {
     return new NHAdminStorageReader(this.psqlStorage.newReadSession(context, useMaster));
   }
 
+  @Override
+  public boolean supportsOrderById() {
+    return psqlStorage.supportsOrderById();
+  }
+
   /**
    * Shutdown the storage instance asynchronously. This method returns asynchronously whatever the given {@code onShutdown} handler returns.
    * If no shutdown handler given, then {@code null} is returned.
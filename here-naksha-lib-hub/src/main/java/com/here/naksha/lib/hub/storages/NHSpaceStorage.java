@@ -26,6 +26,7 @@ import com.here.naksha.lib.core.NakshaAdminCollection;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.NakshaVersion;
 import com.here.naksha.lib.core.lambdas.Fe1;
+import com.here.naksha.lib.core.lambdas.P1;
 import com.here.naksha.lib.core.storage.IReadSession;
 import com.here.naksha.lib.core.storage.IStorage;
 import com.here.naksha.lib.core.storage.IWriteSession;
@@ -41,6 +42,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -54,14 +56,80 @@ public class NHSpaceStorage implements IStorage {
 
   protected final @NotNull EventPipelineFactory pipelineFactory;
 
+  /** Cache of the resolved event handlers of custom spaces, invalidated when spaces or event handlers are modified */
+  protected final @NotNull SpacePipelineCache pipelineCache;
+
+  /** Coalesces identical concurrent reads of custom spaces */
+  protected final @NotNull ReadCoalescer readCoalescer;
+
   @ApiStatus.AvailableSince(NakshaVersion.v2_0_7)
   public NHSpaceStorage(final @NotNull INaksha hub, final @NotNull EventPipelineFactory pipelineFactory) {
+    this(hub, pipelineFactory, 0, 0, null);
+  }
+
+  /**
+   * Creates the space storage.
+   *
+   * @param hub                    the reference to the Naksha-Hub.
+   * @param pipelineFactory        the factory to create event pipelines.
+   * @param pipelineCacheTtlInSecs the time-to-live of the resolved space pipelines, zero disables the cache.
+   * @param storageChangeListener  optional listener to invoke with the id of every storage that was created, updated or deleted.
+   */
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public NHSpaceStorage(
+      final @NotNull INaksha hub,
+      final @NotNull EventPipelineFactory pipelineFactory,
+      final int pipelineCacheTtlInSecs,
+      final @Nullable P1<@NotNull String> storageChangeListener) {
+    this(hub, pipelineFactory, pipelineCacheTtlInSecs, ReadCoalescer.DEFAULT_MAX_FEATURES, storageChangeListener);
+  }
+
+  /**
+   * Creates the space storage.
+   *
+   * @param hub                    the reference to the Naksha-Hub.
+   * @param pipelineFactory        the factory to create event pipelines.
+   * @param pipelineCacheTtlInSecs the time-to-live of the resolved space pipelines, zero disables the cache.
+   * @param coalesceMaxFeatures    the maximal limit of identical concurrent reads to coalesce, which bounds the memory used to share
+   *                               a result with reads that joined, zero disables coalescing.
+   * @param storageChangeListener  optional listener to invoke with the id of every storage that was created, updated or deleted.
+   */
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public NHSpaceStorage(
+      final @NotNull INaksha hub,
+      final @NotNull EventPipelineFactory pipelineFactory,
+      final int pipelineCacheTtlInSecs,
+      final long coalesceMaxFeatures,
+      final @Nullable P1<@NotNull String> storageChangeListener) {
     this.nakshaHub = hub;
     this.pipelineFactory = pipelineFactory;
-    this.virtualSpaces = configureVirtualSpaces(hub);
+    this.pipelineCache = new SpacePipelineCache(pipelineCacheTtlInSecs, TimeUnit.SECONDS);
+    this.readCoalescer = new ReadCoalescer(coalesceMaxFeatures);
+    this.virtualSpaces = configureVirtualSpaces(hub, storageChangeListener);
   }
 
-  private @NotNull Map<String, List<IEventHandler>> configureVirtualSpaces(final @NotNull INaksha hub) {
+  /**
+   * Returns the cache of the resolved space pipelines, for example to read its hit and miss counters.
+   *
+   * @return the cache of the resolved space pipelines.
+   */
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull SpacePipelineCache getPipelineCache() {
+    return pipelineCache;
+  }
+
+  /**
+   * Returns the coalescer of identical concurrent reads, for example to read its counters.
+   *
+   * @return the coalescer of identical concurrent reads.
+   */
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull ReadCoalescer getReadCoalescer() {
+    return readCoalescer;
+  }
+
+  private @NotNull Map<String, List<IEventHandler>> configureVirtualSpaces(
+      final @NotNull INaksha hub, final @Nullable P1<@NotNull String> storageChangeListener) {
     final Map<String, List<IEventHandler>> adminSpaces = new HashMap<>();
     // common auth handler
     final IEventHandler authHandler = new AuthorizationEventHandler(hub);
@@ -71,12 +139,15 @@ public class NHSpaceStorage implements IStorage {
           spaceId,
           switch (spaceId) {
             case NakshaAdminCollection.CONFIGS -> List.of(authHandler, new IntHandlerForConfigs(hub));
-            case NakshaAdminCollection.SPACES -> List.of(authHandler, new IntHandlerForSpaces(hub));
+            case NakshaAdminCollection.SPACES -> List.of(
+                authHandler, new IntHandlerForSpaces(hub, pipelineCache::invalidateSpace));
             case NakshaAdminCollection.SUBSCRIPTIONS -> List.of(
                 authHandler, new IntHandlerForSubscriptions(hub));
             case NakshaAdminCollection.EVENT_HANDLERS -> List.of(
-                authHandler, new IntHandlerForEventHandlers(hub));
-            case NakshaAdminCollection.STORAGES -> List.of(authHandler, new IntHandlerForStorages(hub));
+                authHandler,
+                new IntHandlerForEventHandlers(hub, pipelineCache::invalidateEventHandler));
+            case NakshaAdminCollection.STORAGES -> List.of(
+                authHandler, new IntHandlerForStorages(hub, storageChangeListener));
             case NakshaAdminCollection.EXTENSIONS -> List.of(authHandler, new IntHandlerForExtensions(hub));
             default -> throw unchecked(new Exception("Unsupported virtual space " + spaceId));
           });
@@ -129,13 +200,32 @@ public class NHSpaceStorage implements IStorage {
   @Override
   @ApiStatus.AvailableSince(NakshaVersion.v2_0_7)
   public @NotNull IWriteSession newWriteSession(@Nullable NakshaContext context, boolean useMaster) {
-    return new NHSpaceStorageWriter(this.nakshaHub, virtualSpaces, pipelineFactory, context, useMaster);
+    return new NHSpaceStorageWriter(
+        this.nakshaHub, virtualSpaces, pipelineFactory, pipelineCache, context, useMaster);
   }
 
   @Override
   @ApiStatus.AvailableSince(NakshaVersion.v2_0_7)
   public @NotNull IReadSession newReadSession(@Nullable NakshaContext context, boolean useMaster) {
-    return new NHSpaceStorageReader(this.nakshaHub, virtualSpaces, pipelineFactory, context, useMaster);
+    return new NHSpaceStorageReader(
+        this.nakshaHub, virtualSpaces, pipelineFactory, pipelineCache, readCoalescer, context, useMaster);
+  }
+
+  /**
+   * Tests whether the features of the given space are returned ordered by their {@code id}, which is the case when the pipeline of the
+   * space directly ends in the {@link com.here.naksha.lib.handlers.DefaultStorageHandler} and its storage supports it.
+   *
+   * @param collectionId the identifier of the space.
+   * @return {@code true} if the features of the space are returned ordered by id; {@code false} otherwise.
+   */
+  @Override
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public boolean supportsOrderById(@NotNull String collectionId) {
+    try (final NHSpaceStorageReader reader = new NHSpaceStorageReader(
+        this.nakshaHub, virtualSpaces, pipelineFactory, pipelineCache, readCoalescer, null, false)) {
+      final IStorage storage = reader.getDirectStorage(collectionId);
+      return storage != null && storage.supportsOrderById();
+    }
   }
 
   /**
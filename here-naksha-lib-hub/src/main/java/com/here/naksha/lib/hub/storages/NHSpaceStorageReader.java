@@ -33,16 +33,24 @@ import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.naksha.Space;
+import com.here.naksha.lib.core.models.storage.CollectionVersionResult;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.Notification;
+import com.here.naksha.lib.core.models.storage.ReadCollectionVersion;
 import com.here.naksha.lib.core.models.storage.ReadCollections;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
 import com.here.naksha.lib.core.models.storage.ReadRequest;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
 import com.here.naksha.lib.core.storage.IReadSession;
+import com.here.naksha.lib.core.storage.IStorage;
+import com.here.naksha.lib.core.util.Hasher;
+import com.here.naksha.lib.core.util.PhaseTimer;
 import com.here.naksha.lib.core.util.StreamInfo;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
 import com.here.naksha.lib.handlers.AuthorizationEventHandler;
+import com.here.naksha.lib.handlers.DefaultStorageHandler;
 import com.here.naksha.lib.hub.EventPipelineFactory;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -80,8 +88,28 @@ public class NHSpaceStorageReader implements IReadSession {
 
   protected final @NotNull EventPipelineFactory pipelineFactory;
 
+  /**
+   * Optional cache of the resolved event handlers of custom spaces.
+   */
+  protected final @Nullable SpacePipelineCache pipelineCache;
+
+  /**
+   * Optional coalescer of identical concurrent reads of custom spaces.
+   */
+  protected final @Nullable ReadCoalescer readCoalescer;
+
   private @NotNull int fetchSize;
 
+  /**
+   * The pipeline that currently processes a request of this session, if any.
+   */
+  private volatile @Nullable EventPipeline runningPipeline;
+
+  /**
+   * The version of the configuration of the space and its event handlers, of the pipeline set up last by this session.
+   */
+  private @Nullable String pipelineConfigVersion;
+
   @ApiStatus.AvailableSince(NakshaVersion.v2_0_7)
   public NHSpaceStorageReader(
       final @NotNull INaksha hub,
@@ -89,9 +117,34 @@ public class NHSpaceStorageReader implements IReadSession {
       final @NotNull EventPipelineFactory pipelineFactory,
       final @Nullable NakshaContext context,
       boolean useMaster) {
+    this(hub, virtualSpaces, pipelineFactory, null, context, useMaster);
+  }
+
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public NHSpaceStorageReader(
+      final @NotNull INaksha hub,
+      final @NotNull Map<String, List<IEventHandler>> virtualSpaces,
+      final @NotNull EventPipelineFactory pipelineFactory,
+      final @Nullable SpacePipelineCache pipelineCache,
+      final @Nullable NakshaContext context,
+      boolean useMaster) {
+    this(hub, virtualSpaces, pipelineFactory, pipelineCache, null, context, useMaster);
+  }
+
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public NHSpaceStorageReader(
+      final @NotNull INaksha hub,
+      final @NotNull Map<String, List<IEventHandler>> virtualSpaces,
+      final @NotNull EventPipelineFactory pipelineFactory,
+      final @Nullable SpacePipelineCache pipelineCache,
+      final @Nullable ReadCoalescer readCoalescer,
+      final @Nullable NakshaContext context,
+      boolean useMaster) {
     this.nakshaHub = hub;
     this.virtualSpaces = virtualSpaces;
     this.pipelineFactory = pipelineFactory;
+    this.pipelineCache = pipelineCache;
+    this.readCoalescer = readCoalescer;
     this.context = (context != null) ? context : NakshaContext.currentContext();
     this.useMaster = useMaster;
     fetchSize = DEFAULT_FETCH_SIZE;
@@ -196,6 +249,8 @@ public class NHSpaceStorageReader implements IReadSession {
       return executeReadCollections(rc);
     } else if (readRequest instanceof ReadFeatures rf) {
       return executeReadFeatures(rf);
+    } else if (readRequest instanceof ReadCollectionVersion rcv) {
+      return executeReadCollectionVersion(rcv);
     }
     throw new UnsupportedOperationException(
         "ReadRequest with unsupported type " + readRequest.getClass().getName());
@@ -224,6 +279,27 @@ public class NHSpaceStorageReader implements IReadSession {
     }
   }
 
+  private @NotNull Result executeReadCollectionVersion(final @NotNull ReadCollectionVersion rcv) {
+    final String spaceId = rcv.getCollectionId();
+    if (spaceId == null) {
+      return new ErrorResult(XyzError.ILLEGAL_ARGUMENT, "Missing space identifier");
+    }
+    if (virtualSpaces.containsKey(spaceId)) {
+      return new ErrorResult(XyzError.NOT_IMPLEMENTED, "No version available for admin spaces");
+    }
+    final EventPipeline eventPipeline = pipelineFactory.eventPipeline();
+    final Result result = setupEventPipelineForSpaceId(spaceId, eventPipeline);
+    if (!(result instanceof SuccessResult)) {
+      return result;
+    }
+    final Result versionResult = sendEvent(eventPipeline, rcv);
+    // The response depends on the configuration of the pipeline as well, not only on the features.
+    if (versionResult instanceof CollectionVersionResult cvr && pipelineConfigVersion != null) {
+      return new CollectionVersionResult(cvr.version + "." + pipelineConfigVersion);
+    }
+    return versionResult;
+  }
+
   private @NotNull Result executeReadFeaturesFromAdminSpaces(final @NotNull ReadFeatures rf) {
     // Run pipeline against virtual space
     final String spaceId = rf.getCollections().get(0);
@@ -232,23 +308,25 @@ public class NHSpaceStorageReader implements IReadSession {
     if (!(result instanceof SuccessResult)) {
       return result;
     }
-    return pipeline.sendEvent(rf);
+    return sendEvent(pipeline, rf);
   }
 
   protected @NotNull Result setupEventPipelineForAdminVirtualSpace(
       final @NotNull String spaceId, final @NotNull EventPipeline pipeline) {
-    // add internal Admin resource specific event handlers
-    final StringBuilder handlerTypes = new StringBuilder();
-    for (final IEventHandler handler : virtualSpaces.get(spaceId)) {
-      pipeline.addEventHandler(handler);
-      if (handlerTypes.length() == 0) {
-        handlerTypes.append(handler.getClass().getSimpleName());
-      } else {
-        handlerTypes.append(",").append(handler.getClass().getSimpleName());
+    try (final PhaseTimer setupTimer = context.startPhase(Phase.PIPELINE_SETUP)) {
+      // add internal Admin resource specific event handlers
+      final StringBuilder handlerTypes = new StringBuilder();
+      for (final IEventHandler handler : virtualSpaces.get(spaceId)) {
+        pipeline.addEventHandler(handler);
+        if (handlerTypes.length() == 0) {
+          handlerTypes.append(handler.getClass().getSimpleName());
+        } else {
+          handlerTypes.append(",").append(handler.getClass().getSimpleName());
+        }
       }
+      logger.info("Handler types identified [{}]", handlerTypes);
+      return new SuccessResult();
     }
-    logger.info("Handler types identified [{}]", handlerTypes);
-    return new SuccessResult();
   }
 
   private @NotNull Result executeReadFeaturesFromCustomSpaces(final @NotNull ReadFeatures rf) {
@@ -257,21 +335,119 @@ public class NHSpaceStorageReader implements IReadSession {
           XyzError.NOT_IMPLEMENTED, "ReadFeatures from multiple collections not supported at present!");
     }
     final String spaceId = rf.getCollections().get(0);
+    if (readCoalescer != null) {
+      return readCoalescer.execute(context, rf, () -> sendToSpacePipeline(spaceId, rf));
+    }
+    return sendToSpacePipeline(spaceId, rf);
+  }
+
+  private @NotNull Result sendToSpacePipeline(final @NotNull String spaceId, final @NotNull ReadFeatures rf) {
     final EventPipeline eventPipeline = pipelineFactory.eventPipeline();
     final Result result = setupEventPipelineForSpaceId(spaceId, eventPipeline);
     if (!(result instanceof SuccessResult)) {
       return result;
     }
-    return eventPipeline.sendEvent(rf);
+    // Only the storage renders vector tiles, other event handlers need the features, so they get a normal read
+    // request
+    final ReadFeatures request = rf.getMvtTile() != null && !directStorageHandler
+        ? rf.shallowClone().withMvtTile(null)
+        : rf;
+    return sendEvent(eventPipeline, request);
   }
 
+  /**
+   * If the pipeline set up by {@link #addSpaceEventHandlers(String, EventPipeline)} forwards the requests directly to the storage.
+   */
+  private boolean directStorageHandler;
+
   @ApiStatus.AvailableSince(NakshaVersion.v2_0_7)
   protected @NotNull Result setupEventPipelineForSpaceId(
       final @NotNull String spaceId, final @NotNull EventPipeline pipeline) {
+    try (final PhaseTimer setupTimer = context.startPhase(Phase.PIPELINE_SETUP)) {
+      return addSpaceEventHandlers(spaceId, pipeline);
+    }
+  }
+
+  private @NotNull Result addSpaceEventHandlers(
+      final @NotNull String spaceId, final @NotNull EventPipeline pipeline) {
+    final List<IEventHandler> handlers = new ArrayList<>();
+    final Result result = resolveSpaceEventHandlers(spaceId, handlers);
+    directStorageHandler = false;
+    if (result instanceof SuccessResult) {
+      addEventHandlers(pipeline, handlers);
+      directStorageHandler = directStorageHandler(handlers) != null;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the storage, to which the pipeline of the given custom space directly forwards the requests, which is only the case when
+   * the {@link DefaultStorageHandler} is the only event handler of the space.
+   *
+   * @param spaceId the identifier of the space.
+   * @return the storage; {@code null} if the space is virtual, can't be resolved or has other event handlers.
+   */
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public @Nullable IStorage getDirectStorage(final @NotNull String spaceId) {
+    if (virtualSpaces.containsKey(spaceId)) {
+      return null;
+    }
+    final List<IEventHandler> handlers = new ArrayList<>();
+    try (final PhaseTimer setupTimer = context.startPhase(Phase.PIPELINE_SETUP)) {
+      if (!(resolveSpaceEventHandlers(spaceId, handlers) instanceof SuccessResult)) {
+        return null;
+      }
+    }
+    final DefaultStorageHandler storageHandler = directStorageHandler(handlers);
+    final String storageId = storageHandler != null ? storageHandler.getStorageId() : null;
+    if (storageId == null) {
+      return null;
+    }
+    try {
+      return nakshaHub.getStorageById(storageId);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to resolve storage {} of space {}", storageId, spaceId, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the storage handler, if it is the only event handler, besides the authorization.
+   */
+  private static @Nullable DefaultStorageHandler directStorageHandler(
+      final @NotNull List<@NotNull IEventHandler> handlers) {
+    DefaultStorageHandler storageHandler = null;
+    for (final IEventHandler handler : handlers) {
+      if (handler instanceof AuthorizationEventHandler) {
+        continue;
+      }
+      if (storageHandler != null || !(handler instanceof DefaultStorageHandler dsh)) {
+        return null;
+      }
+      storageHandler = dsh;
+    }
+    return storageHandler;
+  }
+
+  private @NotNull Result resolveSpaceEventHandlers(
+      final @NotNull String spaceId, final @NotNull List<@NotNull IEventHandler> handlers) {
+    final SpacePipelineCache cache = (pipelineCache != null && pipelineCache.isEnabled()) ? pipelineCache : null;
+    long cacheGeneration = 0L;
+    pipelineConfigVersion = null;
+    if (cache != null) {
+      final SpacePipelineCache.Entry cached = cache.lookup(spaceId);
+      if (cached != null) {
+        pipelineConfigVersion = cached.configVersion();
+        handlers.addAll(cached.handlers());
+        return new SuccessResult();
+      }
+      cacheGeneration = cache.generation();
+    }
     Space space = null;
     List<EventHandler> eventHandlers = null;
 
-    try (final IReadSession reader = nakshaHub.getAdminStorage().newReadSession(context, false)) {
+    try (final PhaseTimer lookupTimer = context.startPhase(Phase.ADMIN_LOOKUP);
+        final IReadSession reader = nakshaHub.getAdminStorage().newReadSession(context, false)) {
       // Get Space details using Admin Storage
       Result result = reader.execute(readFeaturesByIdRequest(NakshaAdminCollection.SPACES, spaceId));
       if (result instanceof ErrorResult er) {
@@ -325,10 +501,36 @@ public class NHSpaceStorageReader implements IReadSession {
 
     // Create pipeline and add all applicable event handlers
     // TODO : AuthorizationHandler will need information about Space storageId as well
-    pipeline.addEventHandler(new AuthorizationEventHandler(nakshaHub, space, eventHandlers));
+    handlerImpls.add(0, new AuthorizationEventHandler(nakshaHub, space, eventHandlers));
+    handlers.addAll(handlerImpls);
+    final String configVersion = configVersion(space, eventHandlers);
+    pipelineConfigVersion = configVersion;
+    if (cache != null) {
+      cache.put(spaceId, handlerImpls, space.getEventHandlerIds(), configVersion, cacheGeneration);
+    }
+    return new SuccessResult();
+  }
+
+  /**
+   * Returns the version of the configuration of the space and its event handlers, which changes whenever any of them is modified.
+   */
+  private static @NotNull String configVersion(
+      final @NotNull Space space, final @NotNull List<@NotNull EventHandler> eventHandlers) {
+    final StringBuilder sb = new StringBuilder(JsonSerializable.serialize(space));
+    for (final EventHandler eventHandler : eventHandlers) {
+      sb.append('\n').append(JsonSerializable.serialize(eventHandler));
+    }
+    return Hasher.getHash(sb.toString());
+  }
+
+  private void addEventHandlers(
+      final @NotNull EventPipeline pipeline, final @NotNull List<@NotNull IEventHandler> handlers) {
     final StringBuilder handlerTypes = new StringBuilder();
-    for (final IEventHandler handler : handlerImpls) {
+    for (final IEventHandler handler : handlers) {
       pipeline.addEventHandler(handler);
+      if (handler instanceof AuthorizationEventHandler) {
+        continue;
+      }
       if (handlerTypes.length() == 0) {
         handlerTypes.append(handler.getClass().getSimpleName());
       } else {
@@ -336,7 +538,27 @@ public class NHSpaceStorageReader implements IReadSession {
       }
     }
     logger.info("Handler types identified [{}]", handlerTypes);
-    return new SuccessResult();
+  }
+
+  private @NotNull Result sendEvent(final @NotNull EventPipeline pipeline, final @NotNull ReadRequest<?> request) {
+    runningPipeline = pipeline;
+    try {
+      return pipeline.sendEvent(request);
+    } finally {
+      runningPipeline = null;
+    }
+  }
+
+  /**
+   * Cancels the statements currently executed by the storage sessions, which the event handlers of the space opened.
+   */
+  @Override
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public void cancel() {
+    final EventPipeline pipeline = runningPipeline;
+    if (pipeline != null) {
+      pipeline.cancel();
+    }
   }
 
   /**
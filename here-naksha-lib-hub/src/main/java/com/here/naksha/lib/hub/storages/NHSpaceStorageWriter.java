@@ -63,6 +63,17 @@ public class NHSpaceStorageWriter extends NHSpaceStorageReader implements IWrite
     super(hub, virtualSpaces, pipelineFactory, context, useMaster);
   }
 
+  @ApiStatus.AvailableSince(NakshaVersion.v2_1_6)
+  public NHSpaceStorageWriter(
+      final @NotNull INaksha hub,
+      final @NotNull Map<String, List<IEventHandler>> virtualSpaces,
+      final @NotNull EventPipelineFactory pipelineFactory,
+      final @Nullable SpacePipelineCache pipelineCache,
+      final @Nullable NakshaContext context,
+      boolean useMaster) {
+    super(hub, virtualSpaces, pipelineFactory, pipelineCache, context, useMaster);
+  }
+
   /**
    * Execute the given write-request.
    *
@@ -163,6 +174,10 @@ public class NHSpaceStorageWriter extends NHSpaceStorageReader implements IWrite
     final XyzCollection collection = spaceProperties.getXyzCollection();
     Result updateSpaceRes = null;
     if (collection != null) {
+      if (collection.getIndices() == null) {
+        // the storage maintains the property indices declared at the space
+        collection.setIndices(space.getIndices());
+      }
       // submit Update Collection request to Custom Space based pipeline
       WriteXyzCollections updateCollectionReq = new WriteXyzCollections().put(collection);
       updateSpaceRes = executeWriteCollections(updateCollectionReq, space.getId());
@@ -0,0 +1,417 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.exceptions.NoCursor;
+import com.here.naksha.lib.core.lambdas.F0;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.CollectionVersionResult;
+import com.here.naksha.lib.core.models.storage.ContextResult;
+import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.MvtResult;
+import com.here.naksha.lib.core.models.storage.NotificationSuccessResult;
+import com.here.naksha.lib.core.models.storage.POp;
+import com.here.naksha.lib.core.models.storage.PRef;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.ReadFeaturesProxyWrapper;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.SOp;
+import com.here.naksha.lib.core.models.storage.SuccessResult;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.models.storage.transformation.BufferTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.ClipTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.GeographyTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.GeometryTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.SimplifyTransformation;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Coalesces identical concurrent reads (single-flight): while a read is executed, every identical read of a caller with the same
+ * authorization scope waits for the running execution and gets a copy of its result, instead of executing the read again. Reads are
+ * identical, when they target the same collection with the same spatial and property operations, limit and request type.
+ *
+ * <p>A read that joins a running execution may miss changes committed after that execution started, which is the same as if it had
+ * been executed a moment earlier. Callers can only join, while the storage executes the read; once the storage returned the result, it
+ * is streamed to the caller as is, unless another caller joined. Only then the result is read into memory and held until all callers got
+ * their copy, which is why only reads with a limit of at most {@link #maxFeatures} features are coalesced.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class ReadCoalescer {
+
+  /**
+   * The default maximal limit of reads to coalesce.
+   */
+  public static final long DEFAULT_MAX_FEATURES = 30_000;
+
+  /**
+   * The shared outcome of a read, either the parts of the features, a result that can be shared as is, or an exception. If all are
+   * {@code null}, the result can't be shared and every caller has to execute the read itself.
+   */
+  private record Shared(
+      @Nullable List<@NotNull XyzFeatureCodec> parts,
+      @Nullable Result result,
+      @Nullable RuntimeException exception) {}
+
+  private static final Shared NOT_SHAREABLE = new Shared(null, null, null);
+
+  /**
+   * A running read.
+   */
+  private static final class Flight {
+
+    final @NotNull CompletableFuture<Shared> shared = new CompletableFuture<>();
+
+    /**
+     * The amount of callers that joined, only modified and read while holding the lock of the map entry.
+     */
+    int joiners;
+  }
+
+  /**
+   * Creates a new coalescer.
+   *
+   * @param maxFeatures the maximal limit of reads to coalesce, zero or less disables coalescing.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public ReadCoalescer(long maxFeatures) {
+    this.maxFeatures = maxFeatures;
+  }
+
+  private final long maxFeatures;
+  private final @NotNull ConcurrentHashMap<@NotNull String, @NotNull Flight> flights = new ConcurrentHashMap<>();
+  private final @NotNull AtomicLong executions = new AtomicLong();
+  private final @NotNull AtomicLong coalesced = new AtomicLong();
+
+  /**
+   * Executes the given read or joins an identical running one.
+   *
+   * @param context the context of the caller, which provides the authorization scope.
+   * @param request the read request.
+   * @param read    the function executing the read.
+   * @return the result.
+   */
+  public @NotNull Result execute(
+      @NotNull NakshaContext context, @NotNull ReadFeatures request, @NotNull F0<@NotNull Result> read) {
+    final String key = key(context, request);
+    if (key == null) {
+      return read.call();
+    }
+    final Flight flight = new Flight();
+    final Flight running = flights.compute(key, (k, current) -> {
+      if (current == null) {
+        return flight;
+      }
+      current.joiners++;
+      return current;
+    });
+    if (running != flight) {
+      coalesced.incrementAndGet();
+      return join(running.shared, read);
+    }
+    executions.incrementAndGet();
+    Shared shared = NOT_SHAREABLE;
+    Result result = null;
+    try {
+      result = read.call();
+    } catch (RuntimeException e) {
+      shared = new Shared(null, null, e);
+      throw e;
+    } finally {
+      // After the removal no caller can join anymore, so the result is only buffered, when some caller waits for
+      // it.
+      flights.remove(key, flight);
+      if (result != null && flight.joiners > 0) {
+        shared = share(result);
+      }
+      flight.shared.complete(shared);
+    }
+    return shared == NOT_SHAREABLE ? result : toResult(shared);
+  }
+
+  private @NotNull Result join(@NotNull CompletableFuture<Shared> running, @NotNull F0<@NotNull Result> read) {
+    final Shared shared;
+    try {
+      shared = running.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+    if (shared == NOT_SHAREABLE) {
+      return read.call();
+    }
+    return toResult(shared);
+  }
+
+  private static @NotNull Shared share(@NotNull Result result) {
+    if (result instanceof ErrorResult) {
+      return new Shared(null, result, null);
+    }
+    // These results carry more than the features.
+    if (!(result instanceof SuccessResult)
+        || result instanceof MvtResult
+        || result instanceof CollectionVersionResult
+        || result instanceof ContextResult
+        || result instanceof NotificationSuccessResult) {
+      return NOT_SHAREABLE;
+    }
+    final List<XyzFeatureCodec> parts = new ArrayList<>();
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+      while (cursor.next()) {
+        final XyzFeatureCodec codec = cursor.getCodecCopy();
+        if (codec.getJson() == null && codec.getFeature() != null) {
+          codec.decodeParts(true);
+        }
+        parts.add(copyParts(codec));
+      }
+    } catch (NoCursor e) {
+      return new Shared(null, result, null);
+    } catch (RuntimeException e) {
+      return new Shared(null, null, e);
+    }
+    return new Shared(parts, null, null);
+  }
+
+  private static @NotNull XyzFeatureCodec copyParts(@NotNull XyzFeatureCodec codec) {
+    final XyzFeatureCodec copy = XyzFeatureCodecFactory.get().newInstance().withParts(codec);
+    copy.setErr(codec.getError());
+    return copy;
+  }
+
+  private static @NotNull Result toResult(@NotNull Shared shared) {
+    if (shared.exception != null) {
+      throw shared.exception;
+    }
+    if (shared.result != null) {
+      return shared.result;
+    }
+    assert shared.parts != null;
+    final List<XyzFeatureCodec> codecs = new ArrayList<>(shared.parts.size());
+    for (final XyzFeatureCodec part : shared.parts) {
+      codecs.add(copyParts(part));
+    }
+    return new CoalescedReadResult(codecs);
+  }
+
+  /**
+   * Returns the key of the given read, which is equal for all identical reads of callers with the same authorization scope.
+   *
+   * @param context the context of the caller.
+   * @param request the read request.
+   * @return the key or {@code null}, if the read must not be coalesced.
+   */
+  @Nullable
+  String key(@NotNull NakshaContext context, @NotNull ReadFeatures request) {
+    final Long limit = request.getLimit();
+    if (maxFeatures <= 0
+        || (request.getClass() != ReadFeatures.class && request.getClass() != ReadFeaturesProxyWrapper.class)
+        || limit == null
+        || limit > maxFeatures
+        || request.getMvtTile() != null
+        || request.getCollections().size() != 1) {
+      return null;
+    }
+    final StringBuilder sb = new StringBuilder();
+    string(sb, context.rawAppId());
+    string(sb, context.getAuthor());
+    sb.append(context.isSuperUser() ? 'S' : 'U');
+    string(sb, context.getUrm() != null ? JsonSerializable.serialize(context.getUrm()) : null);
+    string(sb, request.getCollections().get(0));
+    sb.append(limit).append(request.isReturnDeleted() ? 'D' : '-');
+    sb.append(request.isReturnAllVersions() ? 'A' : '-').append(request.isOrderById() ? 'O' : '-');
+    string(sb, request.getAfterId());
+    if (request instanceof ReadFeaturesProxyWrapper wrapper) {
+      sb.append('W');
+      string(
+          sb,
+          wrapper.getReadRequestType() != null
+              ? wrapper.getReadRequestType().name()
+              : null);
+      if (!value(sb, wrapper.getQueryParameters())) {
+        return null;
+      }
+    }
+    if (!transformation(sb, request.getGeometryTransformation())
+        || !spatialOp(sb, request.getSpatialOp())
+        || !propertyOp(sb, request.getPropertyOp())) {
+      return null;
+    }
+    return sb.toString();
+  }
+
+  private static void string(@NotNull StringBuilder sb, @Nullable String string) {
+    if (string == null) {
+      sb.append('-');
+    } else {
+      sb.append(string.length()).append(':').append(string);
+    }
+  }
+
+  private static boolean propertyOp(@NotNull StringBuilder sb, @Nullable POp op) {
+    if (op == null) {
+      sb.append('-');
+      return true;
+    }
+    sb.append('(');
+    string(sb, op.op().toString());
+    final PRef ref = op.getPropertyRef();
+    if (ref != null) {
+      string(sb, ref.getClass().getName());
+      string(sb, ref.getTagName());
+      value(sb, ref.getPath());
+    }
+    if (!value(sb, op.getValue())) {
+      return false;
+    }
+    if (op.children() != null) {
+      for (final POp child : op.children()) {
+        if (!propertyOp(sb, child)) {
+          return false;
+        }
+      }
+    }
+    sb.append(')');
+    return true;
+  }
+
+  private static boolean spatialOp(@NotNull StringBuilder sb, @Nullable SOp op) {
+    if (op == null) {
+      sb.append('-');
+      return true;
+    }
+    sb.append('(');
+    string(sb, op.op().toString());
+    string(sb, op.getGeometry() != null ? op.getGeometry().toText() : null);
+    if (!transformation(sb, op.getTransformation())) {
+      return false;
+    }
+    if (op.children() != null) {
+      for (final SOp child : op.children()) {
+        if (!spatialOp(sb, child)) {
+          return false;
+        }
+      }
+    }
+    sb.append(')');
+    return true;
+  }
+
+  private static boolean transformation(@NotNull StringBuilder sb, @Nullable GeometryTransformation transformation) {
+    if (transformation == null) {
+      sb.append('-');
+      return true;
+    }
+    if (transformation.getClass() == BufferTransformation.class) {
+      final BufferTransformation buffer = (BufferTransformation) transformation;
+      sb.append('B').append(buffer.getDistance());
+      string(sb, buffer.getProperties());
+    } else if (transformation.getClass() == ClipTransformation.class) {
+      final ClipTransformation clip = (ClipTransformation) transformation;
+      sb.append('C')
+          .append(clip.getMinLon())
+          .append(',')
+          .append(clip.getMinLat())
+          .append(',');
+      sb.append(clip.getMaxLon()).append(',').append(clip.getMaxLat());
+    } else if (transformation.getClass() == SimplifyTransformation.class) {
+      sb.append('S').append(((SimplifyTransformation) transformation).getTolerance());
+    } else if (transformation.getClass() == GeographyTransformation.class) {
+      sb.append('G');
+    } else {
+      return false;
+    }
+    return transformation(sb, transformation.getChildTransformation());
+  }
+
+  private static boolean value(@NotNull StringBuilder sb, @Nullable Object value) {
+    if (value == null) {
+      sb.append('-');
+    } else if (value instanceof String string) {
+      sb.append('s');
+      string(sb, string);
+    } else if (value instanceof Number || value instanceof Boolean) {
+      sb.append(value.getClass().getSimpleName().charAt(0)).append(value).append(';');
+    } else if (value instanceof Collection<?> collection) {
+      sb.append('[');
+      for (final Object item : collection) {
+        if (!value(sb, item)) {
+          return false;
+        }
+      }
+      sb.append(']');
+    } else if (value instanceof Object[] array) {
+      return value(sb, Arrays.asList(array));
+    } else if (value instanceof Map<?, ?> map) {
+      final TreeMap<String, Object> sorted = new TreeMap<>();
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        if (!(entry.getKey() instanceof String key)) {
+          return false;
+        }
+        sorted.put(key, entry.getValue());
+      }
+      sb.append('{');
+      for (final Map.Entry<String, Object> entry : sorted.entrySet()) {
+        string(sb, entry.getKey());
+        if (!value(sb, entry.getValue())) {
+          return false;
+        }
+      }
+      sb.append('}');
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the amount of reads executed against the storage.
+   *
+   * @return the amount of reads executed against the storage.
+   */
+  public long getExecutions() {
+    return executions.get();
+  }
+
+  /**
+   * Returns the amount of reads, that joined an identical running read.
+   *
+   * @return the amount of reads, that joined an identical running read.
+   */
+  public long getCoalesced() {
+    return coalesced.get();
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import com.here.naksha.lib.core.IEventHandler;
+import com.here.naksha.lib.core.NakshaVersion;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A cache for the resolved event handlers of custom spaces, so that the {@link com.here.naksha.lib.core.models.naksha.Space Space} and its
+ * {@link com.here.naksha.lib.core.models.naksha.EventHandler EventHandlers} do not need to be read from the admin storage and instantiated
+ * again for every request. Entries expire after the configured time-to-live and are invalidated explicitly, when a space or an event
+ * handler is modified via the admin virtual spaces. Hits, misses and invalidations are exported as OpenTelemetry counters.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class SpacePipelineCache {
+
+  /**
+   * The resolved pipeline of a single space.
+   *
+   * @param handlers        the event handler instances to add to the pipeline, in order of execution.
+   * @param eventHandlerIds the identifiers of the event handlers referred by the space.
+   * @param configVersion   the version of the configuration of the space and its event handlers.
+   * @param expiresAt       the epoch milliseconds at which the entry expires.
+   */
+  record Entry(
+      @NotNull List<@NotNull IEventHandler> handlers,
+      @NotNull List<@NotNull String> eventHandlerIds,
+      @NotNull String configVersion,
+      long expiresAt) {}
+
+  private final @NotNull Map<@NotNull String, @NotNull Entry> entries = new ConcurrentHashMap<>();
+  private final long ttlMillis;
+
+  /**
+   * Incremented with every invalidation, so that a pipeline resolved concurrently to an invalidation is not cached.
+   */
+  private final @NotNull AtomicLong generation = new AtomicLong();
+
+  private final @NotNull AtomicLong hits = new AtomicLong();
+  private final @NotNull AtomicLong misses = new AtomicLong();
+  private final @NotNull AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * Creates a new cache.
+   *
+   * @param ttl      the time-to-live of the cached pipelines, zero or less disables caching.
+   * @param timeUnit the time-unit of the time-to-live.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public SpacePipelineCache(long ttl, @NotNull TimeUnit timeUnit) {
+    this.ttlMillis = Math.max(0L, timeUnit.toMillis(ttl));
+  }
+
+  /**
+   * Tests whether the cache is enabled.
+   *
+   * @return {@code true} if pipelines are cached; {@code false} if every lookup is a miss.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public boolean isEnabled() {
+    return ttlMillis > 0L;
+  }
+
+  /**
+   * Returns the current generation, which must be acquired before the pipeline is resolved and then handed over to
+   * {@link #put(String, List, List, String, long)}.
+   *
+   * @return the current generation.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Returns the cached event handlers of the given space, counting a hit or miss.
+   *
+   * @param spaceId the space identifier.
+   * @return the event handlers to add to the pipeline; {@code null} if nothing valid is cached.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @Nullable List<@NotNull IEventHandler> get(@NotNull String spaceId) {
+    final Entry entry = lookup(spaceId);
+    return entry != null ? entry.handlers() : null;
+  }
+
+  /**
+   * Returns the cached pipeline of the given space, counting a hit or miss.
+   *
+   * @param spaceId the space identifier.
+   * @return the cached pipeline; {@code null} if nothing valid is cached.
+   */
+  @Nullable
+  Entry lookup(@NotNull String spaceId) {
+    final Entry entry = entries.get(spaceId);
+    if (entry != null) {
+      if (entry.expiresAt() > System.currentTimeMillis()) {
+        hits.incrementAndGet();
+        SpacePipelineCacheMetrics.hit();
+        return entry;
+      }
+      entries.remove(spaceId, entry);
+    }
+    misses.incrementAndGet();
+    SpacePipelineCacheMetrics.miss();
+    return null;
+  }
+
+  /**
+   * Caches the resolved event handlers of a space, unless any invalidation happened since the given generation was acquired.
+   *
+   * @param spaceId         the space identifier.
+   * @param handlers        the event handler instances, in order of execution.
+   * @param eventHandlerIds the identifiers of the event handlers referred by the space.
+   * @param configVersion   the version of the configuration of the space and its event handlers.
+   * @param generation      the generation as returned by {@link #generation()}, before the pipeline was resolved.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void put(
+      @NotNull String spaceId,
+      @NotNull List<@NotNull IEventHandler> handlers,
+      @NotNull List<@NotNull String> eventHandlerIds,
+      @NotNull String configVersion,
+      long generation) {
+    if (!isEnabled()) {
+      return;
+    }
+    final Entry entry = new Entry(
+        List.copyOf(handlers),
+        List.copyOf(eventHandlerIds),
+        configVersion,
+        System.currentTimeMillis() + ttlMillis);
+    entries.put(spaceId, entry);
+    // If an invalidation raced with us, we may have cached an outdated pipeline, revert.
+    if (this.generation.get() != generation) {
+      entries.remove(spaceId, entry);
+    }
+  }
+
+  /**
+   * Removes the pipeline of the given space from the cache.
+   *
+   * @param spaceId the space identifier.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void invalidateSpace(@NotNull String spaceId) {
+    generation.incrementAndGet();
+    invalidations.incrementAndGet();
+    SpacePipelineCacheMetrics.invalidation();
+    entries.remove(spaceId);
+  }
+
+  /**
+   * Removes the pipelines of all spaces that refer to the given event handler from the cache.
+   *
+   * @param eventHandlerId the event handler identifier.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void invalidateEventHandler(@NotNull String eventHandlerId) {
+    generation.incrementAndGet();
+    invalidations.incrementAndGet();
+    SpacePipelineCacheMetrics.invalidation();
+    entries.values().removeIf(entry -> entry.eventHandlerIds().contains(eventHandlerId));
+  }
+
+  /**
+   * Removes all pipelines from the cache.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    invalidations.incrementAndGet();
+    SpacePipelineCacheMetrics.invalidation();
+    entries.clear();
+  }
+
+  /**
+   * Returns the amount of lookups that were served from the cache.
+   *
+   * @return the amount of cache hits.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the amount of lookups that required to read the space and its event handlers from the admin storage.
+   *
+   * @return the amount of cache misses.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Returns the amount of explicit invalidations.
+   *
+   * @return the amount of invalidations.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public long getInvalidations() {
+    return invalidations.get();
+  }
+
+  /**
+   * Returns the amount of cached pipelines, including expired ones not yet removed.
+   *
+   * @return the amount of cached pipelines.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public int size() {
+    return entries.size();
+  }
+}
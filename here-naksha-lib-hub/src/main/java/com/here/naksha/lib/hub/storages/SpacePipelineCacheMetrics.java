@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+
+/**
+ * Exports the hits, misses and invalidations of the {@link SpacePipelineCache} as OpenTelemetry counters, next to the local counters
+ * the cache keeps for tests and diagnostics. Without a configured OpenTelemetry SDK the counters are no-ops.
+ */
+final class SpacePipelineCacheMetrics {
+
+  private static final Meter meter =
+      GlobalOpenTelemetry.meterBuilder("naksha.pipeline").build();
+
+  private static final LongCounter hits = meter.counterBuilder("naksha_pipeline_cache_hits")
+      .setDescription("Space pipelines served from the pipeline cache")
+      .build();
+
+  private static final LongCounter misses = meter.counterBuilder("naksha_pipeline_cache_misses")
+      .setDescription("Space pipelines that had to be resolved from the admin storage")
+      .build();
+
+  private static final LongCounter invalidations = meter.counterBuilder("naksha_pipeline_cache_invalidations")
+      .setDescription("Explicit invalidations of the pipeline cache")
+      .build();
+
+  private SpacePipelineCacheMetrics() {}
+
+  static void hit() {
+    hits.add(1L);
+  }
+
+  static void miss() {
+    misses.add(1L);
+  }
+
+  static void invalidation() {
+    invalidations.add(1L);
+  }
+}
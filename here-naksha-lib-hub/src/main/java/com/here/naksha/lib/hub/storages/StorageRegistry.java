@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.exceptions.StorageNotFoundException;
+import com.here.naksha.lib.core.lambdas.Fe1;
+import com.here.naksha.lib.core.models.naksha.Storage;
+import com.here.naksha.lib.core.storage.IStorage;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A registry of long-lived {@link IStorage} instances, keyed by the storage identifier and the version of the {@link Storage}
+ * configuration they were created from. Resolving a registered storage is a plain map read, the configuration is only read again from
+ * the admin storage after the time-to-live expired, to pick up changes done by other instances. When the configuration changed or the
+ * storage was deleted, the outdated instance is retired: it is no longer handed out, but only shut down after a drain period, so that
+ * requests that resolved it before can complete.
+ */
+@AvailableSince(NakshaVersion.v2_1_6)
+public class StorageRegistry {
+
+  private static final Logger logger = LoggerFactory.getLogger(StorageRegistry.class);
+
+  /**
+   * The default time in milliseconds for which retired instances stay alive before being shut down.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public static final long DEFAULT_DRAIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private static final ScheduledExecutorService drainExecutor =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "StorageRegistryDrain");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  private static final class Entry {
+
+    Entry(@NotNull IStorage storage, @Nullable String version, long validUntil) {
+      this.storage = storage;
+      this.version = version;
+      this.validUntil = validUntil;
+    }
+
+    final @NotNull IStorage storage;
+    final @Nullable String version;
+    volatile long validUntil;
+  }
+
+  private final @NotNull Fe1<@Nullable Storage, @NotNull String> storageLoader;
+  private final @NotNull Fe1<@NotNull IStorage, @NotNull Storage> storageFactory;
+  private final long ttlMillis;
+  private final long drainMillis;
+  private final @NotNull Map<@NotNull String, @NotNull Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * The refreshes in progress, so that concurrent lookups of an expired storage wait for the same refresh. Entries are removed as soon as
+   * the refresh is done.
+   */
+  private final @NotNull Map<@NotNull String, @NotNull CompletableFuture<@NotNull Entry>> refreshes =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new registry, which shuts down retired instances after the {@link #DEFAULT_DRAIN_MILLIS default drain period}.
+   *
+   * @param storageLoader  the method to read the storage configuration from the admin storage, returns {@code null} if no such storage.
+   * @param storageFactory the method to create a storage instance from its configuration.
+   * @param ttl            the time after which to verify the configuration again, zero or less disables the registry, so that a new
+   *                       instance is created for every lookup.
+   * @param timeUnit       the time-unit of the time-to-live.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public StorageRegistry(
+      @NotNull Fe1<@Nullable Storage, @NotNull String> storageLoader,
+      @NotNull Fe1<@NotNull IStorage, @NotNull Storage> storageFactory,
+      long ttl,
+      @NotNull TimeUnit timeUnit) {
+    this(storageLoader, storageFactory, ttl, timeUnit, DEFAULT_DRAIN_MILLIS);
+  }
+
+  /**
+   * Creates a new registry.
+   *
+   * @param storageLoader  the method to read the storage configuration from the admin storage, returns {@code null} if no such storage.
+   * @param storageFactory the method to create a storage instance from its configuration.
+   * @param ttl            the time after which to verify the configuration again, zero or less disables the registry, so that a new
+   *                       instance is created for every lookup.
+   * @param timeUnit       the time-unit of the time-to-live.
+   * @param drainMillis    the time in milliseconds for which retired instances stay alive, zero or less shuts them down immediately.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public StorageRegistry(
+      @NotNull Fe1<@Nullable Storage, @NotNull String> storageLoader,
+      @NotNull Fe1<@NotNull IStorage, @NotNull Storage> storageFactory,
+      long ttl,
+      @NotNull TimeUnit timeUnit,
+      long drainMillis) {
+    this.storageLoader = storageLoader;
+    this.storageFactory = storageFactory;
+    this.ttlMillis = Math.max(0L, timeUnit.toMillis(ttl));
+    this.drainMillis = Math.max(0L, drainMillis);
+  }
+
+  /**
+   * Returns the storage instance for the given storage identifier, creating it, if not yet registered or when its configuration changed.
+   *
+   * @param storageId the storage identifier.
+   * @return the storage instance.
+   * @throws StorageNotFoundException if no such storage exists (unchecked).
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public @NotNull IStorage get(@NotNull String storageId) {
+    final Entry entry = entries.get(storageId);
+    if (entry != null && entry.validUntil > System.currentTimeMillis()) {
+      return entry.storage;
+    }
+    if (ttlMillis <= 0L) {
+      return newInstance(load(storageId));
+    }
+    final CompletableFuture<Entry> refresh = new CompletableFuture<>();
+    final CompletableFuture<Entry> running = refreshes.putIfAbsent(storageId, refresh);
+    if (running != null) {
+      try {
+        return running.join().storage;
+      } catch (CompletionException e) {
+        throw unchecked(e.getCause() != null ? e.getCause() : e);
+      }
+    }
+    try {
+      final Entry refreshed = refresh(storageId);
+      refresh.complete(refreshed);
+      return refreshed.storage;
+    } catch (RuntimeException | Error e) {
+      refresh.completeExceptionally(e);
+      throw e;
+    } finally {
+      refreshes.remove(storageId, refresh);
+    }
+  }
+
+  private @NotNull Entry refresh(@NotNull String storageId) {
+    final Entry existing = entries.get(storageId);
+    if (existing != null && existing.validUntil > System.currentTimeMillis()) {
+      return existing;
+    }
+    final Storage storage;
+    try {
+      storage = load(storageId);
+    } catch (StorageNotFoundException e) {
+      if (existing != null && entries.remove(storageId, existing)) {
+        retire(storageId, existing);
+      }
+      throw e;
+    }
+    final String version = versionOf(storage);
+    if (existing != null && Objects.equals(existing.version, version)) {
+      existing.validUntil = System.currentTimeMillis() + ttlMillis;
+      return existing;
+    }
+    final Entry created = new Entry(newInstance(storage), version, System.currentTimeMillis() + ttlMillis);
+    if (existing != null && entries.replace(storageId, existing, created)) {
+      logger.info(
+          "Configuration of storage {} changed from version {} to {}", storageId, existing.version, version);
+      retire(storageId, existing);
+    } else {
+      // Either not registered before, or concurrently invalidated, in which case the invalidation retired the
+      // existing instance.
+      final Entry replaced = entries.put(storageId, created);
+      if (replaced != null && replaced != existing) {
+        retire(storageId, replaced);
+      }
+    }
+    return created;
+  }
+
+  /**
+   * Removes the storage from the registry and retires the instance, so that the next lookup reads the configuration again. Invoked
+   * when the storage configuration was updated or deleted.
+   *
+   * @param storageId the storage identifier.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void invalidate(@NotNull String storageId) {
+    final Entry entry = entries.remove(storageId);
+    if (entry != null) {
+      retire(storageId, entry);
+    }
+  }
+
+  /**
+   * Removes all storages from the registry and retires them.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public void invalidateAll() {
+    for (final String storageId : entries.keySet()) {
+      invalidate(storageId);
+    }
+  }
+
+  /**
+   * Returns the amount of registered storage instances.
+   *
+   * @return the amount of registered storage instances.
+   */
+  @AvailableSince(NakshaVersion.v2_1_6)
+  public int size() {
+    return entries.size();
+  }
+
+  private @NotNull Storage load(@NotNull String storageId) {
+    final Storage storage;
+    try {
+      storage = storageLoader.call(storageId);
+    } catch (Exception e) {
+      throw unchecked(e);
+    }
+    if (storage == null) {
+      throw unchecked(new StorageNotFoundException(storageId));
+    }
+    return storage;
+  }
+
+  private @NotNull IStorage newInstance(@NotNull Storage storage) {
+    try {
+      return storageFactory.call(storage);
+    } catch (Exception e) {
+      throw unchecked(e);
+    }
+  }
+
+  private static @Nullable String versionOf(@NotNull Storage storage) {
+    return storage.getProperties().getXyzNamespace().getUuid();
+  }
+
+  private void retire(@NotNull String storageId, @NotNull Entry entry) {
+    if (drainMillis <= 0L) {
+      shutdown(storageId, entry);
+      return;
+    }
+    logger.info("Retired outdated instance of storage {}, shutting down in {}ms", storageId, drainMillis);
+    drainExecutor.schedule(() -> shutdown(storageId, entry), drainMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private static void shutdown(@NotNull String storageId, @NotNull Entry entry) {
+    logger.info("Shutting down outdated instance of storage {}", storageId);
+    try {
+      entry.storage.shutdown(null);
+    } catch (Exception e) {
+      logger.atWarn()
+          .setMessage("Failed to shutdown storage {}")
+          .addArgument(storageId)
+          .setCause(e)
+          .log();
+    }
+  }
+}
@@ -22,11 +22,13 @@ import static com.here.naksha.lib.common.TestFileLoader.parseJsonFileOrFail;
 import static com.here.naksha.lib.common.TestNakshaContext.newTestNakshaContext;
 import static com.here.naksha.lib.core.util.storage.RequestHelper.createFeatureRequest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -67,6 +69,9 @@ import com.here.naksha.lib.hub.storages.NHAdminStorageReader;
 import com.here.naksha.lib.hub.storages.NHAdminStorageWriter;
 import com.here.naksha.lib.hub.storages.NHSpaceStorage;
 import com.here.naksha.lib.psql.PsqlStorage.Params;
+import com.here.naksha.lib.view.View;
+import com.here.naksha.lib.view.ViewLayer;
+import com.here.naksha.lib.view.ViewLayerCollection;
 import java.util.List;
 import java.util.Map;
 import org.jetbrains.annotations.NotNull;
@@ -276,6 +281,49 @@ public class NakshaHubWiringTest {
         "CollectionId mismatch for reattempted Write Feature request");
   }
 
+  @Test
+  @Order(4)
+  void testViewOfSpacesSupportsOrderByIdWiring() throws Exception {
+    // Given: Storage, EventHandler and Space objects
+    final Storage storage = parseJsonFileOrFail("createFeature/create_storage.json", Storage.class);
+    final EventHandler eventHandler =
+        parseJsonFileOrFail("createFeature/create_event_handler.json", EventHandler.class);
+    final Space space = parseJsonFileOrFail("createFeature/create_space.json", Space.class);
+
+    // And: mock in place to return given EventHandler and Space objects, when requested from Admin Storage
+    when(adminStorageReader.execute(argThat(readRequest -> {
+          if (readRequest instanceof ReadFeatures rr) {
+            return rr.getCollections().get(0).equals(NakshaAdminCollection.SPACES);
+          }
+          return false;
+        })))
+        .thenAnswer(invocation -> new MockResult<>(Space.class, List.of(featureCodec(space))));
+    when(adminStorageReader.execute(argThat(readRequest -> {
+          if (readRequest instanceof ReadFeatures rr) {
+            return rr.getCollections().get(0).equals(NakshaAdminCollection.EVENT_HANDLERS);
+          }
+          return false;
+        })))
+        .thenAnswer(invocation -> new MockResult<>(EventHandler.class, List.of(featureCodec(eventHandler))));
+
+    // And: the storage of the space returns the features ordered by id
+    final IStorage storageImpl = mock(IStorage.class);
+    when(storageImpl.supportsOrderById()).thenReturn(true);
+    when(hub.getStorageById(storage.getId())).thenReturn(storageImpl);
+
+    // When: a view is built on the space storage, the way the DefaultViewHandler does
+    final View view = new View(new ViewLayerCollection("", new ViewLayer(hub.getSpaceStorage(), space.getId())));
+
+    // Then: the view can merge its layers while reading
+    assertTrue(view.supportsOrderById());
+
+    // When: the storage of the space doesn't return the features ordered by id
+    when(storageImpl.supportsOrderById()).thenReturn(false);
+
+    // Then: the view merges its layers in memory
+    assertFalse(view.supportsOrderById());
+  }
+
   private XyzFeatureCodec featureCodec(XyzFeature feature) {
     return XyzCodecFactory.getFactory(XyzFeatureCodecFactory.class)
         .newInstance()
@@ -0,0 +1,56 @@
+package com.here.naksha.lib.hub.storages;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.naksha.lib.common.TestNakshaContext;
+import com.here.naksha.lib.core.EventPipeline;
+import com.here.naksha.lib.core.IEventHandler;
+import com.here.naksha.lib.core.INaksha;
+import com.here.naksha.lib.core.NakshaAdminCollection;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.SuccessResult;
+import com.here.naksha.lib.core.storage.IReadSession;
+import com.here.naksha.lib.hub.EventPipelineFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class NHSpaceStorageReaderTest {
+
+  @Test
+  void shouldCancelSessionsOpenedByHandlers() {
+    // Given: a handler, that opens a storage session and is cancelled while it executes
+    INaksha naksha = mock(INaksha.class);
+    EventPipelineFactory pipelineFactory = mock(EventPipelineFactory.class);
+    when(pipelineFactory.eventPipeline()).thenReturn(new EventPipeline(naksha));
+    IReadSession storageSession = mock(IReadSession.class);
+    AtomicReference<NHSpaceStorageReader> reader = new AtomicReference<>();
+    IEventHandler handler = event -> {
+      event.addSession(storageSession);
+      reader.get().cancel();
+      return new SuccessResult();
+    };
+    reader.set(new NHSpaceStorageReader(
+        naksha,
+        Map.of(NakshaAdminCollection.SPACES, List.of(handler)),
+        pipelineFactory,
+        TestNakshaContext.newTestNakshaContext(),
+        false));
+
+    // When: reading from the space
+    reader.get().execute(new ReadFeatures(NakshaAdminCollection.SPACES));
+
+    // Then: the statement of the storage session is cancelled
+    verify(storageSession, times(1)).cancel();
+
+    // When: cancelling after the read completed
+    reader.get().cancel();
+
+    // Then: the storage session is not cancelled again
+    verify(storageSession, times(1)).cancel();
+  }
+}
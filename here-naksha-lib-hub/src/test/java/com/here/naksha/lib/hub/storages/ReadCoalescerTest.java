@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.POp;
+import com.here.naksha.lib.core.models.storage.PRef;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.SOp;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+
+class ReadCoalescerTest {
+
+  private static @NotNull NakshaContext context(@NotNull String appId) {
+    return new NakshaContext().withAppId(appId);
+  }
+
+  private static @NotNull ReadFeatures tileRequest(double west) {
+    return new ReadFeatures("space_a")
+        .withSpatialOp(SOp.intersects(new GeometryFactory().toGeometry(new Envelope(west, west + 1, 0, 1))))
+        .withPropertyOp(POp.eq(PRef.tag("foo"), true))
+        .withLimit(1000L);
+  }
+
+  private static @NotNull Result features(@NotNull String... ids) {
+    final List<XyzFeatureCodec> codecs = new ArrayList<>();
+    for (final String id : ids) {
+      codecs.add(XyzFeatureCodecFactory.get().newInstance().withFeature(new XyzFeature(id)));
+    }
+    return new CoalescedReadResult(codecs);
+  }
+
+  private static @NotNull List<String> ids(@NotNull Result result) throws Exception {
+    final List<String> ids = new ArrayList<>();
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+      while (cursor.next()) {
+        final XyzFeature feature = cursor.getFeature();
+        assertNotNull(feature);
+        ids.add(feature.getId());
+      }
+    }
+    return ids;
+  }
+
+  @Test
+  void shouldShareOneExecutionBetweenConcurrentReads() throws Exception {
+    // Given: a read that blocks until a second identical read joined
+    ReadCoalescer coalescer = new ReadCoalescer(ReadCoalescer.DEFAULT_MAX_FEATURES);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+    CompletableFuture<Result> first = CompletableFuture.supplyAsync(() -> coalescer.execute(context("app"), tileRequest(0), () -> {
+      executions.incrementAndGet();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return features("a", "b");
+    }));
+    while (coalescer.getExecutions() == 0) {
+      Thread.sleep(1);
+    }
+    CompletableFuture<Result> second = CompletableFuture.supplyAsync(
+        () -> coalescer.execute(context("app"), tileRequest(0), () -> {
+          executions.incrementAndGet();
+          return features("c");
+        }));
+    while (coalescer.getCoalesced() == 0) {
+      Thread.sleep(1);
+    }
+
+    // When: the running read completes
+    release.countDown();
+    Result firstResult = first.get(10, TimeUnit.SECONDS);
+    Result secondResult = second.get(10, TimeUnit.SECONDS);
+
+    // Then: both callers get an own copy of the single result
+    assertEquals(1, executions.get());
+    assertNotSame(firstResult, secondResult);
+    assertEquals(List.of("a", "b"), ids(firstResult));
+    assertEquals(List.of("a", "b"), ids(secondResult));
+  }
+
+  @Test
+  void shouldStreamResultWhenNoReadJoined() {
+    // Given: a coalescer
+    ReadCoalescer coalescer = new ReadCoalescer(ReadCoalescer.DEFAULT_MAX_FEATURES);
+    Result features = features("a");
+
+    // When: executing a read that no other read joins
+    Result result = coalescer.execute(context("app"), tileRequest(0), () -> features);
+
+    // Then: the result is returned as is, without reading it into memory
+    assertSame(features, result);
+    assertEquals(1, coalescer.getExecutions());
+  }
+
+  @Test
+  void shouldShareErrorsAndExecuteSequentialReadsAgain() {
+    // Given: a coalescer
+    ReadCoalescer coalescer = new ReadCoalescer(ReadCoalescer.DEFAULT_MAX_FEATURES);
+    ErrorResult error = new ErrorResult(XyzError.NOT_FOUND, "not found");
+
+    // When: executing reads one after the other
+    Result result = coalescer.execute(context("app"), tileRequest(0), () -> error);
+    assertThrows(
+        IllegalStateException.class,
+        () -> coalescer.execute(context("app"), tileRequest(0), () -> {
+          throw new IllegalStateException();
+        }));
+
+    // Then: every read is executed, as none was running
+    assertSame(error, result);
+    assertEquals(2, coalescer.getExecutions());
+    assertEquals(0, coalescer.getCoalesced());
+  }
+
+  @Test
+  void shouldKeyByRequestAndAuthorizationScope() {
+    // Given: a coalescer
+    ReadCoalescer coalescer = new ReadCoalescer(ReadCoalescer.DEFAULT_MAX_FEATURES);
+
+    // Then: identical reads have the same key, different reads or callers different ones
+    String key = coalescer.key(context("app"), tileRequest(0));
+    assertNotNull(key);
+    assertEquals(key, coalescer.key(context("app"), tileRequest(0)));
+    assertNotEquals(key, coalescer.key(context("other"), tileRequest(0)));
+    assertNotEquals(key, coalescer.key(context("app").withAuthor("author"), tileRequest(0)));
+    assertNotEquals(key, coalescer.key(context("app"), tileRequest(1)));
+    assertNotEquals(key, coalescer.key(context("app"), tileRequest(0).withLimit(10L)));
+    assertNotEquals(
+        key, coalescer.key(context("app"), tileRequest(0).withPropertyOp(POp.eq(PRef.tag("foo"), "true"))));
+    assertNotEquals(
+        key, coalescer.key(context("app"), tileRequest(0).withPropertyOp(POp.not(POp.eq(PRef.tag("foo"), true)))));
+
+    // And: large or disabled reads are not coalesced
+    assertNull(coalescer.key(context("app"), tileRequest(0).withLimit(ReadCoalescer.DEFAULT_MAX_FEATURES + 1)));
+    assertNull(new ReadCoalescer(0).key(context("app"), tileRequest(0)));
+  }
+}
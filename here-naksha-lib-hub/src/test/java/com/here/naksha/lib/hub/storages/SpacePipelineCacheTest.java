@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import com.here.naksha.lib.core.IEventHandler;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SpacePipelineCacheTest {
+
+  private static final String SPACE_A = "space_a";
+  private static final String SPACE_B = "space_b";
+
+  private final List<IEventHandler> handlers = List.of(mock(IEventHandler.class), mock(IEventHandler.class));
+
+  @Test
+  void shouldCountHitsAndMisses() {
+    // Given: enabled cache
+    SpacePipelineCache cache = new SpacePipelineCache(60, TimeUnit.SECONDS);
+
+    // When: looking up before and after caching the pipeline
+    assertNull(cache.get(SPACE_A));
+    cache.put(SPACE_A, handlers, List.of("handler_1"), "v1", cache.generation());
+    List<IEventHandler> cached = cache.get(SPACE_A);
+
+    // Then: the second lookup is served from the cache
+    assertEquals(handlers, cached);
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  void shouldNotCacheWhenDisabled() {
+    // Given: cache with zero time-to-live
+    SpacePipelineCache cache = new SpacePipelineCache(0, TimeUnit.SECONDS);
+
+    // When: caching a pipeline
+    cache.put(SPACE_A, handlers, List.of("handler_1"), "v1", cache.generation());
+
+    // Then: nothing is cached
+    assertNull(cache.get(SPACE_A));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldExpireEntries() throws InterruptedException {
+    // Given: cache with a very short time-to-live
+    SpacePipelineCache cache = new SpacePipelineCache(1, TimeUnit.MILLISECONDS);
+    cache.put(SPACE_A, handlers, List.of("handler_1"), "v1", cache.generation());
+
+    // When: the time-to-live elapsed
+    Thread.sleep(5);
+
+    // Then: the entry is no longer served
+    assertNull(cache.get(SPACE_A));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldInvalidateBySpaceAndByEventHandler() {
+    // Given: two cached spaces, referring different handlers
+    SpacePipelineCache cache = new SpacePipelineCache(60, TimeUnit.SECONDS);
+    cache.put(SPACE_A, handlers, List.of("handler_1", "handler_2"), "v1", cache.generation());
+    cache.put(SPACE_B, handlers, List.of("handler_3"), "v1", cache.generation());
+
+    // When: one of the handlers of space A is modified
+    cache.invalidateEventHandler("handler_2");
+
+    // Then: only space A is evicted
+    assertNull(cache.get(SPACE_A));
+    assertNotNull(cache.get(SPACE_B));
+
+    // When: space B is modified
+    cache.invalidateSpace(SPACE_B);
+
+    // Then: space B is evicted as well
+    assertNull(cache.get(SPACE_B));
+    assertEquals(2, cache.getInvalidations());
+  }
+
+  @Test
+  void shouldNotCachePipelineResolvedBeforeInvalidation() {
+    // Given: generation acquired before resolving the pipeline
+    SpacePipelineCache cache = new SpacePipelineCache(60, TimeUnit.SECONDS);
+    long generation = cache.generation();
+
+    // When: the space is modified while the pipeline is resolved
+    cache.invalidateSpace(SPACE_A);
+    cache.put(SPACE_A, handlers, List.of("handler_1"), "v1", generation);
+
+    // Then: the outdated pipeline is not cached
+    assertNull(cache.get(SPACE_A));
+  }
+
+  @Test
+  void shouldReturnConfigVersionOfCachedPipeline() {
+    // Given: cached pipeline
+    SpacePipelineCache cache = new SpacePipelineCache(60, TimeUnit.SECONDS);
+    cache.put(SPACE_A, handlers, List.of("handler_1"), "v1", cache.generation());
+
+    // When: looking up the cached pipeline
+    SpacePipelineCache.Entry entry = cache.lookup(SPACE_A);
+
+    // Then: the configuration version is returned with the handlers
+    assertEquals("v1", entry.configVersion());
+    assertEquals(handlers, entry.handlers());
+    assertEquals(1, cache.getHits());
+  }
+}
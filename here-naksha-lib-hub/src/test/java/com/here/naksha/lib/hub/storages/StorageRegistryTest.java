@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.hub.storages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.here.naksha.lib.core.exceptions.StorageNotFoundException;
+import com.here.naksha.lib.core.models.naksha.Storage;
+import com.here.naksha.lib.core.storage.IStorage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StorageRegistryTest {
+
+  private static final String STORAGE_ID = "some_storage";
+
+  private final Map<String, Storage> adminStorages = new HashMap<>();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @BeforeEach
+  void setup() {
+    adminStorages.put(STORAGE_ID, storage("uuid_1"));
+  }
+
+  @Test
+  void shouldReuseInstanceWhileValid() {
+    // Given: registry with long time-to-live
+    StorageRegistry registry = registry(60, TimeUnit.SECONDS);
+
+    // When: resolving the same storage multiple times
+    IStorage first = registry.get(STORAGE_ID);
+    IStorage second = registry.get(STORAGE_ID);
+
+    // Then: the configuration was read once and the instance is reused
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void shouldKeepInstanceWhenVersionUnchanged() throws InterruptedException {
+    // Given: registry with very short time-to-live
+    StorageRegistry registry = registry(1, TimeUnit.MILLISECONDS);
+    IStorage first = registry.get(STORAGE_ID);
+
+    // When: resolving again after expiry, without configuration change
+    Thread.sleep(5);
+    IStorage second = registry.get(STORAGE_ID);
+
+    // Then: the configuration was verified, but the instance kept
+    assertSame(first, second);
+    assertEquals(2, loads.get());
+    verify(first, never()).shutdown(any());
+  }
+
+  @Test
+  void shouldReplaceInstanceWhenVersionChanged() throws InterruptedException {
+    // Given: registry with very short time-to-live
+    StorageRegistry registry = registry(1, TimeUnit.MILLISECONDS);
+    IStorage first = registry.get(STORAGE_ID);
+
+    // When: the configuration is changed by another instance
+    adminStorages.put(STORAGE_ID, storage("uuid_2"));
+    Thread.sleep(5);
+    IStorage second = registry.get(STORAGE_ID);
+
+    // Then: a new instance is created and the outdated one shut down
+    assertNotSame(first, second);
+    verify(first, times(1)).shutdown(any());
+  }
+
+  @Test
+  void shouldShutdownOnInvalidation() {
+    // Given: registered storage
+    StorageRegistry registry = registry(60, TimeUnit.SECONDS);
+    IStorage first = registry.get(STORAGE_ID);
+
+    // When: the storage was modified via the admin space
+    registry.invalidate(STORAGE_ID);
+    IStorage second = registry.get(STORAGE_ID);
+
+    // Then: the outdated instance is shut down and a new one created
+    verify(first, times(1)).shutdown(any());
+    assertNotSame(first, second);
+  }
+
+  @Test
+  void shouldShutdownWhenDeleted() throws InterruptedException {
+    // Given: registered storage
+    StorageRegistry registry = registry(1, TimeUnit.MILLISECONDS);
+    IStorage first = registry.get(STORAGE_ID);
+
+    // When: the storage is deleted by another instance
+    adminStorages.remove(STORAGE_ID);
+    Thread.sleep(5);
+
+    // Then: resolving fails and the instance is shut down
+    assertThrows(StorageNotFoundException.class, () -> registry.get(STORAGE_ID));
+    verify(first, times(1)).shutdown(any());
+  }
+
+  @Test
+  void shouldDrainRetiredInstanceBeforeShutdown() {
+    // Given: registry that keeps retired instances alive for a while
+    StorageRegistry registry = registry(60, TimeUnit.SECONDS, 60_000);
+    IStorage first = registry.get(STORAGE_ID);
+
+    // When: the storage was modified via the admin space
+    registry.invalidate(STORAGE_ID);
+    IStorage second = registry.get(STORAGE_ID);
+
+    // Then: a new instance is handed out, but the outdated one is not yet shut down
+    assertNotSame(first, second);
+    verify(first, never()).shutdown(any());
+  }
+
+  private StorageRegistry registry(long ttl, TimeUnit timeUnit) {
+    return registry(ttl, timeUnit, 0);
+  }
+
+  private StorageRegistry registry(long ttl, TimeUnit timeUnit, long drainMillis) {
+    return new StorageRegistry(
+        storageId -> {
+          loads.incrementAndGet();
+          return adminStorages.get(storageId);
+        },
+        storage -> mock(IStorage.class),
+        ttl,
+        timeUnit,
+        drainMillis);
+  }
+
+  private static Storage storage(String uuid) {
+    Storage storage = new Storage("com.here.naksha.lib.psql.PsqlStorage", STORAGE_ID);
+    storage.getProperties().getXyzNamespace().setUuid(uuid);
+    return storage;
+  }
+}
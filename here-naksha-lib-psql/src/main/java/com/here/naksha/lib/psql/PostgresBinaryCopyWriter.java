@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes rows in the binary format of the PostgresQL {@code COPY ... FROM STDIN (FORMAT binary)} command, see the
+ * <a href="https://www.postgresql.org/docs/current/sql-copy.html#id-1.9.3.55.9.4">PostgresQL documentation</a>. The binary format
+ * avoids that the server needs to parse text, every field is sent with its length, followed by the raw bytes.
+ */
+final class PostgresBinaryCopyWriter {
+
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+
+  /**
+   * The version of the binary {@code jsonb} format.
+   */
+  private static final int JSONB_VERSION = 1;
+
+  /**
+   * Creates a new writer and writes the header of the binary format.
+   *
+   * @param out The stream to write to.
+   * @throws IOException If writing the header failed.
+   */
+  PostgresBinaryCopyWriter(@NotNull OutputStream out) throws IOException {
+    this.out = new DataOutputStream(out);
+    this.out.write(SIGNATURE);
+    // Flags (no OIDs) and the length of the header extension area.
+    this.out.writeInt(0);
+    this.out.writeInt(0);
+  }
+
+  private final @NotNull DataOutputStream out;
+
+  /**
+   * Starts a new row.
+   *
+   * @param fields The amount of fields in the row, must be the amount of columns copied.
+   * @throws IOException If writing failed.
+   */
+  void startRow(int fields) throws IOException {
+    out.writeShort(fields);
+  }
+
+  /**
+   * Writes a {@code NULL} field.
+   *
+   * @throws IOException If writing failed.
+   */
+  void writeNull() throws IOException {
+    out.writeInt(-1);
+  }
+
+  /**
+   * Writes an {@code int4} field.
+   *
+   * @param value The value.
+   * @throws IOException If writing failed.
+   */
+  void writeInt(int value) throws IOException {
+    out.writeInt(4);
+    out.writeInt(value);
+  }
+
+  /**
+   * Writes a {@code text} field.
+   *
+   * @param value The value, may be {@code null}.
+   * @throws IOException If writing failed.
+   */
+  void writeText(@Nullable String value) throws IOException {
+    writeBytes(value != null ? value.getBytes(UTF_8) : null);
+  }
+
+  /**
+   * Writes a {@code jsonb} field.
+   *
+   * @param json The JSON text, may be {@code null}.
+   * @throws IOException If writing failed.
+   */
+  void writeJsonb(@Nullable String json) throws IOException {
+    if (json == null) {
+      writeNull();
+      return;
+    }
+    final byte[] bytes = json.getBytes(UTF_8);
+    out.writeInt(bytes.length + 1);
+    out.writeByte(JSONB_VERSION);
+    out.write(bytes);
+  }
+
+  /**
+   * Writes a {@code bytea} field.
+   *
+   * @param value The value, may be {@code null}.
+   * @throws IOException If writing failed.
+   */
+  void writeBytes(byte @Nullable [] value) throws IOException {
+    if (value == null) {
+      writeNull();
+      return;
+    }
+    out.writeInt(value.length);
+    out.write(value);
+  }
+
+  /**
+   * Writes the trailer of the binary format and flushes the stream.
+   *
+   * @throws IOException If writing failed.
+   */
+  void finish() throws IOException {
+    out.writeShort(-1);
+    out.flush();
+  }
+}
@@ -36,8 +36,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A managed PostgresQL connection that supports pooling. When the connection is {@link #destruct() destructed}, it will create a new
- * connection wrapper and add it into the connection pool of the {@link PostgresInstance} it belongs to.
+ * A managed PostgresQL connection that supports pooling. When the connection is {@link #destruct() destructed}, it will return the
+ * underlying connection into the connection pool of the {@link PostgresInstance} it belongs to.
  */
 final class PostgresConnection extends CloseableResource<PostgresInstance> {
 
@@ -63,10 +63,12 @@ final class PostgresConnection extends CloseableResource<PostgresInstance> {
     this.id = nextId.getAndIncrement();
     final PsqlInstanceConfig config = postgresInstance.config;
 
+    pg_connection.setAutoCommit(false);
+    pg_connection.setReadOnly(config.readOnly);
+    pg_connection.setHoldability(CLOSE_CURSORS_AT_COMMIT);
+    this.sessionState = postgresInstance.connectionPool.sessionState(pg_connection);
+    // Note: Only assign when the connection is fully set up, otherwise the caller is responsible to release it.
     pgConnection = pg_connection;
-    pgConnection.setAutoCommit(false);
-    pgConnection.setReadOnly(config.readOnly);
-    pgConnection.setHoldability(CLOSE_CURSORS_AT_COMMIT);
     log.atDebug()
         .setMessage("Open connection {} to instance {}")
         .addArgument(id)
@@ -75,32 +77,25 @@ final class PostgresConnection extends CloseableResource<PostgresInstance> {
   }
 
   /**
-   * Creates a new connection.
+   * Opens a new connection to the given instance.
    *
-   * @param proxy                       The proxy that wraps the connection.
-   * @param postgresInstance            The instance to which this connection belongs.
+   * @param config                      The configuration of the instance to connect to.
    * @param connTimeoutInMillis         The connection timeout in milliseconds.
    * @param sockedReadTimeoutInMillis   The socket-read timeout in milliseconds.
    * @param cancelSignalTimeoutInMillis The
    * @param receiveBufferSize           The receive-buffer size in byte.
    * @param sendBufferSize              The send-buffer size in byte.
+   * @return The new connection.
    * @throws SQLException If establishing the connection failed.
    */
-  PostgresConnection(
-      @NotNull PsqlConnection proxy,
-      @NotNull PostgresInstance postgresInstance,
+  static @NotNull PgConnection connect(
+      @NotNull PsqlInstanceConfig config,
       long connTimeoutInMillis,
       long sockedReadTimeoutInMillis,
       long cancelSignalTimeoutInMillis,
       long receiveBufferSize,
       long sendBufferSize)
       throws SQLException {
-    super(proxy, postgresInstance);
-    this.postgresInstance = postgresInstance;
-    this.instanceUrl = postgresInstance.config.toString();
-    this.id = nextId.getAndIncrement();
-    final PsqlInstanceConfig config = postgresInstance.config;
-
     final Properties props = new Properties();
     props.setProperty(PGProperty.PG_DBNAME.getName(), config.db);
     props.setProperty(PGProperty.USER.getName(), config.user);
@@ -129,15 +124,7 @@ final class PostgresConnection extends CloseableResource<PostgresInstance> {
     props.setProperty(PGProperty.REWRITE_BATCHED_INSERTS.getName(), "true");
     props.setProperty(PGProperty.LOG_UNCLOSED_CONNECTIONS.getName(), "true");
 
-    pgConnection = new PgConnection(new HostSpec[] {config.hostSpec}, props, config.url);
-    pgConnection.setAutoCommit(false);
-    pgConnection.setReadOnly(config.readOnly);
-    pgConnection.setHoldability(CLOSE_CURSORS_AT_COMMIT);
-    log.atDebug()
-        .setMessage("Open connection {} to instance {}")
-        .addArgument(id)
-        .addArgument(instanceUrl)
-        .log();
+    return new PgConnection(new HostSpec[] {config.hostSpec}, props, config.url);
   }
 
   final @NotNull Long id;
@@ -147,9 +134,89 @@ final class PostgresConnection extends CloseableResource<PostgresInstance> {
   @Nullable
   PostgresInstance postgresInstance;
 
-  long autoCloseAtEpoch;
   final @NotNull String instanceUrl;
 
+  /**
+   * The session state committed for the underlying connection, shared with the connection pool, so that it survives the checkout.
+   */
+  private final @NotNull PostgresSessionState sessionState;
+
+  /**
+   * The session state that the user of this connection wants; {@code null} if the session is not initialized.
+   */
+  private @Nullable PostgresSessionState targetState;
+
+  /**
+   * The session state applied in the current transaction; {@code null} if nothing was applied since the last commit or rollback.
+   */
+  private @Nullable PostgresSessionState appliedState;
+
+  /**
+   * Returns the session state that the user of this connection wants, which is applied lazily by {@link #takeSessionDelta(boolean)}.
+   *
+   * @return the session state that the user of this connection wants.
+   */
+  @NotNull
+  PostgresSessionState targetState() {
+    PostgresSessionState targetState = this.targetState;
+    if (targetState == null) {
+      this.targetState = targetState = new PostgresSessionState();
+    }
+    return targetState;
+  }
+
+  /**
+   * Sets the session state that the user of this connection wants, which is applied lazily by {@link #takeSessionDelta(boolean)}.
+   *
+   * @param targetState The session state that the user of this connection wants.
+   */
+  void setTargetState(@NotNull PostgresSessionState targetState) {
+    this.targetState = targetState;
+  }
+
+  /**
+   * Returns the statements that need to be executed, to move the session into the {@link #targetState() target state}, and marks them
+   * as applied in the current transaction. The caller must execute the returned statements in front of the next statement.
+   *
+   * <p><b>Note</b>: If SET is issued within a transaction that is later aborted, the effects disappear when the transaction is rolled
+   * back, therefore the applied state is only remembered for future checkouts of the connection after a {@link #committed() commit}.
+   *
+   * @param withStreamId If the stream-identifier should be applied; {@code false} for read-only transactions, which do not use it.
+   * @return the statements to execute or {@code null}, if the session is already in the target state.
+   */
+  @Nullable
+  String takeSessionDelta(boolean withStreamId) {
+    final PostgresSessionState targetState = this.targetState;
+    if (targetState == null) {
+      return null;
+    }
+    final PostgresSessionState base = appliedState != null ? appliedState : sessionState;
+    final SQL sql = new SQL();
+    if (!base.addDelta(sql, targetState, withStreamId)) {
+      return null;
+    }
+    appliedState = new PostgresSessionState(base).merge(targetState, withStreamId);
+    return sql.toString();
+  }
+
+  /**
+   * Must be invoked after the underlying connection was committed.
+   */
+  void committed() {
+    final PostgresSessionState appliedState = this.appliedState;
+    if (appliedState != null) {
+      sessionState.set(appliedState);
+      this.appliedState = null;
+    }
+  }
+
+  /**
+   * Must be invoked after the underlying connection was rolled back.
+   */
+  void rolledBack() {
+    appliedState = null;
+  }
+
   /**
    * Returns the {@link PsqlConnection} proxy.
    *
@@ -222,91 +289,48 @@ final class PostgresConnection extends CloseableResource<PostgresInstance> {
     return conn;
   }
 
-  @Override
-  protected boolean mayAutoClose(long now) {
-    final PostgresInstance postgresInstance = this.postgresInstance;
-    final PsqlConnection psqlConnection = getPsqlConnection();
-    final long autoCloseAtEpoch = this.autoCloseAtEpoch;
-    return psqlConnection != null && postgresInstance != null && autoCloseAtEpoch > 0 && autoCloseAtEpoch < now;
-  }
-
-  @Override
-  protected boolean tryAutoClose(long now) {
-    final PostgresInstance postgresInstance = this.postgresInstance;
-    final PsqlConnection psqlConnection = getPsqlConnection();
-    final long autoCloseAtEpoch = this.autoCloseAtEpoch;
-    if (psqlConnection != null && postgresInstance != null && autoCloseAtEpoch > 0 && autoCloseAtEpoch < now) {
-      // We are timed-out, remove our self from the connection pool.
-      // If we removed our self from the connection pool successfully, then we are closed and ready for
-      // destruction.
-      // The destructor will be called after returning.
-      if (postgresInstance.connectionPool.remove(psqlConnection, psqlConnection)) {
-        log.atDebug()
-            .setMessage("Remove connection {} from idle pool of instance {}")
-            .addArgument(id)
-            .addArgument(instanceUrl)
-            .log();
-        return true;
-      }
-    }
-    return false;
-  }
-
-  @SuppressWarnings("resource")
   @Override
   protected void destruct() {
     // Note: We only enter this method ones in the live time.
-    assert this.pgConnection != null;
-    assert this.postgresInstance != null;
+    final PgConnection pgConnection = this.pgConnection;
+    final PostgresInstance postgresInstance = this.postgresInstance;
+    if (pgConnection == null || postgresInstance == null) {
+      // The construction failed, the connection was released by the creator.
+      return;
+    }
     try {
+      // Rollback pending changes, only then the connection can be reused.
+      boolean reusable = false;
       try {
-        // Rollback pending changes.
-        this.pgConnection.rollback();
-
-        // If this connection is not auto-closable, which means, it was not auto-closed and
-        // there is free space in the idle connections pool, then we add this connection into
-        // the idle pool.
-        // Note: We always create a new connection wrapper to avoid that there is any pending
-        // reference to the connection. This could happen, if the user invoked "close()", but
-        // still keeps a reference to the connection somewhere.
-        if (!this.isAutoClosable()
-            && this.postgresInstance.connectionPool.size() < this.postgresInstance.maxPoolSize) {
-          final PsqlConnection psqlConnection = new PsqlConnection(this.postgresInstance, this.pgConnection);
-          psqlConnection.postgresConnection.autoCloseAtEpoch =
-              System.currentTimeMillis() + this.postgresInstance.idleTimeoutInMillis;
-          psqlConnection.postgresConnection.setAutoClosable(true);
-          this.postgresInstance.connectionPool.put(psqlConnection, psqlConnection);
-          return;
-        }
+        pgConnection.rollback();
+        rolledBack();
+        reusable = true;
       } catch (Exception e) {
         log.atInfo()
-            .setMessage("Failed to rollback connection {} to instance {}")
+            .setMessage("Failed to end transaction of connection {} to instance {}")
             .addArgument(id)
             .addArgument(instanceUrl)
             .setCause(e)
             .log();
-      } finally {
-        this.postgresInstance = null;
       }
-      // If we reach this point, the connection is not placed into the idle connections pool, but eventually
-      // closed.
-      log.atInfo()
-          .setMessage("Close connection {} to {}")
-          .addArgument(id)
-          .addArgument(instanceUrl)
-          .log();
-      this.pgConnection.close();
-    } catch (Exception e) {
-      log.atInfo()
-          .setMessage("Failed to close connection {} to instance {}")
-          .addArgument(id)
-          .addArgument(instanceUrl)
-          .setCause(e)
-          .log();
+      // Return the connection to the pool of the instance, which either adds it to the idle connections or closes
+      // it.
+      // Note: The next user will receive a new connection wrapper to avoid that there is any pending reference to
+      // the
+      // connection. This could happen, if the user invoked "close()", but still keeps a reference to the
+      // connection somewhere.
+      if (!postgresInstance.connectionPool.release(pgConnection, reusable)) {
+        log.atInfo()
+            .setMessage("Close connection {} to {}")
+            .addArgument(id)
+            .addArgument(instanceUrl)
+            .log();
+      }
     } finally {
       // Should there be still a reference to this connection, at least it
       // does not have any reference to the underlying pgConnection anymore!
       this.pgConnection = null;
+      this.postgresInstance = null;
     }
   }
 
@@ -0,0 +1,538 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.here.naksha.lib.core.lambdas.Fe0;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.postgresql.jdbc.PgConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The bounded connection pool of a {@link PostgresInstance}. The pool limits the amount of open connections (idle and in use) to
+ * {@link #getMaxSize()}, callers that need a connection while all are in use are queued in FIFO order until a connection is released or
+ * their timeout elapsed. Idle connections are kept in a lock-free stack, so that the most recently used connection is reused first and
+ * connections that are not needed anymore sink to the bottom, where the background {@link #maintain(Fe0) maintenance} closes them after
+ * the {@link #getIdleTimeout(TimeUnit) idle timeout}. The maintenance as well validates idle connections and opens new ones, until at
+ * least {@link #getMinIdle()} connections are idle.
+ *
+ * <p>Every connection handed out by {@link #acquire(long)} holds a permit, which is returned with {@link #release(PgConnection, boolean)}.
+ * A connection is always pushed to the idle stack before its permit is released, therefore the amount of open connections never exceeds
+ * the amount of permits.
+ */
+final class PostgresConnectionPool {
+
+  private static final Logger log = LoggerFactory.getLogger(PostgresConnectionPool.class);
+
+  /**
+   * The default maximum amount of open connections per instance.
+   */
+  static final int DEFAULT_MAX_SIZE = 100;
+
+  /**
+   * The default minimum amount of idle connections to keep open per instance.
+   */
+  static final int DEFAULT_MIN_IDLE = 2;
+
+  /**
+   * The default time after which idle connections are closed.
+   */
+  static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+  /**
+   * The default time after which idle connections are validated again.
+   */
+  static final long DEFAULT_VALIDATION_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  /**
+   * The interval in which the maintenance of all pools is executed.
+   */
+  static final long MAINTENANCE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+  /**
+   * The timeout in seconds for validating idle connections.
+   */
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+  /**
+   * The upper bounds of the wait-time histogram buckets in milliseconds, the last bucket counts all longer waits.
+   */
+  static final long @NotNull [] WAIT_TIME_BUCKETS_MILLIS = {1, 10, 100, 1_000};
+
+  private static final ScheduledExecutorService maintainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    final Thread thread = new Thread(runnable, "PsqlConnectionPoolMaintainer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * A node in the idle stack.
+   */
+  private static final class Idle {
+
+    Idle(@NotNull PgConnection connection, long idleSince, long validatedAt) {
+      this.connection = connection;
+      this.idleSince = idleSince;
+      this.validatedAt = validatedAt;
+    }
+
+    final @NotNull PgConnection connection;
+    final long idleSince;
+    final long validatedAt;
+
+    @Nullable
+    Idle next;
+  }
+
+  /**
+   * Fair semaphore, so that waiting callers are served in FIFO order, that allows to reduce the amount of permits.
+   */
+  private static final class Permits extends Semaphore {
+
+    Permits(int permits) {
+      super(permits, true);
+    }
+
+    @Override
+    protected void reducePermits(int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+
+  PostgresConnectionPool(@NotNull String name) {
+    this.name = name;
+    this.maxSize = DEFAULT_MAX_SIZE;
+    this.minIdle = DEFAULT_MIN_IDLE;
+    this.idleTimeoutInMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    this.validationIntervalInMillis = DEFAULT_VALIDATION_INTERVAL_MILLIS;
+    this.permits = new Permits(maxSize);
+    this.waitTimeHistogram = new AtomicLong[WAIT_TIME_BUCKETS_MILLIS.length + 1];
+    for (int i = 0; i < waitTimeHistogram.length; i++) {
+      waitTimeHistogram[i] = new AtomicLong();
+    }
+  }
+
+  private final @NotNull String name;
+  private final @NotNull Permits permits;
+  private final @NotNull AtomicReference<@Nullable Idle> idleTop = new AtomicReference<>();
+
+  /**
+   * The session state committed for every open connection, kept here, because the connection wrappers are created per checkout.
+   */
+  private final @NotNull ConcurrentHashMap<@NotNull PgConnection, @NotNull PostgresSessionState> sessionStates =
+      new ConcurrentHashMap<>();
+
+  private final @NotNull AtomicInteger idleCount = new AtomicInteger();
+  private final @NotNull AtomicInteger openCount = new AtomicInteger();
+  private final @NotNull AtomicLong timeouts = new AtomicLong();
+  private final @NotNull AtomicLong evictions = new AtomicLong();
+  private final @NotNull AtomicLong @NotNull [] waitTimeHistogram;
+  private volatile int maxSize;
+  private volatile int minIdle;
+  private volatile long idleTimeoutInMillis;
+  private volatile long validationIntervalInMillis;
+  private volatile boolean closed;
+  private @Nullable ScheduledFuture<?> maintenance;
+
+  /**
+   * Schedules the given maintenance task to be executed regularly, until the pool is {@link #close() closed}.
+   *
+   * @param task The task to execute, should invoke {@link #maintain(Fe0)}.
+   */
+  synchronized void scheduleMaintenance(@NotNull Runnable task) {
+    if (!closed && maintenance == null) {
+      maintenance = maintainer.scheduleWithFixedDelay(
+          () -> {
+            try {
+              task.run();
+            } catch (Throwable t) {
+              log.atWarn()
+                  .setMessage("Unexpected error in maintenance of connection pool {}")
+                  .addArgument(name)
+                  .setCause(t)
+                  .log();
+            }
+          },
+          MAINTENANCE_INTERVAL_MILLIS,
+          MAINTENANCE_INTERVAL_MILLIS,
+          MILLISECONDS);
+    }
+  }
+
+  /**
+   * Acquires a connection permit, waiting in FIFO order when all connections are in use. If an idle connection is available, it is
+   * returned. If {@code null} is returned, the caller holds a permit to open a new connection and must either hand the new connection
+   * back via {@link #release(PgConnection, boolean)}, or invoke {@link #createFailed()}, if opening the connection failed.
+   *
+   * @param timeoutInMillis The maximum time to wait for a free connection.
+   * @return An idle connection or {@code null}, if the caller should open a new connection.
+   * @throws SQLException If the pool is closed, no connection became available within the timeout or the thread was interrupted.
+   */
+  @Nullable
+  PgConnection acquire(long timeoutInMillis) throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection pool closed", EPsqlState.CONNECTION_DOES_NOT_EXIST.toString());
+    }
+    final long start = System.nanoTime();
+    final boolean acquired;
+    try {
+      acquired = permits.tryAcquire(Math.max(0L, timeoutInMillis), MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(
+          "Interrupted while waiting for a connection",
+          EPsqlState.CONNECTION_UNABLE_TO_CONNECT.toString(),
+          e);
+    }
+    recordWaitTime(System.nanoTime() - start);
+    if (!acquired) {
+      timeouts.incrementAndGet();
+      throw new SQLException(
+          "Timeout after " + timeoutInMillis + "ms waiting for a connection to " + name + " (open: "
+              + getOpen() + ", max: " + maxSize + ", waiting: " + getWaiting() + ")",
+          EPsqlState.CONNECTION_UNABLE_TO_CONNECT.toString());
+    }
+    Idle idle;
+    while ((idle = pop()) != null) {
+      if (isOpen(idle.connection)) {
+        return idle.connection;
+      }
+      discard(idle.connection);
+    }
+    openCount.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Must be invoked, when {@link #acquire(long)} returned {@code null}, but opening a new connection failed.
+   */
+  void createFailed() {
+    openCount.decrementAndGet();
+    permits.release();
+  }
+
+  /**
+   * Releases a connection acquired from this pool, which must have been rolled back before.
+   *
+   * @param connection The connection to release.
+   * @param reusable   If the connection can be reused; {@code false} if it should be closed.
+   * @return {@code true} if the connection was added to the idle connections; {@code false} if it was closed.
+   */
+  boolean release(@NotNull PgConnection connection, boolean reusable) {
+    try {
+      if (reusable && !closed) {
+        final long now = System.currentTimeMillis();
+        push(new Idle(connection, now, now));
+        if (closed) {
+          closeIdle();
+        }
+        return true;
+      }
+      discard(connection);
+      return false;
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Returns the session state that was committed for the given connection of this pool.
+   *
+   * @param connection The connection.
+   * @return the session state that was committed for the connection.
+   */
+  @NotNull
+  PostgresSessionState sessionState(@NotNull PgConnection connection) {
+    return sessionStates.computeIfAbsent(connection, c -> new PostgresSessionState());
+  }
+
+  /**
+   * Closes idle connections that exceeded the idle timeout (while keeping the minimum amount of idle connections), validates idle
+   * connections and, if a connector is given, opens new connections until the minimum amount of idle connections is reached.
+   *
+   * @param connector The method to open a new connection; {@code null} if no new connections should be opened.
+   */
+  void maintain(@Nullable Fe0<@NotNull PgConnection> connector) {
+    if (closed) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    final ArrayList<Idle> keep = new ArrayList<>();
+    int toInspect = idleCount.get();
+    // Note: We acquire a permit for every inspected connection, so that concurrent callers never open more
+    // connections than allowed.
+    while (toInspect-- > 0 && !permits.hasQueuedThreads() && permits.tryAcquire()) {
+      final Idle idle = pop();
+      if (idle == null) {
+        permits.release();
+        break;
+      }
+      if (now - idle.idleSince >= idleTimeoutInMillis && idleCount.get() + keep.size() >= minIdle) {
+        evictions.incrementAndGet();
+        discard(idle.connection);
+        permits.release();
+      } else if (now - idle.validatedAt >= validationIntervalInMillis && !isValid(idle.connection)) {
+        log.atInfo()
+            .setMessage("Close invalid idle connection to {}")
+            .addArgument(name)
+            .log();
+        evictions.incrementAndGet();
+        discard(idle.connection);
+        permits.release();
+      } else {
+        keep.add(idle);
+      }
+    }
+    // Push back in reverse order, so that the order in the stack is preserved.
+    for (int i = keep.size() - 1; i >= 0; i--) {
+      final Idle idle = keep.get(i);
+      final long validatedAt = now - idle.validatedAt >= validationIntervalInMillis ? now : idle.validatedAt;
+      push(new Idle(idle.connection, idle.idleSince, validatedAt));
+      permits.release();
+    }
+    if (connector != null) {
+      while (!closed
+          && idleCount.get() < minIdle
+          && openCount.get() < maxSize
+          && !permits.hasQueuedThreads()
+          && permits.tryAcquire()) {
+        openCount.incrementAndGet();
+        final PgConnection connection;
+        try {
+          connection = connector.call();
+        } catch (Exception e) {
+          createFailed();
+          log.atInfo()
+              .setMessage("Failed to open idle connection to {}")
+              .addArgument(name)
+              .setCause(e)
+              .log();
+          break;
+        }
+        release(connection, true);
+      }
+    }
+  }
+
+  /**
+   * Closes the pool and all idle connections, connections in use are closed when being released.
+   */
+  void close() {
+    synchronized (this) {
+      closed = true;
+      if (maintenance != null) {
+        maintenance.cancel(false);
+        maintenance = null;
+      }
+    }
+    closeIdle();
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  int getMaxSize() {
+    return maxSize;
+  }
+
+  synchronized void setMaxSize(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be greater than zero");
+    }
+    final int delta = maxSize - this.maxSize;
+    if (delta > 0) {
+      permits.release(delta);
+    } else if (delta < 0) {
+      permits.reducePermits(-delta);
+    }
+    this.maxSize = maxSize;
+  }
+
+  int getMinIdle() {
+    return minIdle;
+  }
+
+  void setMinIdle(int minIdle) {
+    this.minIdle = Math.max(0, minIdle);
+  }
+
+  long getIdleTimeout(@NotNull TimeUnit timeUnit) {
+    return timeUnit.convert(idleTimeoutInMillis, MILLISECONDS);
+  }
+
+  void setIdleTimeout(long timeout, @NotNull TimeUnit timeUnit) {
+    this.idleTimeoutInMillis = Math.max(0L, MILLISECONDS.convert(timeout, timeUnit));
+  }
+
+  void setValidationInterval(long interval, @NotNull TimeUnit timeUnit) {
+    this.validationIntervalInMillis = Math.max(0L, MILLISECONDS.convert(interval, timeUnit));
+  }
+
+  /**
+   * Returns the amount of open connections, idle or in use.
+   *
+   * @return the amount of open connections.
+   */
+  int getOpen() {
+    return openCount.get();
+  }
+
+  /**
+   * Returns the amount of connections in use.
+   *
+   * @return the amount of connections in use.
+   */
+  int getActive() {
+    return Math.max(0, openCount.get() - idleCount.get());
+  }
+
+  /**
+   * Returns the amount of idle connections.
+   *
+   * @return the amount of idle connections.
+   */
+  int getIdle() {
+    return idleCount.get();
+  }
+
+  /**
+   * Returns the (estimated) amount of callers waiting for a connection.
+   *
+   * @return the amount of callers waiting for a connection.
+   */
+  int getWaiting() {
+    return permits.getQueueLength();
+  }
+
+  /**
+   * Returns the amount of callers that failed to acquire a connection within their timeout.
+   *
+   * @return the amount of acquire timeouts.
+   */
+  long getTimeouts() {
+    return timeouts.get();
+  }
+
+  /**
+   * Returns the amount of idle connections closed, because they timed-out or were invalid.
+   *
+   * @return the amount of evicted connections.
+   */
+  long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * Returns a copy of the wait-time histogram, the bucket {@code i} counts the acquisitions that waited less than
+   * {@link #WAIT_TIME_BUCKETS_MILLIS WAIT_TIME_BUCKETS_MILLIS[i]} milliseconds, the last bucket all that waited longer.
+   *
+   * @return a copy of the wait-time histogram.
+   */
+  long @NotNull [] getWaitTimeHistogram() {
+    final long[] copy = new long[waitTimeHistogram.length];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = waitTimeHistogram[i].get();
+    }
+    return copy;
+  }
+
+  private void recordWaitTime(long nanos) {
+    final long millis = NANOSECONDS.toMillis(nanos);
+    int i = 0;
+    while (i < WAIT_TIME_BUCKETS_MILLIS.length && millis >= WAIT_TIME_BUCKETS_MILLIS[i]) {
+      i++;
+    }
+    waitTimeHistogram[i].incrementAndGet();
+  }
+
+  private void push(@NotNull Idle idle) {
+    Idle top;
+    do {
+      top = idleTop.get();
+      idle.next = top;
+    } while (!idleTop.compareAndSet(top, idle));
+    idleCount.incrementAndGet();
+  }
+
+  private @Nullable Idle pop() {
+    Idle top;
+    do {
+      top = idleTop.get();
+      if (top == null) {
+        return null;
+      }
+    } while (!idleTop.compareAndSet(top, top.next));
+    idleCount.decrementAndGet();
+    top.next = null;
+    return top;
+  }
+
+  private void closeIdle() {
+    Idle idle;
+    while ((idle = pop()) != null) {
+      discard(idle.connection);
+    }
+  }
+
+  private void discard(@NotNull PgConnection connection) {
+    openCount.decrementAndGet();
+    sessionStates.remove(connection);
+    try {
+      connection.close();
+    } catch (Exception e) {
+      log.atInfo()
+          .setMessage("Failed to close connection to {}")
+          .addArgument(name)
+          .setCause(e)
+          .log();
+    }
+  }
+
+  private static boolean isOpen(@NotNull PgConnection connection) {
+    try {
+      return !connection.isClosed();
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private static boolean isValid(@NotNull PgConnection connection) {
+    try {
+      return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+    } catch (Exception e) {
+      return false;
+    }
+  }
+}
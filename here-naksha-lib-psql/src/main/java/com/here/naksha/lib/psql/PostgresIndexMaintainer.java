@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.here.naksha.lib.core.models.indexing.Index;
+import com.here.naksha.lib.core.util.json.Json;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates and drops the property indices declared for the collections of a storage, see {@link PostgresPropertyIndex}. The indices are
+ * built with {@code CREATE INDEX CONCURRENTLY}, so that writes are not blocked, which requires a dedicated connection in auto-commit
+ * mode. Partitioned tables can't be indexed concurrently, for them the index is created for the partitioned table only, then created
+ * concurrently for every partition and attached. Collections written in a short period are maintained together, so that a burst of writes
+ * does not queue a run per write.
+ */
+final class PostgresIndexMaintainer {
+
+  private static final Logger log = LoggerFactory.getLogger(PostgresIndexMaintainer.class);
+
+  private static final TypeReference<Map<String, Index>> INDICES_TYPE = new TypeReference<>() {};
+
+  private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    final Thread thread = new Thread(runnable, "PsqlIndexMaintainer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * The delay in milliseconds after a collection was written, before its indices are maintained.
+   */
+  static final long DEBOUNCE_MILLIS = 5_000L;
+
+  PostgresIndexMaintainer(@NotNull PostgresStorage storage) {
+    this.storage = storage;
+  }
+
+  private final @NotNull PostgresStorage storage;
+  private @Nullable ScheduledFuture<?> scheduled;
+  private final @NotNull Set<@NotNull String> pending = ConcurrentHashMap.newKeySet();
+  private final @NotNull AtomicBoolean pendingScheduled = new AtomicBoolean();
+
+  /**
+   * The property indices of the head tables, that exist after the last maintenance of the collections.
+   */
+  private final @NotNull Map<@NotNull String, @NotNull Map<String, Index>> created = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the property indices, that exist for the head table of the given collection. Indices that are declared, but not yet
+   * maintained, are not returned, so queries only switch to the expressions of an index, after it was created.
+   *
+   * @param collectionId The identifier of the collection.
+   * @return the property indices by their key; {@code null}, if the collection has no property indices.
+   */
+  @Nullable
+  Map<String, Index> createdIndices(@NotNull String collectionId) {
+    return created.get(collectionId);
+  }
+
+  /**
+   * Starts to maintain the indices of all collections periodically.
+   *
+   * @param interval The interval between two runs.
+   * @param timeUnit The time-unit of the interval.
+   */
+  synchronized void start(long interval, @NotNull TimeUnit timeUnit) {
+    if (scheduled == null) {
+      scheduled = executor.scheduleWithFixedDelay(this::maintainAllSafe, interval, interval, timeUnit);
+    }
+  }
+
+  /**
+   * Stops the periodic maintenance.
+   */
+  synchronized void stop() {
+    if (scheduled != null) {
+      scheduled.cancel(false);
+      scheduled = null;
+    }
+  }
+
+  /**
+   * Asynchronously maintains the indices of the given collections, invoked after collections have been created or updated. Collections
+   * that are already waiting to be maintained are not queued again, all waiting collections are maintained in one run after
+   * {@link #DEBOUNCE_MILLIS}.
+   *
+   * @param collectionIds The identifiers of the collections.
+   */
+  void maintainLater(@NotNull Collection<@NotNull String> collectionIds) {
+    if (!pending.addAll(collectionIds)) {
+      return;
+    }
+    if (pendingScheduled.compareAndSet(false, true)) {
+      executor.schedule(this::maintainPending, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void maintainPending() {
+    pendingScheduled.set(false);
+    final List<@NotNull String> ids = new ArrayList<>();
+    final Iterator<@NotNull String> it = pending.iterator();
+    while (it.hasNext()) {
+      ids.add(it.next());
+      it.remove();
+    }
+    if (ids.isEmpty()) {
+      return;
+    }
+    try {
+      maintain(ids);
+    } catch (Throwable t) {
+      log.atWarn()
+          .setMessage("Failed to maintain property indices of collections {}")
+          .addArgument(ids)
+          .setCause(t)
+          .log();
+    }
+  }
+
+  private void maintainAllSafe() {
+    try {
+      maintain(null);
+    } catch (Throwable t) {
+      log.atWarn()
+          .setMessage("Failed to maintain property indices")
+          .setCause(t)
+          .log();
+    }
+  }
+
+  /**
+   * Maintains the indices of the given collections.
+   *
+   * @param collectionIds The identifiers of the collections; {@code null} for all collections.
+   * @throws SQLException If any database error occurred.
+   */
+  void maintain(@Nullable List<@NotNull String> collectionIds) throws SQLException {
+    try (final PsqlConnection conn = storage.getConnection(true, false, true, null)) {
+      final Map<String, Map<String, Index>> collections = readIndices(conn, collectionIds);
+      if (collectionIds == null) {
+        created.keySet().retainAll(collections.keySet());
+      } else {
+        for (final String collectionId : collectionIds) {
+          if (!collections.containsKey(collectionId)) {
+            created.remove(collectionId);
+          }
+        }
+      }
+      // Building an index can take much longer than any normal statement. The timeout is changed through the
+      // tracked session state, so
+      // that the next user of the pooled connection gets the timeout of the storage back, even if restoring it
+      // here fails.
+      setStatementTimeout(conn, 0);
+      conn.setAutoCommit(true);
+      try {
+        for (final Map.Entry<String, Map<String, Index>> entry : collections.entrySet()) {
+          final String collectionId = entry.getKey();
+          try {
+            sync(conn, collectionId, false, entry.getValue());
+            sync(conn, collectionId, true, entry.getValue());
+          } catch (SQLException e) {
+            log.atWarn()
+                .setMessage("Failed to maintain property indices of collection {}")
+                .addArgument(collectionId)
+                .setCause(e)
+                .log();
+          }
+        }
+      } finally {
+        conn.setAutoCommit(false);
+        setStatementTimeout(conn, storage.getStatementTimeout(TimeUnit.MILLISECONDS));
+      }
+    }
+  }
+
+  /**
+   * Changes the statement timeout of the session and commits it, so that the connection remembers the timeout of the session.
+   *
+   * @param conn          The connection, must not be in auto-commit mode.
+   * @param timeoutMillis The statement timeout in milliseconds; {@code 0} for no timeout.
+   * @throws SQLException If any database error occurred.
+   */
+  private static void setStatementTimeout(@NotNull PsqlConnection conn, long timeoutMillis) throws SQLException {
+    final PostgresConnection postgresConnection = conn.postgresConnection;
+    postgresConnection.targetState().statementTimeoutMillis = timeoutMillis;
+    final String delta = postgresConnection.takeSessionDelta(false);
+    if (delta != null) {
+      execute(conn, delta);
+    }
+    conn.commit();
+  }
+
+  private @NotNull Map<String, Map<String, Index>> readIndices(
+      @NotNull Connection conn, @Nullable List<@NotNull String> collectionIds) throws SQLException {
+    final Map<String, Map<String, Index>> collections = new HashMap<>();
+    final String query = collectionIds == null
+        ? "SELECT id, (jsondata->'indices')::text FROM naksha_collection_get_all()"
+        : "SELECT id, (jsondata->'indices')::text FROM naksha_collection_get_all() WHERE id = ANY(?)";
+    try (final PreparedStatement stmt = conn.prepareStatement(query)) {
+      if (collectionIds != null) {
+        stmt.setArray(1, conn.createArrayOf("text", collectionIds.toArray()));
+      }
+      try (final ResultSet rs = stmt.executeQuery();
+          final Json jp = Json.get()) {
+        while (rs.next()) {
+          final String id = rs.getString(1);
+          final String indices = rs.getString(2);
+          try {
+            collections.put(
+                id,
+                indices != null
+                    ? jp.reader().forType(INDICES_TYPE).readValue(indices)
+                    : null);
+          } catch (Exception e) {
+            log.atWarn()
+                .setMessage("Invalid indices declared for collection {}")
+                .addArgument(id)
+                .setCause(e)
+                .log();
+          }
+        }
+      }
+    }
+    conn.commit();
+    return collections;
+  }
+
+  private void sync(
+      @NotNull Connection conn,
+      @NotNull String collectionId,
+      boolean history,
+      @Nullable Map<String, Index> indices)
+      throws SQLException {
+    final String table = history ? collectionId + "_hst" : collectionId;
+    final Character relkind = relkind(conn, table);
+    if (relkind == null) {
+      if (!history) {
+        created.remove(collectionId);
+      }
+      return;
+    }
+    final boolean partitioned = relkind == 'p';
+    final Map<String, PostgresPropertyIndex> wanted = new HashMap<>();
+    final Map<String, Index> valid = new HashMap<>();
+    if (indices != null) {
+      for (final Map.Entry<String, Index> entry : indices.entrySet()) {
+        if (history && !entry.getValue().indexHistory) {
+          continue;
+        }
+        try {
+          final PostgresPropertyIndex index =
+              new PostgresPropertyIndex(table, entry.getKey(), entry.getValue());
+          wanted.put(index.name, index);
+          valid.put(entry.getKey(), entry.getValue());
+        } catch (IllegalArgumentException e) {
+          log.atWarn()
+              .setMessage("Ignore invalid index {} of collection {}: {}")
+              .addArgument(entry.getKey())
+              .addArgument(collectionId)
+              .addArgument(e.getMessage())
+              .log();
+        }
+      }
+    }
+    // Drop the indices that are no longer declared, have been changed or are left invalid by a failed build.
+    final Map<String, String> existing = existingIndices(conn, table, partitioned);
+    for (final Map.Entry<String, String> entry : existing.entrySet()) {
+      final PostgresPropertyIndex index = wanted.get(entry.getKey());
+      if (index == null || !index.comment().equals(entry.getValue())) {
+        log.info("Drop property index {} of table {}", entry.getKey(), table);
+        execute(conn, PostgresPropertyIndex.dropSql(entry.getKey(), !partitioned));
+      } else {
+        wanted.remove(entry.getKey());
+      }
+    }
+    for (final PostgresPropertyIndex index : wanted.values()) {
+      log.info("Create property index {} of table {}: {}", index.name, table, index.definition);
+      create(conn, index, table, index.name, partitioned);
+    }
+    if (!history) {
+      if (valid.isEmpty()) {
+        created.remove(collectionId);
+      } else {
+        created.put(collectionId, valid);
+      }
+    }
+  }
+
+  private void create(
+      @NotNull Connection conn,
+      @NotNull PostgresPropertyIndex index,
+      @NotNull String table,
+      @NotNull String name,
+      boolean partitioned)
+      throws SQLException {
+    if (!partitioned) {
+      execute(conn, index.createSql(table, name, true, false));
+    } else {
+      execute(conn, index.createSql(table, name, false, true));
+      for (final String partition : partitions(conn, table)) {
+        final Character relkind = relkind(conn, partition);
+        final String partitionIndex = PostgresPropertyIndex.indexName(partition, index.key);
+        create(conn, index, partition, partitionIndex, relkind != null && relkind == 'p');
+        execute(
+            conn,
+            new SQL("ALTER INDEX ")
+                .addIdent(name)
+                .add(" ATTACH PARTITION ")
+                .addIdent(partitionIndex)
+                .toString());
+      }
+    }
+    execute(conn, index.commentSql(name));
+  }
+
+  private @Nullable Character relkind(@NotNull Connection conn, @NotNull String table) throws SQLException {
+    try (final PreparedStatement stmt = conn.prepareStatement("SELECT c.relkind FROM pg_class c"
+        + " JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relname = ?")) {
+      stmt.setString(1, storage.getSchema());
+      stmt.setString(2, table);
+      try (final ResultSet rs = stmt.executeQuery()) {
+        return rs.next() ? rs.getString(1).charAt(0) : null;
+      }
+    }
+  }
+
+  private @NotNull List<@NotNull String> partitions(@NotNull Connection conn, @NotNull String table)
+      throws SQLException {
+    final List<@NotNull String> partitions = new ArrayList<>();
+    try (final PreparedStatement stmt = conn.prepareStatement("SELECT c.relname FROM pg_inherits i"
+        + " JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent"
+        + " JOIN pg_namespace n ON n.oid = p.relnamespace WHERE n.nspname = ? AND p.relname = ?")) {
+      stmt.setString(1, storage.getSchema());
+      stmt.setString(2, table);
+      try (final ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          partitions.add(rs.getString(1));
+        }
+      }
+    }
+    return partitions;
+  }
+
+  /**
+   * Returns the property indices of the table with their comment. Invalid indices are returned with a {@code null} comment, so that they
+   * are dropped and rebuilt, except for partitioned tables, where the index stays invalid until all partitions are attached.
+   */
+  private @NotNull Map<String, String> existingIndices(
+      @NotNull Connection conn, @NotNull String table, boolean partitioned) throws SQLException {
+    final Map<String, String> indices = new HashMap<>();
+    try (final PreparedStatement stmt = conn.prepareStatement(
+        "SELECT ic.relname, obj_description(ic.oid, 'pg_class'), i.indisvalid FROM pg_index i"
+            + " JOIN pg_class ic ON ic.oid = i.indexrelid JOIN pg_class tc ON tc.oid = i.indrelid"
+            + " JOIN pg_namespace n ON n.oid = tc.relnamespace WHERE n.nspname = ? AND tc.relname = ?"
+            + " AND (ic.relname LIKE ? OR obj_description(ic.oid, 'pg_class') LIKE ?)")) {
+      stmt.setString(1, storage.getSchema());
+      stmt.setString(2, table);
+      stmt.setString(3, table.replace("_", "\\_") + "\\_p\\_%");
+      stmt.setString(4, PostgresPropertyIndex.COMMENT_PREFIX + "%");
+      try (final ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          final String comment = rs.getString(2);
+          final boolean valid = rs.getBoolean(3);
+          indices.put(rs.getString(1), valid || partitioned ? comment : null);
+        }
+      }
+    }
+    return indices;
+  }
+
+  private static void execute(@NotNull Connection conn, @NotNull String sql) throws SQLException {
+    try (final Statement stmt = conn.createStatement()) {
+      stmt.execute(sql);
+    }
+  }
+}
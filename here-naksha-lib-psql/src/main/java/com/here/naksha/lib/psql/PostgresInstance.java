@@ -22,13 +22,12 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import com.here.naksha.lib.core.util.ClosableRootResource;
 import java.sql.SQLException;
-import java.util.Enumeration;
-import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.postgresql.jdbc.PgConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,27 +46,23 @@ public class PostgresInstance extends ClosableRootResource {
   static final ReentrantLock mutex = new ReentrantLock();
 
   /**
-   * A map with all connections to this instance that are currently idle. Connections add them-self into this pool when being destructed and
-   * the pool has space left.
+   * The bounded pool of connections to this instance.
    */
-  final @NotNull ConcurrentHashMap<PsqlConnection, PsqlConnection> connectionPool;
+  final @NotNull PostgresConnectionPool connectionPool;
 
   /**
-   * The timeout when to close idle connections.
+   * The timeouts used by the last caller, applied when the pool opens idle connections in the background.
    */
-  long idleTimeoutInMillis;
+  private volatile long lastConnTimeoutInMillis;
 
-  /**
-   * The maximum amount of connections to keep in the pool.
-   */
-  int maxPoolSize;
+  private volatile long lastSockedReadTimeoutInMillis;
+  private volatile long lastCancelSignalTimeoutInMillis;
 
   PostgresInstance(@NotNull PsqlInstance proxy, @NotNull PsqlInstanceConfig config) {
     super(proxy, mutex);
     this.config = config;
-    this.connectionPool = new ConcurrentHashMap<>();
-    this.idleTimeoutInMillis = TimeUnit.MINUTES.toMillis(2);
-    this.maxPoolSize = 100;
+    this.connectionPool = new PostgresConnectionPool(config.toString());
+    this.connectionPool.scheduleMaintenance(this::maintainConnectionPool);
     allInstances.put(config, this);
   }
 
@@ -97,6 +92,7 @@ public class PostgresInstance extends ClosableRootResource {
   @Override
   protected void destruct() {
     allInstances.remove(config, this);
+    connectionPool.close();
   }
 
   /**
@@ -123,9 +119,10 @@ public class PostgresInstance extends ClosableRootResource {
   }
 
   /**
-   * Returns a connection from the connection pool or creates a new connection.
+   * Returns a connection from the connection pool or creates a new connection. If the maximum amount of connections is open, waits until
+   * a connection is released or the connection timeout elapsed.
    *
-   * @param connTimeoutInMillis         The connection timeout, if a new connection need to be established.
+   * @param connTimeoutInMillis         The connection timeout, if a new connection need to be established or the pool is exhausted.
    * @param sockedReadTimeoutInMillis   The socket read-timeout to be used with the connection.
    * @param cancelSignalTimeoutInMillis The signal timeout to be used with the connection.
    * @return The connection.
@@ -135,37 +132,74 @@ public class PostgresInstance extends ClosableRootResource {
   PsqlConnection getConnection(
       long connTimeoutInMillis, long sockedReadTimeoutInMillis, long cancelSignalTimeoutInMillis)
       throws SQLException {
-    // Try to reuse an existing pooled idle connection.
-    final ConcurrentHashMap<PsqlConnection, PsqlConnection> connectionPool = this.connectionPool;
-    final Enumeration<PsqlConnection> keyEnum = connectionPool.keys();
-    while (keyEnum.hasMoreElements()) {
+    this.lastConnTimeoutInMillis = connTimeoutInMillis;
+    this.lastSockedReadTimeoutInMillis = sockedReadTimeoutInMillis;
+    this.lastCancelSignalTimeoutInMillis = cancelSignalTimeoutInMillis;
+    final PostgresConnectionPool connectionPool = this.connectionPool;
+    final PgConnection idleConnection = connectionPool.acquire(connTimeoutInMillis);
+    if (idleConnection != null) {
+      final PsqlConnection psqlConnection;
+      try {
+        psqlConnection = new PsqlConnection(this, idleConnection);
+      } catch (SQLException e) {
+        connectionPool.release(idleConnection, false);
+        throw e;
+      }
       try {
-        final PsqlConnection psqlConnection = keyEnum.nextElement();
-        if (connectionPool.remove(psqlConnection, psqlConnection)) {
-          final PostgresConnection postgresConnection = psqlConnection.postgresConnection;
-          postgresConnection.setAutoClosable(false);
-          postgresConnection.autoCloseAtEpoch = 0L;
-          if (!psqlConnection.isClosed()) {
-            log.atDebug()
-                .setMessage("Reuse idle connection {} of instance {}")
-                .addArgument(postgresConnection.id)
-                .addArgument(postgresConnection.instanceUrl)
-                .log();
-            postgresConnection.withSocketReadTimeout(sockedReadTimeoutInMillis, MILLISECONDS);
-            return psqlConnection;
-          }
-        }
-      } catch (NoSuchElementException ignore) {
+        psqlConnection.postgresConnection.withSocketReadTimeout(sockedReadTimeoutInMillis, MILLISECONDS);
+      } catch (SQLException e) {
+        psqlConnection.close();
+        throw e;
       }
+      log.atDebug()
+          .setMessage("Reuse idle connection {} of instance {}")
+          .addArgument(psqlConnection.postgresConnection.id)
+          .addArgument(psqlConnection.postgresConnection.instanceUrl)
+          .log();
+      return psqlConnection;
     }
     // No idle connection found, create a new one.
-    return new PsqlConnection(
-        this,
+    final PgConnection pgConnection;
+    try {
+      pgConnection = PostgresConnection.connect(
+          config,
+          connTimeoutInMillis,
+          sockedReadTimeoutInMillis,
+          cancelSignalTimeoutInMillis,
+          getOptimalBufferSize(),
+          getOptimalBufferSize());
+    } catch (Throwable t) {
+      connectionPool.createFailed();
+      throw t;
+    }
+    try {
+      return new PsqlConnection(this, pgConnection);
+    } catch (SQLException e) {
+      connectionPool.release(pgConnection, false);
+      throw e;
+    }
+  }
+
+  /**
+   * Invoked regularly in the background to evict and validate idle connections and to open idle connections, until the minimum amount
+   * of idle connections is reached.
+   */
+  private void maintainConnectionPool() {
+    final long connTimeoutInMillis = this.lastConnTimeoutInMillis;
+    if (connTimeoutInMillis <= 0L) {
+      // The instance was never used, do not open connections.
+      connectionPool.maintain(null);
+      return;
+    }
+    final long sockedReadTimeoutInMillis = this.lastSockedReadTimeoutInMillis;
+    final long cancelSignalTimeoutInMillis = this.lastCancelSignalTimeoutInMillis;
+    connectionPool.maintain(() -> PostgresConnection.connect(
+        config,
         connTimeoutInMillis,
         sockedReadTimeoutInMillis,
         cancelSignalTimeoutInMillis,
         getOptimalBufferSize(),
-        getOptimalBufferSize());
+        getOptimalBufferSize()));
   }
 
   /**
@@ -219,9 +253,29 @@ public class PostgresInstance extends ClosableRootResource {
   @Override
   public void logStats(Logger log) {
     super.logStats(log);
+    final PostgresConnectionPool pool = connectionPool;
     log.info(
         "[Instance connectionPool stats => instance,count] - InstanceConnectionPoolCount {} {}",
         this,
-        connectionPool.size());
+        pool.getIdle());
+    log.info(
+        "[Instance connectionPool gauges => instance,open,active,idle,waiting,max,timeouts,evictions] - InstanceConnectionPoolGauges {} {} {} {} {} {} {} {}",
+        this,
+        pool.getOpen(),
+        pool.getActive(),
+        pool.getIdle(),
+        pool.getWaiting(),
+        pool.getMaxSize(),
+        pool.getTimeouts(),
+        pool.getEvictions());
+    final long[] histogram = pool.getWaitTimeHistogram();
+    log.info(
+        "[Instance connectionPool wait-time => instance,<1ms,<10ms,<100ms,<1s,>=1s] - InstanceConnectionPoolWaitTime {} {} {} {} {} {}",
+        this,
+        histogram[0],
+        histogram[1],
+        histogram[2],
+        histogram[3],
+        histogram[4]);
   }
 }
@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import com.here.naksha.lib.core.models.indexing.Index;
+import com.here.naksha.lib.core.models.indexing.IndexProperty;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Nulls;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index on the properties of the features of a collection, as declared in {@link Index}. When a collection has an index for a
+ * property, {@link PostgresSession} generates the same expressions for property queries, so that the planner is able to use the index.
+ */
+final class PostgresPropertyIndex {
+
+  /**
+   * The prefix of the comment of all property indices, used to detect the indices managed by Naksha.
+   */
+  static final String COMMENT_PREFIX = "naksha:property-index:";
+
+  /**
+   * The maximal length of an identifier in PostgresQL.
+   */
+  private static final int MAX_IDENT_LENGTH = 63;
+
+  /**
+   * Creates the property index for the given table.
+   *
+   * @param table The table to create the index for.
+   * @param key   The key of the index, as declared in the collection.
+   * @param index The index declaration.
+   * @throws IllegalArgumentException If the index declaration is invalid.
+   */
+  PostgresPropertyIndex(@NotNull String table, @NotNull String key, @NotNull Index index) {
+    this.table = table;
+    this.key = key;
+    this.name = indexName(table, key);
+    this.definition = definition(index);
+  }
+
+  /**
+   * The table on which to create the index.
+   */
+  final @NotNull String table;
+
+  /**
+   * The key of the index, as declared in the collection.
+   */
+  final @NotNull String key;
+
+  /**
+   * The name of the index.
+   */
+  final @NotNull String name;
+
+  /**
+   * The definition of the index, starting with {@code USING}.
+   */
+  final @NotNull String definition;
+
+  /**
+   * Returns the comment to add to the index, which allows to detect, if the definition of the index changed.
+   *
+   * @return the comment to add to the index.
+   */
+  @NotNull
+  String comment() {
+    return COMMENT_PREFIX + definition;
+  }
+
+  /**
+   * Returns the statement to create the index.
+   *
+   * @param table        The table to create the index for, differs from {@link #table} for partitions.
+   * @param name         The name of the index, differs from {@link #name} for partitions.
+   * @param concurrently If the index should be created without locking writes, not supported for partitioned tables.
+   * @param only         If the index should only be created for the partitioned table, but not its partitions.
+   * @return the statement to create the index.
+   */
+  @NotNull
+  String createSql(@NotNull String table, @NotNull String name, boolean concurrently, boolean only) {
+    final SQL sql = new SQL();
+    sql.add("CREATE INDEX ");
+    if (concurrently) {
+      sql.add("CONCURRENTLY ");
+    }
+    sql.add("IF NOT EXISTS ").addIdent(name).add(" ON ");
+    if (only) {
+      sql.add("ONLY ");
+    }
+    sql.addIdent(table).add(' ').add(definition);
+    return sql.toString();
+  }
+
+  /**
+   * Returns the statement to add the comment to the index.
+   *
+   * @param name The name of the index.
+   * @return the statement to add the comment to the index.
+   */
+  @NotNull
+  String commentSql(@NotNull String name) {
+    return new SQL("COMMENT ON INDEX ")
+        .addIdent(name)
+        .add(" IS ")
+        .addLiteral(comment())
+        .toString();
+  }
+
+  /**
+   * Returns the statement to drop an index.
+   *
+   * @param name         The name of the index.
+   * @param concurrently If the index should be dropped without locking the table, not supported for partitioned tables.
+   * @return the statement to drop the index.
+   */
+  static @NotNull String dropSql(@NotNull String name, boolean concurrently) {
+    return new SQL(concurrently ? "DROP INDEX CONCURRENTLY IF EXISTS " : "DROP INDEX IF EXISTS ")
+        .addIdent(name)
+        .toString();
+  }
+
+  /**
+   * Returns the name of a property index.
+   *
+   * @param table The table of the index.
+   * @param key   The key of the index, as declared in the collection.
+   * @return the name of the index.
+   */
+  static @NotNull String indexName(@NotNull String table, @NotNull String key) {
+    final String name = table + "_p_" + key;
+    if (name.length() <= MAX_IDENT_LENGTH) {
+      return name;
+    }
+    final CRC32 crc32 = new CRC32();
+    crc32.update(name.getBytes(StandardCharsets.UTF_8));
+    final String hash = Long.toHexString(crc32.getValue());
+    return name.substring(0, MAX_IDENT_LENGTH - hash.length() - 1) + "_" + hash;
+  }
+
+  /**
+   * Splits the JSON path of an {@link IndexProperty} into its parts, for example {@code properties.name} or {@code $.properties.name}.
+   *
+   * @param path The JSON path.
+   * @return the parts of the path.
+   */
+  static @NotNull List<@NotNull String> path(@NotNull String path) {
+    if (path.startsWith("$.")) {
+      path = path.substring(2);
+    }
+    if (path.isEmpty()) {
+      throw new IllegalArgumentException("Empty property path");
+    }
+    return Arrays.asList(path.split("\\."));
+  }
+
+  /**
+   * Adds the expression to access the property at the given path, compared as the given type. Queries and indices have to use exactly
+   * the same expression, otherwise the index can't be used to execute the query.
+   *
+   * @param sql  The SQL to add the expression to.
+   * @param path The path to the property.
+   * @param type The type of the property.
+   */
+  static void addExpression(@NotNull SQL sql, @NotNull List<@NotNull String> path, @NotNull Type type) {
+    final int last = path.size() - 1;
+    sql.add("(jsondata");
+    for (int i = 0; i <= last; i++) {
+      sql.add(i == last && type == Type.STRING ? "->>" : "->");
+      sql.addLiteral(path.get(i));
+    }
+    sql.add(')');
+    if (type == Type.STRING) {
+      sql.add(" COLLATE \"C\"");
+    } else if (type == Type.NUMBER) {
+      sql.add("::numeric");
+    } else if (type == Type.BOOLEAN) {
+      sql.add("::bool");
+    }
+  }
+
+  /**
+   * Tests if one of the given indices can be used by the planner to execute a query of the property at the given path, compared as the
+   * given type. This requires, that the index uses the expression of {@link #addExpression(SQL, List, Type)} for the property, for
+   * btree indices the property must be the first one of the index.
+   *
+   * @param indices The property indices of a collection, may be {@code null}.
+   * @param path    The path to the property.
+   * @param type    The type of the property.
+   * @return {@code true}, if the given indices contain an index for the property; {@code false} otherwise.
+   */
+  static boolean isIndexed(
+      @Nullable Map<String, Index> indices, @NotNull List<@NotNull String> path, @NotNull Type type) {
+    if (indices == null) {
+      return false;
+    }
+    for (final @NotNull Index index : indices.values()) {
+      final String alg = index.alg != null ? index.alg.toLowerCase() : "btree";
+      final List<@NotNull IndexProperty> properties = index.properties;
+      if (properties == null) {
+        continue;
+      }
+      for (final @NotNull IndexProperty property : properties) {
+        if (property.path != null && path(property.path).equals(path) && type(alg, property) == type) {
+          return true;
+        }
+        if ("btree".equals(alg)) {
+          break;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the type, as which the property is indexed by an index using the given algorithm.
+   */
+  private static @NotNull Type type(@NotNull String alg, @NotNull IndexProperty property) {
+    if ("gin_trigram".equals(alg)) {
+      return Type.STRING;
+    }
+    if (property.type != null) {
+      return property.type;
+    }
+    return "gin".equals(alg) ? Type.JSON : Type.STRING;
+  }
+
+  private static @NotNull String definition(@NotNull Index index) {
+    final String alg = index.alg != null ? index.alg.toLowerCase() : "btree";
+    final List<@NotNull IndexProperty> properties = index.properties;
+    if (properties == null || properties.isEmpty()) {
+      throw new IllegalArgumentException("The index does not have any property");
+    }
+    final String method;
+    final boolean ordered;
+    String opClass = null;
+    switch (alg) {
+      case "btree":
+        method = "btree";
+        ordered = true;
+        break;
+      case "hash":
+        if (properties.size() > 1) {
+          throw new IllegalArgumentException("Hash indices only support a single property");
+        }
+        method = "hash";
+        ordered = false;
+        break;
+      case "brin":
+        method = "brin";
+        ordered = false;
+        break;
+      case "gin":
+        method = "gin";
+        ordered = false;
+        break;
+      case "gin_trigram":
+        method = "gin";
+        ordered = false;
+        opClass = "gin_trgm_ops";
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported index algorithm: " + index.alg);
+    }
+    final SQL sql = new SQL("USING ").add(method).add(" (");
+    boolean first = true;
+    for (final @NotNull IndexProperty property : properties) {
+      if (property.path == null) {
+        throw new IllegalArgumentException("Missing path of index property");
+      }
+      final Type type = type(alg, property);
+      if (first) {
+        first = false;
+      } else {
+        sql.add(", ");
+      }
+      sql.add('(');
+      addExpression(sql, path(property.path), type);
+      sql.add(')');
+      if (opClass != null) {
+        sql.add(' ').add(opClass);
+      }
+      if (ordered) {
+        sql.add(property.asc ? " ASC" : " DESC");
+        if (property.nulls != null) {
+          sql.add(property.nulls == Nulls.FIRST ? " NULLS FIRST" : " NULLS LAST");
+        }
+      }
+    }
+    sql.add(')');
+    return sql.toString();
+  }
+}
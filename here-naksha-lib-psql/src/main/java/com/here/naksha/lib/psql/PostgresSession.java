@@ -19,6 +19,7 @@
 package com.here.naksha.lib.psql;
 
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+import static com.here.naksha.lib.psql.PostgresSessionState.BULK_TABLE;
 import static com.here.naksha.lib.psql.sql.SqlGeometryTransformationResolver.addTransformation;
 import static java.util.Comparator.comparing;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -27,14 +28,22 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.StorageLockException;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.indexing.Index;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Type;
+import com.here.naksha.lib.core.models.storage.CollectionVersionResult;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.FeatureCodec;
+import com.here.naksha.lib.core.models.storage.MvtResult;
+import com.here.naksha.lib.core.models.storage.MvtTile;
 import com.here.naksha.lib.core.models.storage.Notification;
 import com.here.naksha.lib.core.models.storage.OpType;
 import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.POpType;
 import com.here.naksha.lib.core.models.storage.PRef;
+import com.here.naksha.lib.core.models.storage.ReadCollectionVersion;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
 import com.here.naksha.lib.core.models.storage.ReadRequest;
 import com.here.naksha.lib.core.models.storage.Result;
@@ -46,22 +55,29 @@ import com.here.naksha.lib.core.models.storage.WriteRequest;
 import com.here.naksha.lib.core.models.storage.XyzCollectionCodecFactory;
 import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
 import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.models.storage.transformation.GeometryTransformation;
 import com.here.naksha.lib.core.storage.IStorageLock;
 import com.here.naksha.lib.core.util.ClosableChildResource;
 import com.here.naksha.lib.core.util.IndexHelper;
+import com.here.naksha.lib.core.util.PhaseTimer;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import com.here.naksha.lib.core.util.json.Json;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
 import org.postgresql.util.PGobject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,7 +104,7 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     this.readOnly = psqlConnection.postgresConnection.parent().config.readOnly;
     this.sql = new SQL();
     this.fetchSize = storage.getFetchSize();
-    this.stmtTimeoutMillis = storage.getLockTimeout(MILLISECONDS);
+    this.stmtTimeoutMillis = storage.getStatementTimeout(MILLISECONDS);
     this.lockTimeoutMillis = storage.getLockTimeout(MILLISECONDS);
   }
 
@@ -139,9 +155,8 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     final long stmtTimeoutMillis = MILLISECONDS.convert(timeout, timeUnit);
     if (stmtTimeoutMillis != this.stmtTimeoutMillis) {
       this.stmtTimeoutMillis = stmtTimeoutMillis;
-      executeStatement(sql().add("SET SESSION statement_timeout TO ")
-          .add(stmtTimeoutMillis)
-          .add(";\n"));
+      // Sent together with the next statement.
+      psqlConnection.postgresConnection.targetState().statementTimeoutMillis = stmtTimeoutMillis;
     }
   }
 
@@ -156,9 +171,8 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     final long lockTimeoutMillis = MILLISECONDS.convert(timeout, timeUnit);
     if (this.lockTimeoutMillis != lockTimeoutMillis) {
       this.lockTimeoutMillis = lockTimeoutMillis;
-      executeStatement(sql().add("SET SESSION lock_timeout TO ")
-          .add(lockTimeoutMillis)
-          .add(";\n"));
+      // Sent together with the next statement.
+      psqlConnection.postgresConnection.targetState().lockTimeoutMillis = lockTimeoutMillis;
     }
   }
 
@@ -169,35 +183,118 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
   }
 
   void executeStatement(@NotNull CharSequence query) throws SQLException {
-    try (final Statement stmt = psqlConnection.createStatement()) {
+    applySessionDelta();
+    try (final PhaseTimer executeTimer = context.startPhase(Phase.SQL_EXECUTE);
+        final Statement stmt = psqlConnection.createStatement()) {
       stmt.execute(query.toString());
     }
   }
 
+  /**
+   * If a statement was executed in the current transaction.
+   */
+  private boolean inTransaction;
+
+  /**
+   * Executes the session settings that are not yet applied as an own statement, so that the query itself stays a single statement and
+   * the fetch-size is honored. When this is the first statement of the transaction, it is committed immediately, so that the settings
+   * are kept for the next checkout of the connection, even when the session is rolled back. Must be invoked before every statement.
+   *
+   * @throws SQLException If executing the settings failed.
+   */
+  @SuppressWarnings("SqlSourceToSinkFlow")
+  private void applySessionDelta() throws SQLException {
+    final String delta = psqlConnection.postgresConnection.takeSessionDelta(!psqlConnection.isReadOnly());
+    if (delta != null) {
+      log.debug("{} - Init session: {}", parent().getAppName(), delta);
+      try (final Statement stmt = psqlConnection.createStatement()) {
+        stmt.execute(delta);
+      }
+      if (!inTransaction) {
+        psqlConnection.commit();
+      }
+    }
+    inTransaction = true;
+  }
+
+  /**
+   * Executes the given prepared statement and returns its result-set.
+   *
+   * @param stmt The statement to execute.
+   * @return The result-set.
+   * @throws SQLException If the execution failed.
+   */
+  @NotNull
+  ResultSet executeQuery(@NotNull PreparedStatement stmt) throws SQLException {
+    try (final PhaseTimer executeTimer = context.startPhase(Phase.SQL_EXECUTE)) {
+      return stmt.executeQuery();
+    }
+  }
+
   @SuppressWarnings("SqlSourceToSinkFlow")
   @NotNull
   PreparedStatement prepareStatement(@NotNull CharSequence query) {
     try {
+      applySessionDelta();
       final PreparedStatement stmt = psqlConnection.prepareStatement(
           query.toString(),
           ResultSet.TYPE_FORWARD_ONLY,
           ResultSet.CONCUR_READ_ONLY,
           ResultSet.CLOSE_CURSORS_AT_COMMIT);
       stmt.setFetchSize(fetchSize);
+      lastStatement = stmt;
       return stmt;
     } catch (SQLException e) {
       throw unchecked(e);
     }
   }
 
+  /**
+   * The last statement prepared by this session, which is the one being executed, if any; used to cancel it from other threads.
+   */
+  private volatile @Nullable Statement lastStatement;
+
+  /**
+   * Cancels the last prepared statement, if it is still executing. This method is thread safe.
+   */
+  void cancel() {
+    final Statement stmt = lastStatement;
+    if (stmt == null) {
+      return;
+    }
+    try {
+      if (!stmt.isClosed()) {
+        stmt.cancel();
+      }
+    } catch (SQLException e) {
+      log.atInfo()
+          .setMessage("Failed to cancel PostgresQL statement")
+          .setCause(e)
+          .log();
+    }
+  }
+
+  /**
+   * The identifiers of the collections written in the current transaction, for which the property indices need to be maintained after
+   * commit.
+   */
+  private final @NotNull Set<@NotNull String> writtenCollections = new HashSet<>();
+
   void commit(boolean autoCloseCursors) throws SQLException {
     // TODO: Apply autoCloseCursors
     psqlConnection.commit();
+    inTransaction = false;
+    if (!writtenCollections.isEmpty()) {
+      parent().indexMaintainer().maintainLater(writtenCollections);
+      writtenCollections.clear();
+    }
   }
 
   void rollback(boolean autoCloseCursors) throws SQLException {
     // TODO: Apply autoCloseCursors
     psqlConnection.rollback();
+    inTransaction = false;
+    writtenCollections.clear();
   }
 
   void close(boolean autoCloseCursors) {
@@ -286,7 +383,8 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       @NotNull List<Object> parameter, //
       final List<@NotNull String> path, //
       @NotNull OpType opType, //
-      @Nullable Object value //
+      @Nullable Object value, //
+      @NotNull List<@Nullable Map<String, Index>> indices //
       ) {
     if (value == null) {
       throw new IllegalArgumentException("Invalid value NULL for op: " + opType);
@@ -304,9 +402,20 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       sql.add(" ").add(opString).add(" ?::jsonb");
       parameter.add(toJsonb(value));
     } else if (value instanceof CharSequence) {
+      if (isIndexed(indices, path, Type.STRING)) {
+        // The expressions must match the ones of the property indices, see PostgresPropertyIndex.
+        PostgresPropertyIndex.addExpression(sql, path, Type.STRING);
+        sql.add(" ").add(opString).add(" ?");
+        parameter.add(value.toString());
+        return;
+      }
       addJsonPath(sql, path, path.size(), true, false);
       sql.add("::text ").add(opString).add(" ?");
       parameter.add(value);
+    } else if (value instanceof Number && isIndexed(indices, path, Type.NUMBER)) {
+      PostgresPropertyIndex.addExpression(sql, path, Type.NUMBER);
+      sql.add(" ").add(opString).add(" ?::numeric");
+      parameter.add(value);
     } else if (value instanceof Double) {
       addJsonPath(sql, path, path.size(), false, false);
       sql.add("::double precision ").add(opString).add(" ?");
@@ -323,6 +432,10 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       addJsonPath(sql, path, path.size(), false, false);
       sql.add("::int8 ").add(opString).add(" ?");
       parameter.add(((Number) value).longValue());
+    } else if (value instanceof Boolean && isIndexed(indices, path, Type.BOOLEAN)) {
+      PostgresPropertyIndex.addExpression(sql, path, Type.BOOLEAN);
+      sql.add(" ").add(opString).add(" ?");
+      parameter.add(value);
     } else if (value instanceof Boolean) {
       addJsonPath(sql, path, path.size(), false, false);
       sql.add("::bool ").add(opString).add(" ?");
@@ -333,7 +446,30 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     }
   }
 
-  private static void addPropertyQuery(@NotNull SQL sql, @NotNull POp propertyOp, @NotNull List<Object> parameter) {
+  /**
+   * Tests if all queried collections have a property index, that can be used for the property at the given path compared as the given
+   * type. The default expressions are used otherwise, because the expressions of the indices compare strings and numbers differently.
+   */
+  private static boolean isIndexed(
+      @NotNull List<@Nullable Map<String, Index>> indices,
+      @NotNull List<@NotNull String> path,
+      @NotNull Type type) {
+    if (indices.isEmpty()) {
+      return false;
+    }
+    for (final Map<String, Index> collectionIndices : indices) {
+      if (!PostgresPropertyIndex.isIndexed(collectionIndices, path, type)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void addPropertyQuery(
+      @NotNull SQL sql,
+      @NotNull POp propertyOp,
+      @NotNull List<Object> parameter,
+      @NotNull List<@Nullable Map<String, Index>> indices) {
     final OpType op = propertyOp.op();
     if (POpType.AND == op || POpType.OR == op || POpType.NOT == op) {
       final List<@NotNull POp> children = propertyOp.children();
@@ -357,7 +493,7 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
         } else {
           sql.add(op_literal);
         }
-        addPropertyQuery(sql, child, parameter);
+        addPropertyQuery(sql, child, parameter, indices);
       }
       sql.add(")");
       return;
@@ -395,14 +531,18 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     if (op == POpType.STARTS_WITH) {
       if (value instanceof String) {
         String text = (String) value;
-        addJsonPath(sql, path, path.size(), true, false);
+        if (isIndexed(indices, path, Type.STRING)) {
+          PostgresPropertyIndex.addExpression(sql, path, Type.STRING);
+        } else {
+          addJsonPath(sql, path, path.size(), true, false);
+        }
         sql.add(" LIKE ?");
         parameter.add(text + '%');
         return;
       }
       throw new IllegalArgumentException("STARTS_WITH operator requires a string as value");
     }
-    addOp(sql, parameter, path, op, value);
+    addOp(sql, parameter, path, op, value, indices);
   }
 
   private static PGobject toJsonb(Object value) {
@@ -422,7 +562,14 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     }
   }
 
-  private SQL prepareQuery(String collection, String spatial_where, String props_where, Long limit) {
+  private SQL prepareQuery(
+      String collection,
+      String spatial_where,
+      String props_where,
+      String id_where,
+      boolean orderById,
+      Long limit,
+      @Nullable GeometryTransformation geometryTransformation) {
     final SQL query = new SQL();
     // r_op text, r_id text, r_uuid text, r_type text, r_ptype text, r_feature jsonb, r_geometry geometry,
     // r_err jsonb
@@ -431,21 +578,82 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
             + "naksha_feature_type(jsondata),\n"
             + "naksha_feature_ptype(jsondata),\n"
             + "jsondata,\n"
-            + "ST_AsEWKB(geo),\n"
-            + "null FROM ")
+            + "ST_AsEWKB(")
+        .add(addTransformation(geometryTransformation, "geo"))
+        .add("),\nnull FROM ")
         .addIdent(collection);
-    if (spatial_where.length() > 0 || props_where.length() > 0) {
+    addWhere(query, spatial_where, props_where, id_where);
+    if (orderById) {
+      // Note: The "id" index is created with text_pattern_ops, therefore we need the pattern operators to use it.
+      query.add(" ORDER BY (jsondata->>'id') COLLATE \"C\" USING ~<~");
+    }
+    if (limit != null) {
+      query.add(" LIMIT ").add(limit);
+    }
+    query.add(")");
+    return query;
+  }
+
+  private static void addWhere(
+      @NotNull SQL query, @NotNull String spatial_where, @NotNull String props_where, @NotNull String id_where) {
+    if (spatial_where.length() > 0 || props_where.length() > 0 || id_where.length() > 0) {
       query.add(" WHERE");
       if (spatial_where.length() > 0) {
         query.add(spatial_where);
-        if (props_where.length() > 0) {
+        if (props_where.length() > 0 || id_where.length() > 0) {
           query.add(" AND");
         }
       }
       if (props_where.length() > 0) {
         query.add(props_where);
+        if (id_where.length() > 0) {
+          query.add(" AND");
+        }
+      }
+      if (id_where.length() > 0) {
+        query.add(id_where);
       }
     }
+  }
+
+  /**
+   * Prepares the query that renders the features of one collection into the geometries of a vector tile, the geometries are clipped to
+   * the tile with margin in WGS'84 first, so that geometries reaching the poles can be transformed into Web Mercator.
+   */
+  private SQL prepareMvtQuery(
+      String collection,
+      String spatial_where,
+      String props_where,
+      String id_where,
+      Long limit,
+      @NotNull MvtTile mvtTile) {
+    final WebMercatorTile tile = mvtTile.getTile();
+    final BBox bbox = tile.getExtendedBBox(mvtTile.getMargin());
+    final SQL query = new SQL();
+    query.add("(SELECT jsondata->>'id' AS id,\n" + "jsondata->'properties' AS properties,\n"
+            + "ST_AsMVTGeom(ST_Transform(ST_Force2D(ST_ClipByBox2D(geo,ST_MakeEnvelope(")
+        .add(bbox.minLon())
+        .add(",")
+        .add(bbox.minLat())
+        .add(",")
+        .add(bbox.maxLon())
+        .add(",")
+        .add(bbox.maxLat())
+        .add(",4326))),3857),ST_MakeEnvelope(")
+        .add(tile.left)
+        .add(",")
+        .add(Math.min(tile.top, tile.bottom))
+        .add(",")
+        .add(tile.right)
+        .add(",")
+        .add(Math.max(tile.top, tile.bottom))
+        .add(",3857),")
+        .add(MvtTile.EXTENT)
+        .add(",")
+        .add(mvtTile.getBuffer())
+        .add(",true) AS geo FROM ")
+        .addIdent(collection);
+    addWhere(query, spatial_where, props_where, id_where);
     if (limit != null) {
       query.add(" LIMIT ").add(limit);
     }
@@ -453,6 +661,46 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     return query;
   }
 
+  /**
+   * Renders the features of the collections into one vector tile, without returning the features.
+   */
+  private @NotNull Result readMvt(
+      @NotNull ReadFeatures readFeatures,
+      @NotNull MvtTile mvtTile,
+      @NotNull String spatial_where,
+      @NotNull String props_where,
+      @NotNull String id_where,
+      @NotNull List<byte[]> wkbs,
+      @NotNull List<Object> parameters) {
+    final List<@NotNull String> collections = readFeatures.getCollections();
+    final SQL sql = sql();
+    sql.add("SELECT ST_AsMVT(mvt,")
+        .addLiteral(mvtTile.getLayer())
+        .add(",")
+        .add(MvtTile.EXTENT)
+        .add(",'geo') FROM (");
+    boolean first = true;
+    for (final String collection : collections) {
+      if (first) {
+        first = false;
+      } else {
+        sql.add(" UNION ALL ");
+      }
+      sql.add(prepareMvtQuery(
+          collection, spatial_where, props_where, id_where, readFeatures.getLimit(), mvtTile));
+    }
+    sql.add(") AS mvt");
+    try (final PreparedStatement stmt = prepareStatement(sql.toString())) {
+      fillStatementWithParams(stmt, wkbs, parameters, collections.size());
+      try (final ResultSet rs = executeQuery(stmt)) {
+        final byte[] tile = rs.next() ? rs.getBytes(1) : null;
+        return new MvtResult(tile != null ? tile : new byte[0]);
+      }
+    } catch (SQLException e) {
+      throw unchecked(e);
+    }
+  }
+
   private int fillStatementWithParams(
       @NotNull PreparedStatement stmt,
       @NotNull List<byte[]> wkbs,
@@ -511,10 +759,28 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       POp propertyOp = readFeatures.getPropertyOp();
       int repeatParameters = 0;
       if (propertyOp != null) {
-        addPropertyQuery(sql, propertyOp, parameters);
+        final List<@Nullable Map<String, Index>> indices = new ArrayList<>(collections.size());
+        for (final String collection : collections) {
+          indices.add(parent().indexMaintainer().createdIndices(collection));
+        }
+        addPropertyQuery(sql, propertyOp, parameters, indices);
       }
       final String props_where = sql.toString();
       sql.setLength(0);
+      // Keyset paging, every page costs the same, because the "id" index is used to seek to the first row.
+      final String afterId = readFeatures.getAfterId();
+      if (afterId != null) {
+        sql.add(" (jsondata->>'id') COLLATE \"C\" ~>~ ?");
+        parameters.add(afterId);
+      }
+      final String id_where = sql.toString();
+      sql.setLength(0);
+      final MvtTile mvtTile = readFeatures.getMvtTile();
+      if (mvtTile != null) {
+        return readMvt(readFeatures, mvtTile, spatial_where, props_where, id_where, wkbs, parameters);
+      }
+      final boolean orderById = readFeatures.isOrderById();
+      final GeometryTransformation geometryTransformation = readFeatures.getGeometryTransformation();
       boolean first = true;
       for (final String collection : collections) {
         repeatParameters++;
@@ -523,17 +789,38 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
         } else {
           sql.add(" UNION ALL ");
         }
-        SQL headQuery = prepareQuery(collection, spatial_where, props_where, readFeatures.getLimit());
+        SQL headQuery = prepareQuery(
+            collection,
+            spatial_where,
+            props_where,
+            id_where,
+            orderById,
+            readFeatures.getLimit(),
+            geometryTransformation);
         sql.add(headQuery);
         if (readFeatures.isReturnDeleted()) {
           sql.add(" UNION ALL ");
-          SQL delSql = prepareQuery(collection + "_del", spatial_where, props_where, readFeatures.getLimit());
+          SQL delSql = prepareQuery(
+              collection + "_del",
+              spatial_where,
+              props_where,
+              id_where,
+              orderById,
+              readFeatures.getLimit(),
+              geometryTransformation);
           sql.add(delSql);
           repeatParameters++;
         }
         if (readFeatures.isReturnAllVersions()) {
           sql.add(" UNION ALL ");
-          SQL hstSql = prepareQuery(collection + "_hst", spatial_where, props_where, readFeatures.getLimit());
+          SQL hstSql = prepareQuery(
+              collection + "_hst",
+              spatial_where,
+              props_where,
+              id_where,
+              orderById,
+              readFeatures.getLimit(),
+              geometryTransformation);
           sql.add(hstSql);
           repeatParameters++;
         }
@@ -542,7 +829,7 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       final PreparedStatement stmt = prepareStatement(query);
       try {
         fillStatementWithParams(stmt, wkbs, parameters, repeatParameters);
-        final ResultSet rs = stmt.executeQuery();
+        final ResultSet rs = executeQuery(stmt);
         final PsqlCursor<XyzFeature, XyzFeatureCodec> cursor =
             new PsqlCursor<>(XyzFeatureCodecFactory.get(), this, stmt, rs);
         return new PsqlSuccess(cursor);
@@ -558,9 +845,42 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
         throw unchecked(e);
       }
     }
+    if (readRequest instanceof ReadCollectionVersion) {
+      return readCollectionVersion((ReadCollectionVersion) readRequest);
+    }
     return new ErrorResult(XyzError.NOT_IMPLEMENTED, "executeRead");
   }
 
+  /**
+   * Reads the version of a collection from the sequence that numbers every new state of a feature, including deletions. The sequence is
+   * not transactional, therefore the version changes as well, when a transaction is rolled back, but that only costs a needless read.
+   * The object-identifier of the table is added, so that a re-created collection never returns the version of the former one.
+   */
+  private @NotNull Result readCollectionVersion(@NotNull ReadCollectionVersion readRequest) {
+    final String collectionId = readRequest.getCollectionId();
+    if (collectionId == null) {
+      return new ErrorResult(XyzError.ILLEGAL_ARGUMENT, "Missing collection identifier");
+    }
+    final String query = new SQL("SELECT ")
+        .addLiteral(SQL.quote_ident(collectionId))
+        .add("::regclass::oid, last_value, is_called FROM ")
+        .addIdent(collectionId + "_i_seq")
+        .toString();
+    try (final PreparedStatement stmt = prepareStatement(query);
+        final ResultSet rs = executeQuery(stmt)) {
+      if (!rs.next()) {
+        return new ErrorResult(XyzError.COLLECTION_NOT_FOUND, "Collection not found: " + collectionId);
+      }
+      final long version = rs.getBoolean(3) ? rs.getLong(2) : 0L;
+      return new CollectionVersionResult(rs.getLong(1) + "." + version);
+    } catch (SQLException e) {
+      if (EPsqlState.get(e) == EPsqlState.UNDEFINED_TABLE) {
+        return new ErrorResult(XyzError.COLLECTION_NOT_FOUND, "Collection not found: " + collectionId);
+      }
+      throw unchecked(e);
+    }
+  }
+
   @NotNull
   <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> Result executeWrite(
       @NotNull WriteRequest<FEATURE, CODEC, ?> writeRequest) {
@@ -579,10 +899,13 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
           final CODEC codec = features.get(i);
           method = codec.getOp();
           out.decode(codec);
+          if (codec.getId() != null) {
+            writtenCollections.add(codec.getId());
+          }
           write_ops_json[i] = json.writer().writeValueAsString(out);
         }
         stmt.setArray(1, psqlConnection.createArrayOf("jsonb", write_ops_json));
-        final ResultSet rs = stmt.executeQuery();
+        final ResultSet rs = executeQuery(stmt);
         return new PsqlSuccess(new PsqlCursor<>(XyzCollectionCodecFactory.get(), this, stmt, rs), null);
       } catch (Throwable e) {
         try {
@@ -611,6 +934,9 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     }
     if (writeRequest instanceof WriteFeatures<?, ?, ?>) {
       final WriteFeatures<?, ?, ?> writeFeatures = (WriteFeatures<?, ?, ?>) writeRequest;
+      if (writeFeatures.isBulk() && !writeRequest.features.isEmpty()) {
+        return executeBulkWrite(writeRequest, writeFeatures.getCollectionId(), writeFeatures.minResults);
+      }
       final int partition_id = -1;
       //      if (writeFeatures instanceof PostgresWriteFeaturesToPartition<?> writeToPartition) {
       //        partition_id = writeToPartition.partitionId;
@@ -659,11 +985,11 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
         stmt.setArray(7, psqlConnection.createArrayOf("bytea", geo_arr));
         stmt.setBoolean(8, min_result);
         stmt.setBoolean(9, err_only);
-        final ResultSet rs = stmt.executeQuery();
+        final ResultSet rs = executeQuery(stmt);
         final PsqlCursor<FEATURE, CODEC> cursor =
             new PsqlCursor<>(writeRequest.getCodecFactory(), this, stmt, rs);
         try (final PreparedStatement err_stmt = prepareStatement("SELECT naksha_err_no(), naksha_err_msg();")) {
-          final ResultSet err_rs = err_stmt.executeQuery();
+          final ResultSet err_rs = executeQuery(err_stmt);
           err_rs.next();
           final String errNo = err_rs.getString(1);
           final String errMsg = err_rs.getString(2);
@@ -698,6 +1024,105 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     return new ErrorResult(XyzError.NOT_IMPLEMENTED, "The supplied write-request is not yet implemented");
   }
 
+  /**
+   * Writes the features by streaming them in the binary {@code COPY} format into a staging table, and then merging them with a single
+   * statement, which consumes the staging table and invokes {@code nk_write_features} once. This avoids that the features need to be
+   * encoded and parsed as text arrays, the result is the same as for the normal write. The staging table is a temporary table, created
+   * once per connection, see {@link PostgresSessionState#bulkTable}.
+   */
+  @NotNull
+  private <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> Result executeBulkWrite(
+      @NotNull WriteRequest<FEATURE, CODEC, ?> writeRequest, @NotNull String collection_id, boolean min_result) {
+    final long startTime = System.currentTimeMillis();
+    final int SIZE = writeRequest.features.size();
+    String status = "OK";
+    PreparedStatement stmt = null;
+    try {
+      // new array list, so we don't modify original order
+      final List<@NotNull CODEC> features = new ArrayList<>(writeRequest.features);
+      features.forEach(codec -> codec.decodeParts(false));
+      final Map<String, Integer> originalFeaturesOrder = IndexHelper.createKeyIndexMap(features, CODEC::getId);
+      // sort to avoid deadlock
+      features.sort(comparing(FeatureCodec::getId));
+
+      psqlConnection.postgresConnection.targetState().bulkTable = true;
+      applySessionDelta();
+      final CopyIn copyIn = psqlConnection
+          .postgresConnection
+          .get()
+          .getCopyAPI()
+          .copyIn("COPY " + BULK_TABLE + " (i, op, id, uuid, feature, geo) FROM STDIN (FORMAT binary)");
+      try {
+        final PGCopyOutputStream out = new PGCopyOutputStream(copyIn, 65536);
+        final PostgresBinaryCopyWriter writer = new PostgresBinaryCopyWriter(out);
+        for (int i = 0; i < SIZE; i++) {
+          final CODEC codec = features.get(i);
+          writer.startRow(6);
+          writer.writeInt(i + 1);
+          writer.writeText(codec.getOp());
+          writer.writeText(codec.getId());
+          writer.writeText(codec.getUuid());
+          writer.writeJsonb(codec.getJson());
+          writer.writeBytes(codec.getWkb());
+        }
+        writer.finish();
+        out.endCopy();
+      } finally {
+        // If encoding failed, abort the copy, so that no partial data is committed.
+        if (copyIn.isActive()) {
+          copyIn.cancelCopy();
+        }
+      }
+
+      // nk_write_features is executed completely before the first row is returned, therefore every row carries
+      // the final error.
+      stmt = prepareStatement(
+          "WITH staged AS (DELETE FROM " + BULK_TABLE + " RETURNING i, op, id, uuid, feature, geo),\n"
+              + "arrays AS (SELECT array_agg(op ORDER BY i) AS ops, array_agg(id ORDER BY i) AS ids,"
+              + " array_agg(uuid ORDER BY i) AS uuids, array_agg(feature ORDER BY i) AS features,"
+              + " array_agg(geo::geometry ORDER BY i) AS geos FROM staged)\n"
+              + "SELECT w.r_op, w.r_id, w.r_uuid, w.r_type, w.r_ptype, w.r_feature, ST_AsEWKB(w.r_geometry), w.r_err,"
+              + " naksha_err_no(), naksha_err_msg()\n"
+              + "FROM arrays, nk_write_features(?,?,arrays.ops,arrays.ids,arrays.uuids,arrays.features,arrays.geos,?,?) AS w;");
+      stmt.setString(1, collection_id);
+      stmt.setInt(2, -1);
+      stmt.setBoolean(3, min_result);
+      stmt.setBoolean(4, false);
+      final ResultSet rs = executeQuery(stmt);
+      final boolean onRow = rs.next();
+      final PsqlCursor<FEATURE, CODEC> cursor =
+          new PsqlCursor<>(writeRequest.getCodecFactory(), this, stmt, rs, onRow);
+      final String errNo = onRow ? rs.getString(9) : null;
+      if (errNo != null) {
+        status = "NOK";
+        return new PsqlError(XyzErrorMapper.psqlCodeToXyzError(errNo), rs.getString(10), cursor);
+      }
+      return new PsqlSuccess(cursor, originalFeaturesOrder);
+    } catch (Throwable e) {
+      status = "NOK";
+      if (stmt != null) {
+        try {
+          stmt.close();
+        } catch (Throwable ce) {
+          log.info("Failed to close statement", ce);
+        }
+      }
+      throw unchecked(e);
+    } finally {
+      log.info(
+          "[Storage Request stats => type,storageId,host,method,ftype,fCnt,collectionId,status,timeTakenMs] - StorageReqStats {} {} {} {} {} {} {} {} {}",
+          "PsqlStorage",
+          parent().storageId,
+          psqlConnection.postgresConnection.parent().config.host,
+          "BULK",
+          "Feature",
+          SIZE,
+          collection_id,
+          status,
+          System.currentTimeMillis() - startTime);
+    }
+  }
+
   @NotNull
   IStorageLock lockFeature(
       @NotNull String collectionId, @NotNull String featureId, long timeout, @NotNull TimeUnit timeUnit)
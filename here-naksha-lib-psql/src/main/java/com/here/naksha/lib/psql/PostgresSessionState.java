@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The session state (the {@code SET SESSION} settings, the {@code naksha_start_session} identity and the temporary tables) of a
+ * PostgresQL connection. The
+ * pool keeps the state that was committed for every physical connection, so that a new session only needs to send the settings that
+ * differ, see {@link #addDelta(SQL, PostgresSessionState, boolean)}.
+ */
+final class PostgresSessionState {
+
+  /**
+   * The name of the temporary staging table for bulk writes, emptied at the end of every transaction.
+   */
+  static final String BULK_TABLE = "naksha_bulk_write";
+
+  PostgresSessionState() {
+    statementTimeoutMillis = -1;
+    lockTimeoutMillis = -1;
+  }
+
+  PostgresSessionState(@NotNull PostgresSessionState other) {
+    set(other);
+  }
+
+  /**
+   * The schema to be set as first element of the {@code search_path}.
+   */
+  @Nullable
+  String schema;
+
+  /**
+   * The {@code application_name}.
+   */
+  @Nullable
+  String appName;
+
+  /**
+   * The application-identifier passed to {@code naksha_start_session}; {@code null} if the session is not started.
+   */
+  @Nullable
+  String appId;
+
+  /**
+   * The author passed to {@code naksha_start_session}.
+   */
+  @Nullable
+  String author;
+
+  /**
+   * The stream-identifier passed to {@code naksha_start_session}.
+   */
+  @Nullable
+  String streamId;
+
+  /**
+   * The {@code statement_timeout} in milliseconds; a negative value if unknown.
+   */
+  long statementTimeoutMillis;
+
+  /**
+   * The {@code lock_timeout} in milliseconds; a negative value if unknown.
+   */
+  long lockTimeoutMillis;
+
+  /**
+   * If the {@link #BULK_TABLE bulk write staging table} exists.
+   */
+  boolean bulkTable;
+
+  /**
+   * Copies the given state into this one.
+   *
+   * @param other The state to copy.
+   * @return this.
+   */
+  @NotNull
+  PostgresSessionState set(@NotNull PostgresSessionState other) {
+    schema = other.schema;
+    appName = other.appName;
+    appId = other.appId;
+    author = other.author;
+    streamId = other.streamId;
+    statementTimeoutMillis = other.statementTimeoutMillis;
+    lockTimeoutMillis = other.lockTimeoutMillis;
+    bulkTable = other.bulkTable;
+    return this;
+  }
+
+  /**
+   * Merges the known settings of the given target state into this state, which reflects what the session looks like after the
+   * {@link #addDelta(SQL, PostgresSessionState, boolean) delta} was applied.
+   *
+   * @param target       The target state.
+   * @param withStreamId If the stream-identifier of the target was applied.
+   * @return this.
+   */
+  @NotNull
+  PostgresSessionState merge(@NotNull PostgresSessionState target, boolean withStreamId) {
+    if (target.schema != null) {
+      schema = target.schema;
+    }
+    if (target.appName != null) {
+      appName = target.appName;
+    }
+    if (target.appId != null && target.appName != null) {
+      appId = target.appId;
+      author = target.author;
+    }
+    if (withStreamId && target.appId != null && target.appName != null) {
+      streamId = target.streamId;
+    }
+    if (target.statementTimeoutMillis >= 0) {
+      statementTimeoutMillis = target.statementTimeoutMillis;
+    }
+    if (target.lockTimeoutMillis >= 0) {
+      lockTimeoutMillis = target.lockTimeoutMillis;
+    }
+    if (target.bulkTable) {
+      bulkTable = true;
+    }
+    return this;
+  }
+
+  /**
+   * Forget the state, so that the next {@link #addDelta(SQL, PostgresSessionState, boolean)} sends all settings again.
+   */
+  void clear() {
+    set(new PostgresSessionState());
+  }
+
+  /**
+   * Adds the statements to the given SQL builder, that are needed to change the session from this state into the given target state.
+   *
+   * <p><b>Note</b>: The {@code naksha_start_session} method as well sets the {@code application_name}, but other than that only the
+   * settings that differ are sent. Unknown target settings ({@code null} or negative) are not sent. The stream-identifier changes with
+   * every request, but it is only used when writing, therefore it does not cause a new {@code naksha_start_session}. If requested, a
+   * changed stream-identifier is set alone.
+   *
+   * @param sql          The SQL builder to which to add the statements.
+   * @param target       The state into which to change the session.
+   * @param withStreamId If the stream-identifier of the target should be applied; {@code false} for read-only transactions.
+   * @return {@code true} if any statement was added; {@code false} if the session is already in the target state.
+   */
+  boolean addDelta(@NotNull SQL sql, @NotNull PostgresSessionState target, boolean withStreamId) {
+    final int length = sql.length();
+    if (target.schema != null && !target.schema.equals(schema)) {
+      sql.add("SET SESSION search_path TO ").addLiteral(target.schema).add(",topology,public;\n");
+    }
+    final boolean hasIdentity = target.appId != null && target.appName != null;
+    final boolean startSession = hasIdentity
+        && (!target.appId.equals(appId)
+            || !Objects.equals(target.author, author)
+            || !Objects.equals(target.appName, appName));
+    if (target.appName != null && !startSession && !target.appName.equals(appName)) {
+      sql.add("SET SESSION application_name TO ")
+          .addLiteral(target.appName)
+          .add(";\n");
+    }
+    final String targetStreamId = withStreamId ? target.streamId : streamId;
+    if (startSession) {
+      sql.add("SELECT naksha_start_session(");
+      sql.addLiteral(target.appName);
+      sql.add(',');
+      sql.addLiteral(target.appId);
+      sql.add(',');
+      if (target.author != null) {
+        sql.addLiteral(target.author);
+      } else {
+        sql.add("null");
+      }
+      sql.add(',');
+      if (targetStreamId != null) {
+        sql.addLiteral(targetStreamId);
+      } else {
+        sql.add("null");
+      }
+      sql.add(");\n");
+    } else if (hasIdentity && withStreamId && !Objects.equals(target.streamId, streamId)) {
+      sql.add("SELECT set_config('naksha.stream_id',");
+      if (target.streamId != null) {
+        sql.addLiteral(target.streamId);
+      } else {
+        sql.add("''");
+      }
+      sql.add(",false);\n");
+    }
+    if (target.statementTimeoutMillis >= 0 && target.statementTimeoutMillis != statementTimeoutMillis) {
+      sql.add("SET SESSION statement_timeout TO ")
+          .add(target.statementTimeoutMillis)
+          .add(";\n");
+    }
+    if (target.lockTimeoutMillis >= 0 && target.lockTimeoutMillis != lockTimeoutMillis) {
+      sql.add("SET SESSION lock_timeout TO ")
+          .add(target.lockTimeoutMillis)
+          .add(";\n");
+    }
+    if (target.bulkTable && !bulkTable) {
+      sql.add("CREATE TEMP TABLE IF NOT EXISTS ")
+          .add(BULK_TABLE)
+          .add(" (i int, op text, id text, uuid text, feature jsonb, geo bytea) ON COMMIT DELETE ROWS;\n");
+    }
+    return sql.length() > length;
+  }
+}
@@ -36,6 +36,8 @@ import com.here.naksha.lib.core.exceptions.StorageNotInitialized;
 import com.here.naksha.lib.core.exceptions.Unauthorized;
 import com.here.naksha.lib.core.util.ClosableRootResource;
 import com.here.naksha.lib.core.util.IoHelp;
+import com.here.naksha.lib.core.util.PhaseTimer;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -257,11 +259,33 @@ final class PostgresStorage extends ClosableRootResource {
    */
   private final long cancelSignalTimeout = TimeUnit.SECONDS.toMillis(15);
 
+  /**
+   * The maintainer of the property indices of the collections.
+   */
+  private final @NotNull PostgresIndexMaintainer indexMaintainer = new PostgresIndexMaintainer(this);
+
+  @NotNull
+  PostgresIndexMaintainer indexMaintainer() {
+    return indexMaintainer;
+  }
+
+  /**
+   * The listener for changes committed to this storage.
+   */
+  private final @NotNull PostgresTxListener txListener = new PostgresTxListener(this);
+
+  PostgresTxListener txListener() {
+    return txListener;
+  }
+
   @Override
-  protected void destruct() {}
+  protected void destruct() {
+    indexMaintainer.stop();
+    txListener.stop();
+  }
 
   /**
-   * The default initializer for connections.
+   * The default initializer for connections, applies the settings immediately and commits them.
    *
    * @param conn    The connection.
    * @param context If a context is given, it must have a valid application-identifier and causes {@code naksha_start_session} to be
@@ -276,13 +300,15 @@ final class PostgresStorage extends ClosableRootResource {
     try {
       final PgConnection pgConnection = conn.get();
       pgConnection.setAutoCommit(false);
-      try (final Statement stmt = pgConnection.createStatement()) {
-        final SQL sql = new SQL();
-        initSession(sql, context);
-        final String query = sql.toString();
-        log.debug("{} - Init connection: {}", appName, query);
-        stmt.execute(query);
-        pgConnection.commit();
+      conn.setTargetState(initSession(context));
+      final String query = conn.takeSessionDelta(true);
+      if (query != null) {
+        try (final Statement stmt = pgConnection.createStatement()) {
+          log.debug("{} - Init connection: {}", appName, query);
+          stmt.execute(query);
+          pgConnection.commit();
+          conn.committed();
+        }
       }
     } catch (Exception e) {
       throw unchecked(e);
@@ -290,43 +316,34 @@ final class PostgresStorage extends ClosableRootResource {
   }
 
   /**
-   * Generates the initialization query.
+   * Generates the session state that the connection should have.
    *
    * <p><b>Note</b>: If SET (or equivalently SET SESSION) is issued within a transaction that is later aborted, the effects of the SET
    * command disappear when the transaction is rolled back. Once the surrounding transaction is committed, the effects will persist until
    * the end of the session, unless overridden by another SET, see the
-   * <a href="https://www.postgresql.org/docs/current/sql-set.html">PostgresQL documentation</a>. Therefore, the query that is created in
-   * this method is committed, because we do not know how many transactions are done with the connection, and we want all of them to use the
-   * same settings.
+   * <a href="https://www.postgresql.org/docs/current/sql-set.html">PostgresQL documentation</a>. Therefore, the connection tracks the
+   * state that was committed, and only sends the settings that differ, see {@link PostgresConnection#takeSessionDelta(boolean)}.
    *
-   * @param sql     The SQL builder in which to create the query.
    * @param context If a context is given, it must have a valid application-identifier and causes {@code naksha_start_session} to be
    *                invoked.
+   * @return the session state.
    * @throws Unauthorized If a context without application-identifier given.
    */
-  void initSession(@NotNull SQL sql, @Nullable NakshaContext context) {
-    sql.add("SET SESSION search_path TO ").addLiteral(schema).add(",topology,public;\n");
-    sql.add("SET SESSION application_name TO ").addLiteral(appName).add(";\n");
+  @NotNull
+  PostgresSessionState initSession(@Nullable NakshaContext context) {
+    final PostgresSessionState state = new PostgresSessionState();
+    state.schema = schema;
+    state.appName = appName;
     if (context != null) {
-      sql.add("SELECT naksha_start_session(");
-      sql.addLiteral(appName);
-      sql.add(',');
-      sql.addLiteral(context.getAppId());
-      sql.add(',');
-      final String author = context.getAuthor();
-      if (author != null) {
-        sql.addLiteral(author);
-      } else {
-        sql.add("null");
-      }
-      sql.add(',');
-      sql.addLiteral(context.getStreamId());
-      sql.add(");\n");
+      state.appId = context.getAppId();
+      state.author = context.getAuthor();
+      state.streamId = context.getStreamId();
     }
     // TODO : can be changed to debug later, when timeout issues have settled (and logs are too noisy)
     log.info("Init session using stmtTimeout={}ms, lockTimeout={}ms", stmtTimeout, lockTimeout);
-    sql.add("SET SESSION statement_timeout TO ").add(stmtTimeout).add(";\n");
-    sql.add("SET SESSION lock_timeout TO ").add(lockTimeout).add(";\n");
+    state.statementTimeoutMillis = stmtTimeout;
+    state.lockTimeoutMillis = lockTimeout;
+    return state;
   }
 
   @NotNull
@@ -353,6 +370,31 @@ final class PostgresStorage extends ClosableRootResource {
     return psqlConnection;
   }
 
+  /**
+   * Returns a connection for a session. Other than {@link #getConnection(boolean, boolean, boolean, NakshaContext)} with
+   * {@code init=true}, the session state is not applied immediately, the session sends the delta in front of its first statement.
+   *
+   * @param useMaster If the master should be used.
+   * @param readOnly  If the connection should be read-only.
+   * @param context   The context for {@code naksha_start_session}.
+   * @return the connection.
+   * @throws SQLException If acquiring the connection failed.
+   */
+  @NotNull
+  PsqlConnection getSessionConnection(boolean useMaster, boolean readOnly, @NotNull NakshaContext context)
+      throws SQLException {
+    try (final PhaseTimer acquireTimer = context.startPhase(Phase.CONNECTION_ACQUIRE)) {
+      final PsqlConnection psqlConnection = getConnection(useMaster, readOnly, false, context);
+      try {
+        psqlConnection.postgresConnection.setTargetState(initSession(context));
+      } catch (Throwable t) {
+        psqlConnection.close();
+        throw t;
+      }
+      return psqlConnection;
+    }
+  }
+
   @SuppressWarnings("SqlSourceToSinkFlow")
   synchronized void initStorage(@NotNull PsqlStorage.Params params, @NotNull IoHelp ioHelp) {
     assertNotClosed();
@@ -473,7 +515,7 @@ final class PostgresStorage extends ClosableRootResource {
       context = NakshaContext.currentContext();
     }
     try {
-      return new PsqlWriteSession(this, context, getConnection(true, false, true, context));
+      return new PsqlWriteSession(this, context, getSessionConnection(true, false, context));
     } catch (Exception e) {
       throw wrapException(e);
     }
@@ -485,7 +527,7 @@ final class PostgresStorage extends ClosableRootResource {
       context = NakshaContext.currentContext();
     }
     try {
-      return new PsqlReadSession(this, context, getConnection(useMaster, true, true, context));
+      return new PsqlReadSession(this, context, getSessionConnection(useMaster, true, context));
     } catch (Exception e) {
       throw wrapException(e);
     }
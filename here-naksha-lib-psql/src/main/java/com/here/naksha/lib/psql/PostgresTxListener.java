@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import com.here.naksha.lib.core.lambdas.Pe1;
+import com.here.naksha.lib.core.models.TxSignalSet;
+import com.here.naksha.lib.core.models.features.TxModifyCollection;
+import com.here.naksha.lib.core.models.features.TxModifyFeatures;
+import com.here.naksha.lib.core.models.features.TxSignal;
+import com.here.naksha.lib.core.models.geojson.implementation.EXyzAction;
+import com.here.naksha.lib.core.util.json.Json;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.postgresql.PGNotification;
+import org.postgresql.jdbc.PgConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tails the changes committed to a storage, by any node, and delivers them to the listeners added via
+ * {@link PsqlStorage#addListener(Pe1)}. Collections that {@link com.here.naksha.lib.core.models.naksha.XyzCollection#isNotifyChanges()
+ * enable notifications} send {@link PsqlNotification notifications} with the ids of the updated or deleted features, batched per
+ * statement, and one without ids when they are dropped; Postgres delivers them when the transaction is committed. The notifications are received on a dedicated connection to the master, and
+ * converted into one {@link TxSignalSet} per transaction, with a {@link TxModifyCollection} per collection, or a {@link TxModifyFeatures}
+ * listing the modified features, if the notification names features.
+ *
+ * <p>Notifications are not persisted: when the connection is lost, the changes committed until the listener is connected again are
+ * missed. Therefore, after every reconnect, an empty {@link TxSignalSet} is delivered, which tells the listeners that everything has to
+ * be considered modified.
+ */
+final class PostgresTxListener implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(PostgresTxListener.class);
+
+  /**
+   * The maximal time to wait for notifications, before checking if the listener was stopped.
+   */
+  private static final int POLL_MILLIS = 1000;
+
+  /**
+   * The time to wait, before connecting again after a failure.
+   */
+  private static final long RECONNECT_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+  PostgresTxListener(@NotNull PostgresStorage storage) {
+    this.storage = storage;
+  }
+
+  private final @NotNull PostgresStorage storage;
+  private final @NotNull CopyOnWriteArrayList<@NotNull Pe1<@NotNull TxSignalSet>> listeners =
+      new CopyOnWriteArrayList<>();
+  private @Nullable Thread thread;
+
+  /**
+   * Adds the given listener, starts listening, if this is the first one.
+   *
+   * @param listener The listener to add.
+   */
+  synchronized void add(@NotNull Pe1<@NotNull TxSignalSet> listener) {
+    listeners.add(listener);
+    if (thread == null) {
+      thread = new Thread(this, "PsqlTxListener-" + storage.storageId);
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  /**
+   * Removes the given listener, stops listening, if this was the last one.
+   *
+   * @param listener The listener to remove.
+   * @return {@code true} if the listener was removed; {@code false} otherwise.
+   */
+  synchronized boolean remove(@NotNull Pe1<@NotNull TxSignalSet> listener) {
+    final boolean removed = listeners.remove(listener);
+    if (listeners.isEmpty()) {
+      stop();
+    }
+    return removed;
+  }
+
+  /**
+   * Stops listening.
+   */
+  synchronized void stop() {
+    if (thread != null) {
+      thread.interrupt();
+      thread = null;
+    }
+  }
+
+  private synchronized boolean isRunning() {
+    return thread == Thread.currentThread();
+  }
+
+  @Override
+  public void run() {
+    boolean connected = false;
+    while (isRunning()) {
+      try (final PsqlConnection conn = storage.getConnection(true, false, false, null)) {
+        conn.setAutoCommit(true);
+        try (final Statement stmt = conn.createStatement()) {
+          stmt.execute("LISTEN " + SQL.quote_ident(PsqlNotification.CHANNEL));
+        }
+        if (connected) {
+          log.atInfo()
+              .setMessage("Reconnected to storage {}, notifications may have been missed")
+              .addArgument(storage.storageId)
+              .log();
+          dispatch(new TxSignalSet());
+        }
+        connected = true;
+        final PgConnection pgConnection = conn.postgresConnection.get();
+        try {
+          while (isRunning()) {
+            final PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+            if (notifications != null && notifications.length > 0) {
+              for (final TxSignalSet signals : toSignals(notifications)) {
+                dispatch(signals);
+              }
+            }
+          }
+        } finally {
+          try (final Statement stmt = conn.createStatement()) {
+            stmt.execute("UNLISTEN *");
+          }
+          pgConnection.getNotifications();
+          conn.setAutoCommit(false);
+        }
+      } catch (Throwable t) {
+        if (!isRunning()) {
+          break;
+        }
+        log.atWarn()
+            .setMessage("Failed to receive notifications of storage {}, reconnecting")
+            .addArgument(storage.storageId)
+            .setCause(t)
+            .log();
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+          break;
+        }
+      }
+    }
+  }
+
+  private void dispatch(@NotNull TxSignalSet signals) {
+    for (final Pe1<@NotNull TxSignalSet> listener : listeners) {
+      try {
+        listener.call(signals);
+      } catch (Throwable t) {
+        log.atWarn()
+            .setMessage("Transaction listener of storage {} failed")
+            .addArgument(storage.storageId)
+            .setCause(t)
+            .log();
+      }
+    }
+  }
+
+  /**
+   * Converts the given notifications into transaction signal sets, notifications of other storages that share the database are
+   * ignored.
+   *
+   * @param notifications The notifications received, in the order of the commits.
+   * @return the transaction signal sets, one per transaction.
+   * @throws SQLException If parsing a notification failed.
+   */
+  @NotNull
+  List<@NotNull TxSignalSet> toSignals(@NotNull PGNotification @NotNull [] notifications) throws SQLException {
+    final Map<String, Map<String, TxSignal>> byTxn = new LinkedHashMap<>();
+    try (final Json jp = Json.get()) {
+      for (final PGNotification notification : notifications) {
+        if (!PsqlNotification.CHANNEL.equals(notification.getName())) {
+          continue;
+        }
+        final PsqlNotification n;
+        try {
+          n = jp.reader().forType(PsqlNotification.class).readValue(notification.getParameter());
+        } catch (Exception e) {
+          throw new SQLException("Invalid notification: " + notification.getParameter(), e);
+        }
+        if (!storage.getSchema().equals(n.schema) || n.collection == null || n.txn == null) {
+          continue;
+        }
+        final Map<String, TxSignal> signals = byTxn.computeIfAbsent(n.txn, k -> new LinkedHashMap<>());
+        if (n.id == null && (n.ids == null || n.ids.isEmpty())) {
+          final TxModifyCollection signal = new TxModifyCollection(
+              "col:" + n.collection, storage.storageId, n.collection, n.txn, EXyzAction.DELETE);
+          signal.ts = n.ts;
+          signals.put(signal.getId(), signal);
+          continue;
+        }
+        TxSignal signal = signals.get(n.collection);
+        if (signal == null) {
+          final TxModifyFeatures modifyFeatures =
+              new TxModifyFeatures(n.collection, storage.storageId, n.collection, n.txn);
+          modifyFeatures.featureIds = new ArrayList<>();
+          modifyFeatures.ts = n.ts;
+          signals.put(n.collection, modifyFeatures);
+          signal = modifyFeatures;
+        }
+        final TxModifyFeatures modifyFeatures = (TxModifyFeatures) signal;
+        assert modifyFeatures.featureIds != null;
+        if (n.id != null) {
+          modifyFeatures.featureIds.add(n.id);
+        }
+        if (n.ids != null) {
+          modifyFeatures.featureIds.addAll(n.ids);
+        }
+        modifyFeatures.ts = Math.min(modifyFeatures.ts, n.ts);
+      }
+    }
+    final List<TxSignalSet> sets = new ArrayList<>(byTxn.size());
+    for (final Map<String, TxSignal> signals : byTxn.values()) {
+      final TxSignalSet set = new TxSignalSet();
+      for (final TxSignal signal : signals.values()) {
+        set.put(signal);
+      }
+      sets.add(set);
+    }
+    return sets;
+  }
+}
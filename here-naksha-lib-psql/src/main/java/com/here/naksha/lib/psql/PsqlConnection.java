@@ -48,35 +48,6 @@ import org.postgresql.jdbc.PgConnection;
  */
 public class PsqlConnection implements Connection {
 
-  /**
-   * Creates a new PSQL connection proxy and acquire a new PG connection.
-   *
-   * @param postgresInstance            The Postgres instance.
-   * @param connTimeoutInMillis         The connection timeout in milliseconds
-   * @param sockedReadTimeoutInMillis   The socket-read timeout in milliseconds
-   * @param cancelSignalTimeoutInMillis The
-   * @param receiveBufferSize           The receive-buffer size in byte.
-   * @param sendBufferSize              The send-buffer size in byte.
-   * @throws SQLException If establishing the connection failed.
-   */
-  PsqlConnection(
-      @NotNull PostgresInstance postgresInstance,
-      long connTimeoutInMillis,
-      long sockedReadTimeoutInMillis,
-      long cancelSignalTimeoutInMillis,
-      long receiveBufferSize,
-      long sendBufferSize)
-      throws SQLException {
-    this.postgresConnection = new PostgresConnection(
-        this,
-        postgresInstance,
-        connTimeoutInMillis,
-        sockedReadTimeoutInMillis,
-        cancelSignalTimeoutInMillis,
-        receiveBufferSize,
-        sendBufferSize);
-  }
-
   /**
    * Creates a new PSQL connection proxy for an existing PG connection.
    *
@@ -128,11 +99,13 @@ public class PsqlConnection implements Connection {
   @Override
   public void commit() throws SQLException {
     postgresConnection.get().commit();
+    postgresConnection.committed();
   }
 
   @Override
   public void rollback() throws SQLException {
     postgresConnection.get().rollback();
+    postgresConnection.rolledBack();
   }
 
   @Override
@@ -245,6 +218,8 @@ public class PsqlConnection implements Connection {
   @Override
   public void rollback(@NotNull Savepoint savepoint) throws SQLException {
     postgresConnection.get().rollback(savepoint);
+    // We do not know, if session settings were applied after the savepoint, so apply them again, when needed.
+    postgresConnection.rolledBack();
   }
 
   @Override
@@ -25,12 +25,16 @@ import com.here.naksha.lib.core.models.storage.CodecError;
 import com.here.naksha.lib.core.models.storage.FeatureCodec;
 import com.here.naksha.lib.core.models.storage.FeatureCodecFactory;
 import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.util.PhaseTimer;
+import com.here.naksha.lib.core.util.StreamInfo;
+import com.here.naksha.lib.core.util.StreamInfo.Phase;
 import com.here.naksha.lib.core.util.json.Json;
 import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,17 +53,73 @@ public class PsqlCursor<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> ext
       @NotNull PostgresSession session,
       @NotNull Statement stmt,
       @NotNull ResultSet rs) {
+    this(codecFactory, session, stmt, rs, false);
+  }
+
+  /**
+   * Creates a cursor above a result-set that may already be positioned on its first row, which the caller inspected.
+   *
+   * @param onRow {@code true} if the result-set is positioned on the first row, which is then returned as first row.
+   */
+  PsqlCursor(
+      @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory,
+      @NotNull PostgresSession session,
+      @NotNull Statement stmt,
+      @NotNull ResultSet rs,
+      boolean onRow) {
     super(codecFactory);
     cursor = new PostgresCursor(this, session, stmt, rs);
+    streamInfo = session != null ? session.context.getStreamInfo() : null;
+    this.onRow = onRow;
+    this.fetchSize = fetchSize(rs);
+  }
+
+  private static int fetchSize(@NotNull ResultSet rs) {
+    try {
+      return rs.getFetchSize();
+    } catch (SQLException e) {
+      throw unchecked(e);
+    }
   }
 
   private final @NotNull PostgresCursor cursor;
 
+  /**
+   * If the result-set is positioned on a row that was not yet loaded.
+   */
+  private boolean onRow;
+
+  private final @Nullable StreamInfo streamInfo;
+
+  /**
+   * The amount of rows the result-set fetches from the database at once, zero if all rows were received with the result-set.
+   */
+  private final int fetchSize;
+
+  /**
+   * The amount of rows read so far.
+   */
+  private long rows;
+
   @Override
   protected boolean loadNextRow(@NotNull Row row) {
     final ResultSet rs = cursor.rs;
     try {
-      if (rs.next()) {
+      final boolean hasRow;
+      if (onRow) {
+        onRow = false;
+        hasRow = true;
+      } else if (fetchSize > 0 && rows > 0 && rows % fetchSize == 0) {
+        // Only the first row of a batch fetches from the database, so the fetch time is measured per batch and
+        // not per row.
+        try (final PhaseTimer fetchTimer = StreamInfo.startPhase(streamInfo, Phase.ROW_FETCH)) {
+          hasRow = rs.next();
+        }
+      } else {
+        hasRow = rs.next();
+      }
+      if (hasRow) {
+        rows++;
         final String r_op = rs.getString(1);
         final String r_id = rs.getString(2);
         final String r_uuid = rs.getString(3);
@@ -90,7 +150,11 @@ public class PsqlCursor<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> ext
 
   @Override
   public void close() {
-    cursor.close();
+    try {
+      cursor.close();
+    } finally {
+      runOnClose();
+    }
   }
 
   private CodecError mapToCodecError(String r_err) {
@@ -142,4 +142,63 @@ public final class PsqlInstance {
     postgresInstance.setMaxBandwidthInGbit(maxBandwidthInGbit);
     return this;
   }
+
+  /**
+   * Returns the maximum amount of connections (idle and in use) that are opened to the PostgresQL server instance.
+   *
+   * @return The maximum amount of connections.
+   */
+  public int getMaxPoolSize() {
+    return postgresInstance.connectionPool.getMaxSize();
+  }
+
+  /**
+   * Sets the maximum amount of connections (idle and in use) that are opened to the PostgresQL server instance. When all connections are
+   * in use, callers need to wait until a connection is released.
+   *
+   * @param maxPoolSize The maximum amount of connections, must be greater than zero.
+   */
+  public void setMaxPoolSize(int maxPoolSize) {
+    postgresInstance.connectionPool.setMaxSize(maxPoolSize);
+  }
+
+  /**
+   * Sets the maximum amount of connections (idle and in use) that are opened to the PostgresQL server instance.
+   *
+   * @param maxPoolSize The maximum amount of connections, must be greater than zero.
+   * @return this.
+   */
+  public @NotNull PsqlInstance withMaxPoolSize(int maxPoolSize) {
+    setMaxPoolSize(maxPoolSize);
+    return this;
+  }
+
+  /**
+   * Returns the minimum amount of idle connections, that are kept open to the PostgresQL server instance.
+   *
+   * @return The minimum amount of idle connections.
+   */
+  public int getMinIdle() {
+    return postgresInstance.connectionPool.getMinIdle();
+  }
+
+  /**
+   * Sets the minimum amount of idle connections, that are kept open to the PostgresQL server instance, after it was used the first time.
+   *
+   * @param minIdle The minimum amount of idle connections.
+   */
+  public void setMinIdle(int minIdle) {
+    postgresInstance.connectionPool.setMinIdle(minIdle);
+  }
+
+  /**
+   * Sets the minimum amount of idle connections, that are kept open to the PostgresQL server instance, after it was used the first time.
+   *
+   * @param minIdle The minimum amount of idle connections.
+   * @return this.
+   */
+  public @NotNull PsqlInstance withMinIdle(int minIdle) {
+    setMinIdle(minIdle);
+    return this;
+  }
 }
@@ -20,6 +20,7 @@ package com.here.naksha.lib.psql;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
 
 /** The database code will send notifications in this format. */
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -27,6 +28,11 @@ public class PsqlNotification {
 
   public static final String TXN = "txn";
   public static final String TXI = "txi";
+  public static final String SCHEMA = "schema";
+  public static final String COLLECTION = "collection";
+  public static final String ID = "id";
+  public static final String IDS = "ids";
+  public static final String TS = "ts";
 
   /** The channel on which notifications are send. */
   public static final String CHANNEL = "naksha:notifications";
@@ -38,4 +44,25 @@ public class PsqlNotification {
   /** Unique transaction identifier. */
   @JsonProperty(TXI)
   public String txi;
+
+  /** The schema of the storage in which the change happened. */
+  @JsonProperty(SCHEMA)
+  public String schema;
+
+  /** The collection in which features were changed. */
+  @JsonProperty(COLLECTION)
+  public String collection;
+
+  /** The identifier of the changed feature; {@code null}, if all features of the collection were changed and
+   * {@link #ids} is {@code null}. */
+  @JsonProperty(ID)
+  public String id;
+
+  /** The identifiers of the changed features, the database batches them per statement; {@code null}, if {@link #id} is used. */
+  @JsonProperty(IDS)
+  public List<String> ids;
+
+  /** The epoch milliseconds when the statement that caused the change started. */
+  @JsonProperty(TS)
+  public long ts;
 }
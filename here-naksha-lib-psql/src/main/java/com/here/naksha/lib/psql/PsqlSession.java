@@ -55,6 +55,13 @@ abstract class PsqlSession implements IReadSession, AutoCloseable {
     session.close();
   }
 
+  @Override
+  public void cancel() {
+    if (!session.isClosed()) {
+      session.cancel();
+    }
+  }
+
   @Override
   public int getFetchSize() {
     return session().getFetchSize();
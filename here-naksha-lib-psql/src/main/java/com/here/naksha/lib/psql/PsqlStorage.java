@@ -18,6 +18,7 @@
  */
 package com.here.naksha.lib.psql;
 
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -29,8 +30,13 @@ import com.fasterxml.jackson.annotation.JsonSetter;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.NakshaVersion;
 import com.here.naksha.lib.core.lambdas.Fe1;
+import com.here.naksha.lib.core.lambdas.Pe1;
+import com.here.naksha.lib.core.models.TxSignalSet;
+import com.here.naksha.lib.core.models.features.TxModifyCollection;
+import com.here.naksha.lib.core.models.features.TxModifyFeatures;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzProperties;
 import com.here.naksha.lib.core.models.naksha.Storage;
+import com.here.naksha.lib.core.models.naksha.XyzCollection;
 import com.here.naksha.lib.core.storage.IStorage;
 import com.here.naksha.lib.core.util.IoHelp;
 import com.here.naksha.lib.core.util.json.Json;
@@ -444,14 +450,51 @@ public final class PsqlStorage implements IStorage, DataSource {
     return storage().storageId;
   }
 
+  /**
+   * The interval in which the maintainer verifies the property indices of all collections.
+   */
+  private static final long MAINTAINER_INTERVAL_MINUTES = 15;
+
   @Override
-  public void startMaintainer() {}
+  public void startMaintainer() {
+    storage().indexMaintainer().start(MAINTAINER_INTERVAL_MINUTES, TimeUnit.MINUTES);
+  }
 
+  /**
+   * Creates and drops the property indices of all collections, as declared in {@link XyzCollection#getIndices()}.
+   */
   @Override
-  public void maintainNow() {}
+  public void maintainNow() {
+    try {
+      storage().indexMaintainer().maintain(null);
+    } catch (SQLException e) {
+      throw unchecked(e);
+    }
+  }
 
   @Override
-  public void stopMaintainer() {}
+  public void stopMaintainer() {
+    storage().indexMaintainer().stop();
+  }
+
+  /**
+   * Adds a listener that is called for every transaction committed to this storage, including the ones of other nodes. The signal
+   * set holds a {@link TxModifyFeatures} with the identifiers of the updated and deleted features per collection, and a
+   * {@link TxModifyCollection} per dropped collection. When the connection used to receive the changes is lost, changes can be
+   * missed, therefore an empty signal set is delivered after every reconnect, which means that everything must be considered
+   * modified. The listener is called from a single background thread, in the order of the commits.
+   *
+   * @param listener The change listener to invoke, receiving the transaction set.
+   */
+  @Override
+  public void addListener(@NotNull Pe1<@NotNull TxSignalSet> listener) {
+    storage().txListener().add(listener);
+  }
+
+  @Override
+  public boolean removeListener(@NotNull Pe1<@NotNull TxSignalSet> listener) {
+    return storage().txListener().remove(listener);
+  }
 
   /**
    * The Parameters map that is expected as parameter to {@link #initStorage(Map)}.
@@ -523,6 +566,11 @@ public final class PsqlStorage implements IStorage, DataSource {
     }
   }
 
+  @Override
+  public boolean supportsOrderById() {
+    return true;
+  }
+
   @Override
   public void initStorage() {
     initStorage(null);
@@ -19,8 +19,10 @@
 package com.here.naksha.lib.psql.sql;
 
 import com.here.naksha.lib.core.models.storage.transformation.BufferTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.ClipTransformation;
 import com.here.naksha.lib.core.models.storage.transformation.GeographyTransformation;
 import com.here.naksha.lib.core.models.storage.transformation.GeometryTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.SimplifyTransformation;
 import com.here.naksha.lib.psql.SQL;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -48,6 +50,26 @@ public class SqlGeometryTransformationResolver {
           .add(") ");
     } else if (transformation instanceof GeographyTransformation) {
       sql.add(variableSql).add("::geography ");
+    } else if (transformation instanceof ClipTransformation) {
+      ClipTransformation clipT = (ClipTransformation) transformation;
+      sql.add(" ST_ClipByBox2D(")
+          .add(variableSql)
+          .add(",ST_MakeEnvelope(")
+          .add(clipT.getMinLon())
+          .add(",")
+          .add(clipT.getMinLat())
+          .add(",")
+          .add(clipT.getMaxLon())
+          .add(",")
+          .add(clipT.getMaxLat())
+          .add(",4326)) ");
+    } else if (transformation instanceof SimplifyTransformation) {
+      SimplifyTransformation simplifyT = (SimplifyTransformation) transformation;
+      sql.add(" ST_SimplifyPreserveTopology(")
+          .add(variableSql)
+          .add(",")
+          .add(simplifyT.getTolerance())
+          .add(") ");
     } else {
       throw new UnsupportedOperationException("add missing transformation");
     }
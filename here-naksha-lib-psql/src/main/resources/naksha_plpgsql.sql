@@ -21,6 +21,7 @@ SET SESSION search_path TO "${schema}", public, topology;
 --CREATE EXTENSION IF NOT EXISTS tsm_system_rows SCHEMA public;
 --CREATE EXTENSION IF NOT EXISTS "uuid-ossp" SCHEMA public;
 CREATE EXTENSION IF NOT EXISTS hstore SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public;
 --pg_stat_statements:CREATE EXTENSION IF NOT EXISTS pg_stat_statements SCHEMA public;
 COMMIT;
 SET SESSION search_path TO "${schema}", public, topology;
@@ -67,6 +68,11 @@ CREATE OR REPLACE FUNCTION nk_const_del_uid() RETURNS text LANGUAGE 'plpgsql' IM
   RETURN 'naksha.del_uid';
 END $$;
 
+-- The channel on which changes of features are notified, see PsqlNotification.
+CREATE OR REPLACE FUNCTION nk_const_notify_channel() RETURNS text LANGUAGE 'plpgsql' IMMUTABLE AS $$ BEGIN
+  RETURN 'naksha:notifications';
+END $$;
+
 CREATE OR REPLACE FUNCTION nk__________ERRORS_________() RETURNS void LANGUAGE 'plpgsql' IMMUTABLE AS $$ BEGIN END $$;
 
 -- https://www.postgresql.org/docs/current/errcodes-appendix.html
@@ -310,6 +316,74 @@ BEGIN
   RETURN jsonb_build_object('err',_err,'msg', _msg);
 END $$;
 
+DROP FUNCTION IF EXISTS nk_notify_change(text);
+-- Sends one notification about changed features of the collection. The ids are the JSON encoded feature ids, separated by commas, if
+-- NULL, the listeners drop all features of the collection. The ts is the start of the statement, the payload must stay below the limit
+-- of Postgres (8000 byte), see nk_notify_change.
+CREATE OR REPLACE FUNCTION nk_notify_send(_collection_id text, _ids text) RETURNS void LANGUAGE 'plpgsql' VOLATILE AS $$
+BEGIN
+  PERFORM pg_notify(nk_const_notify_channel(), json_build_object(
+    'schema', naksha_schema(),
+    'collection', _collection_id,
+    'id', NULL,
+    'ids', CASE WHEN _ids IS NULL THEN NULL ELSE ('['||_ids||']')::json END,
+    'txn', naksha_txn(),
+    'ts', (extract(epoch from statement_timestamp()) * 1000)::int8
+  )::text);
+END $$;
+
+-- Sends the ids of changed features, that nk_notify_change collected, but not yet sent.
+CREATE OR REPLACE FUNCTION nk_notify_flush() RETURNS void LANGUAGE 'plpgsql' VOLATILE AS $$
+DECLARE
+  ids text = nk_get_config(nk_key('notify_ids'));
+BEGIN
+  IF ids IS NOT NULL THEN
+    PERFORM nk_notify_send(nk_get_config(nk_key('notify_collection')), ids);
+    PERFORM nk_set_config(nk_key('notify_ids'), '', true);
+  END IF;
+END $$;
+
+-- Notifies the listeners of the storage, that the feature with the given id was changed, if the collection enables notifyChanges. If
+-- the id is NULL (or too long to be sent), the listeners are notified, that all features of the collection were changed. Postgres
+-- delivers the notifications only when the transaction is committed, so caches of other nodes can drop the features. Sending one
+-- notification per row is expensive, Postgres checks every payload for duplicates within the transaction, therefore the ids are
+-- collected per collection and statement and sent in batches, when the batch is full, when the next statement changes features and
+-- at the end of nk_write_features, see nk_notify_flush.
+CREATE OR REPLACE FUNCTION nk_notify_change(_collection_id text, _id text) RETURNS void LANGUAGE 'plpgsql' VOLATILE AS $$
+DECLARE
+  marker text = _collection_id||'@'||statement_timestamp()::text;
+  ids text;
+  id text;
+BEGIN
+  IF NOT nk_get_collection_notify_changes(_collection_id) THEN
+    RETURN;
+  END IF;
+  IF nk_get_config(nk_key('notify_marker')) IS DISTINCT FROM marker THEN
+    PERFORM nk_notify_flush();
+    PERFORM nk_set_config(nk_key('notify_marker'), marker, true);
+    PERFORM nk_set_config(nk_key('notify_collection'), _collection_id, true);
+  END IF;
+  id = to_json(_id)::text;
+  IF _id IS NULL OR octet_length(id) > 1000 THEN
+    IF nk_get_config(nk_key('notified')) IS DISTINCT FROM marker THEN
+      PERFORM nk_set_config(nk_key('notified'), marker, true);
+      PERFORM nk_notify_send(_collection_id, NULL);
+    END IF;
+    RETURN;
+  END IF;
+  ids = nk_get_config(nk_key('notify_ids'));
+  IF ids IS NOT NULL AND octet_length(ids) + octet_length(id) > 6000 THEN
+    PERFORM nk_notify_flush();
+    ids = NULL;
+  END IF;
+  IF ids IS NULL THEN
+    ids = id;
+  ELSE
+    ids = ids||','||id;
+  END IF;
+  PERFORM nk_set_config(nk_key('notify_ids'), ids, true);
+END $$;
+
 CREATE OR REPLACE FUNCTION nk_random_id() RETURNS text LANGUAGE 'plpgsql' VOLATILE AS $$ BEGIN
   RETURN md5(random()||'_'||clock_timestamp());
 END $$;
@@ -441,6 +515,31 @@ BEGIN
 EXCEPTION WHEN OTHERS THEN RETURN NULL;
 END $$;
 
+-- This is a function that caches the state for this session.
+CREATE OR REPLACE FUNCTION nk_get_collection_notify_changes(_collection_id text) RETURNS bool LANGUAGE 'plpgsql' STABLE AS $$
+DECLARE
+  cache_key text = nk_key(_collection_id, 'notify');
+  cache_value text;
+  notify_changes bool = false;
+  feature jsonb;
+BEGIN
+  cache_value = nk_get_config(cache_key);
+  IF cache_value = 'true' THEN
+    RETURN true;
+  END IF;
+  IF cache_value = 'false' THEN
+    RETURN false;
+  END IF;
+  SELECT obj_description(oid)::jsonb FROM pg_class
+  WHERE relnamespace = nk_const_schema_oid() AND relname::text = _collection_id INTO feature;
+  IF jsonb_is(feature->'notifyChanges', 'boolean') THEN
+    notify_changes = (feature->'notifyChanges')::bool;
+  END IF;
+  PERFORM nk_set_config(cache_key, notify_changes::text, true);
+  RETURN notify_changes;
+EXCEPTION WHEN OTHERS THEN RETURN false;
+END $$;
+
 -- This is a function that caches the state for this session.
 CREATE OR REPLACE FUNCTION nk_get_collection_disable_history(_collection_id text) RETURNS bool LANGUAGE 'plpgsql' STABLE AS $$
 DECLARE
@@ -884,6 +983,10 @@ BEGIN
   disable_history = nk_get_collection_disable_history(collection_id);
   txn = naksha_txn();
   -- TODO: Update the transaction-log
+  -- New features can't be cached anywhere, only updates and deletes need to be notified.
+  IF TG_OP = 'UPDATE' OR TG_OP = 'DELETE' THEN
+    PERFORM nk_notify_change(collection_id, OLD.jsondata->>'id');
+  END IF;
   -- We do not write INSERT into history (why should we duplicate the HEAD state?).
   IF NOT disable_history AND (TG_OP = 'UPDATE' OR TG_OP = 'DELETE') THEN
     -- Create a backup of the old state (should be CREATE or UPDATE), copy it into the history.
@@ -1249,6 +1352,7 @@ $BODY$;
 CREATE OR REPLACE FUNCTION nk_drop_collection(_collection_id text) RETURNS void LANGUAGE 'plpgsql' VOLATILE AS $BODY$
 DECLARE
   sql text;
+  notify_changes bool = nk_get_collection_notify_changes(_collection_id);
 BEGIN
   sql = format('DROP TABLE IF EXISTS %I CASCADE', _collection_id);
   --RAISE NOTICE '%', sql;
@@ -1265,6 +1369,10 @@ BEGIN
   sql = format('DROP TABLE IF EXISTS %I CASCADE', format('%s_meta', _collection_id));
   --RAISE NOTICE '%', sql;
   EXECUTE sql;
+
+  IF notify_changes THEN
+    PERFORM nk_notify_change(_collection_id, NULL);
+  END IF;
 END
 $BODY$;
 
@@ -1538,6 +1646,8 @@ BEGIN
     END IF;
     i = i + 1;
   END LOOP;
+  -- Send the ids of the last statement, the features of earlier statements are sent when the next one started.
+  PERFORM nk_notify_flush();
 END $$;
 
 CREATE OR REPLACE FUNCTION nk__________PUBLIC_________() RETURNS void LANGUAGE 'plpgsql' IMMUTABLE AS $$ BEGIN END $$;
@@ -4125,6 +4235,7 @@ BEGIN
     --CREATE EXTENSION IF NOT EXISTS tsm_system_rows SCHEMA public;
     --CREATE EXTENSION IF NOT EXISTS "uuid-ossp" SCHEMA public;
     CREATE EXTENSION IF NOT EXISTS hstore SCHEMA public;
+    CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public;
 
     IF __naksha_pg_version() < 14 THEN
         -- feature_not_supported
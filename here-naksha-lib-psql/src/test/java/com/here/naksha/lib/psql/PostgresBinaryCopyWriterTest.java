@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import org.junit.jupiter.api.Test;
+
+class PostgresBinaryCopyWriterTest {
+
+  @Test
+  void shouldEncodeRowsInBinaryCopyFormat() throws Exception {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final PostgresBinaryCopyWriter writer = new PostgresBinaryCopyWriter(bytes);
+    writer.startRow(4);
+    writer.writeInt(7);
+    writer.writeText("CREATE");
+    writer.writeJsonb("{\"id\":\"a\"}");
+    writer.writeBytes(null);
+    writer.finish();
+
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    final byte[] signature = new byte[11];
+    in.readFully(signature);
+    assertArrayEquals(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0}, signature);
+    assertEquals(0, in.readInt());
+    assertEquals(0, in.readInt());
+
+    assertEquals(4, in.readShort());
+    assertEquals(4, in.readInt());
+    assertEquals(7, in.readInt());
+
+    assertEquals(6, in.readInt());
+    final byte[] op = new byte[6];
+    in.readFully(op);
+    assertEquals("CREATE", new String(op, UTF_8));
+
+    final String json = "{\"id\":\"a\"}";
+    assertEquals(json.length() + 1, in.readInt());
+    assertEquals(1, in.readByte());
+    final byte[] jsonBytes = new byte[json.length()];
+    in.readFully(jsonBytes);
+    assertEquals(json, new String(jsonBytes, UTF_8));
+
+    assertEquals(-1, in.readInt());
+    assertEquals(-1, in.readShort());
+    assertEquals(-1, in.read());
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.postgresql.jdbc.PgConnection;
+
+class PostgresConnectionPoolTest {
+
+  private static PostgresConnectionPool pool(int maxSize, int minIdle) {
+    final PostgresConnectionPool pool = new PostgresConnectionPool("test");
+    pool.setMaxSize(maxSize);
+    pool.setMinIdle(minIdle);
+    return pool;
+  }
+
+  @Test
+  void shouldReuseReleasedConnection() throws Exception {
+    final PostgresConnectionPool pool = pool(2, 0);
+    assertNull(pool.acquire(100));
+    final PgConnection conn = mock(PgConnection.class);
+    assertTrue(pool.release(conn, true));
+    assertEquals(1, pool.getIdle());
+
+    assertSame(conn, pool.acquire(100));
+    assertEquals(1, pool.getOpen());
+    assertEquals(1, pool.getActive());
+    assertEquals(0, pool.getIdle());
+  }
+
+  @Test
+  void shouldTimeoutWhenExhausted() throws Exception {
+    final PostgresConnectionPool pool = pool(1, 0);
+    assertNull(pool.acquire(100));
+
+    assertThrows(SQLException.class, () -> pool.acquire(10));
+    assertEquals(1, pool.getTimeouts());
+    assertEquals(1, pool.getOpen());
+  }
+
+  @Test
+  void shouldHandOverConnectionToWaiter() throws Exception {
+    final PostgresConnectionPool pool = pool(1, 0);
+    assertNull(pool.acquire(100));
+    final PgConnection conn = mock(PgConnection.class);
+
+    final CompletableFuture<PgConnection> waiter = CompletableFuture.supplyAsync(() -> {
+      try {
+        return pool.acquire(5_000);
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    while (pool.getWaiting() == 0) {
+      Thread.sleep(1);
+    }
+    pool.release(conn, true);
+
+    assertSame(conn, waiter.get(5, TimeUnit.SECONDS));
+    assertEquals(1, pool.getOpen());
+  }
+
+  @Test
+  void shouldCloseNotReusableConnection() throws Exception {
+    final PostgresConnectionPool pool = pool(1, 0);
+    assertNull(pool.acquire(100));
+    final PgConnection conn = mock(PgConnection.class);
+
+    assertFalse(pool.release(conn, false));
+
+    verify(conn).close();
+    assertEquals(0, pool.getOpen());
+    assertNull(pool.acquire(100));
+  }
+
+  @Test
+  void shouldEvictTimedOutConnectionsButKeepMinIdle() throws Exception {
+    final PostgresConnectionPool pool = pool(3, 1);
+    pool.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+    final PgConnection first = mock(PgConnection.class);
+    final PgConnection second = mock(PgConnection.class);
+    when(first.isValid(anyInt())).thenReturn(true);
+    when(second.isValid(anyInt())).thenReturn(true);
+    assertNull(pool.acquire(100));
+    assertNull(pool.acquire(100));
+    pool.release(first, true);
+    pool.release(second, true);
+
+    pool.maintain(null);
+
+    assertEquals(1, pool.getIdle());
+    assertEquals(1, pool.getOpen());
+    assertEquals(1, pool.getEvictions());
+  }
+
+  @Test
+  void shouldEvictInvalidConnections() throws Exception {
+    final PostgresConnectionPool pool = pool(2, 0);
+    pool.setValidationInterval(0, TimeUnit.MILLISECONDS);
+    final PgConnection conn = mock(PgConnection.class);
+    when(conn.isValid(anyInt())).thenReturn(false);
+    assertNull(pool.acquire(100));
+    pool.release(conn, true);
+
+    pool.maintain(null);
+
+    verify(conn).close();
+    assertEquals(0, pool.getIdle());
+    assertEquals(0, pool.getOpen());
+  }
+
+  @Test
+  void shouldWarmUpToMinIdle() {
+    final PostgresConnectionPool pool = pool(5, 2);
+
+    pool.maintain(() -> mock(PgConnection.class));
+
+    assertEquals(2, pool.getIdle());
+    assertEquals(2, pool.getOpen());
+    assertEquals(0, pool.getActive());
+  }
+
+  @Test
+  void shouldCloseIdleConnectionsOnClose() throws Exception {
+    final PostgresConnectionPool pool = pool(2, 0);
+    final PgConnection idle = mock(PgConnection.class);
+    final PgConnection active = mock(PgConnection.class);
+    assertNull(pool.acquire(100));
+    assertNull(pool.acquire(100));
+    pool.release(idle, true);
+
+    pool.close();
+
+    verify(idle).close();
+    verify(active, never()).close();
+    assertFalse(pool.release(active, true));
+    verify(active).close();
+    assertThrows(SQLException.class, () -> pool.acquire(100));
+  }
+}
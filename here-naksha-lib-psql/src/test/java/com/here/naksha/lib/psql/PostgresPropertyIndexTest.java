@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.indexing.Index;
+import com.here.naksha.lib.core.models.indexing.IndexProperty;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Nulls;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Type;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PostgresPropertyIndexTest {
+
+  private static IndexProperty property(String path, Type type) {
+    final IndexProperty property = new IndexProperty();
+    property.path = path;
+    property.type = type;
+    return property;
+  }
+
+  private static Index index(String alg, IndexProperty... properties) {
+    final Index index = new Index();
+    index.alg = alg;
+    index.properties = List.of(properties);
+    return index;
+  }
+
+  private static String expression(String path, Type type) {
+    final SQL sql = new SQL();
+    PostgresPropertyIndex.addExpression(sql, PostgresPropertyIndex.path(path), type);
+    return sql.toString();
+  }
+
+  @Test
+  void shouldGenerateSameExpressionAsQueries() {
+    assertEquals(
+        "(jsondata->E'properties'->>E'name') COLLATE \"C\"", expression("$.properties.name", Type.STRING));
+    assertEquals("(jsondata->E'properties'->E'height')::numeric", expression("properties.height", Type.NUMBER));
+    assertEquals("(jsondata->E'properties'->E'open')::bool", expression("properties.open", Type.BOOLEAN));
+    assertEquals("(jsondata->E'properties'->E'tags')", expression("properties.tags", Type.JSON));
+  }
+
+  @Test
+  void shouldCreateBtreeIndex() {
+    final IndexProperty height = property("properties.height", Type.NUMBER);
+    height.asc = false;
+    height.nulls = Nulls.LAST;
+    final PostgresPropertyIndex index =
+        new PostgresPropertyIndex("foo", "name", index(null, property("properties.name", null), height));
+    assertEquals("foo_p_name", index.name);
+    assertEquals(
+        "USING btree (((jsondata->E'properties'->>E'name') COLLATE \"C\") ASC, "
+            + "((jsondata->E'properties'->E'height')::numeric) DESC NULLS LAST)",
+        index.definition);
+    assertEquals(
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS foo_p_name ON foo " + index.definition,
+        index.createSql(index.table, index.name, true, false));
+    assertEquals(
+        "CREATE INDEX IF NOT EXISTS foo_p_name ON ONLY foo " + index.definition,
+        index.createSql(index.table, index.name, false, true));
+    assertTrue(index.commentSql(index.name).startsWith("COMMENT ON INDEX foo_p_name IS E'naksha:property-index:"));
+  }
+
+  @Test
+  void shouldCreateGinIndices() {
+    assertEquals(
+        "USING gin (((jsondata->E'properties'->E'tags')))",
+        new PostgresPropertyIndex("foo", "tags", index("gin", property("properties.tags", null))).definition);
+    assertEquals(
+        "USING gin (((jsondata->E'properties'->>E'name') COLLATE \"C\") gin_trgm_ops)",
+        new PostgresPropertyIndex("foo", "name", index("gin_trigram", property("properties.name", null)))
+            .definition);
+  }
+
+  @Test
+  void shouldRejectInvalidDeclarations() {
+    assertThrows(IllegalArgumentException.class, () -> new PostgresPropertyIndex("foo", "a", index("btree")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PostgresPropertyIndex("foo", "a", index("unknown", property("properties.a", null))));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PostgresPropertyIndex(
+            "foo", "a", index("hash", property("properties.a", null), property("properties.b", null))));
+  }
+
+  @Test
+  void shouldOnlyMatchIndicesOfTheQueriedPropertyAndType() {
+    final List<String> name = PostgresPropertyIndex.path("properties.name");
+    final List<String> height = PostgresPropertyIndex.path("properties.height");
+    final Map<String, Index> indices = Map.of(
+        "name", index(null, property("properties.name", null), property("properties.height", Type.NUMBER)),
+        "tags", index("gin", property("properties.tags", null)));
+    assertFalse(PostgresPropertyIndex.isIndexed(null, name, Type.STRING));
+    assertTrue(PostgresPropertyIndex.isIndexed(indices, name, Type.STRING));
+    assertFalse(PostgresPropertyIndex.isIndexed(indices, name, Type.NUMBER));
+    // Only the first property of a btree index can be used to look up a property.
+    assertFalse(PostgresPropertyIndex.isIndexed(indices, height, Type.NUMBER));
+    assertFalse(PostgresPropertyIndex.isIndexed(indices, PostgresPropertyIndex.path("properties.tags"), Type.STRING));
+    assertTrue(PostgresPropertyIndex.isIndexed(
+        Map.of("height", index("brin", property("properties.name", null), property("properties.height", Type.NUMBER))),
+        height,
+        Type.NUMBER));
+  }
+
+  @Test
+  void shouldLimitIndexNameLength() {
+    final String table = "a_very_long_collection_identifier_with_history_hst";
+    final String name = PostgresPropertyIndex.indexName(table, "a_long_index_key_to_exceed_the_limit");
+    assertEquals(63, name.length(), name);
+    assertTrue(name.startsWith(table + "_p_"));
+    assertEquals(name, PostgresPropertyIndex.indexName(table, "a_long_index_key_to_exceed_the_limit"));
+  }
+}
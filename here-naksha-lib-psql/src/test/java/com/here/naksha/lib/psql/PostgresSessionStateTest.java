@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PostgresSessionStateTest {
+
+  private static PostgresSessionState target(String streamId) {
+    final PostgresSessionState state = new PostgresSessionState();
+    state.schema = "naksha";
+    state.appName = "test_app";
+    state.appId = "app1";
+    state.author = null;
+    state.streamId = streamId;
+    state.statementTimeoutMillis = 60_000;
+    state.lockTimeoutMillis = 10_000;
+    return state;
+  }
+
+  private static String delta(PostgresSessionState base, PostgresSessionState target) {
+    final SQL sql = new SQL();
+    base.addDelta(sql, target, true);
+    return sql.toString();
+  }
+
+  @Test
+  void shouldSendAllSettingsForNewConnection() {
+    final String sql = delta(new PostgresSessionState(), target("s1"));
+    assertTrue(sql.contains("SET SESSION search_path TO E'naksha',topology,public;"));
+    assertTrue(sql.contains("SELECT naksha_start_session(E'test_app',E'app1',null,E's1');"));
+    assertTrue(sql.contains("SET SESSION statement_timeout TO 60000;"));
+    assertTrue(sql.contains("SET SESSION lock_timeout TO 10000;"));
+    // naksha_start_session sets the application_name itself.
+    assertFalse(sql.contains("application_name"));
+  }
+
+  @Test
+  void shouldSendNothingWhenStateIsApplied() {
+    final PostgresSessionState target = target("s1");
+    final PostgresSessionState applied = new PostgresSessionState().merge(target, true);
+    assertFalse(applied.addDelta(new SQL(), target, true));
+  }
+
+  @Test
+  void shouldOnlyStartSessionWhenIdentityChanged() {
+    final PostgresSessionState applied = new PostgresSessionState().merge(target("s1"), true);
+    final PostgresSessionState target = target("s2");
+    target.author = "author1";
+    assertEquals("SELECT naksha_start_session(E'test_app',E'app1',E'author1',E's2');\n", delta(applied, target));
+  }
+
+  @Test
+  void shouldOnlySetStreamIdWhenStreamChanged() {
+    final PostgresSessionState applied = new PostgresSessionState().merge(target("s1"), true);
+    assertEquals("SELECT set_config('naksha.stream_id',E's2',false);\n", delta(applied, target("s2")));
+  }
+
+  @Test
+  void shouldIgnoreStreamIdWhenNotRequested() {
+    final PostgresSessionState applied = new PostgresSessionState().merge(target("s1"), true);
+    final PostgresSessionState target = target("s2");
+    assertFalse(applied.addDelta(new SQL(), target, false));
+    assertEquals("s1", new PostgresSessionState(applied).merge(target, false).streamId);
+  }
+
+  @Test
+  void shouldOnlySendChangedTimeout() {
+    final PostgresSessionState applied = new PostgresSessionState().merge(target("s1"), true);
+    final PostgresSessionState target = target("s1");
+    target.lockTimeoutMillis = 500;
+    assertEquals("SET SESSION lock_timeout TO 500;\n", delta(applied, target));
+  }
+
+  @Test
+  void shouldCreateBulkTableOnlyOnce() {
+    final PostgresSessionState target = target("s1");
+    target.bulkTable = true;
+    final PostgresSessionState applied = new PostgresSessionState().merge(target("s1"), true);
+    assertTrue(delta(applied, target).startsWith("CREATE TEMP TABLE IF NOT EXISTS naksha_bulk_write "));
+    assertFalse(new PostgresSessionState(applied).merge(target, true).addDelta(new SQL(), target, true));
+  }
+
+  @Test
+  void shouldKeepIdentityWhenTargetHasNoContext() {
+    final PostgresSessionState applied = new PostgresSessionState().merge(target("s1"), true);
+    final PostgresSessionState target = target(null);
+    target.appId = null;
+    assertFalse(applied.addDelta(new SQL(), target, true));
+    assertEquals("s1", new PostgresSessionState(applied).merge(target, true).streamId);
+
+    applied.clear();
+    assertTrue(delta(applied, target).contains("SET SESSION application_name TO E'test_app';"));
+  }
+}
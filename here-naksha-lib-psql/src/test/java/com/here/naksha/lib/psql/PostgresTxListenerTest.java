@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.here.naksha.lib.core.models.TxSignalSet;
+import com.here.naksha.lib.core.models.features.TxModifyCollection;
+import com.here.naksha.lib.core.models.features.TxModifyFeatures;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGNotification;
+import org.postgresql.core.Notification;
+
+class PostgresTxListenerTest {
+
+  private static @NotNull PGNotification notification(
+      @NotNull String schema, @NotNull String collection, String id, @NotNull String txn, long ts) {
+    final String payload = "{\"schema\":\"" + schema + "\",\"collection\":\"" + collection + "\",\"id\":"
+        + (id == null ? "null" : "\"" + id + "\"") + ",\"txn\":\"" + txn + "\",\"ts\":" + ts + "}";
+    return new Notification(PsqlNotification.CHANNEL, 1, payload);
+  }
+
+  @Test
+  void notificationsAreGroupedByTransaction() throws Exception {
+    try (final PsqlStorage storage =
+        new PsqlStorage("jdbc:postgresql://localhost/test?user=foo&password=bar&schema=foo&app=test&id=psql")) {
+      final PostgresTxListener listener = new PostgresTxListener(storage.storage());
+      final List<TxSignalSet> sets = listener.toSignals(new PGNotification[] {
+        notification("foo", "a", "1", "txn1", 20),
+        notification("foo", "a", "2", "txn1", 10),
+        notification("bar", "a", "3", "txn1", 10),
+        notification("foo", "b", null, "txn2", 30)
+      });
+      assertEquals(2, sets.size());
+
+      final TxSignalSet first = sets.get(0);
+      assertEquals(1, first.size());
+      final TxModifyFeatures features = assertInstanceOf(TxModifyFeatures.class, first.get("a"));
+      assertEquals("psql", features.storageId);
+      assertEquals(List.of("1", "2"), features.featureIds);
+      assertEquals(10, features.ts);
+
+      final TxSignalSet second = sets.get(1);
+      assertEquals(1, second.size());
+      final TxModifyCollection collection = assertInstanceOf(TxModifyCollection.class, second.get("col:b"));
+      assertNotNull(collection);
+      assertEquals("b", collection.collection);
+      assertEquals(30, collection.ts);
+    }
+  }
+
+  @Test
+  void idsBatchedPerStatementAreModifiedFeatures() throws Exception {
+    try (final PsqlStorage storage =
+        new PsqlStorage("jdbc:postgresql://localhost/test?user=foo&password=bar&schema=foo&app=test&id=psql")) {
+      final PostgresTxListener listener = new PostgresTxListener(storage.storage());
+      final String payload = "{\"schema\":\"foo\",\"collection\":\"a\",\"id\":null,\"ids\":[\"1\",\"2\"],"
+          + "\"txn\":\"txn1\",\"ts\":20}";
+      final List<TxSignalSet> sets = listener.toSignals(new PGNotification[] {
+        new Notification(PsqlNotification.CHANNEL, 1, payload), notification("foo", "a", "3", "txn1", 10)
+      });
+      assertEquals(1, sets.size());
+      assertEquals(1, sets.get(0).size());
+      final TxModifyFeatures features = assertInstanceOf(TxModifyFeatures.class, sets.get(0).get("a"));
+      assertEquals(List.of("1", "2", "3"), features.featureIds);
+      assertEquals(10, features.ts);
+    }
+  }
+}
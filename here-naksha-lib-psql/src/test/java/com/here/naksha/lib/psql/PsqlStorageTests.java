@@ -558,6 +558,45 @@ public class PsqlStorageTests extends PsqlTests {
     }
   }
 
+  @Test
+  @Order(58)
+  @EnabledIf("runTest")
+  void bulkFeatureCreate() throws NoCursor {
+    assertNotNull(storage);
+    assertNotNull(session);
+    final WriteXyzFeatures request = new WriteXyzFeatures(collectionId()).withBulk(true);
+    for (int i = 0; i < 3; i++) {
+      final XyzFeature feature = new XyzFeature("bulk-" + i);
+      feature.setGeometry(new XyzPoint(i, i + 1d));
+      request.add(EWriteOp.CREATE, feature);
+    }
+    final XyzFeature existing = new XyzFeature(SINGLE_FEATURE_ID);
+    request.add(EWriteOp.CREATE, existing);
+    final Result result = session.execute(request);
+    assertInstanceOf(ErrorResult.class, result);
+    int created = 0;
+    int failed = 0;
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+      while (cursor.next()) {
+        if (cursor.hasError()) {
+          assertSame(EExecutedOp.ERROR, cursor.getOp());
+          assertEquals(SINGLE_FEATURE_ID, cursor.getId());
+          assertEquals(XyzError.CONFLICT, cursor.getError().err);
+          failed++;
+        } else {
+          assertSame(EExecutedOp.CREATED, cursor.getOp());
+          assertTrue(cursor.getId().startsWith("bulk-"));
+          assertNotNull(cursor.getGeometry());
+          created++;
+        }
+      }
+    } finally {
+      session.commit(true);
+    }
+    assertEquals(3, created);
+    assertEquals(1, failed);
+  }
+
   @Test
   @Order(60)
   @EnabledIf("runTest")
@@ -1093,6 +1132,45 @@ public class PsqlStorageTests extends PsqlTests {
     }
   }
 
+  @Test
+  @Order(75)
+  @EnabledIf("runTest")
+  void keysetPagedRead() throws NoCursor {
+    assertNotNull(storage);
+    assertNotNull(session);
+    final long limit = 100L;
+    String afterId = null;
+    String lastId = null;
+    int pages = 0;
+    int rows;
+    do {
+      final ReadFeatures request = new ReadFeatures(collectionId())
+          .withLimit(limit)
+          .withOrderById(true)
+          .withAfterId(afterId);
+      rows = 0;
+      try (final @NotNull ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+               session.execute(request).getXyzFeatureCursor()) {
+        while (cursor.hasNext()) {
+          assertTrue(cursor.next());
+          final String id = cursor.getId();
+          assertNotNull(id);
+          // Ids must be strictly ascending across all pages, so no feature is returned twice.
+          if (lastId != null) {
+            assertTrue(lastId.compareTo(id) < 0, "Expected " + lastId + " < " + id);
+          }
+          lastId = id;
+          rows++;
+        }
+      } finally {
+        session.commit(true);
+      }
+      afterId = lastId;
+      pages++;
+    } while (rows == limit);
+    assertTrue(pages > 1);
+  }
+
   @Test
   @Order(110)
   @EnabledIf("runTest")
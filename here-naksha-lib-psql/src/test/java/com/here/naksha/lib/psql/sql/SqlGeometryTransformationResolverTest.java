@@ -1,8 +1,10 @@
 package com.here.naksha.lib.psql.sql;
 
 import com.here.naksha.lib.core.models.storage.transformation.BufferTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.ClipTransformation;
 import com.here.naksha.lib.core.models.storage.transformation.GeographyTransformation;
 import com.here.naksha.lib.core.models.storage.transformation.GeometryTransformation;
+import com.here.naksha.lib.core.models.storage.transformation.SimplifyTransformation;
 import com.here.naksha.lib.psql.SQL;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -65,6 +67,48 @@ public class SqlGeometryTransformationResolverTest {
     assertEquals(" ST_Buffer(ST_Force3D(?)::geography ,112.21,E'quad_segs=8') ", sql.toString());
   }
 
+  @Test
+  void testClipTransformation() {
+    //given
+    String variablePlaceholder = "geo";
+    GeometryTransformation clipTransformation = new ClipTransformation(8.0, 50.0, 8.5, 50.25);
+
+    // when
+    SQL sql = addTransformation(clipTransformation, variablePlaceholder);
+
+    // then
+    assertEquals(" ST_ClipByBox2D(geo,ST_MakeEnvelope(8.0,50.0,8.5,50.25,4326)) ", sql.toString());
+  }
+
+  @Test
+  void testSimplifyTransformation() {
+    //given
+    String variablePlaceholder = "geo";
+    GeometryTransformation simplifyTransformation = new SimplifyTransformation(0.25);
+
+    // when
+    SQL sql = addTransformation(simplifyTransformation, variablePlaceholder);
+
+    // then
+    assertEquals(" ST_SimplifyPreserveTopology(geo,0.25) ", sql.toString());
+  }
+
+  @Test
+  void testTileClipTransformation() {
+    //given
+    String variablePlaceholder = "geo";
+    GeometryTransformation clipTransformation = new ClipTransformation(0.0, 0.0, 4096.0, 4096.0);
+    GeometryTransformation tileTransformation = SimplifyTransformation.simplifyForTile(4096.0, clipTransformation);
+
+    // when
+    SQL sql = addTransformation(tileTransformation, variablePlaceholder);
+
+    // then
+    assertEquals(
+        " ST_SimplifyPreserveTopology( ST_ClipByBox2D(geo,ST_MakeEnvelope(0.0,0.0,4096.0,4096.0,4326)) ,1.0) ",
+        sql.toString());
+  }
+
   @Test
   void testUnknownTransformation() {
     // given
@@ -29,10 +29,17 @@ import org.jetbrains.annotations.Nullable;
 
 public class View implements IView {
 
+  /**
+   * The default amount of layers of a view queried concurrently.
+   */
+  public static final int DEFAULT_MAX_PARALLELISM = 8;
+
   private Storage storage;
 
   private ViewLayerCollection viewLayerCollection;
 
+  private int maxParallelism = DEFAULT_MAX_PARALLELISM;
+
   public View(@NotNull ViewLayerCollection viewLayerCollection) {
     this.viewLayerCollection = viewLayerCollection;
   }
@@ -46,6 +53,42 @@ public class View implements IView {
     return viewLayerCollection;
   }
 
+  /**
+   * Returns the maximum amount of layers of this view that are queried concurrently.
+   *
+   * @return the maximum amount of layers of this view that are queried concurrently.
+   */
+  public int getMaxParallelism() {
+    return maxParallelism;
+  }
+
+  /**
+   * Sets the maximum amount of layers of this view that are queried concurrently, the remaining layers are queried, when others are done.
+   * All views share the threads of the {@link com.here.naksha.lib.view.concurrent.ViewThreadPool}.
+   *
+   * @param maxParallelism The maximum amount of layers queried concurrently.
+   * @return this.
+   */
+  public @NotNull View withMaxParallelism(int maxParallelism) {
+    if (maxParallelism < 1) {
+      throw new IllegalArgumentException("maxParallelism must be at least 1");
+    }
+    this.maxParallelism = maxParallelism;
+    return this;
+  }
+
+  /**
+   * Tests whether all layers return their features ordered by id, only then the layers can be merged while reading, which as well
+   * returns the features of this view ordered by id.
+   *
+   * @return {@code true} if the storages of all layers honor the order by id.
+   */
+  @Override
+  public boolean supportsOrderById() {
+    return viewLayerCollection.getLayers().stream()
+        .allMatch(layer -> layer.getStorage().supportsOrderById(layer.getCollectionId()));
+  }
+
   @Override
   public @NotNull ViewReadSession newReadSession(@Nullable NakshaContext context, boolean useMaster) {
     return new ViewReadSession(this, context, useMaster);
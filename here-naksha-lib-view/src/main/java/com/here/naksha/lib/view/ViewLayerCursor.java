@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.view;
+
+import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.models.storage.FeatureCodec;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The open cursor of a single layer, which returns the rows ordered by feature id. Used by {@link ViewMergeCursor} to merge the layers
+ * while the rows arrive.
+ */
+public class ViewLayerCursor<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> implements AutoCloseable {
+
+  private final ForwardCursor<FEATURE, CODEC> cursor;
+  private final ViewLayer viewLayerRef;
+  // priority 0 - is highest
+  private final int storagePriority;
+  private final String streamId;
+  private final long startTime;
+  private @Nullable ViewLayerRow<FEATURE, CODEC> row;
+  private @Nullable String id;
+  private int featureCnt;
+  private boolean closed;
+
+  public ViewLayerCursor(
+      @NotNull ForwardCursor<FEATURE, CODEC> cursor,
+      int storagePriority,
+      @NotNull ViewLayer viewLayerRef,
+      long startTime) {
+    this.cursor = cursor;
+    this.storagePriority = storagePriority;
+    this.viewLayerRef = viewLayerRef;
+    this.startTime = startTime;
+    this.streamId = NakshaContext.currentContext().getStreamId();
+  }
+
+  /**
+   * Moves to the next row of the layer.
+   *
+   * @return {@code true} if the cursor is on a valid row; {@code false} if the layer has no more rows.
+   * @throws IllegalStateException If the layer does not return the rows ordered by feature id.
+   */
+  public boolean next() {
+    if (closed || !cursor.hasNext()) {
+      row = null;
+      id = null;
+      return false;
+    }
+    cursor.next();
+    final String nextId = cursor.getId();
+    if (id != null && ViewMergeCursor.compareIds(id, nextId) > 0) {
+      throw new IllegalStateException("Layer " + viewLayerRef.getCollectionId()
+          + " does not return features ordered by id, found '" + nextId + "' after '" + id + "'");
+    }
+    id = nextId;
+    row = new ViewLayerRow<>(cursor.getCodecCopy(), storagePriority, viewLayerRef);
+    featureCnt++;
+    return true;
+  }
+
+  /**
+   * Returns the feature id of the current row.
+   *
+   * @return the feature id of the current row; {@code null} if not on a valid row.
+   */
+  public @Nullable String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the current row, the row is not modified, when moving the cursor.
+   *
+   * @return the current row; {@code null} if not on a valid row.
+   */
+  public @Nullable ViewLayerRow<FEATURE, CODEC> getRow() {
+    return row;
+  }
+
+  public int getStoragePriority() {
+    return storagePriority;
+  }
+
+  public ViewLayer getViewLayerRef() {
+    return viewLayerRef;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    row = null;
+    try {
+      cursor.close();
+    } finally {
+      ViewMetrics.recordLayerQuery(
+          streamId,
+          viewLayerRef.getCollectionId(),
+          "READ",
+          ViewMetrics.OK,
+          System.currentTimeMillis() - startTime,
+          featureCnt);
+    }
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.view;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+
+import com.here.naksha.lib.core.models.storage.FeatureCodec;
+import com.here.naksha.lib.core.models.storage.FeatureCodecFactory;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cursor that merges the results of multiple layers, while reading them. Every layer has to return its rows ordered by feature id, so
+ * that a k-way merge can collect the rows of the same feature from all layers, without having to read all the layers first. The
+ * {@link MergeOperation} is applied to every feature, when it is read from the cursor. <br>
+ *
+ * To avoid the N+1 issue, the missing features are not fetched for every single feature, but for a batch of features. Therefore, only
+ * one batch of merged features is kept in memory, independent of the size of the layers.
+ */
+public class ViewMergeCursor<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>>
+    extends ForwardCursor<FEATURE, CODEC> {
+
+  private static final Logger log = LoggerFactory.getLogger(ViewMergeCursor.class);
+
+  /**
+   * The default amount of features for which the missing features are fetched at once.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
+  private final List<ViewLayerCursor<FEATURE, CODEC>> layerCursors;
+  private final PriorityQueue<ViewLayerCursor<FEATURE, CODEC>> heads;
+  private final MergeOperation<FEATURE, CODEC> mergeOperation;
+  private final @Nullable Function<
+          Collection<List<ViewLayerRow<FEATURE, CODEC>>>, Map<String, List<ViewLayerRow<FEATURE, CODEC>>>>
+      missingFeaturesFetcher;
+  private final int batchSize;
+  private final ArrayDeque<List<ViewLayerRow<FEATURE, CODEC>>> batch;
+  private @Nullable Runnable onClose;
+  private long deadlineMillis;
+
+  /**
+   * Creates a new merge cursor.
+   *
+   * @param codecFactory           The codec factory of the cursor.
+   * @param layerCursors           The cursors of the layers, each returning the rows ordered by feature id.
+   * @param mergeOperation         The operation to merge the rows of the same feature.
+   * @param missingFeaturesFetcher The function to fetch features missing in some layers, for a batch of features; {@code null} to not
+   *                               fetch missing features.
+   * @param batchSize              The amount of features for which to fetch missing features at once.
+   * @param onClose                Invoked once, when the cursor is closed; if any.
+   */
+  public ViewMergeCursor(
+      @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory,
+      @NotNull List<ViewLayerCursor<FEATURE, CODEC>> layerCursors,
+      @NotNull MergeOperation<FEATURE, CODEC> mergeOperation,
+      @Nullable
+          Function<
+                  Collection<List<ViewLayerRow<FEATURE, CODEC>>>,
+                  Map<String, List<ViewLayerRow<FEATURE, CODEC>>>>
+              missingFeaturesFetcher,
+      int batchSize,
+      @Nullable Runnable onClose) {
+    super(codecFactory);
+    this.layerCursors = layerCursors;
+    this.mergeOperation = mergeOperation;
+    this.missingFeaturesFetcher = missingFeaturesFetcher;
+    this.batchSize = Math.max(1, batchSize);
+    this.batch = new ArrayDeque<>(this.batchSize);
+    this.onClose = onClose;
+    this.heads = new PriorityQueue<>(
+        Math.max(1, layerCursors.size()),
+        Comparator.<ViewLayerCursor<FEATURE, CODEC>, String>comparing(
+                ViewLayerCursor::getId, ViewMergeCursor::compareIds)
+            .thenComparingInt(ViewLayerCursor::getStoragePriority));
+    try {
+      for (final ViewLayerCursor<FEATURE, CODEC> layerCursor : layerCursors) {
+        advance(layerCursor);
+      }
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Compares two feature ids by their code points, which is the same order as the binary order of the UTF-8 encoded ids, as used by the
+   * storages ({@code COLLATE "C"}).
+   *
+   * @param a The first id.
+   * @param b The second id.
+   * @return a negative integer, zero, or a positive integer as the first id is less than, equal to, or greater than the second.
+   */
+  public static int compareIds(@NotNull String a, @NotNull String b) {
+    final int aLength = a.length();
+    final int bLength = b.length();
+    int i = 0;
+    int j = 0;
+    while (i < aLength && j < bLength) {
+      final int aCodePoint = a.codePointAt(i);
+      final int bCodePoint = b.codePointAt(j);
+      if (aCodePoint != bCodePoint) {
+        return Integer.compare(aCodePoint, bCodePoint);
+      }
+      i += Character.charCount(aCodePoint);
+      j += Character.charCount(bCodePoint);
+    }
+    return Integer.compare(aLength - i, bLength - j);
+  }
+
+  /**
+   * Sets the point in time until which the cursor must be read, in epoch milliseconds. The deadline is checked before every batch is read
+   * from the layers, so that reading the cursor after the request was answered is bound by the same deadline as opening it.
+   *
+   * @param deadlineMillis The deadline in epoch milliseconds; {@code 0} for no deadline.
+   * @return this.
+   */
+  public @NotNull ViewMergeCursor<FEATURE, CODEC> withDeadline(long deadlineMillis) {
+    this.deadlineMillis = deadlineMillis;
+    return this;
+  }
+
+  private void advance(@NotNull ViewLayerCursor<FEATURE, CODEC> layerCursor) {
+    if (layerCursor.next()) {
+      heads.add(layerCursor);
+    } else {
+      // Release the resources of the layer as soon as possible.
+      layerCursor.close();
+    }
+  }
+
+  private void fillBatch() {
+    if (deadlineMillis > 0 && !heads.isEmpty() && System.currentTimeMillis() >= deadlineMillis) {
+      throw unchecked(new TimeoutException("The view cursor was not read within the deadline"));
+    }
+    while (batch.size() < batchSize && !heads.isEmpty()) {
+      final ViewLayerCursor<FEATURE, CODEC> first = heads.poll();
+      final String id = first.getId();
+      final List<ViewLayerRow<FEATURE, CODEC>> sameFeatureFromEachLayer = new ArrayList<>(layerCursors.size());
+      sameFeatureFromEachLayer.add(first.getRow());
+      advance(first);
+      while (!heads.isEmpty() && id.equals(heads.peek().getId())) {
+        final ViewLayerCursor<FEATURE, CODEC> other = heads.poll();
+        sameFeatureFromEachLayer.add(other.getRow());
+        advance(other);
+      }
+      batch.add(sameFeatureFromEachLayer);
+    }
+    if (missingFeaturesFetcher != null && !batch.isEmpty()) {
+      final Map<String, List<ViewLayerRow<FEATURE, CODEC>>> fetchedById = missingFeaturesFetcher.apply(batch);
+      if (fetchedById != null && !fetchedById.isEmpty()) {
+        for (final List<ViewLayerRow<FEATURE, CODEC>> sameFeatureFromEachLayer : batch) {
+          final List<ViewLayerRow<FEATURE, CODEC>> fetched = fetchedById.get(
+              sameFeatureFromEachLayer.get(0).getRow().getId());
+          if (fetched != null) {
+            sameFeatureFromEachLayer.addAll(fetched);
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  protected boolean loadNextRow(@NotNull Row row) {
+    if (batch.isEmpty()) {
+      fillBatch();
+    }
+    final List<ViewLayerRow<FEATURE, CODEC>> sameFeatureFromEachLayer = batch.poll();
+    if (sameFeatureFromEachLayer == null) {
+      row.clear();
+      return false;
+    }
+    final CODEC merged = mergeOperation.apply(sameFeatureFromEachLayer);
+    if (codecFactory.isInstance(merged)) {
+      row.codec = merged;
+    } else {
+      // The codec factory was changed, ensure that a possibly merged feature is reflected in the parts.
+      if (merged.getFeature() != null) {
+        merged.decodeParts(false);
+      }
+      row.codec.clear();
+      row.codec.withParts(merged);
+    }
+    row.valid = true;
+    return true;
+  }
+
+  @Override
+  public void close() {
+    batch.clear();
+    heads.clear();
+    for (final ViewLayerCursor<FEATURE, CODEC> layerCursor : layerCursors) {
+      try {
+        layerCursor.close();
+      } catch (RuntimeException e) {
+        log.atInfo()
+            .setMessage("Failed to close cursor of layer {}")
+            .addArgument(layerCursor.getViewLayerRef().getCollectionId())
+            .setCause(e)
+            .log();
+      }
+    }
+    final Runnable onClose = this.onClose;
+    this.onClose = null;
+    try {
+      if (onClose != null) {
+        onClose.run();
+      }
+    } finally {
+      runOnClose();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.view;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the statistics of the queries executed against the individual layers of a view. Every layer query is logged as a
+ * {@code ViewReqStats} line and its latency is recorded in an OpenTelemetry histogram, so that a slow layer can be spotted without
+ * parsing the logs. Without a configured OpenTelemetry SDK the histogram is a no-op.
+ */
+public final class ViewMetrics {
+
+  private static final Logger log = LoggerFactory.getLogger(ViewMetrics.class);
+
+  private static final AttributeKey<String> LAYER = AttributeKey.stringKey("layer");
+  private static final AttributeKey<String> METHOD = AttributeKey.stringKey("method");
+  private static final AttributeKey<String> STATUS = AttributeKey.stringKey("status");
+
+  private static final DoubleHistogram layerLatency = GlobalOpenTelemetry.meterBuilder("naksha.view")
+      .build()
+      .histogramBuilder("naksha_view_layer_latency")
+      .setDescription("Time taken by a view to read a single layer")
+      .setUnit("ms")
+      .build();
+
+  /**
+   * Status of a layer query that completed.
+   */
+  public static final String OK = "OK";
+
+  /**
+   * Status of a layer query that failed.
+   */
+  public static final String NOK = "NOK";
+
+  /**
+   * Status of a layer query that was cancelled, because another layer failed or the deadline was exceeded.
+   */
+  public static final String CANCELLED = "CANCELLED";
+
+  private ViewMetrics() {}
+
+  /**
+   * Records a layer query.
+   *
+   * @param streamId     The stream-id of the request.
+   * @param layerId      The collection-id of the layer.
+   * @param method       The method, for example {@code READ}.
+   * @param status       The status, one of {@link #OK}, {@link #NOK} or {@link #CANCELLED}.
+   * @param timeTakenMs  The time taken in milliseconds.
+   * @param featureCount The amount of features read from the layer.
+   */
+  public static void recordLayerQuery(
+      @NotNull String streamId,
+      @NotNull String layerId,
+      @NotNull String method,
+      @NotNull String status,
+      long timeTakenMs,
+      long featureCount) {
+    log.info(
+        "[View Request stats => streamId,layerId,method,status,timeTakenMs,fCnt] - ViewReqStats {} {} {} {} {} {}",
+        streamId,
+        layerId,
+        method,
+        status,
+        timeTakenMs,
+        featureCount);
+    layerLatency.record(timeTakenMs, Attributes.of(LAYER, layerId, METHOD, method, STATUS, status));
+  }
+}
@@ -52,6 +52,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -62,13 +63,18 @@ import org.jetbrains.annotations.Nullable;
  * At the end {@link MergeOperation} is executed and single result returned.
  * You can provide your own merge operation. The default is "take result from storage on the top". <br>
  *
- * <strong>Important:</strong> {@link ViewReadSession} will always return mutable cursor, this is the only way we can
+ * When the storages of all layers {@link com.here.naksha.lib.core.storage.IStorage#supportsOrderById(String) support it}, the layers are
+ * asked to return their features ordered by id, and the results are merged while they are read ({@link ViewMergeCursor}), so only a
+ * bounded amount of features is kept in memory. Views with other layers, requests that can't be served ordered by id (returning
+ * deleted features or all versions), or sessions where streaming is disabled, are merged in memory. <br>
+ *
+ * <strong>Important:</strong> When merged in memory, {@link ViewReadSession} returns mutable cursor, this is the only way we can
  * merge results from different storages and fetch missing by ids. Consider this example:
  * Result from Storage A: [F_1, F_2, F_3, F_4]
  * Result from Storage B: [F_2, F_4]
  * Result from Storage C: [F_3, F_5]
  * In this situation using Forward cursor would lead to N+1 issue, as after reading 1st row from each result we'd have
- * to fetch missing F_1 from B and C.
+ * to fetch missing F_1 from B and C. The streaming merge avoids this by fetching the missing features for batches of features.
  * To be able to create query that fetches multiple missing features we have to know them first (by caching ahead of time) <br>
  * <p>
  * It might happen that feature has been moved (it's geometry changed). In such case after getting results for bbox
@@ -82,6 +88,19 @@ public class ViewReadSession implements IReadSession {
 
   protected Map<ViewLayer, IReadSession> subSessions;
 
+  protected boolean streamingMerge = true;
+
+  /**
+   * If the storages of all layers return the features ordered by id, which is required for the streaming merge.
+   */
+  protected final boolean orderedLayers;
+
+  protected int mergeBatchSize = ViewMergeCursor.DEFAULT_BATCH_SIZE;
+
+  private int openCursors;
+
+  private boolean closed;
+
   protected ViewReadSession(@NotNull View viewRef, @Nullable NakshaContext context, boolean useMaster) {
     this.viewRef = viewRef;
     this.subSessions = new LinkedHashMap<>();
@@ -89,6 +108,7 @@ public class ViewReadSession implements IReadSession {
       subSessions.put(layer, layer.getStorage().newReadSession(context, useMaster));
     }
     this.parallelQueryExecutor = new ParallelQueryExecutor(viewRef);
+    this.orderedLayers = viewRef.supportsOrderById();
   }
 
   @Override
@@ -123,6 +143,9 @@ public class ViewReadSession implements IReadSession {
     List<LayerReadRequest> layerReadRequests = subSessions.entrySet().stream()
         .map(entry -> new LayerReadRequest((ReadFeatures) request, entry.getKey(), entry.getValue()))
         .collect(toList());
+    if (isStreamable((ReadFeatures) request)) {
+      return executeStreaming(request, layerReadRequests, codecFactory, mergeOperation, missingIdResolver);
+    }
     Map<String, List<ViewLayerRow<FEATURE, CODEC>>> multiLayerRows =
         parallelQueryExecutor.queryInParallel(layerReadRequests, codecFactory);
 
@@ -141,7 +164,7 @@ public class ViewReadSession implements IReadSession {
      */
     Map<String, List<ViewLayerRow<FEATURE, CODEC>>> fetchedById = isRequestOnlyById(request)
         ? Collections.emptyMap()
-        : getMissingFeatures(multiLayerRows, missingIdResolver, codecFactory);
+        : getMissingFeatures(multiLayerRows.values(), missingIdResolver, codecFactory);
 
     /*
     putting all together:
@@ -165,9 +188,39 @@ public class ViewReadSession implements IReadSession {
     return new ViewSuccessResult(heapCacheCursor, null);
   }
 
+  /**
+   * Opens the cursors of all layers, ordered by feature id, and merges them while reading. The missing features are fetched for batches
+   * of features, so that the memory consumption is bounded.
+   */
+  private <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> Result executeStreaming(
+      @NotNull ReadRequest<?> request,
+      @NotNull List<LayerReadRequest> layerReadRequests,
+      @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory,
+      @NotNull MergeOperation<FEATURE, CODEC> mergeOperation,
+      @NotNull MissingIdResolver<FEATURE, CODEC> missingIdResolver) {
+    final List<ViewLayerCursor<FEATURE, CODEC>> layerCursors =
+        parallelQueryExecutor.openInParallel(layerReadRequests, codecFactory);
+    final Function<Collection<List<ViewLayerRow<FEATURE, CODEC>>>, Map<String, List<ViewLayerRow<FEATURE, CODEC>>>>
+        missingFeaturesFetcher = isRequestOnlyById(request) || missingIdResolver.skip()
+            ? null
+            : multiLayerRows -> getMissingFeatures(multiLayerRows, missingIdResolver, codecFactory);
+    synchronized (this) {
+      openCursors++;
+    }
+    final ViewMergeCursor<FEATURE, CODEC> cursor = new ViewMergeCursor<>(
+            codecFactory,
+            layerCursors,
+            mergeOperation,
+            missingFeaturesFetcher,
+            mergeBatchSize,
+            this::cursorClosed)
+        .withDeadline(parallelQueryExecutor.getDeadline());
+    return new ViewSuccessResult(cursor);
+  }
+
   private <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>>
       Map<String, List<ViewLayerRow<FEATURE, CODEC>>> getMissingFeatures(
-          @NotNull Map<String, List<ViewLayerRow<FEATURE, CODEC>>> multiLayerRows,
+          @NotNull Collection<List<ViewLayerRow<FEATURE, CODEC>>> multiLayerRows,
           @NotNull MissingIdResolver<FEATURE, CODEC> missingIdResolver,
           @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory) {
 
@@ -175,7 +228,7 @@ public class ViewReadSession implements IReadSession {
     if (!missingIdResolver.skip()) {
       // Prepare map of <Layer_x, [FeatureId_x, ..., FeatureId_z]> features and layers you want to search by id.
       // to query only once each layer
-      Map<ViewLayer, List<String>> idsToFetch = multiLayerRows.values().stream()
+      Map<ViewLayer, List<String>> idsToFetch = multiLayerRows.stream()
           .map(missingIdResolver::layersToSearch)
           .filter(Objects::nonNull)
           .flatMap(Collection::stream)
@@ -189,11 +242,70 @@ public class ViewReadSession implements IReadSession {
               subSessions.get(entry.getKey())))
           .collect(toList());
 
-      result = parallelQueryExecutor.queryInParallel(missingFeaturesRequests, codecFactory);
+      if (!missingFeaturesRequests.isEmpty()) {
+        result = parallelQueryExecutor.queryInParallel(missingFeaturesRequests, codecFactory);
+      }
     }
     return result;
   }
 
+  /**
+   * Enables or disables the streaming merge. The streaming merge is only used, when the storages of all layers return the features
+   * ordered by id, so disabling it is only needed to force the merge in memory.
+   *
+   * @param streamingMerge {@code true} to merge the layers while reading; {@code false} to read all layers into memory first.
+   * @return this.
+   */
+  public @NotNull ViewReadSession withStreamingMerge(boolean streamingMerge) {
+    this.streamingMerge = streamingMerge;
+    return this;
+  }
+
+  /**
+   * Sets the amount of features for which the missing features are fetched at once, when merging while reading.
+   *
+   * @param mergeBatchSize The amount of features to fetch missing features for at once.
+   * @return this.
+   */
+  public @NotNull ViewReadSession withMergeBatchSize(int mergeBatchSize) {
+    this.mergeBatchSize = mergeBatchSize;
+    return this;
+  }
+
+  /**
+   * Sets the point in time until which all layers must have responded. When the deadline passes, the layer queries still running are
+   * cancelled and the request fails. The deadline covers as well reading the returned cursor, including the missing features fetched
+   * while reading, therefore the statement timeout of the layer sessions is lowered to the remaining time. Without a deadline, the
+   * statement timeout of the layer sessions is used.
+   *
+   * @param deadlineMillis The deadline in epoch milliseconds; {@code 0} to use the statement timeout.
+   * @return this.
+   */
+  public @NotNull ViewReadSession withDeadline(long deadlineMillis) {
+    parallelQueryExecutor.withDeadline(deadlineMillis);
+    if (deadlineMillis > 0) {
+      final long remaining = Math.max(1, deadlineMillis - System.currentTimeMillis());
+      for (final IReadSession session : subSessions.values()) {
+        final long timeout = session.getStatementTimeout(TimeUnit.MILLISECONDS);
+        if (timeout <= 0 || timeout > remaining) {
+          session.setStatementTimeout(remaining, TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Sets the maximum amount of layers to query concurrently for this session, without modifying the view shared by all requests.
+   *
+   * @param maxParallelism The maximum amount of layers to query concurrently; {@code 0} to use {@link View#getMaxParallelism()}.
+   * @return this.
+   */
+  public @NotNull ViewReadSession withMaxParallelism(int maxParallelism) {
+    parallelQueryExecutor.withMaxParallelism(maxParallelism);
+    return this;
+  }
+
   @Override
   public boolean isMasterConnect() {
     return false;
@@ -251,11 +363,40 @@ public class ViewReadSession implements IReadSession {
     return new ErrorResult(XyzError.NOT_IMPLEMENTED, "process");
   }
 
+  @Override
+  public void cancel() {
+    subSessions.values().forEach(ISession::cancel);
+  }
+
   @Override
   public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      // The sessions are still needed to fetch missing features of open cursors.
+      if (openCursors > 0) {
+        return;
+      }
+    }
+    subSessions.values().forEach(ISession::close);
+  }
+
+  private void cursorClosed() {
+    synchronized (this) {
+      openCursors--;
+      if (!closed || openCursors > 0) {
+        return;
+      }
+    }
     subSessions.values().forEach(ISession::close);
   }
 
+  private boolean isStreamable(@NotNull ReadFeatures request) {
+    return streamingMerge && orderedLayers && !request.isReturnDeleted() && !request.isReturnAllVersions();
+  }
+
   private boolean isRequestOnlyById(ReadRequest<?> request) {
     if (request instanceof ReadFeatures) {
       ReadFeatures readFeatures = (ReadFeatures) request;
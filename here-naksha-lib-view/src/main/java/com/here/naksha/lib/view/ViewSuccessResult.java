@@ -18,6 +18,7 @@
  */
 package com.here.naksha.lib.view;
 
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
 import com.here.naksha.lib.core.models.storage.MutableCursor;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
 import java.util.Map;
@@ -30,4 +31,8 @@ public class ViewSuccessResult extends SuccessResult {
     this.cursor = cursor;
     this.originalFeaturesOrder = originalFeaturesOrder;
   }
+
+  public ViewSuccessResult(@Nullable ForwardCursor<?, ?> cursor) {
+    this.cursor = cursor;
+  }
 }
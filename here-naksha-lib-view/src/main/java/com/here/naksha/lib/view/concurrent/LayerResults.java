@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.view.concurrent;
+
+import com.here.naksha.lib.core.NakshaContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Collects the results of the layer queries executed concurrently. Once discarded, all results that were or will be collected are handed
+ * over to the discard consumer, so that no result (for example an open cursor) is lost, when the queries are cancelled.
+ *
+ * @param <R> The result-type of a single layer query.
+ */
+class LayerResults<R> {
+
+  LayerResults(int size, @Nullable Consumer<R> discard) {
+    this.results = new Object[size];
+    this.discard = discard;
+  }
+
+  private final Object @NotNull [] results;
+  private final @Nullable Consumer<R> discard;
+  private volatile boolean discarded;
+
+  /**
+   * Executes the query of a layer, with the given context attached to the current thread, and collects the result.
+   *
+   * @param index   The index of the layer request.
+   * @param context The context of the request.
+   * @param query   The query to execute.
+   * @return the index.
+   */
+  int execute(int index, @NotNull NakshaContext context, @NotNull Supplier<R> query) {
+    if (discarded) {
+      return index;
+    }
+    final NakshaContext previous = context.attachToCurrentThread();
+    try {
+      final R result = query.get();
+      synchronized (this) {
+        if (!discarded) {
+          results[index] = result;
+          return index;
+        }
+      }
+      if (discard != null) {
+        discard.accept(result);
+      }
+      return index;
+    } finally {
+      previous.attachToCurrentThread();
+    }
+  }
+
+  /**
+   * Returns the results in the order of the layer requests.
+   *
+   * @return the results.
+   */
+  @SuppressWarnings("unchecked")
+  synchronized @NotNull List<R> get() {
+    final List<R> list = new ArrayList<>(results.length);
+    for (final Object result : results) {
+      list.add((R) result);
+    }
+    return list;
+  }
+
+  /**
+   * Discards the results collected so far, and all results collected later.
+   */
+  @SuppressWarnings("unchecked")
+  void discard() {
+    final Object[] collected;
+    synchronized (this) {
+      if (discarded) {
+        return;
+      }
+      discarded = true;
+      collected = results.clone();
+      Arrays.fill(results, null);
+    }
+    if (discard != null) {
+      for (final Object result : collected) {
+        if (result != null) {
+          discard.accept((R) result);
+        }
+      }
+    }
+  }
+}
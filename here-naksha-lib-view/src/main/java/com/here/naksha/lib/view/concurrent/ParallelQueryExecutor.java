@@ -26,72 +26,229 @@ import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.models.storage.FeatureCodec;
 import com.here.naksha.lib.core.models.storage.FeatureCodecFactory;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
 import com.here.naksha.lib.core.models.storage.MutableCursor;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
 import com.here.naksha.lib.core.storage.IReadSession;
 import com.here.naksha.lib.view.View;
 import com.here.naksha.lib.view.ViewLayer;
+import com.here.naksha.lib.view.ViewLayerCursor;
 import com.here.naksha.lib.view.ViewLayerRow;
+import com.here.naksha.lib.view.ViewMetrics;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.jetbrains.annotations.Nullable;
 
+/**
+ * Executes the requests of the layers of a view in the {@link ViewThreadPool}, at most {@link #withMaxParallelism(int) maxParallelism}
+ * layers at a time. When one layer fails or the deadline is exceeded, the queries of the remaining layers are cancelled, including the
+ * statements they are executing in their storage. When already executed by a worker of the pool, which is the case for views nested into
+ * other views, the layers are queried one after the other in the current thread, so that the workers never wait for each other.
+ */
 public class ParallelQueryExecutor {
-  private static final Logger log = LoggerFactory.getLogger(ParallelQueryExecutor.class);
   private final long defaultTimeoutMillis = 1000 * 60 * 10L; // 10 minutes
   private final View viewRef;
+  private long deadlineMillis;
+  private int maxParallelism;
 
   public ParallelQueryExecutor(@NotNull View viewRef) {
     this.viewRef = viewRef;
   }
 
+  /**
+   * Sets the point in time until which all layers must have responded, in epoch milliseconds. When not set, the deadline is derived from
+   * the statement timeout of the layer sessions.
+   *
+   * @param deadlineMillis The deadline in epoch milliseconds; {@code 0} to derive the deadline from the statement timeout.
+   * @return this.
+   */
+  public @NotNull ParallelQueryExecutor withDeadline(long deadlineMillis) {
+    this.deadlineMillis = deadlineMillis;
+    return this;
+  }
+
+  /**
+   * Returns the point in time until which all layers must have responded, in epoch milliseconds.
+   *
+   * @return the deadline in epoch milliseconds; {@code 0} if derived from the statement timeout.
+   */
+  public long getDeadline() {
+    return deadlineMillis;
+  }
+
+  /**
+   * Sets the maximum amount of layers to query concurrently for this executor only, without modifying the view.
+   *
+   * @param maxParallelism The maximum amount of layers to query concurrently; {@code 0} to use {@link View#getMaxParallelism()}.
+   * @return this.
+   */
+  public @NotNull ParallelQueryExecutor withMaxParallelism(int maxParallelism) {
+    this.maxParallelism = maxParallelism;
+    return this;
+  }
+
   public <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>>
       Map<String, List<ViewLayerRow<FEATURE, CODEC>>> queryInParallel(
           @NotNull List<LayerReadRequest> requests, FeatureCodecFactory<FEATURE, CODEC> codecFactory) {
-    List<Future<List<ViewLayerRow<FEATURE, CODEC>>>> futures = new ArrayList<>();
-
-    for (LayerReadRequest layerReadRequest : requests) {
-      QueryTask<List<ViewLayerRow<FEATURE, CODEC>>> singleTask =
-          new QueryTask<>(null, NakshaContext.currentContext());
-
-      Future<List<ViewLayerRow<FEATURE, CODEC>>> futureResult = singleTask.start(() -> executeSingle(
-              layerReadRequest.getViewLayer(),
-              layerReadRequest.getSession(),
-              codecFactory,
-              layerReadRequest.getRequest())
-          .collect(toList()));
-      futures.add(futureResult);
+    final List<List<ViewLayerRow<FEATURE, CODEC>>> results = executeAll(
+        requests,
+        layerReadRequest -> executeSingle(
+                layerReadRequest.getViewLayer(),
+                layerReadRequest.getSession(),
+                codecFactory,
+                layerReadRequest.getRequest())
+            .collect(toList()),
+        null);
+    return results.stream().flatMap(Collection::stream).collect(groupingBy(viewRow -> viewRow.getRow()
+        .getId()));
+  }
+
+  /**
+   * Executes the requests in parallel, but does not read the results. The returned cursors have to be closed by the caller.
+   *
+   * @param requests     The requests to execute, every layer is expected to return the rows ordered by feature id.
+   * @param codecFactory The codec factory to use.
+   * @return the open cursors of all layers, in the order of the requests.
+   */
+  public <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> List<ViewLayerCursor<FEATURE, CODEC>> openInParallel(
+      @NotNull List<LayerReadRequest> requests, FeatureCodecFactory<FEATURE, CODEC> codecFactory) {
+    return executeAll(
+        requests,
+        layerReadRequest -> openSingle(
+            layerReadRequest.getViewLayer(),
+            layerReadRequest.getSession(),
+            codecFactory,
+            layerReadRequest.getRequest()),
+        ViewLayerCursor::close);
+  }
+
+  /**
+   * Executes the query for all requests and returns the results in the order of the requests. Fails fast, when any query fails or the
+   * deadline is exceeded, in which case the still running queries are cancelled and the results of the completed ones are discarded.
+   *
+   * @param requests The layer requests.
+   * @param query    The query to execute for every layer.
+   * @param discard  Invoked for every result that is not returned, because the execution failed; {@code null} if nothing to release.
+   * @param <R>      The result-type of a single query.
+   * @return the results in the order of the requests.
+   */
+  private <R> @NotNull List<R> executeAll(
+      @NotNull List<LayerReadRequest> requests,
+      @NotNull Function<LayerReadRequest, R> query,
+      @Nullable Consumer<R> discard) {
+    final long deadline = getDeadline(requests);
+    if (ViewThreadPool.isWorkerThread()) {
+      return executeInline(requests, query, discard, deadline);
     }
+    final int size = requests.size();
+    final int parallelism = Math.max(1, maxParallelism > 0 ? maxParallelism : viewRef.getMaxParallelism());
+    final NakshaContext context = NakshaContext.currentContext();
+    final LayerResults<R> results = new LayerResults<>(size, discard);
+    final ExecutorCompletionService<Integer> completionService =
+        new ExecutorCompletionService<>(ViewThreadPool.executor());
+    final List<Future<Integer>> futures = new ArrayList<>(size);
+    int done = 0;
+    try {
+      while (done < size) {
+        while (futures.size() < size && futures.size() - done < parallelism) {
+          final int index = futures.size();
+          final LayerReadRequest request = requests.get(index);
+          futures.add(completionService.submit(
+              () -> results.execute(index, context, () -> query.apply(request))));
+        }
+        final long remaining = deadline - System.currentTimeMillis();
+        final Future<Integer> future =
+            remaining > 0 ? completionService.poll(remaining, TimeUnit.MILLISECONDS) : null;
+        if (future == null) {
+          throw new TimeoutException(
+              "View " + viewName() + " did not complete the layer queries within the deadline");
+        }
+        future.get();
+        done++;
+      }
+      return results.get();
+    } catch (RejectedExecutionException e) {
+      cancel(requests, futures, results);
+      throw ViewThreadPool.rejected(e);
+    } catch (InterruptedException e) {
+      cancel(requests, futures, results);
+      Thread.currentThread().interrupt();
+      throw unchecked(e);
+    } catch (ExecutionException | TimeoutException e) {
+      cancel(requests, futures, results);
+      throw unchecked(e);
+    }
+  }
 
-    // wait for all
-    Long timeout = getTimeout(requests);
-    return getCollectedResults(futures, timeout);
+  /**
+   * Executes the query for all requests one after the other in the current thread, checking the deadline before every layer.
+   *
+   * @param requests The layer requests.
+   * @param query    The query to execute for every layer.
+   * @param discard  Invoked for every result that is not returned, because the execution failed; {@code null} if nothing to release.
+   * @param deadline The deadline in epoch milliseconds.
+   * @param <R>      The result-type of a single query.
+   * @return the results in the order of the requests.
+   */
+  private <R> @NotNull List<R> executeInline(
+      @NotNull List<LayerReadRequest> requests,
+      @NotNull Function<LayerReadRequest, R> query,
+      @Nullable Consumer<R> discard,
+      long deadline) {
+    final List<R> results = new ArrayList<>(requests.size());
+    try {
+      for (final LayerReadRequest request : requests) {
+        if (System.currentTimeMillis() >= deadline) {
+          throw unchecked(new TimeoutException(
+              "View " + viewName() + " did not complete the layer queries within the deadline"));
+        }
+        results.add(query.apply(request));
+      }
+      return results;
+    } catch (RuntimeException e) {
+      if (discard != null) {
+        results.forEach(discard);
+      }
+      throw e;
+    }
   }
 
-  @NotNull
-  private <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>>
-      Map<String, List<ViewLayerRow<FEATURE, CODEC>>> getCollectedResults(
-          List<Future<List<ViewLayerRow<FEATURE, CODEC>>>> tasks, Long timeoutMillis) {
-    return tasks.stream()
-        .map(future -> {
-          try {
-            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
-          } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw unchecked(e);
-          }
-        })
-        .flatMap(Collection::stream)
-        .collect(groupingBy(viewRow -> viewRow.getRow().getId()));
+  private <R> void cancel(
+      @NotNull List<LayerReadRequest> requests,
+      @NotNull List<Future<Integer>> futures,
+      @NotNull LayerResults<R> results) {
+    results.discard();
+    for (int i = 0; i < futures.size(); i++) {
+      final Future<Integer> future = futures.get(i);
+      if (!future.isDone()) {
+        future.cancel(true);
+        requests.get(i).getSession().cancel();
+      }
+    }
+  }
+
+  private @NotNull String viewName() {
+    return viewRef.getViewCollection() != null ? viewRef.getViewCollection().getName() : "";
+  }
+
+  private long getDeadline(@NotNull List<LayerReadRequest> requests) {
+    if (deadlineMillis > 0) {
+      return deadlineMillis;
+    }
+    return System.currentTimeMillis() + getTimeout(requests);
   }
 
   private @NotNull Long getTimeout(@NotNull List<LayerReadRequest> requests) {
@@ -106,13 +263,47 @@ public class ParallelQueryExecutor {
     }
   }
 
+  private static @NotNull String failedStatus() {
+    return Thread.currentThread().isInterrupted() ? ViewMetrics.CANCELLED : ViewMetrics.NOK;
+  }
+
+  private <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> ViewLayerCursor<FEATURE, CODEC> openSingle(
+      @NotNull ViewLayer layer,
+      @NotNull IReadSession session,
+      @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory,
+      @NotNull ReadFeatures request) {
+    final long startTime = System.currentTimeMillis();
+    int layerPriority = viewRef.getViewCollection().priorityOf(layer);
+    final String collectionId = layer.getCollectionId();
+
+    // prepare request
+    ReadFeatures clonedRequest = request.shallowClone();
+    clonedRequest.withCollections(List.of(collectionId));
+    clonedRequest.withOrderById(true);
+
+    try {
+      ForwardCursor<FEATURE, CODEC> cursor =
+          session.execute(clonedRequest).cursor(codecFactory);
+      return new ViewLayerCursor<>(cursor, layerPriority, layer, startTime);
+    } catch (NoCursor | RuntimeException e) {
+      ViewMetrics.recordLayerQuery(
+          NakshaContext.currentContext().getStreamId(),
+          collectionId,
+          "READ",
+          failedStatus(),
+          System.currentTimeMillis() - startTime,
+          0);
+      throw unchecked(e);
+    }
+  }
+
   private <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> Stream<ViewLayerRow<FEATURE, CODEC>> executeSingle(
       @NotNull ViewLayer layer,
       @NotNull IReadSession session,
       @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory,
       @NotNull ReadFeatures request) {
     final long startTime = System.currentTimeMillis();
-    String status = "OK";
+    String status = ViewMetrics.OK;
     int featureCnt = 0;
     int layerPriority = viewRef.getViewCollection().priorityOf(layer);
     final String collectionId = layer.getCollectionId();
@@ -126,12 +317,11 @@ public class ParallelQueryExecutor {
       List<CODEC> featureList = cursor.asList();
       featureCnt = featureList.size();
       return featureList.stream().map(row -> new ViewLayerRow<>(row, layerPriority, layer));
-    } catch (NoCursor e) {
-      status = "NOK";
+    } catch (NoCursor | RuntimeException e) {
+      status = failedStatus();
       throw unchecked(e);
     } finally {
-      log.info(
-          "[View Request stats => streamId,layerId,method,status,timeTakenMs,fCnt] - ViewReqStats {} {} {} {} {} {}",
+      ViewMetrics.recordLayerQuery(
           NakshaContext.currentContext().getStreamId(),
           collectionId,
           "READ",
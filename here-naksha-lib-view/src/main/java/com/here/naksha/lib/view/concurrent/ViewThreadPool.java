@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.view.concurrent;
+
+import com.here.naksha.lib.core.exceptions.TooManyTasks;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The bounded thread pool used to query the layers of all views. Layer queries are kept apart from the general purpose task pool, so that a
+ * view with many layers can't starve other requests, and the amount of layer queries executed concurrently is limited.
+ */
+public final class ViewThreadPool {
+
+  /**
+   * The default amount of threads.
+   */
+  public static final int DEFAULT_MAX_THREADS = 16 * Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The default amount of layer queries that can wait for a thread, before new queries are rejected.
+   */
+  public static final int DEFAULT_MAX_QUEUED = 10_000;
+
+  private static final ThreadGroup threadGroup = new ThreadGroup("Naksha-View");
+  private static final AtomicLong threadId = new AtomicLong(1L);
+  private static final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+      DEFAULT_MAX_THREADS,
+      DEFAULT_MAX_THREADS,
+      60L,
+      TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(DEFAULT_MAX_QUEUED),
+      ViewThreadPool::newThread);
+
+  static {
+    threadPool.allowCoreThreadTimeOut(true);
+  }
+
+  private ViewThreadPool() {}
+
+  private static @NotNull Thread newThread(@NotNull Runnable runnable) {
+    final Thread thread = new Thread(threadGroup, runnable, "NakshaViewWorker#" + threadId.getAndIncrement());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * Changes the maximum amount of threads used to query layers.
+   *
+   * @param maxThreads The maximum amount of threads.
+   */
+  public static void setMaxThreads(int maxThreads) {
+    if (maxThreads < 1) {
+      throw new IllegalArgumentException("maxThreads must be at least 1");
+    }
+    if (maxThreads > threadPool.getMaximumPoolSize()) {
+      threadPool.setMaximumPoolSize(maxThreads);
+      threadPool.setCorePoolSize(maxThreads);
+    } else {
+      threadPool.setCorePoolSize(maxThreads);
+      threadPool.setMaximumPoolSize(maxThreads);
+    }
+  }
+
+  /**
+   * Returns the maximum amount of threads used to query layers.
+   *
+   * @return the maximum amount of threads used to query layers.
+   */
+  public static int getMaxThreads() {
+    return threadPool.getMaximumPoolSize();
+  }
+
+  /**
+   * Tests if the current thread is a worker of this pool, which is the case when a view is a layer of another view. Such nested layer
+   * queries must not wait for other workers of the pool, because when all workers wait, no worker is left to execute the queries.
+   *
+   * @return {@code true} if the current thread is a worker of this pool.
+   */
+  static boolean isWorkerThread() {
+    return Thread.currentThread().getThreadGroup() == threadGroup;
+  }
+
+  static @NotNull ExecutorService executor() {
+    return threadPool;
+  }
+
+  static @NotNull TooManyTasks rejected(@NotNull RejectedExecutionException e) {
+    final TooManyTasks tooManyTasks = new TooManyTasks("Maximum number of concurrent view layer queries reached");
+    tooManyTasks.initCause(e);
+    return tooManyTasks;
+  }
+}
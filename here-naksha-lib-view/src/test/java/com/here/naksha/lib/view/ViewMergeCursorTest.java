@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.here.naksha.lib.core.exceptions.UncheckedException;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.HeapCacheCursor;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.storage.IStorage;
+import com.here.naksha.lib.view.merge.MergeByStoragePriority;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class ViewMergeCursorTest {
+
+  private final XyzFeatureCodecFactory factory = XyzFeatureCodecFactory.get();
+  private final ViewLayer layer0 = new ViewLayer(mock(IStorage.class), "layer0");
+  private final ViewLayer layer1 = new ViewLayer(mock(IStorage.class), "layer1");
+  private final ViewLayer layer2 = new ViewLayer(mock(IStorage.class), "layer2");
+
+  @Test
+  void shouldMergeLayersOrderedById() {
+    // given
+    List<ViewLayerCursor<XyzFeature, XyzFeatureCodec>> layers = List.of(
+        layerCursor(layer0, 0, "a", "c", "d"),
+        layerCursor(layer1, 1, "b", "c"),
+        layerCursor(layer2, 2, "a", "e"));
+
+    // when
+    List<String> result = new ArrayList<>();
+    List<String> sources = new ArrayList<>();
+    try (ViewMergeCursor<XyzFeature, XyzFeatureCodec> cursor =
+        new ViewMergeCursor<>(factory, layers, new MergeByStoragePriority<>(), null, 2, null)) {
+      while (cursor.hasNext()) {
+        cursor.next();
+        result.add(cursor.getId());
+        sources.add((String) cursor.getFeature().getProperties().get("layer"));
+      }
+    }
+
+    // then
+    assertEquals(List.of("a", "b", "c", "d", "e"), result);
+    assertEquals(List.of("layer0", "layer1", "layer0", "layer0", "layer2"), sources);
+  }
+
+  @Test
+  void shouldFetchMissingFeaturesPerBatch() {
+    // given
+    List<ViewLayerCursor<XyzFeature, XyzFeatureCodec>> layers =
+        List.of(layerCursor(layer0, 0, "a"), layerCursor(layer1, 1, "b", "c", "d"));
+    AtomicInteger fetches = new AtomicInteger();
+    Function<Collection<List<ViewLayerRow<XyzFeature, XyzFeatureCodec>>>, Map<String, List<ViewLayerRow<XyzFeature, XyzFeatureCodec>>>>
+        fetcher = batch -> {
+          fetches.incrementAndGet();
+          assertTrue(batch.size() <= 2);
+          return Map.of("c", List.of(new ViewLayerRow<>(codec("c", "layer0"), 0, layer0)));
+        };
+
+    // when
+    List<String> sources = new ArrayList<>();
+    try (ViewMergeCursor<XyzFeature, XyzFeatureCodec> cursor =
+        new ViewMergeCursor<>(factory, layers, new MergeByStoragePriority<>(), fetcher, 2, null)) {
+      while (cursor.hasNext()) {
+        cursor.next();
+        sources.add(cursor.getId() + ":" + cursor.getFeature().getProperties().get("layer"));
+      }
+    }
+
+    // then
+    assertEquals(List.of("a:layer0", "b:layer1", "c:layer0", "d:layer1"), sources);
+    assertEquals(2, fetches.get());
+  }
+
+  @Test
+  void shouldFailWhenLayerIsNotOrdered() {
+    // given
+    List<ViewLayerCursor<XyzFeature, XyzFeatureCodec>> layers = List.of(layerCursor(layer0, 0, "b", "a"));
+
+    // expect
+    try (ViewMergeCursor<XyzFeature, XyzFeatureCodec> cursor =
+        new ViewMergeCursor<>(factory, layers, new MergeByStoragePriority<>(), null, 1, null)) {
+      assertThrows(IllegalStateException.class, () -> {
+        while (cursor.hasNext()) {
+          cursor.next();
+        }
+      });
+    }
+  }
+
+  @Test
+  void shouldInvokeOnCloseOnce() {
+    // given
+    AtomicInteger closed = new AtomicInteger();
+    ViewMergeCursor<XyzFeature, XyzFeatureCodec> cursor = new ViewMergeCursor<>(
+        factory, List.of(layerCursor(layer0, 0, "a")), new MergeByStoragePriority<>(), null, 1, closed::incrementAndGet);
+
+    // when
+    cursor.close();
+    cursor.close();
+
+    // then
+    assertEquals(1, closed.get());
+    assertFalse(cursor.hasNext());
+  }
+
+  @Test
+  void shouldFailWhenReadAfterDeadline() {
+    // given
+    List<ViewLayerCursor<XyzFeature, XyzFeatureCodec>> layers = List.of(layerCursor(layer0, 0, "a", "b"));
+
+    // expect
+    try (ViewMergeCursor<XyzFeature, XyzFeatureCodec> cursor = new ViewMergeCursor<>(
+            factory, layers, new MergeByStoragePriority<>(), null, 1, null)
+        .withDeadline(System.currentTimeMillis() - 1)) {
+      UncheckedException e = assertThrows(UncheckedException.class, cursor::hasNext);
+      assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+  }
+
+  @Test
+  void shouldCompareIdsByCodePoints() {
+    assertTrue(ViewMergeCursor.compareIds("a", "b") < 0);
+    assertTrue(ViewMergeCursor.compareIds("ab", "a") > 0);
+    assertEquals(0, ViewMergeCursor.compareIds("abc", "abc"));
+    // U+1F600 is encoded as surrogate pair in Java, but is greater than U+FFFD in UTF-8 binary order
+    assertTrue(ViewMergeCursor.compareIds("😀", "�") > 0);
+  }
+
+  private ViewLayerCursor<XyzFeature, XyzFeatureCodec> layerCursor(ViewLayer layer, int priority, String... ids) {
+    List<XyzFeatureCodec> codecs = new ArrayList<>();
+    for (String id : ids) {
+      codecs.add(codec(id, layer.getCollectionId()));
+    }
+    return new ViewLayerCursor<>(
+        new HeapCacheCursor<>(factory, codecs, null), priority, layer, System.currentTimeMillis());
+  }
+
+  private XyzFeatureCodec codec(String id, String layerName) {
+    XyzFeature feature = new XyzFeature(id);
+    feature.getProperties().put("layer", layerName);
+    XyzFeatureCodec codec = factory.newInstance();
+    codec.setFeature(feature);
+    codec.decodeParts(true);
+    return codec;
+  }
+}
@@ -41,7 +41,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import static com.here.naksha.lib.core.models.storage.POp.eq;
 import static com.here.naksha.lib.core.models.storage.POp.or;
@@ -52,6 +55,7 @@ import static com.here.naksha.lib.view.Sample.sampleXyzWriteResponse;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 public class ViewTest {
@@ -95,6 +99,49 @@ public class ViewTest {
     assertTrue(allFeatures.containsAll(results));
   }
 
+  @Test
+  void testStreamingMergeWhenAllLayersAreOrdered() throws NoCursor {
+
+    // given
+    IStorage storage = mock(IStorage.class);
+    when(storage.supportsOrderById(anyString())).thenReturn(true);
+    ViewLayer topologiesDS = new ViewLayer(storage, "topologies");
+    ViewLayer buildingsDS = new ViewLayer(storage, "buildings");
+
+    List<XyzFeatureCodec> results = sampleXyzResponse(3);
+    when(storage.newReadSession(nc, false)).thenReturn(new MockReadSession(results));
+
+    View view = new View(new ViewLayerCollection("myCollection", topologiesDS, buildingsDS));
+
+    // when
+    ViewReadSession readSession = view.newReadSession(nc, false);
+    Result result = readSession.execute(
+        new ReadFeatures(), XyzFeatureCodecFactory.get(), new MergeByStoragePriority<>(), new IgnoreMissingResolver<>());
+    MutableCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzMutableCursor();
+
+    // then
+    assertTrue(view.supportsOrderById());
+    assertTrue(cursor.next());
+    assertEquals(
+        results.stream().map(XyzFeatureCodec::getId).collect(Collectors.toList()),
+        cursor.asList().stream().map(XyzFeatureCodec::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  void testNoStreamingMergeWhenAnyLayerIsUnordered() {
+    // given
+    IStorage ordered = mock(IStorage.class);
+    when(ordered.supportsOrderById(anyString())).thenReturn(true);
+    IStorage unordered = mock(IStorage.class);
+
+    // when
+    View view = new View(new ViewLayerCollection(
+        "myCollection", new ViewLayer(ordered, "topologies"), new ViewLayer(unordered, "buildings")));
+
+    // then
+    assertFalse(view.supportsOrderById());
+  }
+
   @Test
   void testWriteApiNotation() throws NoCursor {
     IStorage storage = mock(IStorage.class);
@@ -219,8 +266,16 @@ public class ViewTest {
     IReadSession topoReadSession = mock(IReadSession.class);
     IReadSession buildReadSession = mock(IReadSession.class);
 
-    when(topoReadSession.execute(any())).thenThrow(new RuntimeException(new TimeoutException()));
-    when(buildReadSession.execute(any())).thenReturn(new MockResult<>(sampleXyzResponse(1)));
+    // the layer fails only after the other layer was queried, otherwise the query of the other layer may be cancelled before it starts
+    CountDownLatch buildQueried = new CountDownLatch(1);
+    when(topoReadSession.execute(any())).thenAnswer(invocation -> {
+      buildQueried.await(5, TimeUnit.SECONDS);
+      throw new RuntimeException(new TimeoutException());
+    });
+    when(buildReadSession.execute(any())).thenAnswer(invocation -> {
+      buildQueried.countDown();
+      return new MockResult<>(sampleXyzResponse(1));
+    });
 
     when(topologiesStorage.newReadSession(nc, false)).thenReturn(buildReadSession);
     when(buildingsStorage.newReadSession(nc, false)).thenReturn(topoReadSession);
@@ -250,7 +305,7 @@ public class ViewTest {
 
     List<SimpleTask> tasks = new ArrayList<>();
     try (MockedConstruction<ParallelQueryExecutor> queryExecutor = mockConstruction(ParallelQueryExecutor.class, (mock, context) -> {
-      when(mock.queryInParallel(any(), any())).thenAnswer(new Answer<Object>() {
+      Answer<Object> startTasks = new Answer<Object>() {
         @Override
         public Object answer(InvocationOnMock invocation) throws Throwable {
           List<LayerReadRequest> requests = invocation.getArgument(0);
@@ -264,7 +319,9 @@ public class ViewTest {
           }
           return Collections.emptyMap();
         }
-      });
+      };
+      when(mock.queryInParallel(any(), any())).thenAnswer(startTasks);
+      when(mock.openInParallel(any(), any())).thenAnswer(startTasks);
     })) {
 
       ViewReadSession viewReadSession = view.newReadSession(nc, false);
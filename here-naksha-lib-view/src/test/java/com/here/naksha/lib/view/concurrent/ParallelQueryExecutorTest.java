@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.view.concurrent;
+
+import static com.here.naksha.lib.view.Sample.sampleXyzResponse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.naksha.lib.core.exceptions.UncheckedException;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.storage.IReadSession;
+import com.here.naksha.lib.core.storage.IStorage;
+import com.here.naksha.lib.view.MockResult;
+import com.here.naksha.lib.view.View;
+import com.here.naksha.lib.view.ViewLayer;
+import com.here.naksha.lib.view.ViewLayerCollection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ParallelQueryExecutorTest {
+
+  @Test
+  void shouldCancelRemainingLayersWhenOneLayerFails() throws InterruptedException {
+    // given
+    CountDownLatch interrupted = new CountDownLatch(1);
+    IReadSession slowSession = blockingSession(interrupted);
+    IReadSession failingSession = mock(IReadSession.class);
+    when(failingSession.execute(any())).thenThrow(new IllegalStateException("layer failed"));
+    List<LayerReadRequest> requests = requests(slowSession, failingSession);
+    ParallelQueryExecutor executor = new ParallelQueryExecutor(view(requests));
+
+    // when
+    long start = System.currentTimeMillis();
+    UncheckedException exception = assertThrows(
+        UncheckedException.class, () -> executor.queryInParallel(requests, XyzFeatureCodecFactory.get()));
+
+    // then
+    assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(5));
+    assertInstanceOf(IllegalStateException.class, exception.getCause().getCause());
+    verify(slowSession, timeout(1000)).cancel();
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldCancelLayersWhenDeadlinePasses() throws InterruptedException {
+    // given
+    CountDownLatch interrupted = new CountDownLatch(1);
+    IReadSession slowSession = blockingSession(interrupted);
+    IReadSession fastSession = mock(IReadSession.class);
+    when(fastSession.execute(any())).thenReturn(new MockResult<>(sampleXyzResponse(1)));
+    List<LayerReadRequest> requests = requests(fastSession, slowSession);
+    ParallelQueryExecutor executor =
+        new ParallelQueryExecutor(view(requests)).withDeadline(System.currentTimeMillis() + 200);
+
+    // when
+    UncheckedException exception = assertThrows(
+        UncheckedException.class, () -> executor.openInParallel(requests, XyzFeatureCodecFactory.get()));
+
+    // then
+    assertInstanceOf(TimeoutException.class, exception.getCause());
+    verify(slowSession, timeout(1000)).cancel();
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldNotQueryMoreLayersConcurrentlyThanViewParallelism() {
+    // given
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    IReadSession session = mock(IReadSession.class);
+    when(session.execute(any())).thenAnswer(invocation -> {
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      Thread.sleep(50);
+      active.decrementAndGet();
+      return new MockResult<>(sampleXyzResponse(1));
+    });
+    List<LayerReadRequest> requests = requests(session, session, session, session, session, session);
+    View view = view(requests).withMaxParallelism(2);
+
+    // when
+    int rows = new ParallelQueryExecutor(view)
+        .queryInParallel(requests, XyzFeatureCodecFactory.get())
+        .get("id0")
+        .size();
+
+    // then
+    assertEquals(6, rows);
+    assertTrue(maxActive.get() <= 2, "At most 2 layers should be queried at once, but were " + maxActive.get());
+  }
+
+  @Test
+  void shouldUseParallelismOfExecutorWithoutModifyingView() {
+    // given
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    IReadSession session = mock(IReadSession.class);
+    when(session.execute(any())).thenAnswer(invocation -> {
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      Thread.sleep(50);
+      active.decrementAndGet();
+      return new MockResult<>(sampleXyzResponse(1));
+    });
+    List<LayerReadRequest> requests = requests(session, session, session, session);
+    View view = view(requests);
+    int viewParallelism = view.getMaxParallelism();
+
+    // when
+    new ParallelQueryExecutor(view).withMaxParallelism(1).queryInParallel(requests, XyzFeatureCodecFactory.get());
+
+    // then
+    assertEquals(1, maxActive.get());
+    assertEquals(viewParallelism, view.getMaxParallelism());
+  }
+
+  @Test
+  void shouldQueryNestedLayersInCallingWorker() throws Exception {
+    // given
+    List<String> threads = new CopyOnWriteArrayList<>();
+    IReadSession session = mock(IReadSession.class);
+    when(session.execute(any())).thenAnswer(invocation -> {
+      threads.add(Thread.currentThread().getName());
+      return new MockResult<>(sampleXyzResponse(1));
+    });
+    List<LayerReadRequest> requests = requests(session, session, session);
+    ParallelQueryExecutor executor = new ParallelQueryExecutor(view(requests));
+
+    // when
+    String worker = ViewThreadPool.executor()
+        .submit(() -> {
+          executor.queryInParallel(requests, XyzFeatureCodecFactory.get());
+          return Thread.currentThread().getName();
+        })
+        .get(5, TimeUnit.SECONDS);
+
+    // then
+    assertEquals(List.of(worker, worker, worker), threads);
+  }
+
+  private static IReadSession blockingSession(CountDownLatch interrupted) {
+    IReadSession session = mock(IReadSession.class);
+    when(session.execute(any())).thenAnswer(invocation -> {
+      try {
+        Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+        throw e;
+      }
+      return new MockResult<>(sampleXyzResponse(1));
+    });
+    return session;
+  }
+
+  private static List<LayerReadRequest> requests(IReadSession... sessions) {
+    IStorage storage = mock(IStorage.class);
+    List<LayerReadRequest> requests = new ArrayList<>();
+    for (int i = 0; i < sessions.length; i++) {
+      requests.add(new LayerReadRequest(new ReadFeatures(), new ViewLayer(storage, "layer" + i), sessions[i]));
+    }
+    return requests;
+  }
+
+  private static View view(List<LayerReadRequest> requests) {
+    List<ViewLayer> layers = new ArrayList<>();
+    requests.forEach(request -> layers.add(request.getViewLayer()));
+    return new View(new ViewLayerCollection("myCollection", layers));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A streamed response body, that is closed when the deadline of the request passed, so that a reader blocked by a stalled upstream is
+ * released, and the connection is given back. Reading after the deadline fails, instead of returning the end of a truncated body.
+ */
+class DeadlineInputStream extends FilterInputStream {
+
+  /**
+   * Wraps the given body, closes it when the deadline passed.
+   *
+   * @param in       The body to wrap.
+   * @param deadline The deadline as {@link System#nanoTime()}.
+   * @return the wrapped body.
+   */
+  static @NotNull DeadlineInputStream of(@NotNull InputStream in, long deadline) {
+    final DeadlineInputStream stream = new DeadlineInputStream(in);
+    CompletableFuture.delayedExecutor(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+        .execute(stream::expire);
+    return stream;
+  }
+
+  private DeadlineInputStream(@NotNull InputStream in) {
+    super(in);
+  }
+
+  private volatile boolean closed;
+  private volatile boolean expired;
+
+  private void expire() {
+    if (!closed) {
+      expired = true;
+      try {
+        close();
+      } catch (IOException ignore) {
+      }
+    }
+  }
+
+  private void checkExpired() throws IOException {
+    if (expired) {
+      throw new IOException("Reading the response body timed out");
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    checkExpired();
+    final int b = super.read();
+    if (b < 0) {
+      checkExpired();
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte @NotNull [] b, int off, int len) throws IOException {
+    checkExpired();
+    final int n = super.read(b, off, len);
+    if (n < 0) {
+      checkExpired();
+    }
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    super.close();
+  }
+}
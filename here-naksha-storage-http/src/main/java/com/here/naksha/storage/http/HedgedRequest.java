@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A request, that is sent a second time, when no response was received within a delay, the first response of both is used. The other
+ * one is cancelled, and its body is discarded, if it arrives nonetheless. The request fails, when all sent attempts failed, a failure of
+ * the first attempt, before the delay expired, is not hedged. Only idempotent requests must be hedged.
+ *
+ * @param <T> the type of the response body.
+ */
+class HedgedRequest<T> {
+
+  /**
+   * Sends the request and sends it again, if no response was received within the given delay.
+   *
+   * @param send        The function to send the request.
+   * @param delayMillis The delay in milliseconds, after which the request is sent again.
+   * @param <T>         the type of the response body.
+   * @return the first response.
+   */
+  static <T> @NotNull CompletableFuture<HttpResponse<T>> send(
+      @NotNull Supplier<@NotNull CompletableFuture<HttpResponse<T>>> send, long delayMillis) {
+    final HedgedRequest<T> request = new HedgedRequest<>(send);
+    request.attempt();
+    CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(request::hedge);
+    request.result.whenComplete((response, e) -> request.cancelAttempts());
+    return request.result;
+  }
+
+  private HedgedRequest(@NotNull Supplier<@NotNull CompletableFuture<HttpResponse<T>>> send) {
+    this.send = send;
+  }
+
+  private final @NotNull Supplier<@NotNull CompletableFuture<HttpResponse<T>>> send;
+  private final @NotNull CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+  private final @NotNull List<@NotNull CompletableFuture<HttpResponse<T>>> attempts = new ArrayList<>(2);
+  private int failures;
+
+  private synchronized void hedge() {
+    if (!result.isDone()) {
+      attempt();
+    }
+  }
+
+  private synchronized void attempt() {
+    final CompletableFuture<HttpResponse<T>> attempt = send.get();
+    attempts.add(attempt);
+    attempt.whenComplete(this::onComplete);
+  }
+
+  private synchronized void onComplete(@Nullable HttpResponse<T> response, @Nullable Throwable e) {
+    if (response != null) {
+      if (!result.complete(response)) {
+        discard(response);
+      }
+    } else if (++failures >= attempts.size()) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private synchronized void cancelAttempts() {
+    for (final CompletableFuture<HttpResponse<T>> attempt : attempts) {
+      if (!attempt.isDone()) {
+        attempt.cancel(true);
+      }
+    }
+  }
+
+  private static void discard(@NotNull HttpResponse<?> response) {
+    if (response.body() instanceof InputStream in) {
+      try {
+        in.close();
+      } catch (IOException ignore) {
+      }
+    }
+  }
+}
@@ -48,7 +48,11 @@ public class HttpStorage implements IStorage {
             properties.getUrl(),
             properties.getHeaders(),
             properties.getConnectTimeout(),
-            properties.getSocketTimeout()));
+            properties.getSocketTimeout(),
+            properties.getIdsChunkSize(),
+            properties.getIdsParallelism(),
+            properties.getHedging(),
+            properties.getResponseCache()));
   }
 
   @Override
@@ -35,6 +35,10 @@ public class HttpStorageProperties extends XyzProperties {
 
   public static final Long DEF_CONNECTION_TIMEOUT_SEC = 20L;
   public static final Long DEF_SOCKET_TIMEOUT_SEC = 90L;
+  public static final Integer DEF_IDS_CHUNK_SIZE = 100;
+  public static final Integer DEF_IDS_PARALLELISM = 4;
+  public static final Boolean DEF_HEDGING = false;
+  public static final Boolean DEF_RESPONSE_CACHE = true;
   public static final Map<String, String> DEFAULT_HEADERS = Map.of(
       "Content-Type", "application/json",
       "Accept-Encoding", "gzip");
@@ -43,6 +47,10 @@ public class HttpStorageProperties extends XyzProperties {
   private static final String CONNECTION_TIMEOUT = "connectTimeout";
   private static final String SOCKET_TIMEOUT = "socketTimeout";
   private static final String HEADERS = "headers";
+  private static final String IDS_CHUNK_SIZE = "idsChunkSize";
+  private static final String IDS_PARALLELISM = "idsParallelism";
+  private static final String HEDGING = "hedging";
+  private static final String RESPONSE_CACHE = "responseCache";
 
   @JsonProperty(URL)
   private @NotNull String url;
@@ -56,16 +64,44 @@ public class HttpStorageProperties extends XyzProperties {
   @JsonProperty(HEADERS)
   private @NotNull Map<String, String> headers;
 
+  @JsonProperty(IDS_CHUNK_SIZE)
+  private @NotNull Integer idsChunkSize;
+
+  @JsonProperty(IDS_PARALLELISM)
+  private @NotNull Integer idsParallelism;
+
+  @JsonProperty(HEDGING)
+  private @NotNull Boolean hedging;
+
+  @JsonProperty(RESPONSE_CACHE)
+  private @NotNull Boolean responseCache;
+
+  public HttpStorageProperties(
+      @NotNull String url,
+      @Nullable Long connectTimeout,
+      @Nullable Long socketTimeout,
+      @Nullable Map<String, String> headers) {
+    this(url, connectTimeout, socketTimeout, headers, null, null, null, null);
+  }
+
   @JsonCreator
   public HttpStorageProperties(
       @JsonProperty(value = URL, required = true) @NotNull String url,
       @JsonProperty(CONNECTION_TIMEOUT) @Nullable Long connectTimeout,
       @JsonProperty(SOCKET_TIMEOUT) @Nullable Long socketTimeout,
-      @JsonProperty(HEADERS) @Nullable Map<String, String> headers) {
+      @JsonProperty(HEADERS) @Nullable Map<String, String> headers,
+      @JsonProperty(IDS_CHUNK_SIZE) @Nullable Integer idsChunkSize,
+      @JsonProperty(IDS_PARALLELISM) @Nullable Integer idsParallelism,
+      @JsonProperty(HEDGING) @Nullable Boolean hedging,
+      @JsonProperty(RESPONSE_CACHE) @Nullable Boolean responseCache) {
     this.url = url;
     this.connectTimeout = connectTimeout == null ? DEF_CONNECTION_TIMEOUT_SEC : connectTimeout;
     this.socketTimeout = socketTimeout == null ? DEF_SOCKET_TIMEOUT_SEC : socketTimeout;
     this.headers = headers == null ? DEFAULT_HEADERS : headers;
+    this.idsChunkSize = idsChunkSize == null ? DEF_IDS_CHUNK_SIZE : idsChunkSize;
+    this.idsParallelism = idsParallelism == null ? DEF_IDS_PARALLELISM : idsParallelism;
+    this.hedging = hedging == null ? DEF_HEDGING : hedging;
+    this.responseCache = responseCache == null ? DEF_RESPONSE_CACHE : responseCache;
   }
 
   /**
@@ -86,4 +122,37 @@ public class HttpStorageProperties extends XyzProperties {
   public @NotNull Map<String, String> getHeaders() {
     return headers;
   }
+
+  /**
+   * The maximum amount of ids requested from the upstream at once. Larger id lists are split into chunks, which are requested in
+   * parallel. A value of zero or less disables splitting.
+   */
+  public @NotNull Integer getIdsChunkSize() {
+    return idsChunkSize;
+  }
+
+  /**
+   * The maximum amount of id chunks requested from the upstream at the same time, so that a large id list does not flood the upstream.
+   * This includes the chunks, whose responses are streamed to the client, the responses of the other chunks are read into memory. A value
+   * of zero or less requests all chunks at once.
+   */
+  public @NotNull Integer getIdsParallelism() {
+    return idsParallelism;
+  }
+
+  /**
+   * If reading requests, that did not get a response within the 95th percentile of the recent response times, are sent a second time, so
+   * that the first response is used. This lowers the tail latency at the cost of additional upstream load.
+   */
+  public @NotNull Boolean getHedging() {
+    return hedging;
+  }
+
+  /**
+   * If responses, that the upstream allows to cache, are served from the response cache. A cacheable response is read completely into
+   * memory, before its first feature is returned, so disabling the cache lets large cacheable responses stream from the upstream.
+   */
+  public @NotNull Boolean getResponseCache() {
+    return responseCache;
+  }
 }
@@ -19,19 +19,20 @@
 package com.here.naksha.storage.http;
 
 import static com.here.naksha.common.http.apis.ApiParamsConst.*;
+import static com.here.naksha.storage.http.PrepareResult.prepareMergedResult;
 import static com.here.naksha.storage.http.PrepareResult.prepareResult;
 import static java.lang.String.format;
 
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.models.XyzError;
-import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
-import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.ReadFeaturesProxyWrapper;
 import com.here.naksha.lib.core.models.storage.Result;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -62,38 +63,55 @@ class HttpStorageReadExecute {
       @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
     String featureId = readRequest.getQueryParameter(FEATURE_ID);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format("/%s/features/%s", baseEndpoint(readRequest), featureId),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
     if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
       // For Error 404 (not found) on single feature GetById request, we need to return empty result
+      PrepareResult.closeBody(response);
       return prepareResult(Collections.emptyList());
     }
-    return prepareResult(response, XyzFeature.class, List::of);
+    return prepareResult(response, true);
   }
 
   private static Result executeFeaturesById(
       @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
     List<String> featureIds = readRequest.getQueryParameter(FEATURE_IDS);
-    String queryParamsString = FEATURE_IDS + "=" + String.join(",", featureIds);
+    List<String> endpoints = idsChunks(featureIds, requestSender.getIdsChunkSize()).stream()
+        .map(chunk ->
+            format("/%s/features?%s=%s", baseEndpoint(readRequest), FEATURE_IDS, String.join(",", chunk)))
+        .toList();
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
-        format("/%s/features?%s", baseEndpoint(readRequest), queryParamsString),
-        Map.of(HDR_STREAM_ID, context.getStreamId()));
+    List<HttpResponse<InputStream>> responses =
+        requestSender.sendRequests(endpoints, Map.of(HDR_STREAM_ID, context.getStreamId()));
+
+    return prepareMergedResult(responses);
+  }
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+  /**
+   * Splits the ids into chunks of the given size, so that each chunk is requested separately.
+   *
+   * @return the chunks in the order of the ids, a single chunk, if the chunk size is zero or less.
+   */
+  static List<List<String>> idsChunks(List<String> featureIds, int chunkSize) {
+    if (chunkSize <= 0 || featureIds.size() <= chunkSize) return List.of(featureIds);
+    List<List<String>> chunks = new ArrayList<>((featureIds.size() + chunkSize - 1) / chunkSize);
+    for (int i = 0; i < featureIds.size(); i += chunkSize) {
+      chunks.add(featureIds.subList(i, Math.min(i + chunkSize, featureIds.size())));
+    }
+    return chunks;
   }
 
   private static Result executeFeatureByBBox(
       @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
     String queryParamsString = keysToKeyValuesStrings(readRequest, WEST, NORTH, EAST, SOUTH, LIMIT);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format("/%s/bbox?%s%s", baseEndpoint(readRequest), queryParamsString, getPOpQueryOrEmpty(readRequest)),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+    return prepareResult(response, false);
   }
 
   private static Result executeFeaturesByTile(
@@ -105,24 +123,24 @@ class HttpStorageReadExecute {
     if (tileType != null && !tileType.equals(TILE_TYPE_QUADKEY))
       return new ErrorResult(XyzError.NOT_IMPLEMENTED, "Tile type other than " + TILE_TYPE_QUADKEY);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format(
             "/%s/quadkey/%s?%s%s",
             baseEndpoint(readRequest), tileId, queryParamsString, getPOpQueryOrEmpty(readRequest)),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+    return prepareResult(response, false);
   }
 
   private static Result executeIterate(
       @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
     String queryParamsString = keysToKeyValuesStrings(readRequest, LIMIT);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format("/%s/iterate?%s", baseEndpoint(readRequest), queryParamsString),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+    return prepareResult(response, false);
   }
 
   /**
@@ -87,6 +87,9 @@ public final class HttpStorageReadSession implements IReadSession {
     throw new NotImplementedException();
   }
 
+  /**
+   * Executes the read. The features of the result are streamed from the upstream, so the result must be closed.
+   */
   @Override
   public @NotNull Result execute(@NotNull ReadRequest<?> readRequest) {
     try {
@@ -20,20 +20,15 @@ package com.here.naksha.storage.http;
 
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
 
-import com.here.naksha.lib.core.models.Typed;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.storage.*;
-import com.here.naksha.lib.core.util.json.JsonSerializable;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
 import java.util.zip.GZIPInputStream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -47,40 +42,86 @@ class PrepareResult {
     return createHttpResultFromFeatureList(featureList);
   }
 
-  static <T extends Typed> Result prepareResult(
-      HttpResponse<byte[]> httpResponse,
-      Class<T> httpResponseType,
-      Function<T, List<XyzFeature>> typedResponseToFeatureList) {
-
-    XyzError error = mapHttpStatusToErrorOrNull(httpResponse.statusCode());
-    if (error != null) return new ErrorResult(error, "Response http status code: " + httpResponse.statusCode());
+  /**
+   * Builds a result, that parses the features from the body of the given response, while the cursor is iterated. The body is owned by the
+   * result from now on.
+   *
+   * @param httpResponse  The response with the streamed body.
+   * @param singleFeature {@code true}, if the body is a single feature; {@code false}, if it is a feature collection.
+   */
+  static Result prepareResult(HttpResponse<InputStream> httpResponse, boolean singleFeature) {
+    final XyzError error;
+    try {
+      error = mapHttpStatusToErrorOrNull(httpResponse.statusCode());
+    } catch (RuntimeException e) {
+      closeBody(httpResponse);
+      throw e;
+    }
+    if (error != null) {
+      closeBody(httpResponse);
+      return new ErrorResult(error, "Response http status code: " + httpResponse.statusCode());
+    }
+    return new HttpSuccessResult<>(new StreamingFeatureCursor(prepareBody(httpResponse), singleFeature));
+  }
 
-    T resultFeatures = JsonSerializable.deserialize(prepareBody(httpResponse), httpResponseType);
-    return prepareResult(typedResponseToFeatureList.apply(resultFeatures));
+  /**
+   * Builds a result, that parses the feature collections from the bodies of all given responses, one after the other, while the cursor is
+   * iterated. If any response has an error status, the error of the first one is returned. The bodies are owned by the result from now
+   * on.
+   *
+   * @param httpResponses The responses with the streamed bodies.
+   */
+  static Result prepareMergedResult(List<HttpResponse<InputStream>> httpResponses) {
+    if (httpResponses.size() == 1) return prepareResult(httpResponses.get(0), false);
+    final List<InputStream> bodies = new ArrayList<>(httpResponses.size());
+    try {
+      for (final HttpResponse<InputStream> httpResponse : httpResponses) {
+        XyzError error = mapHttpStatusToErrorOrNull(httpResponse.statusCode());
+        if (error != null) {
+          httpResponses.forEach(PrepareResult::closeBody);
+          return new ErrorResult(error, "Response http status code: " + httpResponse.statusCode());
+        }
+      }
+      for (final HttpResponse<InputStream> httpResponse : httpResponses) {
+        bodies.add(prepareBody(httpResponse));
+      }
+    } catch (RuntimeException e) {
+      httpResponses.forEach(PrepareResult::closeBody);
+      throw e;
+    }
+    return new HttpSuccessResult<>(new StreamingFeatureCursor(bodies, false));
   }
 
-  private static String prepareBody(HttpResponse<byte[]> response) {
+  private static InputStream prepareBody(HttpResponse<InputStream> response) {
     List<String> contentEncodingList = response.headers().allValues("content-encoding");
-    if (contentEncodingList.isEmpty()) return new String(response.body(), StandardCharsets.UTF_8);
-    if (contentEncodingList.size() > 1)
+    if (contentEncodingList.isEmpty()) return response.body();
+    if (contentEncodingList.size() > 1) {
+      closeBody(response);
       throw new IllegalArgumentException("There are more than one Content-Encoding value in response");
+    }
     String contentEncoding = contentEncodingList.get(0);
 
-    if (contentEncoding.equalsIgnoreCase("gzip")) return gzipDecode(response.body());
-    else throw new IllegalArgumentException("Encoding " + contentEncoding + " not recognized");
+    if (contentEncoding.equalsIgnoreCase("gzip")) return gzipDecode(response);
+    closeBody(response);
+    throw new IllegalArgumentException("Encoding " + contentEncoding + " not recognized");
   }
 
-  private static String gzipDecode(byte[] encoded) {
-    try (ByteArrayInputStream bis = new ByteArrayInputStream(encoded);
-        GZIPInputStream gis = new GZIPInputStream(bis);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      gis.transferTo(bos);
-      return bos.toString();
+  private static InputStream gzipDecode(HttpResponse<InputStream> response) {
+    try {
+      return new GZIPInputStream(response.body());
     } catch (IOException e) {
+      closeBody(response);
       throw unchecked(e);
     }
   }
 
+  static void closeBody(HttpResponse<InputStream> response) {
+    try {
+      response.body().close();
+    } catch (IOException ignore) {
+    }
+  }
+
   static HttpSuccessResult<XyzFeature, XyzFeatureCodec> createHttpResultFromFeatureList(
       final @NotNull List<XyzFeature> features) {
     // Create ForwardCursor with input features
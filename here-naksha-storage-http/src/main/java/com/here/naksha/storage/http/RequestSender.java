@@ -21,11 +21,19 @@ package com.here.naksha.storage.http;
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
 import static java.net.http.HttpRequest.newBuilder;
 
+import com.here.naksha.storage.http.cache.HttpResponseCache;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -38,27 +46,214 @@ public class RequestSender {
 
   private static final Logger log = LoggerFactory.getLogger(RequestSender.class);
 
+  /**
+   * The minimal delay in milliseconds, before a request is hedged.
+   */
+  static final long MIN_HEDGE_DELAY_MILLIS = 5;
+
   @NotNull
   private final HttpClient httpClient;
 
   @NotNull
   private final RequestSender.KeyProperties keyProps;
 
+  @NotNull
+  private final HttpResponseCache responseCache;
+
+  @NotNull
+  private final ResponseTimes responseTimes = new ResponseTimes();
+
   public RequestSender(@NotNull RequestSender.KeyProperties keyProps) {
+    this(keyProps, HttpResponseCache.getInstance());
+  }
+
+  RequestSender(@NotNull RequestSender.KeyProperties keyProps, @NotNull HttpResponseCache responseCache) {
     this.keyProps = keyProps;
+    this.responseCache = responseCache;
     this.httpClient = HttpClient.newBuilder()
         .connectTimeout(Duration.ofSeconds(keyProps.connectionTimeoutSec))
         .build();
   }
 
   /**
-   * Send a request configured based on enclosing {@link HttpStorage}.
+   * Send a GET request configured based on enclosing {@link HttpStorage}. The response is served from the {@link HttpResponseCache}, when
+   * the upstream allowed caching it, stale responses are revalidated with a conditional request. A cacheable response is read completely,
+   * before it is returned, unless {@link KeyProperties#responseCache} is disabled. Otherwise, the returned response is available as soon
+   * as the headers are received, and the body is streamed from the upstream while being read. The body is closed, when it is not read
+   * completely within {@link KeyProperties#socketTimeoutSec}, the caller must close the body. If {@link KeyProperties#hedging} is enabled, the request is sent a second time, when the upstream did not respond within the
+   * 95th percentile of the recent response times.
    *
    * @param endpoint does not contain host:port part, starts with "/".
    * @param addHeaders headers to be added to the ones defines {@link KeyProperties#defaultHeaders}.
    */
-  HttpResponse<byte[]> sendRequest(@NotNull String endpoint, @Nullable Map<String, String> addHeaders) {
-    return sendRequest(endpoint, true, addHeaders, null, null);
+  HttpResponse<InputStream> sendRequest(@NotNull String endpoint, @Nullable Map<String, String> addHeaders) {
+    return sendRequests(List.of(endpoint), addHeaders).get(0);
+  }
+
+  /**
+   * Send GET requests to all given endpoints in parallel, like done by {@link #sendRequest(String, Map)}, and wait for all responses. At
+   * most {@link KeyProperties#idsParallelism} upstream connections are used at the same time, either by requests waiting for their
+   * response, or by bodies that are returned to be streamed. When the limit is reached, the body of a completed response is read into
+   * memory, before the next request is sent, so only the last responses are streamed.
+   *
+   * @param endpoints the endpoints, each does not contain host:port part, starts with "/".
+   * @param addHeaders headers to be added to the ones defines {@link KeyProperties#defaultHeaders}.
+   * @return the responses in the order of the endpoints.
+   */
+  List<HttpResponse<InputStream>> sendRequests(
+      @NotNull List<@NotNull String> endpoints, @Nullable Map<String, String> addHeaders) {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(keyProps.socketTimeoutSec);
+    final int parallelism = keyProps.idsParallelism > 0 ? keyProps.idsParallelism : endpoints.size();
+    final List<PendingRequest> pending = new ArrayList<>(endpoints.size());
+    final List<HttpResponse<InputStream>> responses = new ArrayList<>(endpoints.size());
+    // The index of the request being completed, which cleans up itself, when completing it fails.
+    int completing = -1;
+    try {
+      for (int i = 0; i < Math.min(parallelism, endpoints.size()); i++) {
+        pending.add(startRequest(endpoints.get(i), addHeaders));
+      }
+      int streamed = 0;
+      for (int i = 0; i < endpoints.size(); i++) {
+        completing = i;
+        HttpResponse<InputStream> response = completeRequest(pending.get(i), deadline);
+        if (!(response.body() instanceof ByteArrayInputStream)) {
+          final int inFlight = pending.size() - i - 1;
+          final int next = pending.size() < endpoints.size() ? 1 : 0;
+          if (streamed + 1 + inFlight + next > parallelism) {
+            response = bufferBody(response);
+          } else {
+            streamed++;
+          }
+        }
+        responses.add(response);
+        completing = -1;
+        while (pending.size() < endpoints.size()
+            && streamed + pending.size() - responses.size() < parallelism) {
+          pending.add(startRequest(endpoints.get(pending.size()), addHeaders));
+        }
+      }
+      return responses;
+    } catch (RuntimeException e) {
+      responses.forEach(response -> closeQuietly(response.body()));
+      final int firstPending = completing == responses.size() ? responses.size() + 1 : responses.size();
+      for (int i = firstPending; i < pending.size(); i++) {
+        final CompletableFuture<HttpResponse<InputStream>> response = pending.get(i).response;
+        if (!response.cancel(true)) {
+          response.thenAccept(r -> closeQuietly(r.body()));
+        }
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the body of the response into memory and closes it, so that the upstream connection is released.
+   */
+  private static HttpResponse<InputStream> bufferBody(@NotNull HttpResponse<InputStream> response) {
+    final InputStream body = response.body();
+    final byte[] bytes;
+    try {
+      bytes = body.readAllBytes();
+    } catch (IOException e) {
+      throw unchecked(e);
+    } finally {
+      closeQuietly(body);
+    }
+    return new HttpResponseWithBody<>(response, new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * A GET request, that was sent or served from the cache, but not yet completed.
+   *
+   * @param key      The key of the response in the cache.
+   * @param cached   The cached entry, when the request is served from the cache or a revalidation.
+   * @param response The response.
+   * @param hit      {@code true}, if the response is a fresh entry of the cache.
+   */
+  private record PendingRequest(
+      @NotNull HttpResponseCache.Key key,
+      @Nullable HttpResponseCache.Entry cached,
+      @NotNull CompletableFuture<HttpResponse<InputStream>> response,
+      boolean hit) {}
+
+  private PendingRequest startRequest(@NotNull String endpoint, @Nullable Map<String, String> addHeaders) {
+    final HttpResponseCache.Key key = new HttpResponseCache.Key(keyProps, endpoint);
+    final HttpResponseCache.Entry cached = keyProps.responseCache ? responseCache.get(key) : null;
+    if (cached != null && responseCache.isFresh(cached)) {
+      return new PendingRequest(
+          key, cached, CompletableFuture.completedFuture(streamOf(responseCache.hit(key, cached))), true);
+    }
+    final Map<String, String> headers = addHeaders == null ? new HashMap<>() : new HashMap<>(addHeaders);
+    if (cached != null && cached.getEtag() != null) {
+      headers.put("If-None-Match", cached.getEtag());
+    }
+    final HttpRequest request = newRequest(endpoint, true, headers, null, null);
+    final long hedgeDelay = keyProps.hedging ? responseTimes.p95() : -1;
+    final CompletableFuture<HttpResponse<InputStream>> response = hedgeDelay < 0
+        ? sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+        : HedgedRequest.send(
+            () -> sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()),
+            Math.max(MIN_HEDGE_DELAY_MILLIS, hedgeDelay));
+    return new PendingRequest(key, cached, response, false);
+  }
+
+  private HttpResponse<InputStream> completeRequest(@NotNull PendingRequest pending, long deadline) {
+    HttpResponse<InputStream> response = await(pending.response, deadline);
+    if (pending.hit) {
+      return response;
+    }
+    // The body is streamed after the headers were received, the deadline must bound reading it as well.
+    response = new HttpResponseWithBody<>(response, DeadlineInputStream.of(response.body(), deadline));
+    if (pending.cached != null && response.statusCode() == 304) {
+      closeQuietly(response.body());
+      return streamOf(responseCache.revalidated(pending.key, pending.cached, response));
+    }
+    if (!keyProps.responseCache) {
+      return response;
+    }
+    if (!responseCache.isCacheable(response)) {
+      responseCache.miss(pending.key);
+      return response;
+    }
+    return bufferForCache(pending.key, response);
+  }
+
+  /**
+   * Reads the body of a cacheable response into memory and stores it in the cache. If the body turns out to be too large for the cache,
+   * the buffered part is streamed, followed by the remaining body.
+   */
+  private HttpResponse<InputStream> bufferForCache(
+      @NotNull HttpResponseCache.Key key, @NotNull HttpResponse<InputStream> response) {
+    final InputStream body = response.body();
+    if (response.headers().firstValueAsLong("Content-Length").orElse(0) > responseCache.getMaxBodyBytes()) {
+      responseCache.miss(key);
+      return response;
+    }
+    final byte[] head;
+    try {
+      head = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, responseCache.getMaxBodyBytes() + 1));
+    } catch (IOException e) {
+      closeQuietly(body);
+      throw unchecked(e);
+    }
+    if (head.length > responseCache.getMaxBodyBytes()) {
+      responseCache.miss(key);
+      return new HttpResponseWithBody<>(response, new SequenceInputStream(new ByteArrayInputStream(head), body));
+    }
+    closeQuietly(body);
+    return streamOf(responseCache.miss(key, new HttpResponseWithBody<>(response, head)));
+  }
+
+  private static HttpResponse<InputStream> streamOf(@NotNull HttpResponse<byte[]> response) {
+    return new HttpResponseWithBody<>(response, new ByteArrayInputStream(response.body()));
+  }
+
+  private static void closeQuietly(@NotNull InputStream in) {
+    try {
+      in.close();
+    } catch (IOException e) {
+      log.info("Failed to close the response body", e);
+    }
   }
 
   HttpResponse<byte[]> sendRequest(
@@ -67,6 +262,20 @@ public class RequestSender {
       @Nullable Map<String, String> headers,
       @Nullable String httpMethod,
       @Nullable String body) {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(keyProps.socketTimeoutSec);
+    return await(
+        sendAsync(
+            newRequest(endpoint, keepDefHeaders, headers, httpMethod, body),
+            HttpResponse.BodyHandlers.ofByteArray()),
+        deadline);
+  }
+
+  private HttpRequest newRequest(
+      @NotNull String endpoint,
+      boolean keepDefHeaders,
+      @Nullable Map<String, String> headers,
+      @Nullable String httpMethod,
+      @Nullable String body) {
     URI uri = URI.create(keyProps.hostUrl + endpoint);
     HttpRequest.Builder builder = newBuilder().uri(uri).timeout(Duration.ofSeconds(keyProps.socketTimeoutSec));
 
@@ -76,24 +285,19 @@ public class RequestSender {
     HttpRequest.BodyPublisher bodyPublisher =
         body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body);
     if (httpMethod != null) builder.method(httpMethod, bodyPublisher);
-    HttpRequest request = builder.build();
-
-    return sendRequest(request);
+    return builder.build();
   }
 
-  private HttpResponse<byte[]> sendRequest(HttpRequest request) {
-    long startTime = System.currentTimeMillis();
-    HttpResponse<byte[]> response = null;
-    try {
-      CompletableFuture<HttpResponse<byte[]>> futureResponse =
-          httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
-      response = futureResponse.get(keyProps.socketTimeoutSec, TimeUnit.SECONDS);
-      return response;
-    } catch (Exception e) {
-      log.warn("We got exception while executing Http request against remote server.", e);
-      throw unchecked(e);
-    } finally {
+  /**
+   * Sends the request, logs the response and records its response time. When the body is streamed, the response is completed when the
+   * headers are received, and the logged size is the announced content length.
+   */
+  private <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+    final long startTime = System.currentTimeMillis();
+    return httpClient.sendAsync(request, bodyHandler).whenComplete((response, e) -> {
       long executionTime = System.currentTimeMillis() - startTime;
+      if (response != null) responseTimes.record(executionTime);
       log.info(
           "[Storage API stats => type,storageId,host,method,path,status,timeTakenMs,resSize] - StorageAPIStats {} {} {} {} {} {} {} {}",
           "HttpStorage",
@@ -103,10 +307,37 @@ public class RequestSender {
           request.uri(),
           (response == null) ? "-" : response.statusCode(),
           executionTime,
-          (response == null) ? 0 : response.body().length);
+          (response == null) ? 0 : bodySize(response));
+    });
+  }
+
+  /**
+   * Waits for the response until the given deadline, cancels the request, if it did not complete in time.
+   */
+  private <T> HttpResponse<T> await(CompletableFuture<HttpResponse<T>> futureResponse, long deadline) {
+    try {
+      return futureResponse.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (Exception e) {
+      futureResponse.cancel(true);
+      log.warn("We got exception while executing Http request against remote server.", e);
+      throw unchecked(e);
     }
   }
 
+  private static long bodySize(@NotNull HttpResponse<?> response) {
+    if (response.body() instanceof byte[] bytes) return bytes.length;
+    return response.headers().firstValueAsLong("Content-Length").orElse(-1);
+  }
+
+  /**
+   * Returns the maximum amount of ids to request at once.
+   *
+   * @return the maximum amount of ids to request at once, zero or less, if not limited.
+   */
+  int getIdsChunkSize() {
+    return keyProps.idsChunkSize;
+  }
+
   public boolean hasKeyProps(KeyProperties thatKeyProps) {
     return this.keyProps.equals(thatKeyProps);
   }
@@ -121,5 +352,28 @@ public class RequestSender {
       @NotNull String hostUrl,
       @NotNull Map<String, String> defaultHeaders,
       long connectionTimeoutSec,
-      long socketTimeoutSec) {}
+      long socketTimeoutSec,
+      int idsChunkSize,
+      int idsParallelism,
+      boolean hedging,
+      boolean responseCache) {
+
+    public KeyProperties(
+        @NotNull String name,
+        @NotNull String hostUrl,
+        @NotNull Map<String, String> defaultHeaders,
+        long connectionTimeoutSec,
+        long socketTimeoutSec) {
+      this(
+          name,
+          hostUrl,
+          defaultHeaders,
+          connectionTimeoutSec,
+          socketTimeoutSec,
+          HttpStorageProperties.DEF_IDS_CHUNK_SIZE,
+          HttpStorageProperties.DEF_IDS_PARALLELISM,
+          HttpStorageProperties.DEF_HEDGING,
+          HttpStorageProperties.DEF_RESPONSE_CACHE);
+    }
+  }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent response times of an upstream to estimate their 95th percentile, which is used as delay, before a request is
+ * hedged. The percentile is only estimated after a minimal amount of responses has been recorded, and updated after every few responses.
+ */
+class ResponseTimes {
+
+  /**
+   * The amount of recent response times kept.
+   */
+  static final int CAPACITY = 256;
+
+  /**
+   * The minimal amount of response times needed, before the percentile is estimated.
+   */
+  static final int MIN_SAMPLES = 32;
+
+  private static final int UPDATE_INTERVAL = 16;
+
+  private final long[] samples = new long[CAPACITY];
+  private int count;
+  private int next;
+  private int recordedSinceUpdate;
+  private long p95 = -1;
+
+  /**
+   * Records the response time of a request.
+   *
+   * @param millis The time from sending the request until the response headers were received, in milliseconds.
+   */
+  synchronized void record(long millis) {
+    samples[next] = Math.max(0L, millis);
+    next = (next + 1) % CAPACITY;
+    if (count < CAPACITY) {
+      count++;
+    }
+    recordedSinceUpdate++;
+  }
+
+  /**
+   * Returns the estimated 95th percentile of the recent response times.
+   *
+   * @return the 95th percentile in milliseconds or {@code -1}, if not enough responses have been recorded yet.
+   */
+  synchronized long p95() {
+    if (count < MIN_SAMPLES) {
+      return -1;
+    }
+    if (p95 < 0 || recordedSinceUpdate >= UPDATE_INTERVAL) {
+      final long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      p95 = sorted[(int) Math.ceil(count * 0.95) - 1];
+      recordedSinceUpdate = 0;
+    }
+    return p95;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.EExecutedOp;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.view.ViewDeserialize.User;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cursor that parses the features from JSON streams, while being iterated, so that neither the raw bodies nor all features need to be
+ * held in memory and the first features are available before the bodies have been received completely. Each stream is either a single
+ * feature, or a feature collection, from which only the {@code features} array is read. Multiple streams are read one after the other, in
+ * the given order. Each stream is closed, when all its features have been read, all remaining ones when the cursor is closed.
+ *
+ * <p>The streams hold upstream connections, so the cursor, and with it the result of every read of the {@link HttpStorage}, must be
+ * closed. A cursor that is neither read to the end nor closed, closes its streams, when it is garbage collected, and logs a warning.
+ */
+class StreamingFeatureCursor extends ForwardCursor<XyzFeature, XyzFeatureCodec> {
+
+  private static final Logger log = LoggerFactory.getLogger(StreamingFeatureCursor.class);
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  /**
+   * Closes the streams of a cursor, that became unreachable without being closed; must not reference the cursor.
+   */
+  private static final class Leak implements Runnable {
+
+    private Leak(@NotNull List<@NotNull InputStream> streams) {
+      this.streams = streams;
+    }
+
+    private final @NotNull List<@NotNull InputStream> streams;
+    private volatile boolean closed;
+
+    @Override
+    public void run() {
+      if (closed) {
+        return;
+      }
+      log.warn("A cursor of the HttpStorage was not closed, closing its {} response bodies", streams.size());
+      for (final InputStream in : streams) {
+        try {
+          in.close();
+        } catch (IOException ignore) {
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates a cursor above the given stream.
+   *
+   * @param in            The JSON stream, which is owned by the cursor.
+   * @param singleFeature {@code true}, if the stream is a single feature; {@code false}, if it is a feature collection.
+   */
+  StreamingFeatureCursor(@NotNull InputStream in, boolean singleFeature) {
+    this(List.of(in), singleFeature);
+  }
+
+  /**
+   * Creates a cursor above the given streams.
+   *
+   * @param streams       The JSON streams, which are owned by the cursor.
+   * @param singleFeature {@code true}, if each stream is a single feature; {@code false}, if each is a feature collection.
+   */
+  StreamingFeatureCursor(@NotNull List<@NotNull InputStream> streams, boolean singleFeature) {
+    super(XyzFeatureCodecFactory.get());
+    this.streams = new ArrayDeque<>(streams);
+    this.singleFeature = singleFeature;
+    this.leak = new Leak(List.copyOf(streams));
+    this.cleanable = CLEANER.register(this, leak);
+  }
+
+  private final @NotNull Leak leak;
+  private final @NotNull Cleaner.Cleanable cleanable;
+
+  private final @NotNull ArrayDeque<@NotNull InputStream> streams;
+  private final boolean singleFeature;
+  private @Nullable Json json;
+  private @Nullable ObjectReader featureReader;
+  private @Nullable JsonParser parser;
+  private boolean closed;
+
+  @Override
+  protected boolean loadNextRow(@NotNull Row row) {
+    row.clear();
+    if (closed) {
+      return false;
+    }
+    final XyzFeature feature;
+    try {
+      feature = nextFeature();
+    } catch (IOException e) {
+      close();
+      throw unchecked(e);
+    }
+    if (feature == null) {
+      close();
+      return false;
+    }
+    row.codec.setOp(EExecutedOp.READ);
+    row.codec.setFeature(feature);
+    row.codec.setId(feature.getId());
+    row.valid = true;
+    return true;
+  }
+
+  private @Nullable XyzFeature nextFeature() throws IOException {
+    while (true) {
+      if (parser == null) {
+        final InputStream in = streams.poll();
+        if (in == null) {
+          return null;
+        }
+        if (featureReader == null) {
+          json = Json.get();
+          featureReader = json.reader(User.class).forType(XyzFeature.class);
+        }
+        parser = featureReader.createParser(in);
+        if (singleFeature) {
+          final XyzFeature feature =
+              parser.nextToken() == JsonToken.START_OBJECT ? featureReader.readValue(parser) : null;
+          closeParser();
+          if (feature != null) {
+            return feature;
+          }
+          continue;
+        }
+        if (!seekFeatures(parser)) {
+          closeParser();
+          continue;
+        }
+      }
+      assert featureReader != null;
+      JsonToken token;
+      do {
+        token = parser.nextToken();
+      } while (token == JsonToken.VALUE_NULL);
+      if (token == JsonToken.START_OBJECT) {
+        return featureReader.readValue(parser);
+      }
+      closeParser();
+    }
+  }
+
+  /**
+   * Moves the parser to the start of the {@code features} array of the collection.
+   *
+   * @return {@code true}, if the parser is at the start of the array; {@code false}, if the collection has no features.
+   */
+  private static boolean seekFeatures(@NotNull JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return false;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.currentName();
+      final JsonToken value = parser.nextToken();
+      if ("features".equals(name) && value == JsonToken.START_ARRAY) {
+        return true;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  /**
+   * Closes the parser of the current stream, which closes the stream as well.
+   */
+  private void closeParser() throws IOException {
+    final JsonParser parser = this.parser;
+    this.parser = null;
+    if (parser != null) {
+      parser.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      closeParser();
+    } catch (IOException ignore) {
+    }
+    InputStream in;
+    while ((in = streams.poll()) != null) {
+      try {
+        in.close();
+      } catch (IOException ignore) {
+      }
+    }
+    if (json != null) {
+      json.close();
+      json = null;
+    }
+    featureReader = null;
+    leak.closed = true;
+    cleanable.clean();
+    runOnClose();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http.cache;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Counts the hits, misses and revalidations of the {@link HttpResponseCache} in OpenTelemetry counters, per storage. Without a
+ * configured OpenTelemetry SDK the counters are no-ops.
+ */
+final class HttpCacheMetrics {
+
+  private static final AttributeKey<String> STORAGE = AttributeKey.stringKey("storage");
+
+  private static final Meter meter =
+      GlobalOpenTelemetry.meterBuilder("naksha.storage.http").build();
+
+  private static final LongCounter hits = meter.counterBuilder("naksha_http_cache_hits")
+      .setDescription("Responses served from the cache without contacting the upstream")
+      .build();
+
+  private static final LongCounter misses = meter.counterBuilder("naksha_http_cache_misses")
+      .setDescription("Responses that had to be fetched completely from the upstream")
+      .build();
+
+  private static final LongCounter revalidations = meter.counterBuilder("naksha_http_cache_revalidations")
+      .setDescription("Stale responses confirmed by the upstream with 304 Not Modified")
+      .build();
+
+  private HttpCacheMetrics() {}
+
+  static void hit(@NotNull String storageId) {
+    hits.add(1, Attributes.of(STORAGE, storageId));
+  }
+
+  static void miss(@NotNull String storageId) {
+    misses.add(1, Attributes.of(STORAGE, storageId));
+  }
+
+  static void revalidation(@NotNull String storageId) {
+    revalidations.add(1, Attributes.of(STORAGE, storageId));
+  }
+}
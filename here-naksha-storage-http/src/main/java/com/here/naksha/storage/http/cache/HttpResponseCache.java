@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http.cache;
+
+import static com.here.naksha.storage.http.RequestSender.KeyProperties;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A size bound cache for the responses of upstream GET requests, shared by all {@link com.here.naksha.storage.http.RequestSender
+ * senders}. Responses are only stored, when the upstream allows it via {@code Cache-Control} and either grants a freshness lifetime
+ * ({@code s-maxage} or {@code max-age}) or provides an {@code ETag} for revalidation. Stale entries with an {@code ETag} are revalidated
+ * using a conditional request with {@code If-None-Match}. The cache is shared between all clients, therefore responses marked as
+ * {@code private} are never stored. The {@code Expires} and {@code Age} headers are not evaluated.
+ *
+ * <p>The entries are keyed by the {@link KeyProperties} of the sender and the endpoint, so that storages with different hosts or
+ * different default headers, like the authorization, never share entries. When the total size of the stored bodies exceeds the limit,
+ * the least recently used entries are evicted.
+ */
+public class HttpResponseCache {
+
+  /**
+   * The default maximum amount of bytes the stored responses may occupy.
+   */
+  public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+  /**
+   * The estimated amount of bytes an entry occupies besides the body.
+   */
+  static final long ENTRY_OVERHEAD = 512;
+
+  private final long maxBytes;
+  private final @NotNull LongSupplier clock;
+  private final @NotNull LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long bytes;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong revalidations = new AtomicLong();
+
+  private HttpResponseCache() {
+    this(DEFAULT_MAX_BYTES, System::currentTimeMillis);
+  }
+
+  HttpResponseCache(long maxBytes, @NotNull LongSupplier clock) {
+    this.maxBytes = maxBytes;
+    this.clock = clock;
+  }
+
+  @NotNull
+  public static HttpResponseCache getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * Returns the stored entry for the given key, fresh or stale.
+   *
+   * @param key The key.
+   * @return the entry or {@code null}, if nothing is stored.
+   */
+  public synchronized @Nullable Entry get(@NotNull Key key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Returns {@code true}, if the given entry can be served without asking the upstream.
+   *
+   * @param entry The entry.
+   * @return {@code true}, if the entry is fresh.
+   */
+  public boolean isFresh(@NotNull Entry entry) {
+    return clock.getAsLong() < entry.expiresAt;
+  }
+
+  /**
+   * Records that the given fresh entry is served.
+   *
+   * @param key   The key of the entry.
+   * @param entry The entry.
+   * @return the stored response.
+   */
+  public @NotNull HttpResponse<byte[]> hit(@NotNull Key key, @NotNull Entry entry) {
+    hits.incrementAndGet();
+    HttpCacheMetrics.hit(key.keyProps.name());
+    return entry.response;
+  }
+
+  /**
+   * Records that the upstream confirmed the given stale entry with {@code 304 Not Modified}, and updates its freshness from the headers
+   * of the confirmation.
+   *
+   * @param key         The key of the entry.
+   * @param entry       The revalidated entry.
+   * @param notModified The {@code 304} response of the upstream.
+   * @return the stored response.
+   */
+  public @NotNull HttpResponse<byte[]> revalidated(
+      @NotNull Key key, @NotNull Entry entry, @NotNull HttpResponse<?> notModified) {
+    revalidations.incrementAndGet();
+    HttpCacheMetrics.revalidation(key.keyProps.name());
+    final CacheControl cc = CacheControl.of(notModified.headers());
+    synchronized (this) {
+      if (cc.noStore) {
+        remove(key);
+      } else if (cc.hasLifetime() && entries.get(key) == entry) {
+        entry.expiresAt = clock.getAsLong() + cc.lifetimeMillis();
+      }
+    }
+    return entry.response;
+  }
+
+  /**
+   * Records that the upstream had to be asked for the full response, that is not stored, because it is not cacheable or too large.
+   *
+   * @param key The key of the response.
+   */
+  public void miss(@NotNull Key key) {
+    misses.incrementAndGet();
+    HttpCacheMetrics.miss(key.keyProps.name());
+    synchronized (this) {
+      remove(key);
+    }
+  }
+
+  /**
+   * Records that the upstream had to be asked for the full response, and stores it, if the upstream allows this.
+   *
+   * @param key      The key of the response.
+   * @param response The response of the upstream.
+   * @return the given response.
+   */
+  public @NotNull HttpResponse<byte[]> miss(@NotNull Key key, @NotNull HttpResponse<byte[]> response) {
+    misses.incrementAndGet();
+    HttpCacheMetrics.miss(key.keyProps.name());
+    put(key, response);
+    return response;
+  }
+
+  /**
+   * Returns {@code true}, if the upstream allows to store the given response, based upon its status code and headers. The size of the
+   * body is not verified.
+   *
+   * @param response The response.
+   * @return {@code true}, if the response may be stored.
+   */
+  public boolean isCacheable(@NotNull HttpResponse<?> response) {
+    final HttpHeaders headers = response.headers();
+    final CacheControl cc = CacheControl.of(headers);
+    return response.statusCode() == 200
+        && !cc.noStore
+        && !cc.isPrivate
+        && headers.allValues("Vary").stream().noneMatch(v -> v.contains("*"))
+        && (cc.hasLifetime() || headers.firstValue("ETag").isPresent());
+  }
+
+  /**
+   * Returns the maximum size of a body to be stored, larger responses are never stored.
+   *
+   * @return the maximum size of a body to be stored.
+   */
+  public long getMaxBodyBytes() {
+    return maxBytes / 8 - ENTRY_OVERHEAD;
+  }
+
+  void put(@NotNull Key key, @NotNull HttpResponse<byte[]> response) {
+    final byte[] body = response.body();
+    final long bodySize = body == null ? 0 : body.length;
+    final boolean cacheable = bodySize <= getMaxBodyBytes() && isCacheable(response);
+    synchronized (this) {
+      remove(key);
+      if (!cacheable) {
+        return;
+      }
+      final CacheControl cc = CacheControl.of(response.headers());
+      final String etag = response.headers().firstValue("ETag").orElse(null);
+      final long size = bodySize + ENTRY_OVERHEAD;
+      final long freshFor = cc.noCache ? 0L : cc.lifetimeMillis();
+      entries.put(key, new Entry(response, etag, clock.getAsLong() + freshFor, size));
+      bytes += size;
+      final Iterator<Entry> it = entries.values().iterator();
+      while (bytes > maxBytes && it.hasNext()) {
+        bytes -= it.next().size;
+        it.remove();
+      }
+    }
+  }
+
+  private void remove(@NotNull Key key) {
+    final Entry removed = entries.remove(key);
+    if (removed != null) {
+      bytes -= removed.size;
+    }
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  /**
+   * Returns the amount of bytes occupied by the stored entries.
+   *
+   * @return the amount of bytes occupied by the stored entries.
+   */
+  public synchronized long getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Returns the amount of stored entries.
+   *
+   * @return the amount of stored entries.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getRevalidations() {
+    return revalidations.get();
+  }
+
+  /**
+   * The key of a cached response.
+   *
+   * @param keyProps The properties of the sender.
+   * @param endpoint The endpoint, including the query string.
+   */
+  public record Key(@NotNull KeyProperties keyProps, @NotNull String endpoint) {}
+
+  /**
+   * A cached response.
+   */
+  public static final class Entry {
+
+    Entry(@NotNull HttpResponse<byte[]> response, @Nullable String etag, long expiresAt, long size) {
+      this.response = response;
+      this.etag = etag;
+      this.expiresAt = expiresAt;
+      this.size = size;
+    }
+
+    final @NotNull HttpResponse<byte[]> response;
+    final @Nullable String etag;
+    final long size;
+    volatile long expiresAt;
+
+    /**
+     * Returns the entity tag of the response to be used for revalidation.
+     *
+     * @return the entity tag or {@code null}, if the upstream did not provide one.
+     */
+    public @Nullable String getEtag() {
+      return etag;
+    }
+  }
+
+  /**
+   * The directives of a {@code Cache-Control} response header, that are relevant for this cache.
+   */
+  static final class CacheControl {
+
+    boolean noStore;
+    boolean noCache;
+    boolean isPrivate;
+    long maxAge = -1;
+    long sMaxAge = -1;
+
+    static @NotNull CacheControl of(@NotNull HttpHeaders headers) {
+      final CacheControl cc = new CacheControl();
+      for (final String header : headers.allValues("Cache-Control")) {
+        for (final String part : header.split(",")) {
+          final String directive = part.trim().toLowerCase(Locale.ROOT);
+          if (directive.equals("no-store")) {
+            cc.noStore = true;
+          } else if (directive.equals("no-cache")) {
+            cc.noCache = true;
+          } else if (directive.equals("private") || directive.startsWith("private=")) {
+            cc.isPrivate = true;
+          } else if (directive.startsWith("max-age=")) {
+            cc.maxAge = seconds(directive.substring(8));
+          } else if (directive.startsWith("s-maxage=")) {
+            cc.sMaxAge = seconds(directive.substring(9));
+          }
+        }
+      }
+      return cc;
+    }
+
+    private static long seconds(@NotNull String value) {
+      try {
+        return Long.parseLong(value.replace("\"", "").trim());
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+
+    boolean hasLifetime() {
+      return sMaxAge >= 0 || maxAge >= 0;
+    }
+
+    long lifetimeMillis() {
+      return TimeUnit.SECONDS.toMillis(Math.max(0, sMaxAge >= 0 ? sMaxAge : maxAge));
+    }
+  }
+
+  private static final class InstanceHolder {
+    private static final HttpResponseCache instance = new HttpResponseCache();
+  }
+}
@@ -0,0 +1,90 @@
+package com.here.naksha.storage.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgedRequestTest {
+
+  @SuppressWarnings("unchecked")
+  private static HttpResponse<InputStream> response(AtomicBoolean closed) {
+    HttpResponse<InputStream> response = mock(HttpResponse.class);
+    when(response.body()).thenReturn(new ByteArrayInputStream(new byte[0]) {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    });
+    return response;
+  }
+
+  @Test
+  void slowRequestIsHedgedAndFirstResponseWins() throws Exception {
+    // Given: an upstream, that does not answer the first attempt in time
+    List<CompletableFuture<HttpResponse<InputStream>>> attempts = new ArrayList<>();
+    CompletableFuture<HttpResponse<InputStream>> response = HedgedRequest.send(() -> {
+      CompletableFuture<HttpResponse<InputStream>> attempt = new CompletableFuture<>();
+      synchronized (attempts) {
+        attempts.add(attempt);
+      }
+      return attempt;
+    }, 10);
+
+    // When: the delay expired and the second attempt is answered first
+    Thread.sleep(200);
+    assertEquals(2, attempts.size());
+    AtomicBoolean hedgeClosed = new AtomicBoolean();
+    HttpResponse<InputStream> hedge = response(hedgeClosed);
+    attempts.get(1).complete(hedge);
+
+    // Then: the response of the second attempt is used, the first attempt is cancelled
+    assertSame(hedge, response.get(1, TimeUnit.SECONDS));
+    assertTrue(attempts.get(0).isCancelled());
+    assertFalse(hedgeClosed.get());
+  }
+
+  @Test
+  void fastFailureIsNotHedged() throws Exception {
+    // Given: an upstream, that fails the first attempt before the delay expired
+    List<CompletableFuture<HttpResponse<InputStream>>> attempts = new ArrayList<>();
+    CompletableFuture<HttpResponse<InputStream>> response = HedgedRequest.send(() -> {
+      CompletableFuture<HttpResponse<InputStream>> attempt =
+          CompletableFuture.failedFuture(new IllegalStateException("failed"));
+      synchronized (attempts) {
+        attempts.add(attempt);
+      }
+      return attempt;
+    }, 50);
+
+    // Then: the request fails and is not sent again
+    ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(1, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalStateException.class, e.getCause());
+    Thread.sleep(200);
+    assertEquals(1, attempts.size());
+  }
+
+  @Test
+  void p95IsEstimatedAfterMinimalSamples() {
+    ResponseTimes times = new ResponseTimes();
+    for (int i = 1; i < ResponseTimes.MIN_SAMPLES; i++) {
+      times.record(i);
+    }
+    assertEquals(-1, times.p95());
+    for (int i = ResponseTimes.MIN_SAMPLES; i <= 100; i++) {
+      times.record(i);
+    }
+    assertEquals(95, times.p95());
+  }
+}
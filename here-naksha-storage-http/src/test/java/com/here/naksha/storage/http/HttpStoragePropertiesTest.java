@@ -22,6 +22,7 @@ class HttpStoragePropertiesTest {
         assertEquals("https://example.org", properties.getUrl());
         assertEquals(60, properties.getConnectTimeout());
         assertEquals(3600, properties.getSocketTimeout());
+        assertFalse(properties.getResponseCache());
 
         Map<String, String> headers = properties.getHeaders();
         assertEquals("Bearer <token>", headers.get("Authorization"));
@@ -36,6 +37,8 @@ class HttpStoragePropertiesTest {
         assertEquals("https://example.org", properties.getUrl());
         assertEquals(HttpStorageProperties.DEF_CONNECTION_TIMEOUT_SEC, properties.getConnectTimeout());
         assertEquals(HttpStorageProperties.DEF_SOCKET_TIMEOUT_SEC, properties.getSocketTimeout());
+        assertEquals(HttpStorageProperties.DEF_RESPONSE_CACHE, properties.getResponseCache());
+        assertEquals(HttpStorageProperties.DEF_IDS_PARALLELISM, properties.getIdsParallelism());
 
         assertEquals(HttpStorageProperties.DEFAULT_HEADERS, properties.getHeaders());
     }
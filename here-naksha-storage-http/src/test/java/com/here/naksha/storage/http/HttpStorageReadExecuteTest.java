@@ -0,0 +1,19 @@
+package com.here.naksha.storage.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpStorageReadExecuteTest {
+
+  @Test
+  void idsAreSplitIntoOrderedChunks() {
+    List<String> ids = List.of("a", "b", "c", "d", "e");
+
+    assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), HttpStorageReadExecute.idsChunks(ids, 2));
+    assertEquals(List.of(ids), HttpStorageReadExecute.idsChunks(ids, 5));
+    assertEquals(List.of(ids), HttpStorageReadExecute.idsChunks(ids, 0));
+  }
+}
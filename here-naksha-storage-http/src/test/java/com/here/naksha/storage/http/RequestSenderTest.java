@@ -0,0 +1,145 @@
+package com.here.naksha.storage.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestSenderTest {
+
+  @Test
+  void chunkRequestsInFlightAreLimited() throws Exception {
+    // Given: an upstream, that counts the requests it works on at the same time
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newFixedThreadPool(8));
+    server.createContext("/", exchange -> {
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      active.decrementAndGet();
+      byte[] body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+    try {
+      RequestSender sender = new RequestSender(new RequestSender.KeyProperties(
+          "http_storage",
+          "http://127.0.0.1:" + server.getAddress().getPort(),
+          Map.of(),
+          5,
+          5,
+          1,
+          2,
+          false,
+          false));
+
+      // When: requesting more chunks than may be in flight
+      List<String> endpoints = List.of("/1", "/2", "/3", "/4", "/5", "/6");
+      List<HttpResponse<InputStream>> responses = sender.sendRequests(endpoints, null);
+
+      // Then: all responses are returned in order, but never more than two requests were in flight
+      assertEquals(endpoints.size(), responses.size());
+      // And: only two bodies are streamed from the upstream, the others were read into memory
+      assertEquals(2, responses.stream().filter(r -> !(r.body() instanceof ByteArrayInputStream)).count());
+      for (int i = 0; i < endpoints.size(); i++) {
+        try (InputStream in = responses.get(i).body()) {
+          assertEquals(endpoints.get(i), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+      }
+      assertTrue(maxActive.get() <= 2, "max requests in flight: " + maxActive.get());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void failureToSendTheNextChunkFailsAllRequests() throws Exception {
+    // Given: an upstream, that answers every request
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newFixedThreadPool(2));
+    server.createContext("/", exchange -> {
+      requests.incrementAndGet();
+      byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+    try {
+      RequestSender sender = new RequestSender(new RequestSender.KeyProperties(
+          "http_storage", "http://127.0.0.1:" + server.getAddress().getPort(), Map.of(), 5, 5, 1, 2, false, false));
+
+      // When: the third chunk can't be sent, after the first one completed
+      // Then: the failure is returned, instead of waiting for the second chunk
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(10),
+          () -> assertThrows(
+              IllegalArgumentException.class, () -> sender.sendRequests(List.of("/1", "/2", "/ invalid"), null)));
+      assertTrue(requests.get() <= 2, "requests sent: " + requests.get());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void stalledBodyIsClosedAtTheDeadline() throws Exception {
+    // Given: an upstream, that sends the headers and a part of the body, but then stalls
+    CountDownLatch release = new CountDownLatch(1);
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newFixedThreadPool(2));
+    server.createContext("/", exchange -> {
+      exchange.sendResponseHeaders(200, 100);
+      OutputStream out = exchange.getResponseBody();
+      out.write(new byte[10]);
+      out.flush();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.close();
+    });
+    server.start();
+    try {
+      RequestSender sender = new RequestSender(new RequestSender.KeyProperties(
+          "http_storage", "http://127.0.0.1:" + server.getAddress().getPort(), Map.of(), 5, 1, 1, 2, false, false));
+
+      // When: reading the body
+      HttpResponse<InputStream> response = sender.sendRequest("/stalled", null);
+
+      // Then: the read fails once the socket timeout passed, instead of blocking forever
+      assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        try (InputStream in = response.body()) {
+          assertThrows(IOException.class, in::readAllBytes);
+        }
+      });
+    } finally {
+      release.countDown();
+      server.stop(0);
+    }
+  }
+}
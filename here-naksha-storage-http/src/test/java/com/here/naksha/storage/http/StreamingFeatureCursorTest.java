@@ -0,0 +1,127 @@
+package com.here.naksha.storage.http;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamingFeatureCursorTest {
+
+  private static final String COLLECTION = """
+          {"type":"FeatureCollection","nextPageToken":"x","bbox":[0,0,1,1],"features":[
+          {"type":"Feature","id":"a","properties":{"name":"A"}},
+          null,
+          {"type":"Feature","id":"b","properties":{"name":"B"}}
+          ]}""";
+
+  private static List<String> ids(ForwardCursor<?, ?> cursor) {
+    List<String> ids = new ArrayList<>();
+    while (cursor.hasNext() && cursor.next()) {
+      ids.add(cursor.getId());
+    }
+    return ids;
+  }
+
+  @Test
+  void readsFeaturesOfCollection() {
+    try (StreamingFeatureCursor cursor =
+                 new StreamingFeatureCursor(new ByteArrayInputStream(COLLECTION.getBytes(UTF_8)), false)) {
+      assertEquals(List.of("a", "b"), ids(cursor));
+    }
+  }
+
+  @Test
+  void readsStreamsInOrder() {
+    String second = "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\"c\",\"properties\":{}}]}";
+    String empty = "{\"type\":\"FeatureCollection\",\"features\":[]}";
+    List<InputStream> streams = List.of(
+            new ByteArrayInputStream(COLLECTION.getBytes(UTF_8)),
+            new ByteArrayInputStream(empty.getBytes(UTF_8)),
+            new ByteArrayInputStream(second.getBytes(UTF_8)));
+    try (StreamingFeatureCursor cursor = new StreamingFeatureCursor(streams, false)) {
+      assertEquals(List.of("a", "b", "c"), ids(cursor));
+    }
+  }
+
+  @Test
+  void readsSingleFeature() {
+    String feature = "{\"type\":\"Feature\",\"id\":\"a\",\"properties\":{}}";
+    try (StreamingFeatureCursor cursor =
+                 new StreamingFeatureCursor(new ByteArrayInputStream(feature.getBytes(UTF_8)), true)) {
+      assertTrue(cursor.next());
+      XyzFeature read = cursor.getFeature();
+      assertNotNull(read);
+      assertEquals("a", read.getId());
+      assertFalse(cursor.hasNext());
+    }
+  }
+
+  @Test
+  void collectionWithoutFeaturesIsEmpty() {
+    String collection = "{\"type\":\"FeatureCollection\",\"features\":null}";
+    try (StreamingFeatureCursor cursor =
+                 new StreamingFeatureCursor(new ByteArrayInputStream(collection.getBytes(UTF_8)), false)) {
+      assertFalse(cursor.hasNext());
+    }
+  }
+
+  @Test
+  void firstFeatureIsAvailableBeforeBodyIsComplete() {
+    // Given: a body, of which only the first feature has been received, reading any further fails
+    String received = "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":\"a\",\"properties\":{}}";
+    InputStream notYetReceived = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("Body not yet received");
+      }
+    };
+    InputStream body = new SequenceInputStream(new ByteArrayInputStream(received.getBytes(UTF_8)), notYetReceived);
+
+    try (StreamingFeatureCursor cursor = new StreamingFeatureCursor(body, false)) {
+      // When/Then: the first feature is parsed without reading further
+      assertTrue(cursor.next());
+      assertEquals("a", cursor.getId());
+      assertThrows(RuntimeException.class, cursor::hasNext);
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void gzipBodyIsDecodedWhileStreaming() throws Exception {
+    // Given: a gzip encoded response
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (GZIPOutputStream gos = new GZIPOutputStream(bos)) {
+      gos.write(COLLECTION.getBytes(UTF_8));
+    }
+    HttpResponse<InputStream> response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(200);
+    when(response.body()).thenReturn(new ByteArrayInputStream(bos.toByteArray()));
+    when(response.headers())
+            .thenReturn(HttpHeaders.of(Map.of("Content-Encoding", List.of("gzip")), (name, value) -> true));
+
+    // When: the result is prepared
+    HttpSuccessResult<?, ?> result = (HttpSuccessResult<?, ?>) PrepareResult.prepareResult(response, false);
+
+    // Then: the features are read from the decoded stream
+    try (ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+      assertEquals(List.of("a", "b"), ids(cursor));
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.here.naksha.storage.http.cache;
+
+import com.here.naksha.storage.http.RequestSender.KeyProperties;
+import com.here.naksha.storage.http.cache.HttpResponseCache.Entry;
+import com.here.naksha.storage.http.cache.HttpResponseCache.Key;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HttpResponseCacheTest {
+
+  private static final KeyProperties PROPS =
+          new KeyProperties("http_storage", "www.example.naksha.com", Map.of("Authorization", "Bearer token"), 1, 1);
+  private static final KeyProperties OTHER_TOKEN_PROPS =
+          new KeyProperties("http_storage", "www.example.naksha.com", Map.of("Authorization", "Bearer other"), 1, 1);
+
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+
+  @SuppressWarnings("unchecked")
+  private static HttpResponse<byte[]> response(int status, int bodySize, Map<String, List<String>> headers) {
+    HttpResponse<byte[]> response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(status);
+    when(response.body()).thenReturn(new byte[bodySize]);
+    when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+    return response;
+  }
+
+  @Test
+  void freshResponseIsServedUntilMaxAgeExpires() {
+    // Given: a response that may be cached for 60 seconds
+    HttpResponseCache cache = new HttpResponseCache(1024 * 1024, now::get);
+    Key key = new Key(PROPS, "/features/a");
+    HttpResponse<byte[]> response = response(200, 100, Map.of("Cache-Control", List.of("public, max-age=60")));
+
+    // When: the response is stored
+    cache.miss(key, response);
+
+    // Then: it is fresh within 60 seconds, stale afterwards, and not shared with other credentials
+    Entry entry = cache.get(key);
+    assertNotNull(entry);
+    assertTrue(cache.isFresh(entry));
+    assertSame(response, cache.hit(key, entry));
+    now.addAndGet(60_000);
+    assertFalse(cache.isFresh(entry));
+    assertNull(cache.get(new Key(OTHER_TOKEN_PROPS, "/features/a")));
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  void staleResponseIsRevalidatedByEtag() {
+    // Given: a response that must be revalidated before every use
+    HttpResponseCache cache = new HttpResponseCache(1024 * 1024, now::get);
+    Key key = new Key(PROPS, "/features/b");
+    HttpResponse<byte[]> response =
+            response(200, 100, Map.of("Cache-Control", List.of("no-cache"), "ETag", List.of("\"v1\"")));
+    cache.miss(key, response);
+    Entry entry = cache.get(key);
+    assertNotNull(entry);
+    assertFalse(cache.isFresh(entry));
+    assertEquals("\"v1\"", entry.getEtag());
+
+    // When: the upstream confirms the entry and grants 10 seconds of freshness
+    HttpResponse<byte[]> notModified = response(304, 0, Map.of("Cache-Control", List.of("max-age=10")));
+    HttpResponse<byte[]> served = cache.revalidated(key, entry, notModified);
+
+    // Then: the stored response is served and fresh for 10 seconds
+    assertSame(response, served);
+    assertTrue(cache.isFresh(entry));
+    assertEquals(1, cache.getRevalidations());
+  }
+
+  @Test
+  void uncacheableResponsesAreNotStored() {
+    HttpResponseCache cache = new HttpResponseCache(1024 * 1024, now::get);
+    cache.miss(new Key(PROPS, "/1"), response(200, 10, Map.of("Cache-Control", List.of("no-store, max-age=60"))));
+    cache.miss(new Key(PROPS, "/2"), response(200, 10, Map.of("Cache-Control", List.of("private, max-age=60"))));
+    cache.miss(new Key(PROPS, "/3"), response(200, 10, Map.of()));
+    cache.miss(new Key(PROPS, "/4"), response(404, 10, Map.of("Cache-Control", List.of("max-age=60"))));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getBytes());
+  }
+
+  @Test
+  void leastRecentlyUsedEntriesAreEvictedWhenBytesExceedLimit() {
+    // Given: a cache for roughly three entries
+    long entrySize = 1000 + HttpResponseCache.ENTRY_OVERHEAD;
+    HttpResponseCache cache = new HttpResponseCache(entrySize * 8, now::get);
+    Map<String, List<String>> headers = Map.of("Cache-Control", List.of("max-age=60"));
+    Key first = new Key(PROPS, "/first");
+    cache.miss(first, response(200, 1000, headers));
+    for (int i = 0; i < 7; i++) {
+      cache.miss(new Key(PROPS, "/" + i), response(200, 1000, headers));
+    }
+    // When: the first entry is used, and another entry is added
+    assertNotNull(cache.get(first));
+    cache.miss(new Key(PROPS, "/last"), response(200, 1000, headers));
+
+    // Then: the least recently used entry is evicted, not the first one
+    assertEquals(8, cache.size());
+    assertEquals(entrySize * 8, cache.getBytes());
+    assertNotNull(cache.get(first));
+    assertNull(cache.get(new Key(PROPS, "/0")));
+  }
+}
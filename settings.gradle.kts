@@ -13,3 +13,4 @@ include(":here-naksha-common-http")
 include(":here-naksha-storage-http")
 include(":here-naksha-app-service")
 include(":here-naksha-lib-ext-manager")
+include(":here-naksha-benchmarks")